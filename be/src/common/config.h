@@ -1014,6 +1014,10 @@ CONF_Int16(jdbc_minimum_idle_connections, "1");
 // this setting only applies when jdbc_minimum_idle_connections is less than jdbc_connection_pool_size.
 // The minimum allowed value is 10000(10 seconds).
 CONF_Int32(jdbc_connection_idle_timeout_ms, "600000");
+// whether to read jdbc result by the columnar scanner, which writes the values into off-heap columns
+// by typed getters instead of returning boxed java objects. It's only used when all the result columns are
+// boolean, integer, float, double, string, binary, date, datetime or decimal.
+CONF_mBool(enable_jdbc_columnar_scanner, "false");
 
 // spill dirs
 CONF_String(spill_local_storage_dir, "${STARROCKS_HOME}/spill");
@@ -1310,6 +1314,11 @@ CONF_mInt64(arrow_io_coalesce_read_max_buffer_size, "8388608");
 CONF_mInt64(arrow_io_coalesce_read_max_distance_size, "1048576");
 CONF_mInt64(arrow_read_batch_size, "4096");
 
+// Whether JNI scanners which produce Apache Arrow record batches (e.g. odps) hand them to BE
+// through the Arrow C data interface, instead of copying every value into the off-heap table.
+// BE converts the imported arrays into its columns, so the values are still copied once.
+CONF_mBool(enable_jni_scanner_arrow_export, "false");
+
 // Set to true to enable socket_keepalive option in brpc
 CONF_mBool(brpc_socket_keepalive, "false");
 CONF_mBool(apply_del_vec_after_all_index_filter, "true");
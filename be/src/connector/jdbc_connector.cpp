@@ -74,7 +74,11 @@ static std::string get_jdbc_sql(const Slice jdbc_url, const std::string& table,
 }
 
 JDBCDataSource::JDBCDataSource(const JDBCDataSourceProvider* provider, const TScanRange& scan_range)
-        : _provider(provider) {}
+        : _provider(provider) {
+    if (scan_range.__isset.jdbc_scan_range) {
+        _partition_predicate = scan_range.jdbc_scan_range.partition_predicate;
+    }
+}
 
 std::string JDBCDataSource::name() const {
     return "JDBCDataSource";
@@ -146,8 +150,14 @@ Status JDBCDataSource::_create_scanner(RuntimeState* state) {
     scan_ctx.jdbc_url = jdbc_table->jdbc_url();
     scan_ctx.user = jdbc_table->jdbc_user();
     scan_ctx.passwd = jdbc_table->jdbc_passwd();
-    scan_ctx.sql = get_jdbc_sql(scan_ctx.jdbc_url, jdbc_scan_node.table_name, jdbc_scan_node.columns,
-                                jdbc_scan_node.filters, _read_limit);
+    // the range predicate is computed by FE, so the partition column doesn't need to be in the select list
+    std::vector<std::string> filters = jdbc_scan_node.filters;
+    if (!_partition_predicate.empty()) {
+        filters.emplace_back(_partition_predicate);
+        _runtime_profile->add_info_string("PartitionPredicate", _partition_predicate);
+    }
+    scan_ctx.sql = get_jdbc_sql(scan_ctx.jdbc_url, jdbc_scan_node.table_name, jdbc_scan_node.columns, filters,
+                                _read_limit);
     _scanner = _pool->add(new JDBCScanner(scan_ctx, _tuple_desc, _runtime_profile));
 
     RETURN_IF_ERROR(_scanner->open(state));
@@ -76,6 +76,8 @@ private:
     ObjectPool* _pool = &_obj_pool;
     RuntimeState* _runtime_state = nullptr;
     JDBCScanner* _scanner = nullptr;
+    // the predicate selecting the rows of this scan range if the scan is range partitioned
+    std::string _partition_predicate;
     int64_t _rows_read = 0;
     int64_t _bytes_read = 0;
 };
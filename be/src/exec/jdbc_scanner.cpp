@@ -19,12 +19,14 @@
 #include "column/column_helper.h"
 #include "column/column_viewer.h"
 #include "column/nullable_column.h"
+#include "column/type_traits.h"
 #include "column/vectorized_fwd.h"
 #include "common/statusor.h"
 #include "exprs/cast_expr.h"
 #include "exprs/expr.h"
 #include "exprs/expr_context.h"
 #include "runtime/types.h"
+#include "simd/simd.h"
 #include "types/logical_type.h"
 #include "udf/java/java_udf.h"
 #include "util/defer_op.h"
@@ -48,6 +50,24 @@ Status JDBCScanner::open(RuntimeState* state) {
 
     RETURN_IF_ERROR(_init_jdbc_scan_context(state));
 
+    std::string required_types;
+    if (config::enable_jdbc_columnar_scanner) {
+        // the columnar scanner is used only if all the result columns are supported by the off-heap table
+        for (size_t i = 0; i < _slot_descs.size(); i++) {
+            std::string type = _columnar_type_string(_slot_descs[i]->type());
+            if (type.empty()) {
+                required_types.clear();
+                break;
+            }
+            required_types.append(i == 0 ? "" : "#").append(type);
+        }
+    }
+    if (!required_types.empty()) {
+        _columnar = true;
+        _runtime_profile->add_info_string("ColumnarScanner", "true");
+        return _init_jdbc_columnar_scanner(required_types);
+    }
+
     RETURN_IF_ERROR(_init_jdbc_scanner());
 
     RETURN_IF_ERROR(_init_column_class_name(state));
@@ -58,6 +78,9 @@ Status JDBCScanner::open(RuntimeState* state) {
 }
 
 Status JDBCScanner::get_next(RuntimeState* state, ChunkPtr* chunk, bool* eos) {
+    if (_columnar) {
+        return _get_next_columnar(state, chunk, eos);
+    }
     bool has_next = false;
     RETURN_IF_ERROR(_has_next(&has_next));
     if (!has_next) {
@@ -185,6 +208,45 @@ Status JDBCScanner::_init_jdbc_scanner() {
     return Status::OK();
 }
 
+Status JDBCScanner::_init_jdbc_columnar_scanner(const std::string& required_types) {
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+
+    jmethodID get_scanner = env->GetMethodID(_jdbc_bridge_cls->clazz(), "getColumnarScanner",
+                                             "(Lcom/starrocks/jdbcbridge/JDBCScanContext;Ljava/lang/String;)"
+                                             "Lcom/starrocks/jdbcbridge/JDBCColumnarScanner;");
+    DCHECK(get_scanner != nullptr);
+
+    jstring jrequired_types = env->NewStringUTF(required_types.c_str());
+    LOCAL_REF_GUARD_ENV(env, jrequired_types);
+    auto jdbc_scanner =
+            env->CallObjectMethod(_jdbc_bridge.handle(), get_scanner, _jdbc_scan_context.handle(), jrequired_types);
+    _jdbc_scanner = env->NewGlobalRef(jdbc_scanner);
+    LOCAL_REF_GUARD_ENV(env, jdbc_scanner);
+    CHECK_JAVA_EXCEPTION(env, "get JDBCColumnarScanner failed")
+
+    auto jdbc_scanner_cls = env->FindClass(JDBC_COLUMNAR_SCANNER_CLASS_NAME);
+    DCHECK(jdbc_scanner_cls != nullptr);
+    _jdbc_scanner_cls = std::make_unique<JVMClass>(env->NewGlobalRef(jdbc_scanner_cls));
+    LOCAL_REF_GUARD_ENV(env, jdbc_scanner_cls);
+
+    // init jmethod
+    _scanner_get_next_off_heap_chunk = env->GetMethodID(_jdbc_scanner_cls->clazz(), "getNextOffHeapChunk", "()J");
+    DCHECK(_scanner_get_next_off_heap_chunk != nullptr);
+    _scanner_release_off_heap_table = env->GetMethodID(_jdbc_scanner_cls->clazz(), "releaseOffHeapTable", "()V");
+    DCHECK(_scanner_release_off_heap_table != nullptr);
+    _scanner_close = env->GetMethodID(_jdbc_scanner_cls->clazz(), "close", "()V");
+    DCHECK(_scanner_close != nullptr);
+
+    // open scanner
+    jmethodID scanner_open = env->GetMethodID(_jdbc_scanner_cls->clazz(), "open", "()V");
+    DCHECK(scanner_open != nullptr);
+
+    env->CallVoidMethod(_jdbc_scanner.handle(), scanner_open);
+    CHECK_JAVA_EXCEPTION(env, "open JDBCColumnarScanner failed")
+
+    return Status::OK();
+}
+
 void JDBCScanner::_init_profile() {
     _profile.rows_read_counter = ADD_COUNTER(_runtime_profile, "RowsRead", TUnit::UNIT);
     _profile.io_timer = ADD_TIMER(_runtime_profile, "IOTime");
@@ -459,6 +521,13 @@ Status JDBCScanner::_close_jdbc_scanner() {
     if (_jdbc_scanner.handle() == nullptr) {
         return Status::OK();
     }
+    if (_columnar) {
+        // the off-heap table may be kept for reuse, free it before closing the scanner.
+        jmethodID close_table = env->GetMethodID(_jdbc_scanner_cls->clazz(), "closeOffHeapTable", "()V");
+        DCHECK(close_table != nullptr);
+        env->CallVoidMethod(_jdbc_scanner.handle(), close_table);
+        CHECK_JAVA_EXCEPTION(env, "close off-heap table of JDBCColumnarScanner failed")
+    }
     env->CallVoidMethod(_jdbc_scanner.handle(), _scanner_close);
     CHECK_JAVA_EXCEPTION(env, "close JDBCScanner failed")
 
@@ -517,4 +586,165 @@ Status JDBCScanner::_fill_chunk(jobject jchunk, size_t num_rows, ChunkPtr* chunk
     return Status::OK();
 }
 
-} // namespace starrocks
\ No newline at end of file
+std::string JDBCScanner::_columnar_type_string(const TypeDescriptor& type) {
+    switch (type.type) {
+    case TYPE_BOOLEAN:
+        return "boolean";
+    case TYPE_TINYINT:
+        return "tinyint";
+    case TYPE_SMALLINT:
+        return "smallint";
+    case TYPE_INT:
+        return "int";
+    case TYPE_BIGINT:
+        return "bigint";
+    case TYPE_FLOAT:
+        return "float";
+    case TYPE_DOUBLE:
+        return "double";
+    case TYPE_CHAR:
+    case TYPE_VARCHAR:
+        return "string";
+    case TYPE_VARBINARY:
+        return "binary";
+    case TYPE_DATE:
+        return "date";
+    case TYPE_DATETIME:
+        return "timestamp";
+    // the width of the decimal is sent explicitly, so the off heap table has the same stride as the slot
+    case TYPE_DECIMAL32:
+        return fmt::format("decimal32({},{})", type.precision, type.scale);
+    case TYPE_DECIMAL64:
+        return fmt::format("decimal64({},{})", type.precision, type.scale);
+    case TYPE_DECIMAL128:
+        return fmt::format("decimal128({},{})", type.precision, type.scale);
+    default:
+        return "";
+    }
+}
+
+Status JDBCScanner::_get_next_columnar(RuntimeState* state, ChunkPtr* chunk, bool* eos) {
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    long chunk_meta = 0;
+    {
+        SCOPED_TIMER(_profile.io_timer);
+        COUNTER_UPDATE(_profile.io_counter, 1);
+        chunk_meta = env->CallLongMethod(_jdbc_scanner.handle(), _scanner_get_next_off_heap_chunk);
+        CHECK_JAVA_EXCEPTION(env, "getNextOffHeapChunk failed")
+    }
+    Status status = _fill_chunk_from_off_heap_table(chunk_meta, chunk, eos);
+    env->CallVoidMethod(_jdbc_scanner.handle(), _scanner_release_off_heap_table);
+    CHECK_JAVA_EXCEPTION(env, "releaseOffHeapTable failed")
+    return status;
+}
+
+template <LogicalType LT>
+static void fill_fixed_length_column(Column* column, const void* data, size_t num_rows) {
+    using ColumnType = RunTimeColumnType<LT>;
+    using CppType = RunTimeCppType<LT>;
+    auto* runtime_column = down_cast<ColumnType*>(column);
+    runtime_column->resize_uninitialized(num_rows);
+    memcpy(runtime_column->get_data().data(), data, num_rows * sizeof(CppType));
+}
+
+template <LogicalType LT>
+static void fill_binary_column(Column* column, const int32_t* offsets, const char* data, size_t num_rows) {
+    auto* runtime_column = down_cast<RunTimeColumnType<LT>*>(column);
+    Bytes& bytes = runtime_column->get_bytes();
+    Offsets& column_offsets = runtime_column->get_offset();
+    bytes.resize(offsets[num_rows]);
+    column_offsets.resize(num_rows + 1);
+    memcpy(column_offsets.data(), offsets, (num_rows + 1) * sizeof(uint32_t));
+    memcpy(bytes.data(), data, offsets[num_rows]);
+}
+
+Status JDBCScanner::_fill_chunk_from_off_heap_table(long chunk_meta, ChunkPtr* chunk, bool* eos) {
+    SCOPED_TIMER(_profile.fill_chunk_timer);
+    // layout of chunk meta: num_rows, and then for every column,
+    // null pointer + data pointer for fixed length column, or null pointer + offsets pointer + data pointer for
+    // string column, same as other jni scanners.
+    const auto* meta = reinterpret_cast<const long*>(chunk_meta);
+    size_t meta_index = 0;
+    size_t num_rows = meta[meta_index++];
+    if (num_rows == 0) {
+        *eos = true;
+        return Status::OK();
+    }
+    COUNTER_UPDATE(_profile.rows_read_counter, num_rows);
+    (*chunk)->reset();
+
+    for (SlotDescriptor* slot_desc : _slot_descs) {
+        ColumnPtr& column = (*chunk)->get_column_by_slot_id(slot_desc->id());
+        const auto* nulls = reinterpret_cast<const uint8_t*>(meta[meta_index++]);
+        Column* data_column = column.get();
+        if (column->is_nullable()) {
+            auto* nullable_column = down_cast<NullableColumn*>(column.get());
+            NullData& null_data = nullable_column->null_column_data();
+            null_data.resize(num_rows);
+            memcpy(null_data.data(), nulls, num_rows);
+            nullable_column->update_has_null();
+            data_column = nullable_column->data_column().get();
+        } else if (SIMD::count_nonzero(nulls, num_rows) > 0) {
+            return Status::DataQualityError(
+                    fmt::format("Unexpected NULL value occurs on NOT NULL column[{}]", slot_desc->col_name()));
+        }
+
+        const auto* data = reinterpret_cast<const void*>(meta[meta_index++]);
+        switch (slot_desc->type().type) {
+        case TYPE_BOOLEAN:
+            fill_fixed_length_column<TYPE_BOOLEAN>(data_column, data, num_rows);
+            break;
+        case TYPE_TINYINT:
+            fill_fixed_length_column<TYPE_TINYINT>(data_column, data, num_rows);
+            break;
+        case TYPE_SMALLINT:
+            fill_fixed_length_column<TYPE_SMALLINT>(data_column, data, num_rows);
+            break;
+        case TYPE_INT:
+            fill_fixed_length_column<TYPE_INT>(data_column, data, num_rows);
+            break;
+        case TYPE_BIGINT:
+            fill_fixed_length_column<TYPE_BIGINT>(data_column, data, num_rows);
+            break;
+        case TYPE_FLOAT:
+            fill_fixed_length_column<TYPE_FLOAT>(data_column, data, num_rows);
+            break;
+        case TYPE_DOUBLE:
+            fill_fixed_length_column<TYPE_DOUBLE>(data_column, data, num_rows);
+            break;
+        case TYPE_DATE:
+            fill_fixed_length_column<TYPE_DATE>(data_column, data, num_rows);
+            break;
+        case TYPE_DATETIME:
+            fill_fixed_length_column<TYPE_DATETIME>(data_column, data, num_rows);
+            break;
+        case TYPE_DECIMAL32:
+            fill_fixed_length_column<TYPE_DECIMAL32>(data_column, data, num_rows);
+            break;
+        case TYPE_DECIMAL64:
+            fill_fixed_length_column<TYPE_DECIMAL64>(data_column, data, num_rows);
+            break;
+        case TYPE_DECIMAL128:
+            fill_fixed_length_column<TYPE_DECIMAL128>(data_column, data, num_rows);
+            break;
+        case TYPE_CHAR:
+        case TYPE_VARCHAR: {
+            // the offsets come first, and then the bytes
+            const auto* bytes = reinterpret_cast<const char*>(meta[meta_index++]);
+            fill_binary_column<TYPE_VARCHAR>(data_column, static_cast<const int32_t*>(data), bytes, num_rows);
+            break;
+        }
+        case TYPE_VARBINARY: {
+            const auto* bytes = reinterpret_cast<const char*>(meta[meta_index++]);
+            fill_binary_column<TYPE_VARBINARY>(data_column, static_cast<const int32_t*>(data), bytes, num_rows);
+            break;
+        }
+        default:
+            return Status::NotSupported(fmt::format("Unsupported type of column[{}] in JDBC columnar scanner",
+                                                    slot_desc->col_name()));
+        }
+    }
+    return Status::OK();
+}
+
+} // namespace starrocks
@@ -85,6 +85,15 @@ private:
 
     [[nodiscard]] Status _close_jdbc_scanner();
 
+    // type of off-heap column for the slot in columnar mode, empty if the type is not supported.
+    static std::string _columnar_type_string(const TypeDescriptor& type);
+
+    [[nodiscard]] Status _init_jdbc_columnar_scanner(const std::string& required_types);
+
+    [[nodiscard]] Status _get_next_columnar(RuntimeState* state, ChunkPtr* chunk, bool* eos);
+
+    [[nodiscard]] Status _fill_chunk_from_off_heap_table(long chunk_meta, ChunkPtr* chunk, bool* eos);
+
     JDBCScanContext _scan_ctx;
     // result column slot desc
     std::vector<SlotDescriptor*> _slot_descs;
@@ -106,6 +115,11 @@ private:
     jmethodID _util_format_date;
     jmethodID _util_format_localdatetime;
 
+    // read the result by JDBCColumnarScanner, which fills the off-heap table like other jni scanners.
+    bool _columnar = false;
+    jmethodID _scanner_get_next_off_heap_chunk;
+    jmethodID _scanner_release_off_heap_table;
+
     // _jdbc_bridge and _jdbc_scan_context are only used for cross-function passing
 
     JavaGlobalRef _jdbc_bridge = nullptr;
@@ -120,6 +134,7 @@ private:
     static constexpr const char* JDBC_BRIDGE_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCBridge";
     static constexpr const char* JDBC_SCAN_CONTEXT_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCScanContext";
     static constexpr const char* JDBC_SCANNER_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCScanner";
+    static constexpr const char* JDBC_COLUMNAR_SCANNER_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCColumnarScanner";
     static constexpr const char* JDBC_UTIL_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCUtil";
 
     static const int32_t DEFAULT_JDBC_CONNECTION_POOL_SIZE = 8;
@@ -14,12 +14,16 @@
 
 #include "exec/jni_scanner.h"
 
+#include <arrow/c/abi.h>
+#include <arrow/c/bridge.h>
+
 #include <utility>
 
 #include "column/array_column.h"
 #include "column/map_column.h"
 #include "column/struct_column.h"
 #include "column/type_traits.h"
+#include "exec/parquet_scanner.h"
 #include "fmt/core.h"
 #include "udf/java/java_udf.h"
 #include "util/defer_op.h"
@@ -53,12 +57,22 @@ Status JniScanner::do_open(RuntimeState* state) {
     RETURN_IF_ERROR(_init_jni_method(env));
     env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_open);
     RETURN_IF_ERROR(_check_jni_exception(env, "Failed to open the off-heap table scanner."));
+    if (config::enable_jni_scanner_arrow_export) {
+        _use_arrow_export = env->CallBooleanMethod(_jni_scanner_obj, _jni_scanner_arrow_export_supported);
+        RETURN_IF_ERROR(_check_jni_exception(env, "Failed to call the isArrowExportSupported method of scanner."));
+        _arrow_conv_ctx.state = state;
+    }
     return Status::OK();
 }
 
 void JniScanner::do_close(RuntimeState* runtime_state) noexcept {
     JNIEnv* env = JVMFunctionHelper::getInstance().getEnv();
     if (_jni_scanner_obj != nullptr) {
+        if (_jni_scanner_close_table != nullptr) {
+            // off-heap table may be kept across chunks by the scanner, free it at last.
+            env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_close_table);
+            (void)_check_jni_exception(env, "Failed to call the closeOffHeapTable method of off-heap table scanner.");
+        }
         if (_jni_scanner_close != nullptr) {
             env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_close);
         }
@@ -87,6 +101,18 @@ Status JniScanner::_init_jni_method(JNIEnv* env) {
 
     _jni_scanner_release_table = env->GetMethodID(_jni_scanner_cls, "releaseOffHeapTable", "()V");
     RETURN_IF_ERROR(_check_jni_exception(env, "Failed to get `releaseOffHeapTable` jni method"));
+
+    _jni_scanner_close_table = env->GetMethodID(_jni_scanner_cls, "closeOffHeapTable", "()V");
+    RETURN_IF_ERROR(_check_jni_exception(env, "Failed to get `closeOffHeapTable` jni method"));
+
+    _jni_scanner_arrow_export_supported = env->GetMethodID(_jni_scanner_cls, "isArrowExportSupported", "()Z");
+    RETURN_IF_ERROR(_check_jni_exception(env, "Failed to get `isArrowExportSupported` jni method"));
+
+    _jni_scanner_export_arrow_batch = env->GetMethodID(_jni_scanner_cls, "exportNextArrowBatch", "(JJ)I");
+    RETURN_IF_ERROR(_check_jni_exception(env, "Failed to get `exportNextArrowBatch` jni method"));
+
+    _jni_scanner_fallback_to_off_heap_table = env->GetMethodID(_jni_scanner_cls, "fallbackToOffHeapTable", "()V");
+    RETURN_IF_ERROR(_check_jni_exception(env, "Failed to get `fallbackToOffHeapTable` jni method"));
     return Status::OK();
 }
 
@@ -387,8 +413,95 @@ Status JniScanner::do_get_next(RuntimeState* runtime_state, ChunkPtr* chunk) {
     return Status::OK();
 }
 
+StatusOr<bool> JniScanner::_init_arrow_conv_funcs(const arrow::RecordBatch& batch) {
+    for (const auto& column : _scanner_ctx.materialized_columns) {
+        SlotDescriptor* slot_desc = column.slot_desc;
+        auto array = batch.GetColumnByName(slot_desc->col_name());
+        if (array == nullptr) {
+            return Status::InternalError(
+                    fmt::format("Column {} is not found in the arrow record batch", slot_desc->col_name()));
+        }
+        auto conv_func = std::make_unique<ConvertFuncTree>();
+        TypeDescriptor raw_type_desc;
+        bool need_cast = false;
+        RETURN_IF_ERROR(ParquetScanner::build_dest(array->type().get(), &slot_desc->type(), slot_desc->is_nullable(),
+                                                   &raw_type_desc, conv_func.get(), need_cast, false));
+        if (need_cast) {
+            VLOG_FILE << fmt::format("Arrow type {} of column {} can't be converted to {} directly, "
+                                     "fall back to the off-heap table",
+                                     array->type()->ToString(), slot_desc->col_name(),
+                                     slot_desc->type().debug_string());
+            _arrow_conv_funcs.clear();
+            return false;
+        }
+        _arrow_conv_funcs.emplace_back(std::move(conv_func));
+    }
+    return true;
+}
+
+StatusOr<size_t> JniScanner::_fill_chunk_from_arrow(JNIEnv* env, ChunkPtr* chunk) {
+    struct ArrowArray c_array;
+    struct ArrowSchema c_schema;
+    int num_rows = 0;
+    {
+        SCOPED_RAW_TIMER(&_app_stats.column_read_ns);
+        SCOPED_RAW_TIMER(&_app_stats.io_ns);
+        _app_stats.io_count += 1;
+        num_rows = env->CallIntMethod(_jni_scanner_obj, _jni_scanner_export_arrow_batch,
+                                      reinterpret_cast<jlong>(&c_array), reinterpret_cast<jlong>(&c_schema));
+        RETURN_IF_ERROR(_check_jni_exception(env, "Failed to call the exportNextArrowBatch method of scanner."));
+    }
+    if (num_rows == 0) {
+        return Status::EndOfFile("");
+    }
+
+    SCOPED_RAW_TIMER(&_app_stats.column_convert_ns);
+    // the imported record batch takes the ownership of the structs, buffers are released by java when
+    // the record batch is destructed. the values are still copied into the columns of the chunk by the converters.
+    auto batch_result = arrow::ImportRecordBatch(&c_array, &c_schema);
+    if (!batch_result.ok()) {
+        return Status::InternalError("Failed to import the arrow record batch: " + batch_result.status().ToString());
+    }
+    std::shared_ptr<arrow::RecordBatch> batch = std::move(batch_result).ValueOrDie();
+    if (_arrow_conv_funcs.empty()) {
+        ASSIGN_OR_RETURN(bool convertible, _init_arrow_conv_funcs(*batch));
+        if (!convertible) {
+            // the java scanner returns this batch again in the first off-heap table, so no row is lost.
+            batch.reset();
+            env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_fallback_to_off_heap_table);
+            RETURN_IF_ERROR(_check_jni_exception(env, "Failed to call the fallbackToOffHeapTable method of scanner."));
+            _use_arrow_export = false;
+            return fill_empty_chunk(chunk);
+        }
+    }
+    _app_stats.raw_rows_read += num_rows;
+
+    Filter chunk_filter(num_rows, 1);
+    for (size_t col_idx = 0; col_idx < _scanner_ctx.materialized_columns.size(); col_idx++) {
+        SlotDescriptor* slot_desc = _scanner_ctx.materialized_columns[col_idx].slot_desc;
+        auto array = batch->GetColumnByName(slot_desc->col_name());
+        if (array->type_id() == ArrowTypeId::TIMESTAMP) {
+            // same as parquet scanner, timestamps are converted in the timezone of session.
+            auto* timestamp_type = down_cast<arrow::TimestampType*>(array->type().get());
+            auto& mutable_timezone = (std::string&)timestamp_type->timezone();
+            mutable_timezone = _arrow_conv_ctx.state->timezone();
+        }
+        _arrow_conv_ctx.current_slot = slot_desc;
+        ColumnPtr& column = (*chunk)->get_column_by_slot_id(slot_desc->id());
+        RETURN_IF_ERROR(ParquetScanner::convert_array_to_column(_arrow_conv_funcs[col_idx].get(), num_rows,
+                                                                array.get(), column, 0, 0, &chunk_filter,
+                                                                &_arrow_conv_ctx));
+    }
+    // same as parquet scanner, the rows which fail to be converted, e.g. out of the range of the slot type,
+    // are filtered out.
+    return (*chunk)->filter(chunk_filter);
+}
+
 StatusOr<size_t> JniScanner::fill_empty_chunk(ChunkPtr* chunk) {
     JNIEnv* env = JVMFunctionHelper::getInstance().getEnv();
+    if (_use_arrow_export) {
+        return _fill_chunk_from_arrow(env, chunk);
+    }
     long chunk_meta;
     RETURN_IF_ERROR(_get_next_chunk(env, &chunk_meta));
     reset_chunk_meta(chunk_meta);
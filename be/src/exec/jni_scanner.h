@@ -14,9 +14,12 @@
 
 #pragma once
 
+#include <arrow/record_batch.h>
+
 #include "column/chunk.h"
 #include "common/logging.h"
 #include "common/status.h"
+#include "exec/arrow_to_starrocks_converter.h"
 #include "hdfs_scanner.h"
 #include "jni.h"
 #include "runtime/runtime_state.h"
@@ -86,6 +89,13 @@ private:
 
     Status _release_off_heap_table(JNIEnv* env);
 
+    // fill chunk with the record batch exported by the java scanner through Arrow C data interface.
+    StatusOr<size_t> _fill_chunk_from_arrow(JNIEnv* env, ChunkPtr* chunk);
+
+    // returns false if any column of the batch can't be converted directly, then the scanner falls back to
+    // the off-heap table.
+    StatusOr<bool> _init_arrow_conv_funcs(const arrow::RecordBatch& batch);
+
     jclass _jni_scanner_cls = nullptr;
     jobject _jni_scanner_obj = nullptr;
     jmethodID _jni_scanner_open = nullptr;
@@ -93,6 +103,14 @@ private:
     jmethodID _jni_scanner_close = nullptr;
     jmethodID _jni_scanner_release_column = nullptr;
     jmethodID _jni_scanner_release_table = nullptr;
+    jmethodID _jni_scanner_close_table = nullptr;
+    jmethodID _jni_scanner_arrow_export_supported = nullptr;
+    jmethodID _jni_scanner_export_arrow_batch = nullptr;
+    jmethodID _jni_scanner_fallback_to_off_heap_table = nullptr;
+
+    bool _use_arrow_export = false;
+    ArrowConvertContext _arrow_conv_ctx;
+    std::vector<std::unique_ptr<ConvertFuncTree>> _arrow_conv_funcs;
 
     std::map<std::string, std::string> _jni_scanner_params;
     std::string _jni_scanner_factory_class;
@@ -34,6 +34,7 @@
 #include "exec/schema_scanner/schema_columns_scanner.h"
 #include "exec/schema_scanner/schema_dummy_scanner.h"
 #include "exec/schema_scanner/schema_fe_metrics_scanner.h"
+#include "exec/schema_scanner/schema_fe_plan_cache_scanner.h"
 #include "exec/schema_scanner/schema_fe_tablet_schedules_scanner.h"
 #include "exec/schema_scanner/schema_load_tracking_logs_scanner.h"
 #include "exec/schema_scanner/schema_loads_scanner.h"
@@ -181,6 +182,8 @@ std::unique_ptr<SchemaScanner> SchemaScanner::create(TSchemaTableType::type type
         return std::make_unique<SchemaBeLogsScanner>();
     case TSchemaTableType::SCH_FE_TABLET_SCHEDULES:
         return std::make_unique<SchemaFeTabletSchedulesScanner>();
+    case TSchemaTableType::SCH_FE_PLAN_CACHE:
+        return std::make_unique<SchemaFePlanCacheScanner>();
     case TSchemaTableType::SCH_BE_COMPACTIONS:
         return std::make_unique<SchemaBeCompactionsScanner>();
     case TSchemaTableType::SCH_BE_BVARS:
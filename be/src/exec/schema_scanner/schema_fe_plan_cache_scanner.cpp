@@ -0,0 +1,77 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include "exec/schema_scanner/schema_fe_plan_cache_scanner.h"
+
+#include "exec/schema_scanner/schema_helper.h"
+#include "gen_cpp/FrontendService_types.h"
+#include "runtime/runtime_state.h"
+#include "runtime/string_value.h"
+
+namespace starrocks {
+
+SchemaScanner::ColumnDesc SchemaFePlanCacheScanner::_s_columns[] = {
+        {"TABLE_ID", TYPE_BIGINT, sizeof(int64_t), true},
+        {"SQL_DIGEST", TYPE_VARCHAR, sizeof(StringValue), true},
+        {"PARAM_TYPES", TYPE_VARCHAR, sizeof(StringValue), true},
+        {"HIT_COUNT", TYPE_BIGINT, sizeof(int64_t), true},
+        {"CREATE_TIME", TYPE_VARCHAR, sizeof(StringValue), true},
+        {"LAST_HIT_TIME", TYPE_VARCHAR, sizeof(StringValue), true},
+};
+
+SchemaFePlanCacheScanner::SchemaFePlanCacheScanner()
+        : SchemaScanner(_s_columns, sizeof(_s_columns) / sizeof(SchemaScanner::ColumnDesc)) {}
+
+SchemaFePlanCacheScanner::~SchemaFePlanCacheScanner() = default;
+
+Status SchemaFePlanCacheScanner::start(RuntimeState* state) {
+    RETURN_IF(!_is_init, Status::InternalError("used before initialized."));
+    RETURN_IF(!_param->ip || !_param->port, Status::InternalError("IP or port not exists"));
+
+    RETURN_IF_ERROR(SchemaScanner::start(state));
+    RETURN_IF_ERROR(SchemaScanner::init_schema_scanner_state(state));
+
+    TAuthInfo auth = build_auth_info();
+    TPlanCacheReq request;
+    request.__set_auth_info(auth);
+
+    return SchemaHelper::list_plan_cache(_ss_state, request, &_result);
+}
+
+Status SchemaFePlanCacheScanner::_fill_chunk(ChunkPtr* chunk) {
+    auto& slot_id_map = (*chunk)->get_slot_id_to_index_map();
+    const TPlanCacheItem& info = _result.items[_index];
+    DatumArray datum_array{info.table_id,  Slice(info.sql_digest),  Slice(info.param_types),
+                           info.hit_count, Slice(info.create_time), Slice(info.last_hit_time)};
+    for (const auto& [slot_id, index] : slot_id_map) {
+        Column* column = (*chunk)->get_column_by_slot_id(slot_id).get();
+        column->append_datum(datum_array[slot_id - 1]);
+    }
+    _index++;
+    return {};
+}
+
+Status SchemaFePlanCacheScanner::get_next(ChunkPtr* chunk, bool* eos) {
+    RETURN_IF(!_is_init, Status::InternalError("Used before initialized."));
+    RETURN_IF((nullptr == chunk || nullptr == eos), Status::InternalError("input pointer is nullptr."));
+
+    if (_index >= _result.items.size()) {
+        *eos = true;
+        return Status::OK();
+    }
+    *eos = false;
+    return _fill_chunk(chunk);
+}
+
+} // namespace starrocks
@@ -81,6 +81,10 @@ Status SchemaHelper::list_fe_memory_usage(const SchemaScannerState& state, const
     return _call_rpc(state, [&req, &res](FrontendServiceConnection& client) { client->listFeMemoryUsage(*res, req); });
 }
 
+Status SchemaHelper::list_plan_cache(const SchemaScannerState& state, const TPlanCacheReq& req, TPlanCacheRes* res) {
+    return _call_rpc(state, [&req, &res](FrontendServiceConnection& client) { client->listPlanCache(*res, req); });
+}
+
 Status SchemaHelper::get_tables_info(const SchemaScannerState& state, const TGetTablesInfoRequest& request,
                                      TGetTablesInfoResponse* response) {
     return _call_rpc(state, [&request, &response](FrontendServiceConnection& client) {
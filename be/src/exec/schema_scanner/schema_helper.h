@@ -53,6 +53,8 @@ public:
 
     static Status list_fe_memory_usage(const SchemaScannerState& state, const TFeMemoryReq& req, TFeMemoryRes* res);
 
+    static Status list_plan_cache(const SchemaScannerState& state, const TPlanCacheReq& req, TPlanCacheRes* res);
+
     static Status get_tables_info(const SchemaScannerState& state, const TGetTablesInfoRequest& request,
                                   TGetTablesInfoResponse* response);
 
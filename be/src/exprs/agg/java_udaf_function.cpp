@@ -14,6 +14,7 @@
 
 #include "exprs/agg/java_udaf_function.h"
 
+#include <algorithm>
 #include <memory>
 
 #include "column/vectorized_fwd.h"
@@ -32,6 +33,18 @@ const AggregateFunction* getJavaUDAFFunction(bool input_nullable) {
     return &no_nullable_udaf_func;
 }
 
+// the generated stubs cast each input to its parameter type and call a void method, so they don't support
+// primitive parameters or a return value
+static bool support_call_stub(const JavaMethodDescriptor& desc) {
+    const std::string& sign = desc.signature;
+    if (desc.method_desc.empty() || sign.size() < 2 || sign.compare(sign.size() - 2, 2, ")V") != 0) {
+        return false;
+    }
+    // method_desc[0] is the return type
+    return std::all_of(desc.method_desc.begin() + 1, desc.method_desc.end(),
+                       [](const MethodTypeDescriptor& type) { return type.is_box; });
+}
+
 Status init_udaf_context(int64_t id, const std::string& url, const std::string& checksum, const std::string& symbol,
                          FunctionContext* context) {
     RETURN_IF_ERROR(detect_java_runtime());
@@ -72,13 +85,38 @@ Status init_udaf_context(int64_t id, const std::string& url, const std::string&
     const char* stub_method_name = AggBatchCallStub::batch_update_method_name;
     jclass udaf_clazz = udaf_ctx->udaf_class.clazz();
     jobject update_method = udaf_ctx->update->method.handle();
-    ASSIGN_OR_RETURN(auto update_stub_clazz, udf_classloader->genCallStub(stub_clazz_name, udaf_clazz, update_method,
-                                                                          ClassLoader::BATCH_SINGLE_UPDATE));
-    ASSIGN_OR_RETURN(auto method, analyzer->get_method_object(update_stub_clazz.clazz(), stub_method_name));
-    udaf_ctx->update_batch_call_stub = std::make_unique<AggBatchCallStub>(
-            context, udaf_ctx->handle.handle(), std::move(update_stub_clazz), JavaGlobalRef(method));
+    // the stubs only support the boxed signatures, the others are called by reflection through UDFHelper
+    bool update_stub_supported = support_call_stub(*udaf_ctx->update);
+    if (update_stub_supported) {
+        ASSIGN_OR_RETURN(auto update_stub_clazz, udf_classloader->genCallStub(stub_clazz_name, udaf_clazz,
+                                                                              update_method,
+                                                                              ClassLoader::BATCH_SINGLE_UPDATE));
+        ASSIGN_OR_RETURN(auto method, analyzer->get_method_object(update_stub_clazz.clazz(), stub_method_name));
+        udaf_ctx->update_batch_call_stub = std::make_unique<AggBatchCallStub>(
+                context, udaf_ctx->handle.handle(), std::move(update_stub_clazz), JavaGlobalRef(method));
+    }
 
     RETURN_IF_ERROR(add_method("merge", udaf_ctx->udaf_class.clazz(), &udaf_ctx->merge));
+
+    // update/merge the states addressed by state ids without reflection
+    auto gen_states_stub = [&](const char* clazz_name, jobject udaf_method,
+                               std::unique_ptr<AggBatchStatesCallStub>* res) {
+        ASSIGN_OR_RETURN(auto stub_clazz, udf_classloader->genCallStub(clazz_name, udaf_clazz, udaf_method,
+                                                                       ClassLoader::BATCH_UPDATE_STATES));
+        ASSIGN_OR_RETURN(auto stub_method,
+                         analyzer->get_method_object(stub_clazz.clazz(), AggBatchStatesCallStub::batch_call_method_name));
+        *res = std::make_unique<AggBatchStatesCallStub>(context, udaf_ctx->handle.handle(), std::move(stub_clazz),
+                                                        JavaGlobalRef(stub_method));
+        return Status::OK();
+    };
+    if (update_stub_supported) {
+        RETURN_IF_ERROR(gen_states_stub(AggBatchStatesCallStub::update_stub_clazz_name, update_method,
+                                        &udaf_ctx->update_states_call_stub));
+    }
+    if (support_call_stub(*udaf_ctx->merge)) {
+        RETURN_IF_ERROR(gen_states_stub(AggBatchStatesCallStub::merge_stub_clazz_name,
+                                        udaf_ctx->merge->method.handle(), &udaf_ctx->merge_states_call_stub));
+    }
     RETURN_IF_ERROR(add_method("finalize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->finalize));
     RETURN_IF_ERROR(add_method("serialize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->serialize));
     RETURN_IF_ERROR(add_method("serializeLength", udaf_ctx->udaf_state_class.clazz(), &udaf_ctx->serialize_size));
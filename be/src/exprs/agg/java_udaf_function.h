@@ -207,8 +207,14 @@ public:
             auto st =
                     JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, columns, num_cols, batch_size, &args);
             RETURN_IF_UNLIKELY(!st.ok(), (void)0);
-            helper.batch_update(ctx, ctx->udaf_ctxs()->handle.handle(), ctx->udaf_ctxs()->update->method.handle(),
-                                states_arr, args.data(), args.size());
+            auto* udaf_ctxs = ctx->udaf_ctxs();
+            if (udaf_ctxs->update_states_call_stub != nullptr) {
+                udaf_ctxs->update_states_call_stub->batch_call(batch_size, udaf_ctxs->states->handle(), states_arr,
+                                                               args.data(), args.size());
+            } else {
+                helper.batch_update(ctx, udaf_ctxs->handle.handle(), udaf_ctxs->update->method.handle(), states_arr,
+                                    args.data(), args.size());
+            }
         }
     }
 
@@ -227,9 +233,15 @@ public:
             auto st =
                     JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, columns, num_cols, batch_size, &args);
             RETURN_IF_UNLIKELY(!st.ok(), (void)0);
-            helper.batch_update_if_not_null(ctx, ctx->udaf_ctxs()->handle.handle(),
-                                            ctx->udaf_ctxs()->update->method.handle(), states_arr, args.data(),
-                                            args.size());
+            // state ids of the filtered rows are -1, which are skipped
+            auto* udaf_ctxs = ctx->udaf_ctxs();
+            if (udaf_ctxs->update_states_call_stub != nullptr) {
+                udaf_ctxs->update_states_call_stub->batch_call(batch_size, udaf_ctxs->states->handle(), states_arr,
+                                                               args.data(), args.size());
+            } else {
+                helper.batch_update_if_not_null(ctx, udaf_ctxs->handle.handle(), udaf_ctxs->update->method.handle(),
+                                                states_arr, args.data(), args.size());
+            }
         }
     }
 
@@ -247,9 +259,20 @@ public:
                     JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, columns, num_cols, batch_size, &args);
             RETURN_IF_UNLIKELY(!st.ok(), (void)0);
 
-            auto* stub = ctx->udaf_ctxs()->update_batch_call_stub.get();
+            auto* udaf_ctxs = ctx->udaf_ctxs();
             auto state_handle = this->data(state).handle;
-            helper.batch_update_single(stub, state_handle, args.data(), num_cols, batch_size);
+            if (udaf_ctxs->update_batch_call_stub != nullptr) {
+                helper.batch_update_single(udaf_ctxs->update_batch_call_stub.get(), state_handle, args.data(),
+                                           num_cols, batch_size);
+            } else {
+                auto state_obj = helper.convert_handle_to_jobject(ctx, state_handle);
+                RETURN_IF_UNLIKELY_NULL(state_obj, (void)0);
+                auto state_array = helper.create_object_array(state_obj, batch_size);
+                RETURN_IF_UNLIKELY_NULL(state_array, (void)0);
+                args.insert(args.begin(), state_array);
+                helper.batch_update_state(ctx, udaf_ctxs->handle.handle(), udaf_ctxs->update->method.handle(),
+                                          args.data(), args.size());
+            }
         }
     }
 
@@ -285,20 +308,24 @@ public:
     void merge_batch(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column* column,
                      AggDataPtr* states) const override {
         // batch merge
-        auto& helper = JVMFunctionHelper::getInstance();
-        auto* env = helper.getEnv();
-
         auto provider = [&]() {
             auto state_id_list = JavaDataTypeConverter::convert_to_states(ctx, states, state_offset, batch_size);
-            RETURN_IF_UNLIKELY_NULL(state_id_list, state_id_list);
-            LOCAL_REF_GUARD_ENV(env, state_id_list);
-            auto state_array = helper.convert_handles_to_jobjects(ctx, state_id_list);
-            return state_array;
+            return state_id_list;
         };
-        auto merger = [&](jobject state_array, jobject buffer_array) {
-            jobject state_and_buffer[2] = {state_array, buffer_array};
-            helper.batch_update_state(ctx, ctx->udaf_ctxs()->handle.handle(), ctx->udaf_ctxs()->merge->method.handle(),
-                                      state_and_buffer, 2);
+        auto merger = [&](jobject state_id_list, jobject buffer_array) {
+            auto* udaf_ctxs = ctx->udaf_ctxs();
+            if (udaf_ctxs->merge_states_call_stub != nullptr) {
+                udaf_ctxs->merge_states_call_stub->batch_call(batch_size, udaf_ctxs->states->handle(), state_id_list,
+                                                              &buffer_array, 1);
+            } else {
+                auto& helper = JVMFunctionHelper::getInstance();
+                auto state_array = helper.convert_handles_to_jobjects(ctx, state_id_list);
+                RETURN_IF_UNLIKELY_NULL(state_array, (void)0);
+                LOCAL_REF_GUARD_ENV(helper.getEnv(), state_array);
+                jobject state_and_buffer[2] = {state_array, buffer_array};
+                helper.batch_update_state(ctx, udaf_ctxs->handle.handle(), udaf_ctxs->merge->method.handle(),
+                                          state_and_buffer, 2);
+            }
         };
         _merge_batch_process(std::move(provider), std::move(merger), column, 0, batch_size);
     }
@@ -306,17 +333,22 @@ public:
     void merge_batch_selectively(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column* column,
                                  AggDataPtr* states, const std::vector<uint8_t>& filter) const override {
         // batch merge
-        auto& helper = JVMFunctionHelper::getInstance();
-
         auto provider = [&]() {
             auto state_id_list = JavaDataTypeConverter::convert_to_states_with_filter(ctx, states, state_offset,
                                                                                       filter.data(), batch_size);
             return state_id_list;
         };
-        auto merger = [&](jobject state_array, jobject buffer_array) {
-            jobject state_and_buffer[] = {buffer_array};
-            helper.batch_update_if_not_null(ctx, ctx->udaf_ctxs()->handle.handle(),
-                                            ctx->udaf_ctxs()->merge->method.handle(), state_array, state_and_buffer, 1);
+        auto merger = [&](jobject state_id_list, jobject buffer_array) {
+            auto* udaf_ctxs = ctx->udaf_ctxs();
+            if (udaf_ctxs->merge_states_call_stub != nullptr) {
+                udaf_ctxs->merge_states_call_stub->batch_call(batch_size, udaf_ctxs->states->handle(), state_id_list,
+                                                              &buffer_array, 1);
+            } else {
+                jobject buffers[] = {buffer_array};
+                JVMFunctionHelper::getInstance().batch_update_if_not_null(ctx, udaf_ctxs->handle.handle(),
+                                                                          udaf_ctxs->merge->method.handle(),
+                                                                          state_id_list, buffers, 1);
+            }
         };
         _merge_batch_process(std::move(provider), std::move(merger), column, 0, batch_size);
     }
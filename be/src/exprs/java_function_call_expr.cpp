@@ -14,6 +14,7 @@
 
 #include "exprs/java_function_call_expr.h"
 
+#include <algorithm>
 #include <any>
 #include <memory>
 #include <sstream>
@@ -60,6 +61,10 @@ struct UDFFunctionCallHelper {
             }
         }
 
+        if (fn_desc->primitive_evaluate) {
+            return call_primitive(columns, size);
+        }
+
         for (const auto& col : columns) {
             input_cols.emplace_back(col.get());
         }
@@ -81,6 +86,37 @@ struct UDFFunctionCallHelper {
         return result_cols;
     }
 
+    // evaluate(int, long...) only accepts primitive values, so the result is NULL if any input is NULL.
+    // The null column of the result is computed here, and the stub reads the data of the input columns and
+    // writes the data of the result column directly, no boxed array is created.
+    ColumnPtr call_primitive(const Columns& columns, size_t size) {
+        TypeDescriptor type_desc(call_desc->method_desc[0].type);
+        auto res = ColumnHelper::create_column(type_desc, true);
+        res->resize(size);
+        auto* result = down_cast<NullableColumn*>(res.get());
+        auto& result_nulls = result->null_column()->get_data();
+
+        std::vector<int64_t> input_addrs;
+        for (const auto& column : columns) {
+            if (column->only_null()) {
+                return ColumnHelper::create_const_null_column(size);
+            }
+            if (column->is_nullable()) {
+                const auto& nulls = down_cast<const NullableColumn*>(column.get())->immutable_null_column_data();
+                for (size_t i = 0; i < size; ++i) {
+                    result_nulls[i] |= nulls[i];
+                }
+            }
+            input_addrs.emplace_back(reinterpret_cast<int64_t>(column->raw_data()));
+        }
+
+        fn_desc->call_stub->batch_evaluate_primitive(size, reinterpret_cast<int64_t>(result_nulls.data()),
+                                                     reinterpret_cast<int64_t>(result->mutable_raw_data()),
+                                                     input_addrs.data(), input_addrs.size());
+        result->update_has_null();
+        return res;
+    }
+
     ColumnPtr get_boxed_result(FunctionContext* ctx, jobject result, size_t num_rows) {
         if (result == nullptr) {
             return ColumnHelper::create_const_null_column(num_rows);
@@ -199,8 +235,15 @@ StatusOr<std::shared_ptr<JavaUDFContext>> JavaFunctionCallExpr::_build_udf_func_
     auto udf_clazz = desc->udf_class.clazz();
     auto update_method = desc->evaluate->method.handle();
 
-    ASSIGN_OR_RETURN(auto update_stub_clazz, desc->udf_classloader->genCallStub(stub_clazz, udf_clazz, update_method,
-                                                                                ClassLoader::BATCH_EVALUATE));
+    // evaluate with only primitive types, e.g. long evaluate(int a, double b)
+    const auto& method_desc = desc->evaluate->method_desc;
+    desc->primitive_evaluate = std::all_of(method_desc.begin(), method_desc.end(), [](const auto& type_desc) {
+        return !type_desc.is_box && type_desc.type != TYPE_UNKNOWN;
+    });
+    int stub_type = desc->primitive_evaluate ? ClassLoader::BATCH_EVALUATE_PRIMITIVE : ClassLoader::BATCH_EVALUATE;
+
+    ASSIGN_OR_RETURN(auto update_stub_clazz,
+                     desc->udf_classloader->genCallStub(stub_clazz, udf_clazz, update_method, stub_type));
     ASSIGN_OR_RETURN(auto method, desc->analyzer->get_method_object(update_stub_clazz.clazz(), stub_method_name));
     auto function_ctx = context->fn_context(_fn_context_index);
     desc->call_stub = std::make_unique<BatchEvaluateStub>(
@@ -831,6 +831,20 @@ void AggBatchCallStub::batch_update_single(int num_rows, jobject state, jobject*
     CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
 }
 
+void AggBatchStatesCallStub::batch_call(int num_rows, jobject states, jobject state_ids, jobject* input, int cols) {
+    jvalue jni_inputs[4 + cols];
+    jni_inputs[0].i = num_rows;
+    jni_inputs[1].l = _caller;
+    jni_inputs[2].l = states;
+    jni_inputs[3].l = state_ids;
+    for (int i = 0; i < cols; ++i) {
+        jni_inputs[4 + i].l = input[i];
+    }
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    env->CallStaticVoidMethodA(_stub_clazz.clazz(), env->FromReflectedMethod(_stub_method.handle()), jni_inputs);
+    CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
+}
+
 jobject BatchEvaluateStub::batch_evaluate(int num_rows, jobject* input, int cols) {
     jvalue jni_inputs[2 + cols];
     jni_inputs[0].i = num_rows;
@@ -845,6 +859,21 @@ jobject BatchEvaluateStub::batch_evaluate(int num_rows, jobject* input, int cols
     return res;
 }
 
+void BatchEvaluateStub::batch_evaluate_primitive(int num_rows, int64_t result_nulls, int64_t result_data,
+                                                 const int64_t* input, int cols) {
+    jvalue jni_inputs[4 + cols];
+    jni_inputs[0].i = num_rows;
+    jni_inputs[1].l = _caller;
+    jni_inputs[2].j = result_nulls;
+    jni_inputs[3].j = result_data;
+    for (int i = 0; i < cols; ++i) {
+        jni_inputs[4 + i].j = input[i];
+    }
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    env->CallStaticVoidMethodA(_stub_clazz.clazz(), env->FromReflectedMethod(_stub_method.handle()), jni_inputs);
+    CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
+}
+
 void UDAFFunction::update(jvalue* val) {
     auto [env, helper] = JVMFunctionHelper::getInstanceWithEnv();
     jmethodID update = _ctx->update->get_method_id();
@@ -339,6 +339,30 @@ private:
     JavaGlobalRef _stub_method;
 };
 
+// Stub generated with BATCH_UPDATE_STATES, calls update/merge on the states in FunctionStates addressed by
+// state ids without reflection. Rows whose state id is -1 are skipped. It is only generated for the methods with
+// boxed parameters, the others are called through UDFHelper.
+class AggBatchStatesCallStub {
+public:
+    static inline const char* update_stub_clazz_name = "com.starrocks.udf.gen.UpdateStatesCallStub";
+    static inline const char* merge_stub_clazz_name = "com.starrocks.udf.gen.MergeStatesCallStub";
+    static inline const char* batch_call_method_name = "batchCallV";
+
+    AggBatchStatesCallStub(FunctionContext* ctx, jobject caller, JVMClass&& clazz, JavaGlobalRef&& method)
+            : _ctx(ctx), _caller(caller), _stub_clazz(std::move(clazz)), _stub_method(std::move(method)) {}
+
+    FunctionContext* ctx() { return _ctx; }
+
+    void batch_call(int num_rows, jobject states, jobject state_ids, jobject* input, int cols);
+
+private:
+    FunctionContext* _ctx;
+    // UDAF object handle, owned by FunctionContext
+    jobject _caller;
+    JVMClass _stub_clazz;
+    JavaGlobalRef _stub_method;
+};
+
 class BatchEvaluateStub {
 public:
     static inline const char* stub_clazz_name = "com.starrocks.udf.gen.CallStub";
@@ -349,6 +373,10 @@ public:
 
     FunctionContext* ctx() { return _ctx; }
     jobject batch_evaluate(int num_rows, jobject* input, int cols);
+    // for the stub generated with BATCH_EVALUATE_PRIMITIVE, input are the data addresses of the input columns,
+    // rows marked in result_nulls are skipped and the others are written to result_data directly.
+    void batch_evaluate_primitive(int num_rows, int64_t result_nulls, int64_t result_data, const int64_t* input,
+                                  int cols);
 
 private:
     FunctionContext* _ctx;
@@ -392,6 +420,8 @@ class ClassLoader {
 public:
     static const inline int BATCH_SINGLE_UPDATE = 1;
     static const inline int BATCH_EVALUATE = 2;
+    static const inline int BATCH_EVALUATE_PRIMITIVE = 3;
+    static const inline int BATCH_UPDATE_STATES = 4;
     // Handle
     ClassLoader(std::string path) : _path(std::move(path)) {}
     ~ClassLoader();
@@ -447,6 +477,8 @@ struct JavaUDFContext {
     std::unique_ptr<ClassLoader> udf_classloader;
     std::unique_ptr<ClassAnalyzer> analyzer;
     std::unique_ptr<BatchEvaluateStub> call_stub;
+    // evaluate only has primitive parameters and return type, the stub reads and writes column data directly
+    bool primitive_evaluate = false;
 
     JVMClass udf_class = nullptr;
     JavaGlobalRef udf_handle = nullptr;
@@ -502,7 +534,9 @@ struct JavaUDAFContext {
     std::unique_ptr<UDAFStateList> states;
     std::unique_ptr<JavaMethodDescriptor> update;
     std::unique_ptr<AggBatchCallStub> update_batch_call_stub;
+    std::unique_ptr<AggBatchStatesCallStub> update_states_call_stub;
     std::unique_ptr<JavaMethodDescriptor> merge;
+    std::unique_ptr<AggBatchStatesCallStub> merge_states_call_stub;
     std::unique_ptr<JavaMethodDescriptor> finalize;
     std::unique_ptr<JavaMethodDescriptor> serialize;
     std::unique_ptr<JavaMethodDescriptor> serialize_size;
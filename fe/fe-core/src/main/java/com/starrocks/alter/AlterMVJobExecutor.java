@@ -56,6 +56,7 @@ import com.starrocks.sql.ast.SystemVariable;
 import com.starrocks.sql.ast.TableRenameClause;
 import com.starrocks.sql.common.DmlException;
 import com.starrocks.sql.optimizer.CachingMvPlanContextBuilder;
+import com.starrocks.sql.optimizer.MvSignatureIndex;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.rule.transformation.materialization.MvUtils;
 import com.starrocks.warehouse.Warehouse;
@@ -278,6 +279,7 @@ public class AlterMVJobExecutor extends AlterJobExecutor {
                 CachingMvPlanContextBuilder.getInstance().invalidateFromCache(materializedView, false);
             } else {
                 CachingMvPlanContextBuilder.getInstance().putAstIfAbsent(materializedView);
+                MvSignatureIndex.getInstance().addMv(materializedView);
             }
             isChanged = true;
         }
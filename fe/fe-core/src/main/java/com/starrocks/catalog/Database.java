@@ -58,6 +58,7 @@ import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.persist.DropInfo;
 import com.starrocks.server.CatalogMgr;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.MvSignatureIndex;
 import com.starrocks.statistic.StatsConstants;
 import com.starrocks.system.SystemInfoService;
 import org.apache.logging.log4j.LogManager;
@@ -384,6 +385,7 @@ public class Database extends MetaObject implements Writable {
         Table table = dropTable(tableId);
         if (table != null) {
             table.onDrop(this, isForceDrop, isReplay);
+            MvSignatureIndex.getInstance().removeTable(tableId);
             if (!isForceDrop) {
                 GlobalStateMgr.getCurrentState().getRecycleBin().recycleTable(id, table, true);
             }
@@ -44,8 +44,11 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.clone.TabletChecker;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.util.LongLongHashMap;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.common.util.concurrent.FairReentrantReadWriteLock;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
@@ -65,8 +68,10 @@ import com.starrocks.transaction.TransactionState;
 import com.starrocks.transaction.TransactionStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.spark.util.SizeEstimator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -80,6 +85,14 @@ import java.util.stream.Collectors;
  * key is tablet id. value is the related ids of this tablet
  * Checkpoint thread is no need to modify this inverted index, because this inverted index will not be written
  * into image, all metadata are in globalStateMgr, and the inverted index will be rebuilt when FE restart.
+ *
+ * There may be millions of replicas, so the maps are keyed by primitive long to avoid a boxed key and a map
+ * node for each of them.
+ *
+ * The index is partitioned to be modified and read concurrently, the tablets by tablet id into stripes,
+ * the replica ids by replica id into stripes, and the replicas on each backend, each of them has its own lock.
+ * If more than one of them are locked, they are always locked in the order of tablet stripe, backend and
+ * replica stripe, and at most one of each kind is locked at the same time.
  */
 public class TabletInvertedIndex implements MemoryTrackable {
     private static final Logger LOG = LogManager.getLogger(TabletInvertedIndex.class);
@@ -89,24 +102,61 @@ public class TabletInvertedIndex implements MemoryTrackable {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
+    // must be a power of 2
+    private static final int NUM_STRIPES = 64;
+
+    private static final BackendReplicas EMPTY_BACKEND_REPLICAS = new BackendReplicas();
+
+    // protects forceDeleteTablets only, the index is protected by the locks of its stripes
     private final ReentrantReadWriteLock lock = new FairReentrantReadWriteLock();
 
-    // tablet id -> tablet meta
-    private final Map<Long, TabletMeta> tabletMetaMap = Maps.newConcurrentMap();
+    // tablet id -> tablet meta and replicas
+    private final TabletStripe[] tabletStripes = new TabletStripe[NUM_STRIPES];
 
     // replica id -> tablet id
-    private final Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    private final ReplicaStripe[] replicaStripes = new ReplicaStripe[NUM_STRIPES];
 
     // tablet id -> backend set
     private final Map<Long, Set<Long>> forceDeleteTablets = Maps.newHashMap();
 
-    // tablet id -> (backend id -> replica)
-    private final Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
     // backing replica table, for visiting backend replicas faster.
-    // backend id -> (tablet id -> replica)
-    private final Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+    // backend id -> (tablet id -> replica), an entry is never removed except by clear(), so that a replica
+    // can't be added to a removed entry.
+    private final Map<Long, BackendReplicas> backingReplicaMetaTable = Maps.newConcurrentMap();
+
+    private static class TabletStripe {
+        private final ReentrantReadWriteLock lock = new FairReentrantReadWriteLock();
+        // tablet id -> tablet meta
+        private final LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
+        // tablet id -> replicas of the tablet, at most one replica on each backend
+        private final LongObjectHashMap<Replica[]> replicaMetaTable = new LongObjectHashMap<>();
+    }
+
+    private static class ReplicaStripe {
+        private final ReentrantReadWriteLock lock = new FairReentrantReadWriteLock();
+        // replica id -> tablet id
+        private final LongLongHashMap replicaToTabletMap = new LongLongHashMap(NOT_EXIST_VALUE);
+    }
+
+    private static class BackendReplicas {
+        private final ReentrantReadWriteLock lock = new FairReentrantReadWriteLock();
+        // tablet id -> replica
+        private final LongObjectHashMap<Replica> replicas = new LongObjectHashMap<>();
+    }
 
     public TabletInvertedIndex() {
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            tabletStripes[i] = new TabletStripe();
+            replicaStripes[i] = new ReplicaStripe();
+        }
+    }
+
+    private TabletStripe getTabletStripe(long tabletId) {
+        return tabletStripes[(int) (tabletId & (NUM_STRIPES - 1))];
+    }
+
+    private ReplicaStripe getReplicaStripe(long replicaId) {
+        return replicaStripes[(int) (replicaId & (NUM_STRIPES - 1))];
     }
 
     private void readLock() {
@@ -125,6 +175,33 @@ public class TabletInvertedIndex implements MemoryTrackable {
         this.lock.writeLock().unlock();
     }
 
+    // won't return null
+    private BackendReplicas getBackendReplicas(long backendId) {
+        return backingReplicaMetaTable.getOrDefault(backendId, EMPTY_BACKEND_REPLICAS);
+    }
+
+    // tablet id -> replica on the backend, a copy that isn't changed by the following modifications
+    private LongObjectHashMap<Replica> copyBackendReplicas(long backendId) {
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.readLock().lock();
+        try {
+            return backendReplicas.replicas.copy();
+        } finally {
+            backendReplicas.lock.readLock().unlock();
+        }
+    }
+
+    private static Replica findReplica(Replica[] replicas, long backendId) {
+        if (replicas != null) {
+            for (Replica replica : replicas) {
+                if (replica.getBackendId() == backendId) {
+                    return replica;
+                }
+            }
+        }
+        return null;
+    }
+
     public void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
                              final HashMap<Long, TStorageMedium> storageMediumMap,
                              ListMultimap<Long, Long> tabletSyncMap,
@@ -152,158 +229,165 @@ public class TabletInvertedIndex implements MemoryTrackable {
             backendStorageTypeCnt = be.getAvailableBackendStorageTypeCnt();
         }
 
-        readLock();
         long start = System.currentTimeMillis();
-        try {
-            LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
-            // backingReplicaMetaTable.row(backendId) won't return null
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            // traverse replicas in meta with this backend
-            for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
-                long tabletId = entry.getKey();
-                Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-                TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
-
-                if (tabletMeta.isLakeTablet()) {
-                    continue;
-                }
+        LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+        // the replicas on the backend may be modified during the diff, traverse a copy of them instead of
+        // holding the lock of the backend
+        LongObjectHashMap<Replica> replicaMetaWithBackend = copyBackendReplicas(backendId);
+        // traverse replicas in meta with this backend
+        for (LongObjectHashMap.Cursor<Replica> cursor = replicaMetaWithBackend.cursor(); cursor.advance(); ) {
+            long tabletId = cursor.key();
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                // the tablet is deleted after the copy
+                continue;
+            }
+
+            if (tabletMeta.isLakeTablet()) {
+                continue;
+            }
 
-                if (backendTablets.containsKey(tabletId)) {
-                    TTablet backendTablet = backendTablets.get(tabletId);
-                    Replica replica = entry.getValue();
-                    for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
-                        if (backendTabletInfo.isSetIs_error_state()) {
-                            replica.setIsErrorState(backendTabletInfo.is_error_state);
+            TTablet backendTablet = backendTablets.get(tabletId);
+            if (backendTablet != null) {
+                Replica replica = cursor.value();
+                for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
+                    if (backendTabletInfo.isSetIs_error_state()) {
+                        if (replica.isErrorState() != backendTabletInfo.is_error_state) {
+                            TabletChecker.markTabletDirty(tabletId);
                         }
-                        if (backendTabletInfo.isSetMax_rowset_creation_time()) {
-                            replica.setMaxRowsetCreationTime(backendTabletInfo.max_rowset_creation_time);
+                        replica.setIsErrorState(backendTabletInfo.is_error_state);
+                    }
+                    if (backendTabletInfo.isSetMax_rowset_creation_time()) {
+                        replica.setMaxRowsetCreationTime(backendTabletInfo.max_rowset_creation_time);
+                    }
+                    if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
+                        foundTabletsWithValidSchema.add(tabletId);
+                        // 1. (intersection)
+                        if (needSync(replica, backendTabletInfo)) {
+                            // need sync
+                            tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
+                            TabletChecker.markTabletDirty(tabletId);
                         }
-                        if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
-                            foundTabletsWithValidSchema.add(tabletId);
-                            // 1. (intersection)
-                            if (needSync(replica, backendTabletInfo)) {
-                                // need sync
-                                tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
-                            }
 
-                            // check and set path,
-                            // path info of replica is only saved in Leader FE
-                            if (backendTabletInfo.isSetPath_hash() &&
-                                    replica.getPathHash() != backendTabletInfo.getPath_hash()) {
-                                replica.setPathHash(backendTabletInfo.getPath_hash());
-                            }
+                        // check and set path,
+                        // path info of replica is only saved in Leader FE
+                        if (backendTabletInfo.isSetPath_hash() &&
+                                replica.getPathHash() != backendTabletInfo.getPath_hash()) {
+                            replica.setPathHash(backendTabletInfo.getPath_hash());
+                            TabletChecker.markTabletDirty(tabletId);
+                        }
 
-                            if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
-                                    && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
-                                // update the schema hash only when replica is normal
-                                replica.setSchemaHash(backendTabletInfo.getSchema_hash());
-                            }
+                        if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
+                                && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
+                            // update the schema hash only when replica is normal
+                            replica.setSchemaHash(backendTabletInfo.getSchema_hash());
+                        }
 
-                            if (!isRestoreReplica(replica, this.replicaToTabletMap, this.tabletMetaMap) &&
-                                    needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
-                                LOG.warn("replica {} of tablet {} on backend {} need recovery. "
-                                                + "replica in FE: {}, report version {}, report schema hash: {},"
-                                                + " is bad: {}",
-                                        replica.getId(), tabletId, backendId,
-                                        replica, backendTabletInfo.getVersion(), backendTabletInfo.getSchema_hash(),
-                                        backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown");
-                                tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
-                            }
+                        if (!isRestoreReplica(tabletMeta) &&
+                                needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
+                            LOG.warn("replica {} of tablet {} on backend {} need recovery. "
+                                            + "replica in FE: {}, report version {}, report schema hash: {},"
+                                            + " is bad: {}",
+                                    replica.getId(), tabletId, backendId,
+                                    replica, backendTabletInfo.getVersion(), backendTabletInfo.getSchema_hash(),
+                                    backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown");
+                            tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+                            TabletChecker.markTabletDirty(tabletId);
+                        }
 
-                            replica.setLastReportVersion(backendTabletInfo.getVersion());
-
-                            // check if tablet needs migration
-                            long partitionId = tabletMeta.getPartitionId();
-                            TStorageMedium storageMedium = storageMediumMap.get(partitionId);
-                            if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
-                                if (storageMedium != backendTabletInfo.getStorage_medium()) {
-                                    // If storage medium is less than 1, there is no need to send migration tasks to BE.
-                                    // Because BE will ignore this request.
-                                    if (backendStorageTypeCnt <= 1) {
-                                        LOG.debug("available storage medium type count is less than 1, " +
-                                                        "no need to send migrate task. tabletId={}, backendId={}.",
-                                                tabletMeta, backendId);
-                                    } else {
-                                        tabletMigrationMap.put(storageMedium, tabletId);
-                                    }
-                                }
-                                if (storageMedium != tabletMeta.getStorageMedium()) {
-                                    tabletMeta.setStorageMedium(storageMedium);
+                        replica.setLastReportVersion(backendTabletInfo.getVersion());
+
+                        // check if tablet needs migration
+                        long partitionId = tabletMeta.getPartitionId();
+                        TStorageMedium storageMedium = storageMediumMap.get(partitionId);
+                        if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
+                            if (storageMedium != backendTabletInfo.getStorage_medium()) {
+                                // If storage medium is less than 1, there is no need to send migration tasks to BE.
+                                // Because BE will ignore this request.
+                                if (backendStorageTypeCnt <= 1) {
+                                    LOG.debug("available storage medium type count is less than 1, " +
+                                                    "no need to send migrate task. tabletId={}, backendId={}.",
+                                            tabletMeta, backendId);
+                                } else {
+                                    tabletMigrationMap.put(storageMedium, tabletId);
                                 }
                             }
-                            // check if we should clear transactions
-                            if (backendTabletInfo.isSetTransaction_ids()) {
-                                List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
-                                GlobalTransactionMgr transactionMgr =
-                                        GlobalStateMgr.getCurrentState().getGlobalTransactionMgr();
-                                for (Long transactionId : transactionIds) {
-                                    TransactionState transactionState =
-                                            transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
-                                    if (transactionState == null ||
-                                            transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
-                                        transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
-                                        LOG.debug("transaction id [{}] is not valid any more, "
-                                                + "clear it from backend [{}]", transactionId, backendId);
-                                    } else if (transactionState.getTransactionStatus() ==
-                                            TransactionStatus.VISIBLE) {
-                                        TableCommitInfo tableCommitInfo =
-                                                transactionState.getTableCommitInfo(tabletMeta.getTableId());
-                                        PartitionCommitInfo partitionCommitInfo =
-                                                tableCommitInfo.getPartitionCommitInfo(partitionId);
-                                        if (partitionCommitInfo == null) {
-                                            /*
-                                             * This may happen as follows:
-                                             * 1. txn is committed on BE, and report commit info to FE
-                                             * 2. FE received report and begin to assemble partitionCommitInfos.
-                                             * 3. At the same time, some partitions have been dropped, so
-                                             *    partitionCommitInfos does not contain these partitions.
-                                             * 4. So we will not able to get partitionCommitInfo here.
-                                             *
-                                             * Just print a log to observe
-                                             */
-                                            LOG.info(
-                                                    "failed to find partition commit info. table: {}, " +
-                                                            "partition: {}, tablet: {}, txn_id: {}",
-                                                    tabletMeta.getTableId(), partitionId, tabletId,
-                                                    transactionState.getTransactionId());
-                                        } else {
-                                            TPartitionVersionInfo versionInfo =
-                                                    new TPartitionVersionInfo(tabletMeta.getPartitionId(),
-                                                            partitionCommitInfo.getVersion(), 0);
-                                            versionInfo.setGtid(transactionState.getGlobalTransactionId());
-                                            Map<Long, Map<Long, TPartitionVersionInfo>> txnMap =
-                                                    transactionsToPublish.computeIfAbsent(
-                                                            transactionState.getDbId(), k -> Maps.newHashMap());
-                                            Map<Long, TPartitionVersionInfo> partitionMap =
-                                                    txnMap.computeIfAbsent(transactionId, k -> Maps.newHashMap());
-                                            partitionMap.put(versionInfo.getPartition_id(), versionInfo);
-                                            transactionsToCommitTime.put(transactionId,
-                                                    transactionState.getCommitTime());
-                                        }
+                            if (storageMedium != tabletMeta.getStorageMedium()) {
+                                tabletMeta.setStorageMedium(storageMedium);
+                            }
+                        }
+                        // check if we should clear transactions
+                        if (backendTabletInfo.isSetTransaction_ids()) {
+                            List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
+                            GlobalTransactionMgr transactionMgr =
+                                    GlobalStateMgr.getCurrentState().getGlobalTransactionMgr();
+                            for (Long transactionId : transactionIds) {
+                                TransactionState transactionState =
+                                        transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
+                                if (transactionState == null ||
+                                        transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
+                                    transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
+                                    LOG.debug("transaction id [{}] is not valid any more, "
+                                            + "clear it from backend [{}]", transactionId, backendId);
+                                } else if (transactionState.getTransactionStatus() ==
+                                        TransactionStatus.VISIBLE) {
+                                    TableCommitInfo tableCommitInfo =
+                                            transactionState.getTableCommitInfo(tabletMeta.getTableId());
+                                    PartitionCommitInfo partitionCommitInfo =
+                                            tableCommitInfo.getPartitionCommitInfo(partitionId);
+                                    if (partitionCommitInfo == null) {
+                                        /*
+                                         * This may happen as follows:
+                                         * 1. txn is committed on BE, and report commit info to FE
+                                         * 2. FE received report and begin to assemble partitionCommitInfos.
+                                         * 3. At the same time, some partitions have been dropped, so
+                                         *    partitionCommitInfos does not contain these partitions.
+                                         * 4. So we will not able to get partitionCommitInfo here.
+                                         *
+                                         * Just print a log to observe
+                                         */
+                                        LOG.info(
+                                                "failed to find partition commit info. table: {}, " +
+                                                        "partition: {}, tablet: {}, txn_id: {}",
+                                                tabletMeta.getTableId(), partitionId, tabletId,
+                                                transactionState.getTransactionId());
+                                    } else {
+                                        TPartitionVersionInfo versionInfo =
+                                                new TPartitionVersionInfo(tabletMeta.getPartitionId(),
+                                                        partitionCommitInfo.getVersion(), 0);
+                                        versionInfo.setGtid(transactionState.getGlobalTransactionId());
+                                        Map<Long, Map<Long, TPartitionVersionInfo>> txnMap =
+                                                transactionsToPublish.computeIfAbsent(
+                                                        transactionState.getDbId(), k -> Maps.newHashMap());
+                                        Map<Long, TPartitionVersionInfo> partitionMap =
+                                                txnMap.computeIfAbsent(transactionId, k -> Maps.newHashMap());
+                                        partitionMap.put(versionInfo.getPartition_id(), versionInfo);
+                                        transactionsToCommitTime.put(transactionId,
+                                                transactionState.getCommitTime());
                                     }
                                 }
-                            } // end for txn id
-
-                            // update replica's version count
-                            // no need to write log, and no need to get db lock.
-                            if (backendTabletInfo.isSetVersion_count()) {
-                                replica.setVersionCount(backendTabletInfo.getVersion_count());
                             }
-                        } else {
-                            // tablet with invalid schema hash
-                            foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
-                        } // end for be tablet info
-                    }
-                } else {
-                    // 2. (meta - be)
-                    // may need delete from meta
-                    LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
-                    tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+                        } // end for txn id
+
+                        // update replica's version count
+                        // no need to write log, and no need to get db lock.
+                        if (backendTabletInfo.isSetVersion_count()) {
+                            replica.setVersionCount(backendTabletInfo.getVersion_count());
+                        }
+                    } else {
+                        // tablet with invalid schema hash
+                        foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
+                        TabletChecker.markTabletDirty(tabletId);
+                    } // end for be tablet info
                 }
-            } // end for replicaMetaWithBackend
-        } finally {
-            readUnlock();
-        }
+            } else {
+                // 2. (meta - be)
+                // may need delete from meta
+                LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
+                tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+                TabletChecker.markTabletDirty(tabletId);
+            }
+        } // end for replicaMetaWithBackend
 
         long end = System.currentTimeMillis();
         LOG.info("finished to do tablet diff with backend[{}]. sync: {}. metaDel: {}. foundValid: {}. foundInvalid: {}."
@@ -477,34 +561,33 @@ public class TabletInvertedIndex implements MemoryTrackable {
     }
 
     public Long getTabletIdByReplica(long replicaId) {
-        readLock();
+        ReplicaStripe stripe = getReplicaStripe(replicaId);
+        stripe.lock.readLock().lock();
         try {
-            return replicaToTabletMap.get(replicaId);
+            long tabletId = stripe.replicaToTabletMap.get(replicaId);
+            return tabletId == NOT_EXIST_VALUE ? null : tabletId;
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public TabletMeta getTabletMeta(long tabletId) {
-        readLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            return tabletMetaMap.get(tabletId);
+            return stripe.tabletMetaMap.get(tabletId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public List<TabletMeta> getTabletMetaList(List<Long> tabletIdList) {
         List<TabletMeta> tabletMetaList = new ArrayList<>(tabletIdList.size());
-        readLock();
-        try {
-            for (Long tabletId : tabletIdList) {
-                tabletMetaList.add(tabletMetaMap.getOrDefault(tabletId, NOT_EXIST_TABLET_META));
-            }
-            return tabletMetaList;
-        } finally {
-            readUnlock();
+        for (long tabletId : tabletIdList) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            tabletMetaList.add(tabletMeta != null ? tabletMeta : NOT_EXIST_TABLET_META);
         }
+        return tabletMetaList;
     }
 
     private boolean needSync(Replica replicaInFe, TTabletInfo backendTabletInfo) {
@@ -531,13 +614,7 @@ public class TabletInvertedIndex implements MemoryTrackable {
         }
     }
 
-    private boolean isRestoreReplica(Replica replica, Map<Long, Long> replicaToTabletMap, Map<Long, TabletMeta> tabletMetaMap) {
-        Long tabletId = replicaToTabletMap.get(replica.getId());
-        TabletMeta tabletMeta = null;
-        if (tabletId != null) {
-            tabletMeta = tabletMetaMap.get(tabletId);
-        }
-
+    private boolean isRestoreReplica(TabletMeta tabletMeta) {
         if (tabletMeta != null) {
             long dbId = tabletMeta.getDbId();
             long tableId = tabletMeta.getTableId();
@@ -593,12 +670,13 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            stripe.tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
             LOG.debug("add tablet: {} tabletMeta: {}", tabletId, tabletMeta);
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
     }
 
@@ -672,44 +750,118 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
+            Replica[] replicas = stripe.replicaMetaTable.remove(tabletId);
             if (replicas != null) {
-                for (Replica replica : replicas.values()) {
-                    replicaToTabletMap.remove(replica.getId());
-                }
-
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                for (Replica replica : replicas) {
+                    removeBackendReplica(replica.getBackendId(), tabletId);
+                    removeReplicaToTablet(replica.getId());
                 }
             }
-            tabletMetaMap.remove(tabletId);
+            stripe.tabletMetaMap.remove(tabletId);
 
             LOG.debug("delete tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private void removeBackendReplica(long backendId, long tabletId) {
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.writeLock().lock();
+        try {
+            backendReplicas.replicas.remove(tabletId);
+        } finally {
+            backendReplicas.lock.writeLock().unlock();
+        }
+    }
+
+    private void removeReplicaToTablet(long replicaId) {
+        ReplicaStripe stripe = getReplicaStripe(replicaId);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.replicaToTabletMap.remove(replicaId);
+        } finally {
+            stripe.lock.writeLock().unlock();
         }
     }
 
+    /**
+     * @return tablet id -> (backend id -> replica), a copy of the replicas in the index
+     */
+    @VisibleForTesting
     public Table<Long, Long, Replica> getReplicaMetaTable() {
-        return replicaMetaTable;
+        Table<Long, Long, Replica> table = HashBasedTable.create();
+        for (TabletStripe stripe : tabletStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                for (LongObjectHashMap.Cursor<Replica[]> cursor = stripe.replicaMetaTable.cursor(); cursor.advance(); ) {
+                    for (Replica replica : cursor.value()) {
+                        table.put(cursor.key(), replica.getBackendId(), replica);
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return table;
     }
 
     public void addReplica(long tabletId, Replica replica) {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
-            replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            long backendId = replica.getBackendId();
+            Replica[] replicas = stripe.replicaMetaTable.get(tabletId);
+            Replica replaced = null;
+            if (replicas == null) {
+                replicas = new Replica[] {replica};
+            } else {
+                int index = 0;
+                while (index < replicas.length && replicas[index].getBackendId() != backendId) {
+                    index++;
+                }
+                if (index < replicas.length) {
+                    // replace the replica on the same backend
+                    replaced = replicas[index];
+                    replicas = replicas.clone();
+                } else {
+                    replicas = Arrays.copyOf(replicas, replicas.length + 1);
+                }
+                replicas[index] = replica;
+            }
+            stripe.replicaMetaTable.put(tabletId, replicas);
+
+            BackendReplicas backendReplicas =
+                    backingReplicaMetaTable.computeIfAbsent(backendId, k -> new BackendReplicas());
+            backendReplicas.lock.writeLock().lock();
+            try {
+                backendReplicas.replicas.put(tabletId, replica);
+            } finally {
+                backendReplicas.lock.writeLock().unlock();
+            }
+
+            if (replaced != null) {
+                removeReplicaToTablet(replaced.getId());
+            }
+            ReplicaStripe replicaStripe = getReplicaStripe(replica.getId());
+            replicaStripe.lock.writeLock().lock();
+            try {
+                replicaStripe.replicaToTabletMap.put(replica.getId(), tabletId);
+            } finally {
+                replicaStripe.lock.writeLock().unlock();
+            }
+            TabletChecker.markTabletDirty(tabletId);
             LOG.debug("add replica {} of tablet {} in backend {}",
                     replica.getId(), tabletId, replica.getBackendId());
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
     }
 
@@ -717,17 +869,25 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            if (!tabletMetaMap.containsKey(tabletId)) {
+            if (!stripe.tabletMetaMap.containsKey(tabletId)) {
                 return;
             }
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
+            Replica[] replicas = stripe.replicaMetaTable.get(tabletId);
+            if (replicas != null) {
+                Replica replica = findReplica(replicas, backendId);
                 assert replica != null;
-                replicaToTabletMap.remove(replica.getId());
-                replicaMetaTable.remove(tabletId, backendId);
-                backingReplicaMetaTable.remove(backendId, tabletId);
+                if (replicas.length == 1) {
+                    stripe.replicaMetaTable.remove(tabletId);
+                } else {
+                    stripe.replicaMetaTable.put(tabletId, Arrays.stream(replicas)
+                            .filter(r -> r.getBackendId() != backendId).toArray(Replica[]::new));
+                }
+                removeBackendReplica(backendId, tabletId);
+                removeReplicaToTablet(replica.getId());
+                TabletChecker.markTabletDirty(tabletId);
                 LOG.debug("delete replica {} of tablet {} in backend {}",
                         replica.getId(), tabletId, backendId);
             } else {
@@ -736,28 +896,31 @@ public class TabletInvertedIndex implements MemoryTrackable {
                 LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
             }
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
     }
 
     public Replica getReplica(long tabletId, long backendId) {
-        readLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            return replicaMetaTable.get(tabletId, backendId);
+            return findReplica(stripe.replicaMetaTable.get(tabletId), backendId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public List<Replica> getReplicasByTabletId(long tabletId) {
-        readLock();
+        TabletStripe stripe = getTabletStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
+            Replica[] replicas = stripe.replicaMetaTable.get(tabletId);
+            if (replicas != null) {
+                return Lists.newArrayList(replicas);
             }
             return Lists.newArrayList();
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
@@ -769,9 +932,10 @@ public class TabletInvertedIndex implements MemoryTrackable {
      * @return list of replica or null if backend not found
      */
     public List<Replica> getReplicasOnBackendByTabletIds(List<Long> tabletIds, long backendId) {
-        readLock();
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backendReplicas.replicas;
             if (!replicaMetaWithBackend.isEmpty()) {
                 List<Replica> replicas = Lists.newArrayList();
                 for (long tabletId : tabletIds) {
@@ -781,52 +945,58 @@ public class TabletInvertedIndex implements MemoryTrackable {
             }
             return null;
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
     }
 
-    public List<Long> getTabletIdsByBackendId(long backendId) {
-        List<Long> tabletIds = Lists.newArrayList();
-        readLock();
+    private long[] getTabletIdArrayByBackendId(long backendId) {
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            tabletIds.addAll(replicaMetaWithBackend.keySet());
+            return backendReplicas.replicas.keys();
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
-        return tabletIds;
+    }
+
+    public List<Long> getTabletIdsByBackendId(long backendId) {
+        return Arrays.stream(getTabletIdArrayByBackendId(backendId)).boxed().collect(Collectors.toList());
     }
 
     public List<Long> getTabletIdsByBackendIdAndStorageMedium(long backendId, TStorageMedium storageMedium) {
-        List<Long> tabletIds;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            tabletIds = replicaMetaWithBackend.keySet().stream().filter(
-                    id -> tabletMetaMap.get(id).getStorageMedium() == storageMedium).collect(Collectors.toList());
-        } finally {
-            readUnlock();
-        }
-        return tabletIds;
+        // the tablet metas are read after the lock of the backend is released, the tablets deleted in between
+        // are skipped
+        return Arrays.stream(getTabletIdArrayByBackendId(backendId))
+                .filter(id -> {
+                    TabletMeta tabletMeta = getTabletMeta(id);
+                    return tabletMeta != null && tabletMeta.getStorageMedium() == storageMedium;
+                })
+                .boxed().collect(Collectors.toList());
     }
 
     public long getTabletNumByBackendId(long backendId) {
-        readLock();
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            return replicaMetaWithBackend.size();
+            return backendReplicas.replicas.size();
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
     }
 
     public long getTabletNumByBackendIdAndPathHash(long backendId, long pathHash) {
-        readLock();
+        BackendReplicas backendReplicas = getBackendReplicas(backendId);
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            return replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+            long count = 0;
+            for (LongObjectHashMap.Cursor<Replica> cursor = backendReplicas.replicas.cursor(); cursor.advance(); ) {
+                if (cursor.value().getPathHash() == pathHash) {
+                    count++;
+                }
+            }
+            return count;
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
     }
 
@@ -834,18 +1004,16 @@ public class TabletInvertedIndex implements MemoryTrackable {
         Map<TStorageMedium, Long> replicaNumMap = Maps.newHashMap();
         long hddNum = 0;
         long ssdNum = 0;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            for (long tabletId : replicaMetaWithBackend.keySet()) {
-                if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
-                    hddNum++;
-                } else {
-                    ssdNum++;
-                }
+        for (long tabletId : getTabletIdArrayByBackendId(backendId)) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                continue;
+            }
+            if (tabletMeta.getStorageMedium() == TStorageMedium.HDD) {
+                hddNum++;
+            } else {
+                ssdNum++;
             }
-        } finally {
-            readUnlock();
         }
         replicaNumMap.put(TStorageMedium.HDD, hddNum);
         replicaNumMap.put(TStorageMedium.SSD, ssdNum);
@@ -853,36 +1021,104 @@ public class TabletInvertedIndex implements MemoryTrackable {
     }
 
     public long getTabletCount() {
-        return this.tabletMetaMap.size();
+        long count = 0;
+        for (TabletStripe stripe : tabletStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                count += stripe.tabletMetaMap.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return count;
     }
 
     public long getReplicaCount() {
-        readLock();
-        try {
-            return this.replicaMetaTable.size();
-        } finally {
-            readUnlock();
+        long count = 0;
+        for (ReplicaStripe stripe : replicaStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                count += stripe.replicaToTabletMap.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
         }
+        return count;
     }
 
     // just for test
     public void clear() {
-        writeLock();
-        try {
-            tabletMetaMap.clear();
-            replicaToTabletMap.clear();
-            replicaMetaTable.clear();
-            backingReplicaMetaTable.clear();
-        } finally {
-            writeUnlock();
+        for (TabletStripe stripe : tabletStripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.tabletMetaMap.clear();
+                stripe.replicaMetaTable.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        backingReplicaMetaTable.clear();
+        for (ReplicaStripe stripe : replicaStripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.replicaToTabletMap.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
         }
     }
 
+    /**
+     * The index itself and the tablet metas, the replicas are shared with the catalog so they are not counted.
+     */
+    @Override
+    public long estimateSize() {
+        long size = 0;
+        long numTablets = 0;
+        TabletMeta sample = null;
+        for (TabletStripe stripe : tabletStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.tabletMetaMap.estimateSize() + stripe.replicaMetaTable.estimateSize();
+                // replica arrays, 16 bytes header and 4 bytes for each replica
+                for (LongObjectHashMap.Cursor<Replica[]> cursor = stripe.replicaMetaTable.cursor(); cursor.advance(); ) {
+                    size += 16 + 4L * cursor.value().length;
+                }
+                numTablets += stripe.tabletMetaMap.size();
+                LongObjectHashMap.Cursor<TabletMeta> cursor = stripe.tabletMetaMap.cursor();
+                if (sample == null && cursor.advance()) {
+                    sample = cursor.value();
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        for (BackendReplicas backendReplicas : backingReplicaMetaTable.values()) {
+            backendReplicas.lock.readLock().lock();
+            try {
+                size += backendReplicas.replicas.estimateSize();
+            } finally {
+                backendReplicas.lock.readLock().unlock();
+            }
+        }
+        for (ReplicaStripe stripe : replicaStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.replicaToTabletMap.estimateSize();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        if (sample != null) {
+            size += SizeEstimator.estimate(sample) * numTablets;
+        }
+        return size;
+    }
+
     @Override
     public Map<String, Long> estimateCount() {
-        return ImmutableMap.of("TabletMeta", (long) tabletMetaMap.size(),
+        return ImmutableMap.of("TabletMeta", getTabletCount(),
                                "TabletCount", getTabletCount(),
                                "ReplicateCount", getReplicaCount());
     }
 }
-
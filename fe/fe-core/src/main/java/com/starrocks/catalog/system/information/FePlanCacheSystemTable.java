@@ -0,0 +1,72 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog.system.information;
+
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.system.SystemId;
+import com.starrocks.catalog.system.SystemTable;
+import com.starrocks.privilege.AccessDeniedException;
+import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.sql.PlanCache;
+import com.starrocks.sql.analyzer.Authorizer;
+import com.starrocks.sql.ast.UserIdentity;
+import com.starrocks.thrift.TAuthInfo;
+import com.starrocks.thrift.TPlanCacheReq;
+import com.starrocks.thrift.TPlanCacheRes;
+import com.starrocks.thrift.TSchemaTableType;
+import org.apache.thrift.TException;
+
+import static com.starrocks.catalog.system.SystemTable.NAME_CHAR_LEN;
+import static com.starrocks.catalog.system.SystemTable.builder;
+
+public class FePlanCacheSystemTable {
+    public static final String NAME = "fe_plan_cache";
+
+    public static SystemTable create() {
+        return new SystemTable(SystemId.FE_PLAN_CACHE_ID,
+                NAME,
+                Table.TableType.SCHEMA,
+                builder()
+                        .column("TABLE_ID", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("SQL_DIGEST", ScalarType.createVarchar(65532))
+                        .column("PARAM_TYPES", ScalarType.createVarchar(NAME_CHAR_LEN))
+                        .column("HIT_COUNT", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("CREATE_TIME", ScalarType.createVarchar(NAME_CHAR_LEN))
+                        .column("LAST_HIT_TIME", ScalarType.createVarchar(NAME_CHAR_LEN))
+                        .build(), TSchemaTableType.SCH_FE_PLAN_CACHE);
+    }
+
+    public static TPlanCacheRes listPlanCache(TPlanCacheReq request) throws TException {
+        TAuthInfo auth = request.getAuth_info();
+        UserIdentity currentUser;
+        if (auth.isSetCurrent_user_ident()) {
+            currentUser = UserIdentity.fromThrift(auth.getCurrent_user_ident());
+        } else {
+            currentUser = UserIdentity.createAnalyzedUserIdentWithIp(auth.getUser(), auth.getUser_ip());
+        }
+
+        try {
+            Authorizer.checkSystemAction(currentUser, null, PrivilegeType.OPERATE);
+        } catch (AccessDeniedException e) {
+            throw new TException(e.getMessage(), e);
+        }
+
+        TPlanCacheRes response = new TPlanCacheRes();
+        response.setItems(PlanCache.getInstance().listItems());
+        return response;
+    }
+}
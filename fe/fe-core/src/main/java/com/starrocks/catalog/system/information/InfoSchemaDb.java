@@ -79,6 +79,7 @@ public class InfoSchemaDb extends Database {
             super.registerTableUnlocked(BeTxnsSystemTable.create());
             super.registerTableUnlocked(BeConfigsSystemTable.create());
             super.registerTableUnlocked(FeTabletSchedulesSystemTable.create());
+            super.registerTableUnlocked(FePlanCacheSystemTable.create());
             super.registerTableUnlocked(BeThreadsSystemTable.create());
             super.registerTableUnlocked(BeLogsSystemTable.create());
             super.registerTableUnlocked(BeBvarsSystemTable.create());
@@ -34,13 +34,16 @@
 
 package com.starrocks.clone;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table.Cell;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.DiskInfo;
 import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.LocalTablet.TabletHealthStatus;
 import com.starrocks.catalog.MaterializedIndex;
@@ -53,6 +56,8 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Table.TableType;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
 import com.starrocks.common.CloseableLock;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
@@ -61,6 +66,7 @@ import com.starrocks.common.util.FrontendDaemon;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.LocalMetastore;
 import com.starrocks.server.RunMode;
 import com.starrocks.sql.analyzer.AdminStmtAnalyzer;
 import com.starrocks.sql.ast.AdminCancelRepairTableStmt;
@@ -74,11 +80,13 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /*
@@ -95,6 +103,18 @@ public class TabletChecker extends FrontendDaemon {
     // priority of replicas of partitions in this table will be set to VERY_HIGH if unhealthy
     private com.google.common.collect.Table<Long, Long, Set<PrioPart>> urgentTable = HashBasedTable.create();
 
+    // the running checker in incremental mode, which receives the changes of tablets
+    private static volatile TabletChecker incrementalChecker = null;
+
+    // tablets which may change their health since checked last time, only tracked in incremental mode.
+    // unhealthy tablets are kept in it until they become healthy.
+    private final Set<Long> dirtyTablets = ConcurrentHashMap.newKeySet();
+    private volatile boolean needFullCheck = true;
+    private long lastFullCheckTimeMs = 0;
+    // backend id -> state of the backend which affects the health of its replicas
+    private final Map<Long, String> backendStates = Maps.newHashMap();
+    private volatile long lastRoundCostMs = 0;
+
     // represent a partition which need to be repaired preferentially
     public static class PrioPart {
         public long partId;
@@ -204,6 +224,16 @@ public class TabletChecker extends FrontendDaemon {
         if (RunMode.isSharedDataMode()) {
             return;
         }
+        boolean incremental = Config.tablet_checker_incremental_mode;
+        if (incremental && incrementalChecker != this) {
+            // the changes before are unknown
+            needFullCheck = true;
+            incrementalChecker = this;
+        } else if (!incremental && incrementalChecker == this) {
+            incrementalChecker = null;
+            dirtyTablets.clear();
+        }
+
         int pendingNum = tabletScheduler.getPendingNum();
         int runningNum = tabletScheduler.getRunningNum();
         if (pendingNum > Config.tablet_sched_max_scheduling_tablets
@@ -213,7 +243,13 @@ public class TabletChecker extends FrontendDaemon {
             return;
         }
 
-        checkAllTablets();
+        long start = System.currentTimeMillis();
+        if (incremental) {
+            checkChangedTablets();
+        } else {
+            checkAllTablets();
+        }
+        lastRoundCostMs = System.currentTimeMillis() - start;
 
         cleanInvalidUrgentTable();
 
@@ -230,6 +266,213 @@ public class TabletChecker extends FrontendDaemon {
         checkNonUrgentTablets();
     }
 
+    /**
+     * In incremental mode, only the tablets changed since the last round and the unhealthy tablets are checked,
+     * and all the tablets are checked every tablet_checker_full_check_interval_seconds in case of missing changes.
+     */
+    private void checkChangedTablets() {
+        checkUrgentTablets();
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
+        Set<Long> changedBackends = updateBackendStates(systemInfoService);
+        long now = System.currentTimeMillis();
+        if (needFullCheck || now - lastFullCheckTimeMs >= Config.tablet_checker_full_check_interval_seconds * 1000L) {
+            // the unhealthy tablets will be added back during the check
+            needFullCheck = false;
+            dirtyTablets.clear();
+            lastFullCheckTimeMs = now;
+            checkNonUrgentTablets();
+            return;
+        }
+
+        TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentState().getTabletInvertedIndex();
+        for (long backendId : changedBackends) {
+            for (long tabletId : invertedIndex.getTabletIdsByBackendId(backendId)) {
+                addDirtyTablet(tabletId);
+            }
+        }
+        checkDirtyTablets(invertedIndex);
+    }
+
+    /**
+     * Refresh the states of backends, and return the backends whose state is changed since the last round.
+     */
+    @VisibleForTesting
+    Set<Long> updateBackendStates(SystemInfoService systemInfoService) {
+        Map<Long, String> states = Maps.newHashMap();
+        for (Backend backend : systemInfoService.getIdToBackend().values()) {
+            states.put(backend.getId(), getBackendState(backend));
+        }
+        Set<Long> changedBackends = Sets.newHashSet();
+        for (Map.Entry<Long, String> entry : states.entrySet()) {
+            if (!entry.getValue().equals(backendStates.get(entry.getKey()))) {
+                changedBackends.add(entry.getKey());
+            }
+        }
+        for (Long backendId : backendStates.keySet()) {
+            if (!states.containsKey(backendId)) {
+                changedBackends.add(backendId);
+            }
+        }
+        backendStates.clear();
+        backendStates.putAll(states);
+        return changedBackends;
+    }
+
+    // everything about the backend used by getTabletHealthStatusWithPriority
+    private static String getBackendState(Backend backend) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(isReplicaBackendDead(backend)).append(',')
+                .append(backend.isDecommissioned()).append(',')
+                .append(backend.getHost()).append(',')
+                .append(backend.getSingleLevelLocationKV());
+        backend.getDisks().values().stream()
+                .sorted(Comparator.comparingLong(DiskInfo::getPathHash))
+                .forEach(disk -> sb.append(',').append(disk.getPathHash()).append(':').append(disk.getState()));
+        return sb.toString();
+    }
+
+    private void checkDirtyTablets(TabletInvertedIndex invertedIndex) {
+        long start = System.nanoTime();
+        TabletCheckerStat totStat = new TabletCheckerStat();
+        long lockTotalTime = 0;
+        long lockStart;
+
+        // db id -> dirty tablets
+        Map<Long, List<Pair<Long, TabletMeta>>> dbToTablets = Maps.newHashMap();
+        int dirtyNum = 0;
+        for (Iterator<Long> iter = dirtyTablets.iterator(); iter.hasNext(); ) {
+            long tabletId = iter.next();
+            // the tablet is added again if it is changed after removed
+            iter.remove();
+            dirtyNum++;
+            TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+            if (tabletMeta == null || tabletMeta == TabletInvertedIndex.NOT_EXIST_TABLET_META
+                    || tabletMeta.isLakeTablet()) {
+                continue;
+            }
+            dbToTablets.computeIfAbsent(tabletMeta.getDbId(), k -> Lists.newArrayList())
+                    .add(Pair.create(tabletId, tabletMeta));
+        }
+
+        LocalMetastore localMetastore = GlobalStateMgr.getCurrentState().getLocalMetastore();
+        for (Map.Entry<Long, List<Pair<Long, TabletMeta>>> entry : dbToTablets.entrySet()) {
+            long dbId = entry.getKey();
+            Database db = localMetastore.getDbIncludeRecycleBin(dbId);
+            if (db == null || db.isSystemDatabase()) {
+                continue;
+            }
+
+            int batchNum = Config.tablet_checker_partition_batch_num;
+            int tabletChecked = 0;
+            Locker locker = new Locker();
+            locker.lockDatabase(db, LockType.READ);
+            lockStart = System.nanoTime();
+            try {
+                List<Long> aliveBeIdsInCluster =
+                        GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackendIds(true);
+                for (Pair<Long, TabletMeta> dirtyTablet : entry.getValue()) {
+                    if (++tabletChecked % batchNum == 0) {
+                        lockTotalTime += System.nanoTime() - lockStart;
+                        // release lock, so that lock can be acquired by other threads.
+                        locker.unLockDatabase(db, LockType.READ);
+                        locker.lockDatabase(db, LockType.READ);
+                        lockStart = System.nanoTime();
+                    }
+                    checkDirtyTablet(db, dirtyTablet.first, dirtyTablet.second, aliveBeIdsInCluster, totStat);
+                }
+            } finally {
+                lockTotalTime += System.nanoTime() - lockStart;
+                locker.unLockDatabase(db, LockType.READ);
+            }
+        }
+
+        long cost = (System.nanoTime() - start) / 1000000;
+        stat.counterTabletCheckCostMs.addAndGet(cost);
+        stat.counterTabletChecked.addAndGet(totStat.totalTabletNum);
+        stat.counterUnhealthyTabletNum.addAndGet(totStat.unhealthyTabletNum);
+        stat.counterTabletAddToBeScheduled.addAndGet(totStat.addToSchedulerTabletNum);
+
+        LOG.info("finished to check dirty tablets. dirty: {}, " +
+                        "unhealthy/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, cost: {} ms, in lock time: {} ms",
+                dirtyNum, totStat.unhealthyTabletNum, totStat.totalTabletNum, totStat.addToSchedulerTabletNum,
+                totStat.tabletInScheduler, totStat.tabletNotReady, cost, lockTotalTime / 1000000);
+    }
+
+    private void checkDirtyTablet(Database db, long tabletId, TabletMeta tabletMeta, List<Long> aliveBeIdsInCluster,
+                                  TabletCheckerStat totStat) {
+        LocalMetastore localMetastore = GlobalStateMgr.getCurrentState().getLocalMetastore();
+        Table table = localMetastore.getTableIncludeRecycleBin(db, tabletMeta.getTableId());
+        if (table == null || !table.needSchedule(false) || table.isCloudNativeTableOrMaterializedView()) {
+            return;
+        }
+        OlapTable olapTbl = (OlapTable) table;
+        Partition partition = localMetastore.getPartitionIncludeRecycleBin(olapTbl, tabletMeta.getPartitionId());
+        if (partition == null || isPartitionUrgent(db.getId(), table.getId(), partition.getId())) {
+            // urgent partitions are checked in every round
+            return;
+        }
+        PhysicalPartition physicalPartition = partition.getSubPartition(tabletMeta.getPhysicalPartitionId());
+        MaterializedIndex idx = physicalPartition == null ? null : physicalPartition.getIndex(tabletMeta.getIndexId());
+        Tablet tablet = idx == null ? null : idx.getTablet(tabletId);
+        if (tablet == null) {
+            return;
+        }
+        if (partition.getState() != PartitionState.NORMAL || !idx.getState().isVisible()) {
+            // check it after the alter job finishes
+            addDirtyTablet(tabletId);
+            return;
+        }
+        short replicaNum = localMetastore.getReplicationNumIncludeRecycleBin(olapTbl.getPartitionInfo(), partition.getId());
+        if (replicaNum == (short) -1) {
+            return;
+        }
+        checkOneTablet(db, olapTbl, partition, physicalPartition, idx, (LocalTablet) tablet, replicaNum,
+                aliveBeIdsInCluster, false, totStat);
+    }
+
+    /**
+     * Mark the tablet to be checked in the next round, when its replicas, the versions or the states of its
+     * replicas are changed. It does nothing unless tablet checker is running in incremental mode.
+     */
+    public static void markTabletDirty(long tabletId) {
+        TabletChecker checker = incrementalChecker;
+        if (checker != null) {
+            checker.addDirtyTablet(tabletId);
+        }
+    }
+
+    /**
+     * Check all the tablets in the next round, for the changes affecting too many tablets to be tracked,
+     * like the replication num or location of a table is changed.
+     */
+    public static void requestFullCheck() {
+        TabletChecker checker = incrementalChecker;
+        if (checker != null) {
+            checker.needFullCheck = true;
+        }
+    }
+
+    private void addDirtyTablet(long tabletId) {
+        if (incrementalChecker != this || needFullCheck) {
+            return;
+        }
+        if (dirtyTablets.size() >= Config.tablet_checker_max_dirty_tablets) {
+            LOG.info("too many dirty tablets: {}, check all tablets in the next round", dirtyTablets.size());
+            needFullCheck = true;
+            dirtyTablets.clear();
+            return;
+        }
+        dirtyTablets.add(tabletId);
+    }
+
+    public int getDirtyTabletNum() {
+        return dirtyTablets.size();
+    }
+
+    public long getLastRoundCostMs() {
+        return lastRoundCostMs;
+    }
+
     private void checkUrgentTablets() {
         doCheck(true);
     }
@@ -411,72 +654,82 @@ public class TabletChecker extends FrontendDaemon {
             for (MaterializedIndex idx : physicalPartition.getMaterializedIndices(
                     IndexExtState.VISIBLE)) {
                 for (Tablet tablet : idx.getTablets()) {
-                    LocalTablet localTablet = (LocalTablet) tablet;
-                    partitionTabletCheckerStat.totalTabletNum++;
+                    checkOneTablet(db, olapTbl, partition, physicalPartition, idx, (LocalTablet) tablet, replicaNum,
+                            aliveBeIdsInCluster, isPartitionUrgent, partitionTabletCheckerStat);
+                }
+            } // indices
+        }
 
-                    if (tabletScheduler.containsTablet(tablet.getId())) {
-                        partitionTabletCheckerStat.tabletInScheduler++;
-                        continue;
-                    }
+        return partitionTabletCheckerStat;
+    }
 
-                    SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
-                    Pair<TabletHealthStatus, TabletSchedCtx.Priority> statusWithPrio =
-                            TabletChecker.getTabletHealthStatusWithPriority(
-                                    localTablet,
-                                    systemInfoService,
-                                    physicalPartition.getVisibleVersion(),
-                                    replicaNum,
-                                    aliveBeIdsInCluster,
-                                    olapTbl.getLocation());
-
-                    if (statusWithPrio.first == TabletHealthStatus.HEALTHY) {
-                        // Only set last status check time when status is healthy.
-                        localTablet.setLastStatusCheckTime(System.currentTimeMillis());
-                        continue;
-                    } else if (isPartitionUrgent) {
-                        statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
-                        partitionTabletCheckerStat.isUrgentPartitionHealthy = false;
-                    }
+    private void checkOneTablet(Database db, OlapTable olapTbl, Partition partition, PhysicalPartition physicalPartition,
+                                MaterializedIndex idx, LocalTablet localTablet, int replicaNum,
+                                List<Long> aliveBeIdsInCluster, boolean isPartitionUrgent, TabletCheckerStat stat) {
+        stat.totalTabletNum++;
 
-                    partitionTabletCheckerStat.unhealthyTabletNum++;
+        if (tabletScheduler.containsTablet(localTablet.getId())) {
+            stat.tabletInScheduler++;
+            // check it again after it is scheduled
+            addDirtyTablet(localTablet.getId());
+            return;
+        }
 
-                    if (!localTablet.readyToBeRepaired(statusWithPrio.first, statusWithPrio.second)) {
-                        partitionTabletCheckerStat.tabletNotReady++;
-                        continue;
-                    }
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
+        Pair<TabletHealthStatus, TabletSchedCtx.Priority> statusWithPrio =
+                TabletChecker.getTabletHealthStatusWithPriority(
+                        localTablet,
+                        systemInfoService,
+                        physicalPartition.getVisibleVersion(),
+                        replicaNum,
+                        aliveBeIdsInCluster,
+                        olapTbl.getLocation());
+
+        if (statusWithPrio.first == TabletHealthStatus.HEALTHY) {
+            // Only set last status check time when status is healthy.
+            localTablet.setLastStatusCheckTime(System.currentTimeMillis());
+            return;
+        } else if (isPartitionUrgent) {
+            statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
+            stat.isUrgentPartitionHealthy = false;
+        }
 
-                    if (statusWithPrio.first == TabletHealthStatus.LOCATION_MISMATCH &&
-                            !preCheckEnoughLocationMatchedBackends(olapTbl.getLocation(), replicaNum)) {
-                        continue;
-                    }
+        stat.unhealthyTabletNum++;
+        // keep checking the unhealthy tablet until it is healthy
+        addDirtyTablet(localTablet.getId());
 
-                    TabletSchedCtx tabletSchedCtx = new TabletSchedCtx(
-                            TabletSchedCtx.Type.REPAIR,
-                            db.getId(), olapTbl.getId(), partition.getId(),
-                            physicalPartition.getId(), idx.getId(), tablet.getId(),
-                            System.currentTimeMillis());
-                    // the tablet status will be set again when being scheduled
-                    tabletSchedCtx.setTabletStatus(statusWithPrio.first);
-                    tabletSchedCtx.setOrigPriority(statusWithPrio.second);
-                    tabletSchedCtx.setTablet(localTablet);
-                    tabletSchedCtx.setRequiredLocation(olapTbl.getLocation());
-                    tabletSchedCtx.setReplicaNum(replicaNum);
-                    if (!tryChooseSrcBeforeSchedule(tabletSchedCtx)) {
-                        continue;
-                    }
+        if (!localTablet.readyToBeRepaired(statusWithPrio.first, statusWithPrio.second)) {
+            stat.tabletNotReady++;
+            return;
+        }
 
-                    Pair<Boolean, Long> result =
-                            tabletScheduler.blockingAddTabletCtxToScheduler(db, tabletSchedCtx,
-                                    isPartitionUrgent);
-                    partitionTabletCheckerStat.waitTotalTime += result.second;
-                    if (result.first) {
-                        partitionTabletCheckerStat.addToSchedulerTabletNum++;
-                    }
-                }
-            } // indices
+        if (statusWithPrio.first == TabletHealthStatus.LOCATION_MISMATCH &&
+                !preCheckEnoughLocationMatchedBackends(olapTbl.getLocation(), replicaNum)) {
+            return;
         }
 
-        return partitionTabletCheckerStat;
+        TabletSchedCtx tabletSchedCtx = new TabletSchedCtx(
+                TabletSchedCtx.Type.REPAIR,
+                db.getId(), olapTbl.getId(), partition.getId(),
+                physicalPartition.getId(), idx.getId(), localTablet.getId(),
+                System.currentTimeMillis());
+        // the tablet status will be set again when being scheduled
+        tabletSchedCtx.setTabletStatus(statusWithPrio.first);
+        tabletSchedCtx.setOrigPriority(statusWithPrio.second);
+        tabletSchedCtx.setTablet(localTablet);
+        tabletSchedCtx.setRequiredLocation(olapTbl.getLocation());
+        tabletSchedCtx.setReplicaNum(replicaNum);
+        if (!tryChooseSrcBeforeSchedule(tabletSchedCtx)) {
+            return;
+        }
+
+        Pair<Boolean, Long> result =
+                tabletScheduler.blockingAddTabletCtxToScheduler(db, tabletSchedCtx,
+                        isPartitionUrgent);
+        stat.waitTotalTime += result.second;
+        if (result.first) {
+            stat.addToSchedulerTabletNum++;
+        }
     }
 
     public boolean isUrgentTable(long dbId, long tblId) {
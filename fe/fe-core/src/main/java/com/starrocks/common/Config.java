@@ -426,6 +426,22 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int edit_log_write_slow_log_threshold_ms = 2000;
 
+    /**
+     * Write the frequent edit logs, such as transaction states and replica infos, in compact binary encoding
+     * instead of json. Both encodings can be replayed by this version, but the older versions can't replay the
+     * binary encoding, so only enable it after all the FEs are upgraded.
+     */
+    @ConfField(mutable = true)
+    public static boolean edit_log_binary_encoding = false;
+
+    /**
+     * Number of threads to save and load the meta blocks of image in parallel.
+     * The blocks are saved and loaded one by one if it's not greater than 1.
+     * The image saved in parallel can still be loaded by the versions which don't support it.
+     */
+    @ConfField(mutable = true)
+    public static int metadata_image_parallel_threads = 1;
+
     /**
      * whether ignore unknown log id
      * when fe rolls back to low version, there may be log id that low version fe can not recognise
@@ -594,6 +610,15 @@ public class Config extends ConfigBase {
     @ConfField
     public static int profile_process_blocking_queue_size = profile_process_threads_num * 128;
 
+    /**
+     * Merge the profile of each fragment instance as soon as the instance is finished, instead of merging all the
+     * instance profiles after the query is finished, and release the instance profile once it's merged.
+     * Only takes effect for the queries and broker loads whose profile is merged, i.e. pipeline_profile_level is
+     * less than 2, export and stream load keep the instance profiles.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_incremental_profile_merge = false;
+
     /**
      * max num of thread to handle agent task in agent task thread-pool.
      */
@@ -802,6 +827,20 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_mysql_service_task_threads_num = 4096;
 
+    /**
+     * Whether to write the query result rows to the mysql client with vectored writes instead of
+     * copying every row into the send buffer of the connection. It does not work for ssl connections.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_mysql_gathering_write = true;
+
+    /**
+     * The rows smaller than this size are still copied into the send buffer when
+     * enable_mysql_gathering_write is true, because writing many tiny buffers costs more than copying them.
+     */
+    @ConfField(mutable = true)
+    public static int mysql_gathering_write_min_packet_size = 1024;
+
     /**
      * max num of thread to handle task for http sql.
      */
@@ -872,6 +911,26 @@ public class Config extends ConfigBase {
     @ConfField
     public static int thrift_server_queue_size = 4096;
 
+    /**
+     * The type of the thrift server, THREAD_POOL or SELECTOR.
+     * THREAD_POOL occupies a worker thread for each connection, even if the connection is idle.
+     * SELECTOR watches the idle connections with thrift_server_selector_threads selector threads,
+     * and only occupies a worker thread while processing a request. In SELECTOR mode, the pending requests
+     * are ordered by the priority of their methods, and the requests of low priority are rejected
+     * when the pending requests exceed thrift_server_queue_size.
+     */
+    @ConfField
+    public static String thrift_server_type = "THREAD_POOL";
+
+    @ConfField
+    public static int thrift_server_selector_threads = 4;
+
+    /**
+     * The max worker threads of the thrift server in SELECTOR mode
+     */
+    @ConfField(mutable = true)
+    public static int thrift_server_selector_worker_threads = 512;
+
     /**
      * Maximal wait seconds for straggler node in load
      * eg.
@@ -1198,6 +1257,10 @@ public class Config extends ConfigBase {
                "build ast tree in materialized view initialization")
     public static boolean enable_materialized_view_text_based_rewrite = true;
 
+    @ConfField(mutable = true, comment = "whether to index the signatures of materialized views, which are used to " +
+               "skip the materialized views that cannot rewrite the query before building their plans")
+    public static boolean enable_materialized_view_signature_index = true;
+
     /**
      * When the materialized view fails to start FE due to metadata problems,
      * you can try to open this configuration,
@@ -1293,6 +1356,47 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_query_retry_time = 2;
 
+    /**
+     * Whether to share the plans of point queries on the key columns of olap tables among all sessions.
+     * A cached plan is reused by binding the literals of the new query, which skips the transformer and the optimizer.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_plan_cache = false;
+
+    /**
+     * The max number of plans in the plan cache.
+     */
+    @ConfField
+    public static long plan_cache_max_size = 10000;
+
+    /**
+     * The number of threads shared by all queries to explore the memo groups in parallel,
+     * used when the session variable cbo_enable_parallel_explore is true. 0 means the number of cpu cores.
+     */
+    @ConfField
+    public static int optimizer_parallel_explore_thread_num = 0;
+
+    /**
+     * The max number of fetch_data rpcs in flight for the result of a query. If it's greater than 1, the results
+     * are fetched and deserialized in background while the previous results are being sent to the client.
+     */
+    @ConfField(mutable = true)
+    public static int result_prefetch_rpc_num = 1;
+
+    /**
+     * The max bytes of the prefetched results of a query which are not sent to the client yet,
+     * no more result is fetched until they are sent.
+     */
+    @ConfField(mutable = true)
+    public static long result_prefetch_max_bytes = 64L * 1024 * 1024;
+
+    /**
+     * The max number of threads prefetching the results, the queries fetch the results by themselves
+     * when all threads are busy.
+     */
+    @ConfField
+    public static int result_prefetch_thread_num = 256;
+
     /**
      * In order not to wait too long for create table(index), set a max timeout.
      */
@@ -1546,10 +1650,36 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int tablet_checker_partition_batch_num = 500;
 
+    /**
+     * If true, tablet checker only checks the tablets changed since the last round and the unhealthy tablets,
+     * instead of all the tablets in every round.
+     */
+    @ConfField(mutable = true)
+    public static boolean tablet_checker_incremental_mode = false;
+
+    /**
+     * In incremental mode, tablet checker still checks all the tablets at this interval, in case of missing changes.
+     */
+    @ConfField(mutable = true)
+    public static long tablet_checker_full_check_interval_seconds = 600;
+
+    /**
+     * In incremental mode, if the number of changed tablets exceeds this, all the tablets are checked in the next round.
+     */
+    @ConfField(mutable = true)
+    public static int tablet_checker_max_dirty_tablets = 1000000;
+
     @Deprecated
     @ConfField(mutable = true)
     public static int report_queue_size = 100;
 
+    /**
+     * The number of threads to process the reports of backends, the reports of a backend are always processed
+     * in order by the same thread. If it's not greater than 1, all the reports are processed by ReportHandler.
+     */
+    @ConfField
+    public static int report_process_thread_num = 1;
+
     /**
      * If set to true, metric collector will be run as a daemon timer to collect metrics at fix interval
      */
@@ -2053,6 +2183,47 @@ public class Config extends ConfigBase {
     @ConfField
     public static int remote_file_metadata_load_concurrency = 32;
 
+    /**
+     * If set to true, the partitions, partition statistics and remote file lists of hive, hudi and deltalake
+     * catalogs are also persisted to a local disk cache, which is reloaded when FE restarts.
+     */
+    @ConfField
+    public static boolean enable_connector_metadata_disk_cache = false;
+
+    /**
+     * The directory of the connector metadata disk cache.
+     */
+    @ConfField
+    public static String connector_metadata_disk_cache_dir = StarRocksFE.STARROCKS_HOME_DIR + "/connector_meta_cache";
+
+    /**
+     * The maximum bytes of live entries of each connector metadata disk cache file,
+     * the least recently used entries are evicted when it is exceeded.
+     */
+    @ConfField(mutable = true)
+    public static long connector_metadata_disk_cache_capacity_bytes = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * Entries in the connector metadata disk cache older than this are ignored.
+     * Invalidation events missed while FE is down can only be made up by this ttl.
+     */
+    @ConfField(mutable = true)
+    public static long connector_metadata_disk_cache_ttl_s = 3600L * 24L;
+
+    /**
+     * The expected number of scan ranges of each generation of the data cache residency bloom filter of a node,
+     * used by the cache affinity of hdfs backend selector. Each node keeps at most two generations.
+     */
+    @ConfField(mutable = true)
+    public static long hdfs_backend_selector_cache_residency_expected_ranges = 200000;
+
+    /**
+     * The half-life of the recently assigned scan bytes of a node, which is used by the cache affinity of
+     * hdfs backend selector to avoid overloading the nodes holding hot data.
+     */
+    @ConfField(mutable = true)
+    public static long hdfs_backend_selector_load_half_life_ms = 30000;
+
     /**
      * Hive MetaStore Client socket timeout in seconds.
      */
@@ -2261,6 +2432,12 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long query_detail_cache_time_nanosecond = 30000000000L;
 
+    /**
+     * The max memory of the query details kept for monitor, the oldest ones are dropped when exceeded.
+     */
+    @ConfField(mutable = true)
+    public static long query_detail_cache_max_bytes = 1073741824L;
+
     /**
      * Min lag of routine load job to show in metrics
      * Only show the routine load job whose lag is larger than min_routine_load_lag_for_metrics
@@ -2450,6 +2627,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int metadata_journal_max_batch_cnt = 100;
 
+    /**
+     * Collect the next journal batch in another thread while the current batch is being committed,
+     * so that the journals arriving during a commit don't wait for the next round of collecting.
+     * With it, journal.write.latency.ms only covers writing and committing a batch, not collecting it or
+     * waiting for the commit of the previous batch, so the latencies of the batches don't overlap.
+     **/
+    @ConfField
+    public static boolean metadata_journal_pipelined_commit = false;
+
+    /**
+     * Adjust the number of journal entity in a batch by the commit latency,
+     * the batch shrinks if the commit is slower than metadata_journal_target_commit_latency_ms,
+     * and grows up to metadata_journal_max_batch_cnt otherwise
+     **/
+    @ConfField(mutable = true)
+    public static boolean metadata_journal_adaptive_batch = false;
+
+    @ConfField(mutable = true)
+    public static long metadata_journal_target_commit_latency_ms = 100;
+
     /**
      * jaeger tracing endpoint, empty thing disables tracing
      */
@@ -2597,6 +2794,24 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String profile_info_format = "default";
 
+    /**
+     * The heap memory used by `ProfileManager` to keep the encoded profiles of recently executed queries and loads.
+     * Once it's exceeded, the oldest profiles are spilled to the profile archive if it's enabled, or dropped.
+     */
+    @ConfField(mutable = true)
+    public static long profile_info_reserved_memory_mb = 256;
+
+    /**
+     * Total size of the local files used as a ring to keep the profiles spilled out of heap,
+     * 0 disables the profile archive. `profile_info_reserved_num` and `load_profile_info_reserved_num`
+     * still limit the number of profiles, so increase them as well to keep more profiles in the archive.
+     */
+    @ConfField
+    public static long profile_archive_size_mb = 0;
+
+    @ConfField
+    public static String profile_archive_dir = StarRocksFE.STARROCKS_HOME_DIR + "/profile_archive";
+
     /**
      * When the session variable `enable_profile` is set to `false` and `big_query_profile_threshold` is set to 0,
      * the amount of time taken by a load exceeds the default_big_load_profile_threshold_second,
@@ -2937,6 +3152,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = false)
     public static int jdbc_connection_idle_timeout_ms = 600000;
 
+    /**
+     * The timeout of querying the bounds of jdbc_scan_partition_column from the remote database during planning,
+     * the jdbc scan is not split if the bounds can't be queried within it.
+     */
+    @ConfField(mutable = true)
+    public static long jdbc_scan_partition_bounds_timeout_ms = 3000;
+
     // The longest supported VARCHAR length.
     @ConfField(mutable = true)
     public static int max_varchar_length = 1048576;
@@ -0,0 +1,604 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common;
+
+import com.google.common.collect.Lists;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.LongCounterMetric;
+import com.starrocks.metric.Metric.MetricUnit;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TBaseProcessor;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TServerEventHandler;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransportException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A thrift server which does not occupy a thread for an idle connection, while keeping the wire protocol of
+ * {@link SRTThreadPoolServer}, so the clients using the unframed transport work with it as well.
+ * <p>
+ * The idle connections are watched by the selector threads. Once a request arrives on a connection, the selector
+ * reads the message header to get the method name, and then hands the connection to the bounded worker pool.
+ * The worker switches the connection to blocking mode, processes the request as the thread pool server does,
+ * and gives the connection back to the selector.
+ * <p>
+ * The pending requests are ordered by the priority of their methods. When the number of pending requests exceeds
+ * the limit, the requests of low and normal priority are rejected by closing the connection, but the requests of
+ * high priority, like heartbeats and txn commits, are always admitted.
+ */
+public class SRTSelectorServer extends TServer {
+    private static final Logger LOG = LogManager.getLogger(SRTSelectorServer.class);
+
+    // enough for the message header of all the methods
+    private static final int HEADER_BUFFER_SIZE = 256;
+    private static final String UNKNOWN_METHOD = "unknown";
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    public static class Args extends AbstractServerArgs<Args> {
+        public final InetSocketAddress bindAddr;
+        public int backlog = 1024;
+        public int selectorThreads = 2;
+        public int workerThreads = 256;
+        public int maxPendingRequests = 4096;
+        public int clientTimeoutMs = 0;
+        public Function<String, Priority> methodPriority = method -> Priority.NORMAL;
+
+        // the server binds the socket by itself, it does not use a TServerTransport
+        public Args(InetSocketAddress bindAddr) {
+            super(null);
+            this.bindAddr = bindAddr;
+        }
+
+        public Args backlog(int n) {
+            backlog = n;
+            return this;
+        }
+
+        public Args selectorThreads(int n) {
+            selectorThreads = n;
+            return this;
+        }
+
+        public Args workerThreads(int n) {
+            workerThreads = n;
+            return this;
+        }
+
+        public Args maxPendingRequests(int n) {
+            maxPendingRequests = n;
+            return this;
+        }
+
+        public Args clientTimeoutMs(int n) {
+            clientTimeoutMs = n;
+            return this;
+        }
+
+        public Args methodPriority(Function<String, Priority> methodPriority) {
+            this.methodPriority = methodPriority;
+            return this;
+        }
+    }
+
+    private final InetSocketAddress bindAddr;
+    private final int backlog;
+    private volatile ServerSocketChannel serverChannel;
+    private final List<SelectorThread> selectorThreads = Lists.newArrayList();
+    private final ThreadPoolExecutor executor;
+    private final int maxPendingRequests;
+    private final int clientTimeoutMs;
+    private final Function<String, Priority> methodPriority;
+
+    private final AtomicInteger pendingRequests = new AtomicInteger(0);
+    // the gauge of pendingRequests is registered on the first request, because the server may start
+    // before MetricRepo is initialized
+    private final AtomicBoolean pendingGaugeRegistered = new AtomicBoolean(false);
+    private final AtomicLong requestSeq = new AtomicLong(0);
+    private final Map<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
+    public SRTSelectorServer(Args args) throws IOException {
+        super(args);
+        bindAddr = args.bindAddr;
+        backlog = args.backlog;
+        maxPendingRequests = args.maxPendingRequests;
+        clientTimeoutMs = args.clientTimeoutMs;
+        methodPriority = args.methodPriority;
+        executor = ThreadPoolManager.newDaemonThreadPool(args.workerThreads, args.workerThreads,
+                60L, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                new ThreadPoolExecutor.AbortPolicy(), "thrift-server-pool", true);
+        executor.allowCoreThreadTimeOut(true);
+        for (int i = 0; i < args.selectorThreads; i++) {
+            selectorThreads.add(new SelectorThread("thrift-server-selector-" + i));
+        }
+    }
+
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    public int getPendingRequests() {
+        return pendingRequests.get();
+    }
+
+    @Override
+    public void serve() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(bindAddr, backlog);
+        } catch (IOException e) {
+            LOG.error("Error occurred during listening.", e);
+            return;
+        }
+        for (SelectorThread thread : selectorThreads) {
+            thread.start();
+        }
+        if (eventHandler_ != null) {
+            eventHandler_.preServe();
+        }
+        setServing(true);
+
+        int next = 0;
+        try {
+            while (!stopped_) {
+                SocketChannel channel = serverChannel.accept();
+                selectorThreads.get(next++ % selectorThreads.size()).addConnection(new Connection(channel));
+            }
+        } catch (IOException e) {
+            if (!stopped_) {
+                LOG.warn("Error occurred during acceptance of connection.", e);
+            }
+        } finally {
+            stop();
+            for (SelectorThread thread : selectorThreads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            executor.shutdown();
+            setServing(false);
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped_ = true;
+        if (serverChannel != null) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                LOG.warn("close thrift server channel failed", e);
+            }
+        }
+        for (SelectorThread thread : selectorThreads) {
+            thread.wakeup();
+        }
+    }
+
+    private void dispatch(Connection connection, String method) {
+        Priority priority = methodPriority.apply(method);
+        MethodMetrics metrics = getMethodMetrics(method);
+        registerPendingGauge();
+        int pending = pendingRequests.incrementAndGet();
+        if ((priority == Priority.LOW && pending > maxPendingRequests / 2)
+                || (priority == Priority.NORMAL && pending > maxPendingRequests)) {
+            pendingRequests.decrementAndGet();
+            metrics.rejected.increase(1L);
+            LOG.debug("reject thrift request {} from {}, pending requests: {}", method,
+                    connection.channel.socket().getRemoteSocketAddress(), pending);
+            connection.close();
+            return;
+        }
+
+        Request request = new Request(connection, priority, requestSeq.incrementAndGet(), metrics);
+        try {
+            executor.execute(request);
+        } catch (Throwable t) {
+            LOG.warn("failed to submit thrift request {}", method, t);
+            pendingRequests.decrementAndGet();
+            connection.close();
+        }
+    }
+
+    private String checkMethod(String method) {
+        TProcessor processor = processorFactory_.getProcessor(null);
+        if (processor instanceof TBaseProcessor
+                && !((TBaseProcessor<?>) processor).getProcessMapView().containsKey(method)) {
+            // do not create metrics for whatever the client sends
+            return UNKNOWN_METHOD;
+        }
+        return method;
+    }
+
+    private MethodMetrics getMethodMetrics(String method) {
+        return methodMetrics.computeIfAbsent(checkMethod(method), MethodMetrics::new);
+    }
+
+    private void registerPendingGauge() {
+        if (!MetricRepo.hasInit || !pendingGaugeRegistered.compareAndSet(false, true)) {
+            return;
+        }
+        MetricRepo.addMetric(new GaugeMetric<Integer>("thrift_server_request_pending", MetricUnit.REQUESTS,
+                "thrift requests waiting for a worker of the selector server") {
+            @Override
+            public Integer getValue() {
+                return pendingRequests.get();
+            }
+        });
+    }
+
+    /**
+     * Parse the method name from the message header in buffer, which is in write mode.
+     * Return null if more bytes are needed, or UNKNOWN_METHOD if the header is not valid.
+     */
+    static String parseMethodName(ByteBuffer buffer) {
+        int size = buffer.position();
+        if (size < 4) {
+            return null;
+        }
+        int nameStart;
+        int nameLength;
+        int first = buffer.getInt(0);
+        if (first < 0) {
+            // strict binary protocol, the first int is version and message type
+            if (size < 8) {
+                return null;
+            }
+            nameStart = 8;
+            nameLength = buffer.getInt(4);
+        } else {
+            nameStart = 4;
+            nameLength = first;
+        }
+        if (nameLength < 0 || nameStart + nameLength > buffer.capacity()) {
+            return UNKNOWN_METHOD;
+        }
+        if (size < nameStart + nameLength) {
+            return null;
+        }
+        byte[] name = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            name[i] = buffer.get(nameStart + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private class SelectorThread extends Thread {
+        private final Selector selector;
+        private final Queue<Connection> registering = new ConcurrentLinkedQueue<>();
+
+        SelectorThread(String name) throws IOException {
+            super(name);
+            setDaemon(true);
+            selector = Selector.open();
+        }
+
+        void addConnection(Connection connection) {
+            connection.selectorThread = this;
+            registering.add(connection);
+            selector.wakeup();
+        }
+
+        void wakeup() {
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped_) {
+                    selector.select();
+                    List<Connection> readyConnections = Lists.newArrayList();
+                    Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                    while (iter.hasNext()) {
+                        SelectionKey key = iter.next();
+                        iter.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (!key.isValid()) {
+                            connection.close();
+                        } else if (key.isReadable() && connection.readHeader()) {
+                            key.cancel();
+                            readyConnections.add(connection);
+                        }
+                    }
+                    if (!readyConnections.isEmpty()) {
+                        // deregister the cancelled keys, so that the channels can be switched to blocking mode
+                        selector.selectNow();
+                        for (Connection connection : readyConnections) {
+                            connection.ready();
+                        }
+                    }
+                    registerConnections();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!stopped_) {
+                    LOG.error("thrift selector thread exits unexpectedly", e);
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                Connection connection;
+                while ((connection = registering.poll()) != null) {
+                    connection.close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    LOG.warn("close selector failed", e);
+                }
+            }
+        }
+
+        private void registerConnections() {
+            Connection connection;
+            while ((connection = registering.poll()) != null) {
+                try {
+                    connection.channel.configureBlocking(false);
+                    connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    LOG.warn("register thrift connection failed", e);
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_BUFFER_SIZE);
+        private SelectorThread selectorThread;
+        private String method;
+
+        // created in the worker thread when the first request arrives
+        private ConnectionSocket socket;
+        private TProcessor processor;
+        private TProtocol inputProtocol;
+        private TProtocol outputProtocol;
+        private ServerContext context;
+        private boolean closed = false;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        // Read the available bytes in non-blocking mode, return true if the message header is read.
+        boolean readHeader() {
+            try {
+                if (channel.read(header) < 0) {
+                    close();
+                    return false;
+                }
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+            method = parseMethodName(header);
+            if (method == null && !header.hasRemaining()) {
+                method = UNKNOWN_METHOD;
+            }
+            return method != null;
+        }
+
+        void ready() {
+            try {
+                channel.configureBlocking(true);
+            } catch (IOException e) {
+                LOG.warn("configure thrift connection blocking failed", e);
+                close();
+                return;
+            }
+            header.flip();
+            dispatch(this, method);
+        }
+
+        void process() {
+            try {
+                if (socket == null) {
+                    socket = new ConnectionSocket(channel.socket(), header, clientTimeoutMs);
+                    processor = processorFactory_.getProcessor(socket);
+                    inputProtocol = inputProtocolFactory_.getProtocol(inputTransportFactory_.getTransport(socket));
+                    outputProtocol = outputProtocolFactory_.getProtocol(outputTransportFactory_.getTransport(socket));
+                    if (eventHandler_ != null) {
+                        context = eventHandler_.createContext(inputProtocol, outputProtocol);
+                    }
+                }
+                do {
+                    if (eventHandler_ != null) {
+                        eventHandler_.processContext(context, socket, socket);
+                    }
+                    processor.process(inputProtocol, outputProtocol);
+                } while (!stopped_ && socket.hasBufferedInput());
+            } catch (Exception e) {
+                if (!isIgnorableException(e)) {
+                    LOG.error("Error occurred during processing of message.", e);
+                }
+                close();
+                return;
+            }
+            if (stopped_) {
+                close();
+                return;
+            }
+            header.clear();
+            method = null;
+            selectorThread.addConnection(this);
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (eventHandler_ != null && socket != null) {
+                eventHandler_.deleteContext(context, inputProtocol, outputProtocol);
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("close thrift connection failed", e);
+            }
+        }
+
+        private boolean isIgnorableException(Exception e) {
+            TTransportException transportException = null;
+            if (e instanceof TTransportException) {
+                transportException = (TTransportException) e;
+            } else if (e.getCause() instanceof TTransportException) {
+                transportException = (TTransportException) e.getCause();
+            }
+            if (transportException != null) {
+                switch (transportException.getType()) {
+                    case TTransportException.END_OF_FILE:
+                    case TTransportException.TIMED_OUT:
+                        return true;
+                }
+                return transportException.getCause() instanceof SocketTimeoutException;
+            }
+            return false;
+        }
+    }
+
+    private class Request implements Runnable, Comparable<Request> {
+        private final Connection connection;
+        private final Priority priority;
+        private final long seq;
+        private final MethodMetrics metrics;
+        private final long createTimeNs = System.nanoTime();
+
+        Request(Connection connection, Priority priority, long seq, MethodMetrics metrics) {
+            this.connection = connection;
+            this.priority = priority;
+            this.seq = seq;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void run() {
+            pendingRequests.decrementAndGet();
+            metrics.total.increase(1L);
+            metrics.queueTimeMs.increase(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createTimeNs));
+            connection.process();
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            return Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * A TSocket over the channel of connection, which reads the message header read by the selector first.
+     */
+    private static class ConnectionSocket extends TSocket {
+        private final InputStream socketInput;
+
+        ConnectionSocket(Socket socket, ByteBuffer header, int timeoutMs) throws TTransportException {
+            super(socket);
+            setTimeout(timeoutMs);
+            socketInput = inputStream_;
+            inputStream_ = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    return header.hasRemaining() ? header.get() & 0xff : socketInput.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    if (header.hasRemaining()) {
+                        int n = Math.min(len, header.remaining());
+                        header.get(b, off, n);
+                        return n;
+                    }
+                    return socketInput.read(b, off, len);
+                }
+
+                @Override
+                public int available() throws IOException {
+                    return header.remaining() + socketInput.available();
+                }
+            };
+        }
+
+        boolean hasBufferedInput() throws IOException {
+            return inputStream_.available() > 0;
+        }
+    }
+
+    private static class MethodMetrics {
+        private final LongCounterMetric total;
+        private final LongCounterMetric rejected;
+        private final LongCounterMetric queueTimeMs;
+
+        MethodMetrics(String method) {
+            total = new LongCounterMetric("thrift_server_request_total", MetricUnit.REQUESTS,
+                    "total thrift requests processed by the selector server");
+            rejected = new LongCounterMetric("thrift_server_request_rejected", MetricUnit.REQUESTS,
+                    "thrift requests rejected because too many requests are pending");
+            queueTimeMs = new LongCounterMetric("thrift_server_queue_time_ms", MetricUnit.MILLISECONDS,
+                    "total time thrift requests wait for a worker of the selector server");
+            for (LongCounterMetric metric : Lists.newArrayList(total, rejected, queueTimeMs)) {
+                metric.addLabel(new MetricLabel("method", method));
+                if (MetricRepo.hasInit) {
+                    MetricRepo.addMetric(metric);
+                }
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.thrift.transport.TTransportException;
 import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
 
 public class ThriftServer {
     private static final Logger LOG = LogManager.getLogger(ThriftServer.class);
@@ -40,6 +41,7 @@ public class ThriftServer {
     private TServer server;
     private Thread serverThread;
     private Set<TNetworkAddress> connects;
+    private Function<String, SRTSelectorServer.Priority> methodPriority = method -> SRTSelectorServer.Priority.NORMAL;
     private static ThreadPoolExecutor executor;
 
     public ThriftServer(int port, TProcessor processor) {
@@ -78,9 +80,51 @@ public class ThriftServer {
         });
     }
 
+    private void createSelectorServer() throws IOException {
+        TBinaryProtocol.Factory factory =
+                new TBinaryProtocol.Factory(Config.thrift_rpc_strict_mode, true, Config.thrift_rpc_max_body_size, -1);
+        SRTSelectorServer.Args serverArgs = new SRTSelectorServer.Args(NetUtils.getSockAddrBasedOnCurrIpVersion(port))
+                .backlog(Config.thrift_backlog_num)
+                .selectorThreads(Config.thrift_server_selector_threads)
+                .workerThreads(Config.thrift_server_selector_worker_threads)
+                .maxPendingRequests(Config.thrift_server_queue_size)
+                .clientTimeoutMs(Config.thrift_client_timeout_ms)
+                .methodPriority(methodPriority)
+                .protocolFactory(factory)
+                .processor(processor);
+        SRTSelectorServer selectorServer = new SRTSelectorServer(serverArgs);
+        ThreadPoolExecutor threadPoolExecutor = selectorServer.getExecutor();
+        executor = threadPoolExecutor;
+        server = selectorServer;
+
+        GlobalStateMgr.getCurrentState().getConfigRefreshDaemon().registerListener(() -> {
+            int workerThreads = Config.thrift_server_selector_worker_threads;
+            if (threadPoolExecutor.getMaximumPoolSize() != workerThreads) {
+                if (workerThreads > threadPoolExecutor.getMaximumPoolSize()) {
+                    threadPoolExecutor.setMaximumPoolSize(workerThreads);
+                    threadPoolExecutor.setCorePoolSize(workerThreads);
+                } else {
+                    threadPoolExecutor.setCorePoolSize(workerThreads);
+                    threadPoolExecutor.setMaximumPoolSize(workerThreads);
+                }
+            }
+        });
+    }
+
+    /**
+     * Set the priority of the methods, which only works for SELECTOR server.
+     */
+    public void setMethodPriority(Function<String, SRTSelectorServer.Priority> methodPriority) {
+        this.methodPriority = methodPriority;
+    }
+
     public void start() throws IOException {
         try {
-            createThreadPoolServer();
+            if ("SELECTOR".equalsIgnoreCase(Config.thrift_server_type)) {
+                createSelectorServer();
+            } else {
+                createThreadPoolServer();
+            }
         } catch (TTransportException ex) {
             LOG.warn("create thrift server failed.", ex);
             throw new IOException("create thrift server failed.", ex);
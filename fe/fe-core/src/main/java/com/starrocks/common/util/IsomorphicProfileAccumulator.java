@@ -0,0 +1,279 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Pair;
+import com.starrocks.thrift.TCounterStrategy;
+import com.starrocks.thrift.TUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Merges isomorphic profiles one by one, the profile built by {@link #build()} is the same as
+ * {@link RuntimeProfile#mergeIsomorphicProfiles} of all the added profiles in the order they are added.
+ * <p>
+ * Only the min, max and sum of each counter are kept, so the added profiles don't have to be retained until all
+ * of them are available. It's not thread safe.
+ */
+public class IsomorphicProfileAccumulator {
+    private static final Logger LOG = LogManager.getLogger(IsomorphicProfileAccumulator.class);
+
+    private final Set<String> excludedInfoStrings;
+
+    private String name;
+    private int numProfiles = 0;
+    // holds the merged info strings
+    private RuntimeProfile infoStrings = new RuntimeProfile();
+    // counters of each level in the counter hierarchy, parent counters must be added before their children
+    private final List<Map<String, CounterAccumulator>> levelCounters = Lists.newArrayList();
+    private final Map<String, CounterAccumulator> counters = Maps.newHashMap();
+    private final Map<String, IsomorphicProfileAccumulator> children = Maps.newHashMap();
+    // names of the children of the first profile with the most children
+    private List<String> prototypeChildNames = Collections.emptyList();
+
+    public IsomorphicProfileAccumulator(Set<String> excludedInfoStrings) {
+        this.excludedInfoStrings = excludedInfoStrings;
+    }
+
+    public int getNumProfiles() {
+        return numProfiles;
+    }
+
+    public void add(RuntimeProfile profile) {
+        if (numProfiles == 0) {
+            name = profile.getName();
+        }
+        numProfiles++;
+        infoStrings.copyAllInfoStringsFrom(profile, excludedInfoStrings);
+
+        // level order traverse starts with root
+        Map<String, Set<String>> childCounterMap = profile.getChildCounterMap();
+        Queue<String> nameQueue = Lists.newLinkedList();
+        nameQueue.offer(RuntimeProfile.ROOT_COUNTER);
+        int levelIdx = -1;
+        while (!nameQueue.isEmpty()) {
+            levelIdx++;
+            List<String> currentNames = Lists.newArrayList(nameQueue);
+            nameQueue.clear();
+            for (String counterName : currentNames) {
+                Set<String> childNames = childCounterMap.get(counterName);
+                if (childNames != null) {
+                    nameQueue.addAll(childNames);
+                }
+                if (!Objects.equals(RuntimeProfile.ROOT_COUNTER, counterName)) {
+                    addCounter(profile, counterName, levelIdx);
+                }
+            }
+        }
+
+        for (Map.Entry<String, RuntimeProfile> entry : profile.getChildMap().entrySet()) {
+            children.computeIfAbsent(entry.getKey(), k -> new IsomorphicProfileAccumulator(excludedInfoStrings))
+                    .add(entry.getValue());
+        }
+        List<Pair<RuntimeProfile, Boolean>> childList = profile.getChildList();
+        if (childList.size() > prototypeChildNames.size()) {
+            List<String> childNames = Lists.newArrayListWithCapacity(childList.size());
+            childList.forEach(pair -> childNames.add(pair.first.getName()));
+            prototypeChildNames = childNames;
+        }
+    }
+
+    private void addCounter(RuntimeProfile profile, String counterName, int levelIdx) {
+        Pair<Counter, String> pair = profile.getCounterPair(counterName);
+        if (pair == null) {
+            return;
+        }
+        Counter counter = pair.first;
+        CounterAccumulator accumulator = counters.get(counterName);
+        if (accumulator == null) {
+            accumulator = new CounterAccumulator(counter.getType(), pair.second);
+            counters.put(counterName, accumulator);
+            while (levelCounters.size() <= levelIdx) {
+                levelCounters.add(Maps.newLinkedHashMap());
+            }
+            levelCounters.get(levelIdx).put(counterName, accumulator);
+        } else if (!accumulator.type.equals(counter.getType())) {
+            LOG.warn("find non-isomorphic counter, profileName={}, counterName={}, existType={}, anotherType={}",
+                    name, counterName, accumulator.type.name(), counter.getType().name());
+            return;
+        }
+
+        // we don't need to calculate sum or average of counter's extra info (min value and max value) created by be
+        if (counterName.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MIN) ||
+                counterName.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MAX) || accumulator.skipMerge) {
+            return;
+        }
+        accumulator.strategy = counter.getStrategy();
+        if (counter.isSkipMerge()) {
+            accumulator.skipMerge = true;
+            accumulator.skipMergeValue = counter.getValue();
+            return;
+        }
+        if (!counter.isSkipMinMax()) {
+            Counter minCounter = profile.getCounter(RuntimeProfile.MERGED_INFO_PREFIX_MIN + counterName);
+            if (minCounter != null) {
+                accumulator.alreadyMerged = true;
+                accumulator.mergedMinValue = Math.min(accumulator.mergedMinValue, minCounter.getValue());
+            }
+            Counter maxCounter = profile.getCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + counterName);
+            if (maxCounter != null) {
+                accumulator.alreadyMerged = true;
+                accumulator.mergedMaxValue = Math.max(accumulator.mergedMaxValue, maxCounter.getValue());
+            }
+        }
+        if (accumulator.count == 0) {
+            accumulator.isAvg = counter.isAvg();
+        }
+        accumulator.count++;
+        accumulator.sum += counter.getValue();
+        accumulator.minValue = Math.min(accumulator.minValue, counter.getValue());
+        accumulator.maxValue = Math.max(accumulator.maxValue, counter.getValue());
+    }
+
+    /**
+     * @return the merged profile, or null if no profile is added
+     */
+    public RuntimeProfile build() {
+        if (numProfiles == 0) {
+            return null;
+        }
+        RuntimeProfile mergedProfile = new RuntimeProfile(name);
+        mergedProfile.copyAllInfoStringsFrom(infoStrings, null);
+
+        for (Map<String, CounterAccumulator> level : levelCounters) {
+            for (Map.Entry<String, CounterAccumulator> entry : level.entrySet()) {
+                String counterName = entry.getKey();
+                if (counterName.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MIN) ||
+                        counterName.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MAX)) {
+                    continue;
+                }
+                buildCounter(mergedProfile, counterName, entry.getValue());
+            }
+        }
+
+        boolean identical = true;
+        for (String childName : prototypeChildNames) {
+            IsomorphicProfileAccumulator child = children.get(childName);
+            if (child.numProfiles < numProfiles) {
+                identical = false;
+            }
+            mergedProfile.addChild(child.build());
+        }
+        if (!identical) {
+            mergedProfile.addInfoString("NotIdentical", "");
+        }
+        return mergedProfile;
+    }
+
+    private void buildCounter(RuntimeProfile mergedProfile, String counterName, CounterAccumulator accumulator) {
+        if (!accumulator.skipMerge && accumulator.count == 0) {
+            return;
+        }
+        TUnit type = accumulator.type;
+        String parentName = accumulator.parentName;
+        Counter mergedCounter;
+        if (!Objects.equals(RuntimeProfile.ROOT_COUNTER, parentName) && mergedProfile.getCounter(parentName) != null) {
+            mergedCounter = mergedProfile.addCounter(counterName, type, accumulator.strategy, parentName);
+        } else {
+            if (!Objects.equals(RuntimeProfile.ROOT_COUNTER, parentName)) {
+                LOG.warn("missing parent counter, profileName={}, counterName={}, parentCounterName={}",
+                        name, counterName, parentName);
+            }
+            mergedCounter = mergedProfile.addCounter(counterName, type, accumulator.strategy);
+        }
+        if (accumulator.skipMerge) {
+            mergedCounter.setValue(accumulator.skipMergeValue);
+            return;
+        }
+        mergedCounter.setValue(accumulator.isAvg ? accumulator.sum / accumulator.count : accumulator.sum);
+        if (!mergedCounter.isSkipMinMax()) {
+            Counter minCounter = mergedProfile.addCounter(RuntimeProfile.MERGED_INFO_PREFIX_MIN + counterName, type,
+                    mergedCounter.getStrategy(), counterName);
+            Counter maxCounter = mergedProfile.addCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + counterName, type,
+                    mergedCounter.getStrategy(), counterName);
+            minCounter.setValue(accumulator.alreadyMerged ? accumulator.mergedMinValue : accumulator.minValue);
+            maxCounter.setValue(accumulator.alreadyMerged ? accumulator.mergedMaxValue : accumulator.maxValue);
+        }
+    }
+
+    public IsomorphicProfileAccumulator copy() {
+        IsomorphicProfileAccumulator copy = new IsomorphicProfileAccumulator(excludedInfoStrings);
+        copy.name = name;
+        copy.numProfiles = numProfiles;
+        copy.infoStrings = new RuntimeProfile();
+        copy.infoStrings.copyAllInfoStringsFrom(infoStrings, null);
+        for (Map<String, CounterAccumulator> level : levelCounters) {
+            Map<String, CounterAccumulator> levelCopy = Maps.newLinkedHashMap();
+            for (Map.Entry<String, CounterAccumulator> entry : level.entrySet()) {
+                CounterAccumulator counterCopy = entry.getValue().copy();
+                levelCopy.put(entry.getKey(), counterCopy);
+                copy.counters.put(entry.getKey(), counterCopy);
+            }
+            copy.levelCounters.add(levelCopy);
+        }
+        children.forEach((childName, child) -> copy.children.put(childName, child.copy()));
+        copy.prototypeChildNames = prototypeChildNames;
+        return copy;
+    }
+
+    private static class CounterAccumulator {
+        private final TUnit type;
+        private final String parentName;
+        private TCounterStrategy strategy;
+
+        private boolean skipMerge = false;
+        private long skipMergeValue;
+
+        private boolean isAvg;
+        private int count = 0;
+        private long sum = 0;
+        private long minValue = Long.MAX_VALUE;
+        private long maxValue = Long.MIN_VALUE;
+        // min and max of the __MIN_OF_ and __MAX_OF_ counters, if the counter is merged already
+        private boolean alreadyMerged = false;
+        private long mergedMinValue = Long.MAX_VALUE;
+        private long mergedMaxValue = Long.MIN_VALUE;
+
+        CounterAccumulator(TUnit type, String parentName) {
+            this.type = type;
+            this.parentName = parentName;
+        }
+
+        CounterAccumulator copy() {
+            CounterAccumulator copy = new CounterAccumulator(type, parentName);
+            copy.strategy = strategy;
+            copy.skipMerge = skipMerge;
+            copy.skipMergeValue = skipMergeValue;
+            copy.isAvg = isAvg;
+            copy.count = count;
+            copy.sum = sum;
+            copy.minValue = minValue;
+            copy.maxValue = maxValue;
+            copy.alreadyMerged = alreadyMerged;
+            copy.mergedMinValue = mergedMinValue;
+            copy.mergedMaxValue = mergedMaxValue;
+            return copy;
+        }
+    }
+}
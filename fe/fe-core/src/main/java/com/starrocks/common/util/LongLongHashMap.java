@@ -0,0 +1,184 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+/**
+ * A hash map from primitive long to primitive long, with open addressing and linear probing,
+ * see {@link LongObjectHashMap}. Key 0 marks an empty slot, so its entry is kept out of the table.
+ * <p>
+ * Not thread safe.
+ */
+public class LongLongHashMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // returned by get() if there is no such key
+    private final long missingValue;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int maxFill;
+    private boolean containsZeroKey;
+    private long zeroKeyValue;
+
+    public LongLongHashMap(long missingValue) {
+        this(DEFAULT_CAPACITY, missingValue);
+    }
+
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        this.missingValue = missingValue;
+        allocate(LongObjectHashMap.tableSizeFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int find(long key) {
+        int pos = LongObjectHashMap.hash(key) & mask;
+        while (keys[pos] != 0) {
+            if (keys[pos] == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -(pos + 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZeroKey : find(key) >= 0;
+    }
+
+    public long get(long key) {
+        if (key == 0) {
+            return containsZeroKey ? zeroKeyValue : missingValue;
+        }
+        int pos = find(key);
+        return pos >= 0 ? values[pos] : missingValue;
+    }
+
+    /**
+     * @return the previous value of the key, or the missing value if there is no such key
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long old = containsZeroKey ? zeroKeyValue : missingValue;
+            if (!containsZeroKey) {
+                containsZeroKey = true;
+                size++;
+            }
+            zeroKeyValue = value;
+            return old;
+        }
+        int pos = find(key);
+        if (pos >= 0) {
+            long old = values[pos];
+            values[pos] = value;
+            return old;
+        }
+        pos = -pos - 1;
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size - (containsZeroKey ? 1 : 0) > maxFill) {
+            rehash(keys.length * 2);
+        }
+        return missingValue;
+    }
+
+    /**
+     * @return the removed value, or the missing value if there is no such key
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            if (!containsZeroKey) {
+                return missingValue;
+            }
+            containsZeroKey = false;
+            size--;
+            return zeroKeyValue;
+        }
+        int pos = find(key);
+        if (pos < 0) {
+            return missingValue;
+        }
+        long old = values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    // the same as LongObjectHashMap.shiftKeys
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if (keys[pos] == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int slot = LongObjectHashMap.hash(keys[pos]) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = keys[pos];
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int pos = LongObjectHashMap.hash(oldKeys[i]) & mask;
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        containsZeroKey = false;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Shallow size of the map.
+     */
+    public long estimateSize() {
+        return 48 + 2 * 16 + 16L * keys.length;
+    }
+}
@@ -0,0 +1,272 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A hash map from primitive long to non-null object, with open addressing and linear probing.
+ * <p>
+ * Keys and values are kept in two flat arrays, so an entry costs 12 bytes (with compressed oops) at most
+ * 4/3 times, instead of a boxed Long and a HashMap.Node for each entry. A null value marks an empty slot,
+ * which is why null values are not allowed. Removed entries are back shifted, no tombstones are left.
+ * <p>
+ * Not thread safe, and the map must not be modified while it's traversed by a {@link Cursor}.
+ */
+public class LongObjectHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int maxFill;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        long capacity = Math.max(2, (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        Preconditions.checkArgument(capacity <= (1 << 30), "too many entries: %s", expectedSize);
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int find(long key) {
+        int pos = hash(key) & mask;
+        while (values[pos] != null) {
+            if (keys[pos] == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -(pos + 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int pos = find(key);
+        return pos >= 0 ? (V) values[pos] : null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return the previous value of the key, or null if there is no such key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Preconditions.checkNotNull(value);
+        int pos = find(key);
+        if (pos >= 0) {
+            V old = (V) values[pos];
+            values[pos] = value;
+            return old;
+        }
+        insert(-pos - 1, key, value);
+        return null;
+    }
+
+    /**
+     * @return the current value of the key, or null if the value is put
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(long key, V value) {
+        Preconditions.checkNotNull(value);
+        int pos = find(key);
+        if (pos >= 0) {
+            return (V) values[pos];
+        }
+        insert(-pos - 1, key, value);
+        return null;
+    }
+
+    private void insert(int pos, long key, Object value) {
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size > maxFill) {
+            rehash(values.length * 2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int pos = find(key);
+        if (pos < 0) {
+            return null;
+        }
+        V old = (V) values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    // move the following entries of the same probe sequence backward to fill the removed slot
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if (values[pos] == null) {
+                    values[last] = null;
+                    return;
+                }
+                int slot = hash(keys[pos]) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = keys[pos];
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int pos = hash(oldKeys[i]) & mask;
+                while (values[pos] != null) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    public LongObjectHashMap<V> copy() {
+        LongObjectHashMap<V> map = new LongObjectHashMap<>(0);
+        map.keys = keys.clone();
+        map.values = values.clone();
+        map.mask = mask;
+        map.size = size;
+        map.maxFill = maxFill;
+        return map;
+    }
+
+    public void clear() {
+        size = 0;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    public long[] keys() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int pos = 0; pos < values.length; pos++) {
+            if (values[pos] != null) {
+                result[i++] = keys[pos];
+            }
+        }
+        return result;
+    }
+
+    public Cursor<V> cursor() {
+        return new Cursor<>(this);
+    }
+
+    /**
+     * Shallow size of the map, the keys and the values themselves are not included.
+     */
+    public long estimateSize() {
+        // object header and fields, two array headers, 8 bytes for a key and 4 bytes for a compressed reference
+        return 32 + 2 * 16 + 12L * values.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Cursor<V> cursor = cursor(); cursor.advance(); ) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(cursor.key()).append('=').append(cursor.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Traverse the entries without allocating an entry for each of them.
+     * <pre>
+     * for (LongObjectHashMap.Cursor&lt;V&gt; cursor = map.cursor(); cursor.advance(); ) {
+     *     long key = cursor.key();
+     *     V value = cursor.value();
+     * }
+     * </pre>
+     */
+    public static class Cursor<V> {
+        private final long[] keys;
+        private final Object[] values;
+        private int pos = -1;
+
+        private Cursor(LongObjectHashMap<V> map) {
+            this.keys = map.keys;
+            this.values = map.values;
+        }
+
+        public boolean advance() {
+            while (++pos < values.length) {
+                if (values[pos] != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long key() {
+            return keys[pos];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) values[pos];
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A ring of local files to keep the profiles spilled out of heap by {@link ProfileManager}.
+ * <p>
+ * Profiles are appended to the current file until it's full, then the next file in the ring is truncated and
+ * written, so the profiles in it are dropped. The files are cleared on startup, profiles of the previous process
+ * are not kept.
+ */
+public class ProfileArchive {
+    private static final Logger LOG = LogManager.getLogger(ProfileArchive.class);
+    private static final String FILE_PREFIX = "profile.";
+
+    private final File dir;
+    private final int numFiles;
+    private final long fileSize;
+
+    // sequence number of the file being written, the file index in the ring is seq % numFiles
+    private long currentSeq = 0;
+    private RandomAccessFile currentFile;
+    private long currentOffset = 0;
+
+    /**
+     * Position of a profile in the archive.
+     */
+    public static class Entry {
+        private final long seq;
+        private final long offset;
+        private final int length;
+
+        private Entry(long seq, long offset, int length) {
+            this.seq = seq;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    public ProfileArchive(String dirPath, int numFiles, long totalSize) throws IOException {
+        this.dir = new File(dirPath);
+        this.numFiles = numFiles;
+        this.fileSize = Math.max(1, totalSize / numFiles);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("failed to create profile archive dir " + dir.getAbsolutePath());
+        }
+        for (int i = 0; i < numFiles; i++) {
+            File file = getFile(i);
+            if (file.exists() && !file.delete()) {
+                throw new IOException("failed to clear profile archive file " + file.getAbsolutePath());
+            }
+        }
+        currentFile = new RandomAccessFile(getFile(0), "rw");
+        LOG.info("profile archive is created in {}, {} files of {} bytes", dir.getAbsolutePath(), numFiles, fileSize);
+    }
+
+    public synchronized Entry append(byte[] data) throws IOException {
+        if (currentOffset > 0 && currentOffset + data.length > fileSize) {
+            currentFile.close();
+            currentSeq++;
+            currentOffset = 0;
+            currentFile = new RandomAccessFile(getFile((int) (currentSeq % numFiles)), "rw");
+            currentFile.setLength(0);
+        }
+        FileChannel channel = currentFile.getChannel();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = currentOffset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        Entry entry = new Entry(currentSeq, currentOffset, data.length);
+        currentOffset = position;
+        return entry;
+    }
+
+    /**
+     * @return the profile content, or null if it has been overwritten
+     */
+    public synchronized byte[] read(Entry entry) throws IOException {
+        if (!isValid(entry)) {
+            return null;
+        }
+        byte[] data = new byte[entry.length];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (entry.seq == currentSeq) {
+            readFully(currentFile.getChannel(), buffer, entry.offset);
+        } else {
+            try (RandomAccessFile file = new RandomAccessFile(getFile((int) (entry.seq % numFiles)), "r")) {
+                readFully(file.getChannel(), buffer, entry.offset);
+            }
+        }
+        return data;
+    }
+
+    public synchronized boolean isValid(Entry entry) {
+        return entry.seq > currentSeq - numFiles;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("unexpected end of profile archive file");
+            }
+            position += n;
+        }
+    }
+
+    private File getFile(int index) {
+        return new File(dir, FILE_PREFIX + index);
+    }
+}
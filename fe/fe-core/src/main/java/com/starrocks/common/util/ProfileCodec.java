@@ -0,0 +1,296 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Pair;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.thrift.TCounterAggregateType;
+import com.starrocks.thrift.TCounterMergeType;
+import com.starrocks.thrift.TCounterMinMaxType;
+import com.starrocks.thrift.TCounterStrategy;
+import com.starrocks.thrift.TUnit;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of the {@link RuntimeProfile} kept by {@link ProfileManager}.
+ * <p>
+ * The profile tree is written in preorder. Every string (profile names, info strings and counter names) is written
+ * once and referred by its index afterwards, and the counter values are written as zigzag varints, so the profile
+ * of many isomorphic fragments and operators is much smaller than its text form, and it's only rendered to text
+ * when someone asks for it.
+ */
+final class ProfileCodec {
+    private static final byte VERSION_1 = 1;
+
+    // string reference, followed by the string if it's new, otherwise it's the index in the string table plus 2
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+
+    private ProfileCodec() {
+    }
+
+    static byte[] encode(RuntimeProfile profile) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.buffer.writeByte(VERSION_1);
+        encoder.writeProfile(profile);
+        byte[] data = encoder.buffer.getData();
+        int length = encoder.buffer.getLength();
+        byte[] result = new byte[length];
+        System.arraycopy(data, 0, result, 0, length);
+        return result;
+    }
+
+    static RuntimeProfile decode(byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != VERSION_1) {
+                throw new IOException("unknown profile encoding version: " + version);
+            }
+            RuntimeProfile profile = new Decoder(buffer).readProfile();
+            if (buffer.hasRemaining()) {
+                throw new IOException("unexpected " + buffer.remaining() + " bytes after the profile");
+            }
+            return profile;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("malformed profile content", e);
+        }
+    }
+
+    private static class Encoder {
+        private final DataOutputBuffer buffer = new DataOutputBuffer(1024);
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        void writeProfile(RuntimeProfile profile) throws IOException {
+            writeString(profile.getName());
+            buffer.writeDouble(profile.getLocalTimePercent());
+
+            Map<String, String> infoStrings = profile.getInfoStrings();
+            List<Map.Entry<String, String>> infoEntries;
+            synchronized (infoStrings) {
+                infoEntries = new ArrayList<>(infoStrings.entrySet());
+            }
+            writeVarLong(infoEntries.size());
+            for (Map.Entry<String, String> entry : infoEntries) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+
+            Counter totalTime = profile.getCounterTotalTime();
+            writeVarLong(totalTime.getType().getValue());
+            writeSignedVarLong(totalTime.getValue());
+
+            // parent counters must be added before their children when decoding
+            List<Pair<String, String>> counterNames = Lists.newArrayList();
+            Map<String, Set<String>> childCounterMap = profile.getChildCounterMap();
+            Queue<String> nameQueue = Lists.newLinkedList();
+            nameQueue.offer(RuntimeProfile.ROOT_COUNTER);
+            while (!nameQueue.isEmpty()) {
+                String parentName = nameQueue.poll();
+                Set<String> childNames = childCounterMap.get(parentName);
+                if (childNames != null) {
+                    for (String childName : childNames) {
+                        counterNames.add(Pair.create(childName, parentName));
+                        nameQueue.offer(childName);
+                    }
+                }
+            }
+            List<Pair<String, String>> writtenNames = Lists.newArrayListWithCapacity(counterNames.size());
+            List<Counter> counters = Lists.newArrayListWithCapacity(counterNames.size());
+            for (Pair<String, String> names : counterNames) {
+                Counter counter = profile.getCounter(names.first);
+                if (counter != null) {
+                    writtenNames.add(names);
+                    counters.add(counter);
+                }
+            }
+            writeVarLong(counters.size());
+            for (int i = 0; i < counters.size(); i++) {
+                Counter counter = counters.get(i);
+                writeString(writtenNames.get(i).first);
+                writeString(writtenNames.get(i).second);
+                writeVarLong(counter.getType().getValue());
+                writeStrategy(counter.getStrategy());
+                writeSignedVarLong(counter.getValue());
+            }
+
+            List<Pair<RuntimeProfile, Boolean>> children = profile.getChildList();
+            writeVarLong(children.size());
+            for (Pair<RuntimeProfile, Boolean> child : children) {
+                buffer.writeBoolean(child.second);
+                writeProfile(child.first);
+            }
+        }
+
+        private void writeStrategy(TCounterStrategy strategy) throws IOException {
+            if (strategy == null || strategy.aggregate_type == null || strategy.merge_type == null) {
+                // the default strategy of the counter type is used
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(strategy.aggregate_type.getValue() + 1);
+            writeVarLong(strategy.merge_type.getValue());
+            writeVarLong(strategy.min_max_type == null ? 0 : strategy.min_max_type.getValue() + 1);
+            writeSignedVarLong(strategy.display_threshold);
+        }
+
+        private void writeString(String s) throws IOException {
+            if (s == null) {
+                writeVarLong(NULL_STRING);
+                return;
+            }
+            Integer index = strings.get(s);
+            if (index != null) {
+                writeVarLong(index + 2);
+                return;
+            }
+            strings.put(s, strings.size());
+            writeVarLong(NEW_STRING);
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            buffer.write(bytes);
+        }
+
+        private void writeSignedVarLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                buffer.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.writeByte((int) value);
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private final List<String> strings = new ArrayList<>();
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        RuntimeProfile readProfile() throws IOException {
+            RuntimeProfile profile = new RuntimeProfile(readString());
+            profile.setLocalTimePercent(buffer.getDouble());
+
+            int numInfoStrings = readLength();
+            for (int i = 0; i < numInfoStrings; i++) {
+                String key = readString();
+                profile.addInfoString(key, readString());
+            }
+
+            Counter totalTime = profile.getCounterTotalTime();
+            totalTime.setType(readUnit());
+            totalTime.setValue(readSignedVarLong());
+
+            int numCounters = readLength();
+            for (int i = 0; i < numCounters; i++) {
+                String name = readString();
+                String parentName = readString();
+                TUnit type = readUnit();
+                TCounterStrategy strategy = readStrategy();
+                Counter counter = profile.addCounter(name, type, strategy, parentName);
+                counter.setValue(readSignedVarLong());
+            }
+
+            int numChildren = readLength();
+            for (int i = 0; i < numChildren; i++) {
+                boolean indent = buffer.get() != 0;
+                profile.addChild(readProfile(), indent);
+            }
+            return profile;
+        }
+
+        private TUnit readUnit() throws IOException {
+            long value = readVarLong();
+            TUnit type = TUnit.findByValue((int) value);
+            if (type == null) {
+                throw new IOException("unknown counter type: " + value);
+            }
+            return type;
+        }
+
+        private TCounterStrategy readStrategy() throws IOException {
+            int aggregateType = (int) readVarLong();
+            if (aggregateType == 0) {
+                return null;
+            }
+            TCounterStrategy strategy = new TCounterStrategy();
+            strategy.aggregate_type = TCounterAggregateType.findByValue(aggregateType - 1);
+            strategy.merge_type = TCounterMergeType.findByValue((int) readVarLong());
+            int minMaxType = (int) readVarLong();
+            strategy.min_max_type = minMaxType == 0 ? null : TCounterMinMaxType.findByValue(minMaxType - 1);
+            strategy.setDisplay_threshold(readSignedVarLong());
+            return strategy;
+        }
+
+        private String readString() throws IOException {
+            int ref = readLength();
+            if (ref == NULL_STRING) {
+                return null;
+            }
+            if (ref != NEW_STRING) {
+                if (ref - 2 >= strings.size()) {
+                    throw new IOException("string reference out of range: " + ref);
+                }
+                return strings.get(ref - 2);
+            }
+            int length = readLength();
+            String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            strings.add(s);
+            return s;
+        }
+
+        private int readLength() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("invalid length: " + value);
+            }
+            return (int) value;
+        }
+
+        private long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
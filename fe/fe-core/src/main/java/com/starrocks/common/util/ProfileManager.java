@@ -46,8 +46,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.spark.util.SizeEstimator;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +69,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 public class ProfileManager implements MemoryTrackable {
     private static final Logger LOG = LogManager.getLogger(ProfileManager.class);
     private static ProfileManager INSTANCE = null;
+    private static final int ARCHIVE_FILE_NUM = 16;
     public static final String QUERY_ID = "Query ID";
     public static final String START_TIME = "Start Time";
     public static final String END_TIME = "End Time";
@@ -97,8 +100,10 @@ public class ProfileManager implements MemoryTrackable {
 
     public static class ProfileElement {
         public Map<String, String> infoStrings = Maps.newHashMap();
-        public byte[] profileContent;
         public ProfilingExecPlan plan;
+        // the profile encoded by ProfileCodec, it's set to null once the profile is spilled to the archive
+        private volatile byte[] profileContent;
+        private volatile ProfileArchive.Entry archiveEntry;
 
         public List<String> toRow() {
             List<String> res = Lists.newArrayList();
@@ -113,6 +118,10 @@ public class ProfileManager implements MemoryTrackable {
             res.add(statement);
             return res;
         }
+
+        private boolean isLoad() {
+            return "Load".equals(infoStrings.get(QUERY_TYPE));
+        }
     }
 
     private final ReadLock readLock;
@@ -120,6 +129,11 @@ public class ProfileManager implements MemoryTrackable {
 
     private final LinkedHashMap<String, ProfileElement> profileMap; // from QueryId to RuntimeProfile
     private final LinkedHashMap<String, ProfileElement> loadProfileMap; // from LoadId to RuntimeProfile
+    // elements whose profile content is in heap, from the oldest to the newest
+    private final ArrayDeque<ProfileElement> inMemoryElements = new ArrayDeque<>();
+    private long inMemoryBytes = 0;
+    // null if profile_archive_size_mb is 0 or the archive can't be created
+    private final ProfileArchive archive;
 
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
@@ -134,23 +148,38 @@ public class ProfileManager implements MemoryTrackable {
         writeLock = lock.writeLock();
         profileMap = new LinkedHashMap<>();
         loadProfileMap = new LinkedHashMap<>();
+        archive = createArchive();
+    }
+
+    private static ProfileArchive createArchive() {
+        if (Config.profile_archive_size_mb <= 0) {
+            return null;
+        }
+        try {
+            return new ProfileArchive(Config.profile_archive_dir, ARCHIVE_FILE_NUM,
+                    Config.profile_archive_size_mb * 1024 * 1024);
+        } catch (IOException e) {
+            LOG.warn("failed to create profile archive in {}, profiles will only be kept in memory",
+                    Config.profile_archive_dir, e);
+            return null;
+        }
     }
 
-    public ProfileElement createElement(RuntimeProfile summaryProfile, String profileString) {
+    public ProfileElement createElement(RuntimeProfile profile) {
+        RuntimeProfile summaryProfile = profile.getChildList().get(0).first;
         ProfileElement element = new ProfileElement();
         for (String header : PROFILE_HEADERS) {
             element.infoStrings.put(header, summaryProfile.getInfoString(header));
         }
         try {
-            element.profileContent = CompressionUtils.gzipCompressString(profileString);
+            element.profileContent = ProfileCodec.encode(profile);
         } catch (IOException e) {
-            LOG.warn("Compress profile string failed, length: {}, reason: {}",
-                    profileString.length(), e.getMessage());
+            LOG.warn("Encode profile failed, reason: {}", e.getMessage());
         }
         return element;
     }
 
-    private String generateProfileString(RuntimeProfile profile) {
+    public String generateProfileString(RuntimeProfile profile) {
         if (profile == null) {
             return "";
         }
@@ -171,12 +200,14 @@ public class ProfileManager implements MemoryTrackable {
         return profileString;
     }
 
-    public String pushProfile(ProfilingExecPlan plan, RuntimeProfile profile) {
-        String profileString = generateProfileString(profile);
-        ProfileElement element = createElement(profile.getChildList().get(0).first, profileString);
+    /**
+     * Keep the profile in its compact form, it's rendered to text by {@link #getProfile(String)}.
+     * Use {@link #generateProfileString(RuntimeProfile)} if the text is needed right now.
+     */
+    public void pushProfile(ProfilingExecPlan plan, RuntimeProfile profile) {
+        ProfileElement element = createElement(profile);
         element.plan = plan;
         String queryId = element.infoStrings.get(ProfileManager.QUERY_ID);
-        String queryType = element.infoStrings.get(ProfileManager.QUERY_TYPE);
         // check when push in, which can ensure every element in the list has QUERY_ID column,
         // so there is no need to check when remove element from list.
         if (Strings.isNullOrEmpty(queryId)) {
@@ -184,24 +215,90 @@ public class ProfileManager implements MemoryTrackable {
                     + "may be forget to insert 'QUERY_ID' column into infoStrings");
         }
 
+        List<ProfileElement> spilledElements = Lists.newArrayList();
         writeLock.lock();
         try {
-            if (queryType != null && queryType.equals("Load")) {
-                loadProfileMap.put(queryId, element);
-                if (loadProfileMap.size() > Config.load_profile_info_reserved_num) {
-                    loadProfileMap.remove(loadProfileMap.keySet().iterator().next());
-                }
-            } else {
-                profileMap.put(queryId, element);
-                if (profileMap.size() > Config.profile_info_reserved_num) {
-                    profileMap.remove(profileMap.keySet().iterator().next());
+            LinkedHashMap<String, ProfileElement> map = element.isLoad() ? loadProfileMap : profileMap;
+            int reservedNum = element.isLoad() ? Config.load_profile_info_reserved_num : Config.profile_info_reserved_num;
+            releaseElement(map.put(queryId, element));
+            while (map.size() > reservedNum) {
+                releaseElement(map.remove(map.keySet().iterator().next()));
+            }
+            if (element.profileContent != null) {
+                inMemoryElements.add(element);
+                inMemoryBytes += element.profileContent.length;
+            }
+            // spill or drop the oldest profiles if the memory is exceeded, but keep the newest one anyway
+            long memoryLimit = Config.profile_info_reserved_memory_mb * 1024 * 1024;
+            while (inMemoryBytes > memoryLimit && inMemoryElements.size() > 1) {
+                ProfileElement oldest = inMemoryElements.poll();
+                inMemoryBytes -= oldest.profileContent.length;
+                if (archive != null) {
+                    spilledElements.add(oldest);
+                } else {
+                    removeElement(oldest);
                 }
             }
         } finally {
             writeLock.unlock();
         }
 
-        return profileString;
+        if (!spilledElements.isEmpty()) {
+            spill(spilledElements);
+        }
+    }
+
+    private void spill(List<ProfileElement> elements) {
+        List<ProfileElement> failedElements = Lists.newArrayList();
+        for (ProfileElement element : elements) {
+            try {
+                // the entry must be set before the content is released, see getRuntimeProfile()
+                element.archiveEntry = archive.append(element.profileContent);
+                element.profileContent = null;
+            } catch (IOException e) {
+                LOG.warn("failed to spill profile {} to archive, reason: {}",
+                        element.infoStrings.get(QUERY_ID), e.getMessage());
+                failedElements.add(element);
+            }
+        }
+
+        writeLock.lock();
+        try {
+            failedElements.forEach(this::removeElement);
+            // the profiles overwritten in the archive are the oldest ones
+            removeStaleElements(profileMap);
+            removeStaleElements(loadProfileMap);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void removeStaleElements(LinkedHashMap<String, ProfileElement> map) {
+        Iterator<ProfileElement> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            ProfileElement element = iterator.next();
+            ProfileArchive.Entry entry = element.archiveEntry;
+            if (entry == null || archive.isValid(entry)) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    // must hold the write lock
+    private void removeElement(ProfileElement element) {
+        String queryId = element.infoStrings.get(QUERY_ID);
+        LinkedHashMap<String, ProfileElement> map = element.isLoad() ? loadProfileMap : profileMap;
+        if (map.get(queryId) == element) {
+            map.remove(queryId);
+        }
+    }
+
+    // must hold the write lock
+    private void releaseElement(ProfileElement element) {
+        if (element != null && element.profileContent != null && inMemoryElements.remove(element)) {
+            inMemoryBytes -= element.profileContent.length;
+        }
     }
 
     public boolean hasProfile(String queryId) {
@@ -242,8 +339,8 @@ public class ProfileManager implements MemoryTrackable {
     public void removeProfile(String queryId) {
         writeLock.lock();
         try {
-            loadProfileMap.remove(queryId);
-            profileMap.remove(queryId);
+            releaseElement(loadProfileMap.remove(queryId));
+            releaseElement(profileMap.remove(queryId));
         } finally {
             writeLock.unlock();
         }
@@ -254,27 +351,38 @@ public class ProfileManager implements MemoryTrackable {
         try {
             loadProfileMap.clear();
             profileMap.clear();
+            inMemoryElements.clear();
+            inMemoryBytes = 0;
         } finally {
             writeLock.unlock();
         }
     }
 
     public String getProfile(String queryId) {
-        ProfileElement element = new ProfileElement();
-        readLock.lock();
+        RuntimeProfile profile = getRuntimeProfile(getProfileElement(queryId));
+        return profile == null ? null : generateProfileString(profile);
+    }
+
+    /**
+     * @return the profile of the element, or null if it has been dropped
+     */
+    public RuntimeProfile getRuntimeProfile(ProfileElement element) {
+        if (element == null) {
+            return null;
+        }
         try {
-            element = profileMap.get(queryId) == null ? loadProfileMap.get(queryId) : profileMap.get(queryId);
-            if (element == null) {
-                return null;
+            byte[] content = element.profileContent;
+            if (content == null) {
+                ProfileArchive.Entry entry = element.archiveEntry;
+                if (entry == null || (content = archive.read(entry)) == null) {
+                    return null;
+                }
             }
-
-            return CompressionUtils.gzipDecompressString(element.profileContent);
+            return ProfileCodec.decode(content);
         } catch (IOException e) {
-            LOG.warn("Decompress profile content failed, length: {}, reason: {}",
-                    element.profileContent.length, e.getMessage());
+            LOG.warn("Decode profile content failed, query id: {}, reason: {}",
+                    element.infoStrings.get(QUERY_ID), e.getMessage());
             return null;
-        } finally {
-            readLock.unlock();
         }
     }
 
@@ -439,12 +439,16 @@ public class RuntimeProfile {
     }
 
     public void addChild(RuntimeProfile child) {
+        addChild(child, true);
+    }
+
+    void addChild(RuntimeProfile child, boolean indent) {
         if (child == null) {
             return;
         }
 
         childMap.put(child.name, child);
-        Pair<RuntimeProfile, Boolean> pair = Pair.create(child, true);
+        Pair<RuntimeProfile, Boolean> pair = Pair.create(child, indent);
         childList.add(pair);
     }
 
@@ -565,6 +569,10 @@ public class RuntimeProfile {
         return localTimePercent;
     }
 
+    void setLocalTimePercent(double localTimePercent) {
+        this.localTimePercent = localTimePercent;
+    }
+
     public boolean containsInfoString(String key) {
         return infoStrings.containsKey(key);
     }
@@ -17,9 +17,15 @@ package com.starrocks.connector;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.reflect.TypeToken;
 import com.starrocks.connector.exception.StarRocksConnectorException;
+import com.starrocks.connector.hive.HiveRemoteFileIO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -40,27 +46,75 @@ public class CachingRemoteFileIO implements RemoteFileIO {
     public static final long NEVER_REFRESH = -1;
     private final RemoteFileIO fileIO;
     private final LoadingCache<RemotePathKey, List<RemoteFileDesc>> cache;
+    // Optional local disk tier of the cache, only used by the catalog level instance over hdfs-like file listings.
+    private final MetadataDiskCache<List<RemoteFileDesc>> diskCache;
+    // Disk entries older than the on-heap expiration are not used, so a load after the on-heap entry expires
+    // lists the files again rather than reading the entry written back then.
+    private final long diskCacheMaxAgeMs;
+
+    // The persisted form of RemoteFileDesc, block replicas are kept as host names because host ids are not stable
+    private static class DiskFileDesc {
+        private String fileName;
+        private String compression;
+        private long length;
+        private long modificationTime;
+        private String fullPath;
+        private List<long[]> blocks;
+        private List<String[]> blockHosts;
+    }
 
     protected CachingRemoteFileIO(RemoteFileIO fileIO,
                                   Executor executor,
                                   long expireAfterWriteSec,
                                   long refreshIntervalSec,
                                   long maxSize) {
+        this(fileIO, executor, expireAfterWriteSec, refreshIntervalSec, maxSize, null);
+    }
+
+    protected CachingRemoteFileIO(RemoteFileIO fileIO,
+                                  Executor executor,
+                                  long expireAfterWriteSec,
+                                  long refreshIntervalSec,
+                                  long maxSize,
+                                  String diskCacheIdentity) {
         this.fileIO = fileIO;
+        if (fileIO instanceof HiveRemoteFileIO) {
+            HiveRemoteFileIO hiveFileIO = (HiveRemoteFileIO) fileIO;
+            this.diskCache = MetadataDiskCache.create(diskCacheIdentity, "remote_files",
+                    CachingRemoteFileIO::encodeRemoteFiles, json -> decodeRemoteFiles(hiveFileIO, json));
+        } else {
+            this.diskCache = null;
+        }
+        this.diskCacheMaxAgeMs = expireAfterWriteSec >= 0 ? SECONDS.toMillis(expireAfterWriteSec) : -1;
         this.cache = newCacheBuilder(expireAfterWriteSec, refreshIntervalSec, maxSize)
                 .build(asyncReloading(new CacheLoader<RemotePathKey, List<RemoteFileDesc>>() {
                     @Override
                     public List<RemoteFileDesc> load(RemotePathKey key) throws Exception {
-                        List<RemoteFileDesc> res = loadRemoteFiles(key);
+                        List<RemoteFileDesc> res = loadThroughDisk(key, false);
                         key.drop();
                         return res;
                     }
+
+                    @Override
+                    public ListenableFuture<List<RemoteFileDesc>> reload(RemotePathKey key,
+                                                                         List<RemoteFileDesc> oldValue) {
+                        // refresh always lists the files again
+                        List<RemoteFileDesc> res = loadThroughDisk(key, true);
+                        key.drop();
+                        return Futures.immediateFuture(res);
+                    }
                 }, executor));
     }
 
     public static CachingRemoteFileIO createCatalogLevelInstance(RemoteFileIO fileIO, Executor executor,
                                                                  long expireAfterWrite, long refreshInterval, long maxSize) {
-        return new CachingRemoteFileIO(fileIO, executor, expireAfterWrite, refreshInterval, maxSize);
+        return createCatalogLevelInstance(fileIO, executor, expireAfterWrite, refreshInterval, maxSize, null);
+    }
+
+    public static CachingRemoteFileIO createCatalogLevelInstance(RemoteFileIO fileIO, Executor executor,
+                                                                 long expireAfterWrite, long refreshInterval, long maxSize,
+                                                                 String diskCacheIdentity) {
+        return new CachingRemoteFileIO(fileIO, executor, expireAfterWrite, refreshInterval, maxSize, diskCacheIdentity);
     }
 
     public static CachingRemoteFileIO createQueryLevelInstance(RemoteFileIO fileIO, long maxSize) {
@@ -93,6 +147,71 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         return fileIO.getRemoteFiles(pathKey).get(pathKey);
     }
 
+    // The disk tier is only read on a cold miss, a refresh loads from the file system and writes through
+    private List<RemoteFileDesc> loadThroughDisk(RemotePathKey pathKey, boolean refresh) {
+        // hudi file slices depend on the timeline of the table, so they are never persisted
+        if (diskCache == null || pathKey.getHudiTableLocation().isPresent()) {
+            return loadRemoteFiles(pathKey);
+        }
+        String diskKey = toDiskCacheKey(pathKey);
+        List<RemoteFileDesc> files = refresh ? null : diskCache.get(diskKey, diskCacheMaxAgeMs);
+        if (files == null) {
+            files = loadRemoteFiles(pathKey);
+            diskCache.put(diskKey, files);
+        }
+        return files;
+    }
+
+    private static String toDiskCacheKey(RemotePathKey pathKey) {
+        return (pathKey.isRecursive() ? "recursive:" : "") + pathKey.getPath();
+    }
+
+    private static String encodeRemoteFiles(List<RemoteFileDesc> files) {
+        List<DiskFileDesc> diskFiles = Lists.newArrayListWithCapacity(files.size());
+        for (RemoteFileDesc file : files) {
+            DiskFileDesc diskFile = new DiskFileDesc();
+            diskFile.fileName = file.getFileName();
+            diskFile.compression = file.getCompression();
+            diskFile.length = file.getLength();
+            diskFile.modificationTime = file.getModificationTime();
+            diskFile.fullPath = file.getFullPath();
+            diskFile.blocks = Lists.newArrayList();
+            diskFile.blockHosts = Lists.newArrayList();
+            for (RemoteFileBlockDesc block : file.getBlockDescs()) {
+                long[] hostIds = block.getReplicaHostIds();
+                String[] hosts = new String[hostIds.length];
+                for (int i = 0; i < hostIds.length; i++) {
+                    hosts[i] = block.getDataNodeHostPort(hostIds[i]);
+                }
+                diskFile.blocks.add(new long[] {block.getOffset(), block.getLength()});
+                diskFile.blockHosts.add(hosts);
+            }
+            diskFiles.add(diskFile);
+        }
+        return MetadataDiskCache.GSON.toJson(diskFiles);
+    }
+
+    private static List<RemoteFileDesc> decodeRemoteFiles(HiveRemoteFileIO hiveFileIO, String json) {
+        List<DiskFileDesc> diskFiles = MetadataDiskCache.GSON.fromJson(json, new TypeToken<List<DiskFileDesc>>() {
+        }.getType());
+        List<RemoteFileDesc> files = Lists.newArrayListWithCapacity(diskFiles.size());
+        for (DiskFileDesc diskFile : diskFiles) {
+            ImmutableList.Builder<RemoteFileBlockDesc> blocks = ImmutableList.builder();
+            for (int i = 0; i < diskFile.blocks.size(); i++) {
+                long[] block = diskFile.blocks.get(i);
+                blocks.add(hiveFileIO.buildRemoteFileBlockDesc(block[0], block[1],
+                        hiveFileIO.getReplicaHostIds(diskFile.blockHosts.get(i))));
+            }
+            RemoteFileDesc file = new RemoteFileDesc(diskFile.fileName, diskFile.compression, diskFile.length,
+                    diskFile.modificationTime, blocks.build(), ImmutableList.of());
+            if (diskFile.fullPath != null) {
+                file.setFullPath(diskFile.fullPath);
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
     public Map<RemotePathKey, List<RemoteFileDesc>> getPresentRemoteFiles(List<RemotePathKey> paths) {
         if (fileIO instanceof CachingRemoteFileIO) {
             return ((CachingRemoteFileIO) fileIO).getPresentRemoteFiles(paths);
@@ -111,13 +230,20 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         if (fileIO instanceof CachingRemoteFileIO) {
             ((CachingRemoteFileIO) fileIO).updateRemoteFiles(pathKey);
         } else {
-            cache.put(pathKey, loadRemoteFiles(pathKey));
+            List<RemoteFileDesc> files = loadRemoteFiles(pathKey);
+            cache.put(pathKey, files);
+            if (diskCache != null && !pathKey.getHudiTableLocation().isPresent()) {
+                diskCache.put(toDiskCacheKey(pathKey), files);
+            }
         }
         pathKey.drop();
     }
 
     public synchronized void invalidateAll() {
         cache.invalidateAll();
+        if (diskCache != null) {
+            diskCache.invalidateAll();
+        }
     }
 
     public void invalidatePartition(RemotePathKey pathKey) {
@@ -128,6 +254,9 @@ public class CachingRemoteFileIO implements RemoteFileIO {
             cache.invalidate(pathKey);
         } else {
             cache.invalidate(pathKey);
+            if (diskCache != null) {
+                diskCache.invalidate(toDiskCacheKey(pathKey));
+            }
         }
         pathKey.drop();
     }
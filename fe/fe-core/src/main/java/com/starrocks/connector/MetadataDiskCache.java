@@ -0,0 +1,624 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.metric.MetricRepo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * MetadataDiskCache is an optional local disk tier below the on-heap metadata caches of the hive-like connectors.
+ * Entries are appended to a single segment file per catalog and namespace, and an in-memory index from key to
+ * file offset is rebuilt by scanning the segment when the catalog is created. So after a FE restart or leader
+ * switch the first lookups are served from the local disk instead of the metastore or the remote file system.
+ *
+ * The index is kept in LRU order and the live bytes are bounded by
+ * {@link Config#connector_metadata_disk_cache_capacity_bytes}. Removed or overwritten records are only
+ * marked with a tombstone and the segment is rewritten in the background when the garbage outweighs the live
+ * data, the rewritten segment is swapped in under the lock at the end. Values are read with positional reads
+ * outside the lock, so lookups are not serialized by the file pointer.
+ * Entries older than {@link Config#connector_metadata_disk_cache_ttl_s} are ignored, since invalidation
+ * events may have been missed while the FE was down.
+ */
+public class MetadataDiskCache<V> {
+    private static final Logger LOG = LogManager.getLogger(MetadataDiskCache.class);
+
+    static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    // type(1) + write time(8) + key length(4) + value length(4)
+    private static final int RECORD_HEADER_SIZE = 17;
+    private static final long MIN_COMPACT_FILE_SIZE = 64L * 1024 * 1024;
+
+    // segment file path -> opened instance
+    private static final Map<String, MetadataDiskCache<?>> INSTANCES = Maps.newConcurrentMap();
+    // rewrites the segments in the background
+    private static final ExecutorService COMPACT_EXECUTOR =
+            ThreadPoolManager.newDaemonCacheThreadPool(1, 1024, "metadata-disk-cache-compact", false);
+
+    private static class IndexEntry {
+        private final long valueOffset;
+        private final int valueLength;
+        private final int recordSize;
+        private final long writeTimeMs;
+
+        IndexEntry(long valueOffset, int valueLength, int recordSize, long writeTimeMs) {
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+            this.recordSize = recordSize;
+            this.writeTimeMs = writeTimeMs;
+        }
+    }
+
+    private final String catalogIdentity;
+    private final File file;
+    private final Function<V, String> encoder;
+    private final Function<String, V> decoder;
+    // key -> entry in access order, the eldest entry is evicted first
+    private final LinkedHashMap<String, IndexEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private RandomAccessFile segment;
+    private long liveBytes = 0;
+    // increased when the segment is replaced or truncated, the offsets read before are no longer valid
+    private long generation = 0;
+    // the running compaction, guarded by this
+    private Future<?> compaction;
+
+    private MetadataDiskCache(String catalogIdentity, File file, Function<V, String> encoder, Function<String, V> decoder) {
+        this.catalogIdentity = catalogIdentity;
+        this.file = file;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Returns the name of the directory holding the segments of a catalog. The connector type separates the
+     * connectors sharing one unified catalog, and the catalog properties are part of the name so that a catalog
+     * recreated with the same name against another metastore never sees stale entries.
+     */
+    public static String catalogIdentity(String connectorType, String catalogName, Map<String, String> properties) {
+        return catalogName + "_" + connectorType + "_" + Integer.toHexString(new TreeMap<>(properties).hashCode());
+    }
+
+    public static <V> MetadataDiskCache<V> create(String catalogIdentity, String namespace, Class<V> clazz) {
+        return create(catalogIdentity, namespace, GSON::toJson, json -> GSON.fromJson(json, clazz));
+    }
+
+    /**
+     * Opens the segment of the namespace and loads its index. Returns null if the disk cache is disabled or
+     * the segment can not be opened, callers then fall back to the on-heap cache only.
+     */
+    public static <V> MetadataDiskCache<V> create(String catalogIdentity, String namespace,
+                                                  Function<V, String> encoder, Function<String, V> decoder) {
+        if (!Config.enable_connector_metadata_disk_cache || catalogIdentity == null) {
+            return null;
+        }
+        File dir = new File(Config.connector_metadata_disk_cache_dir, catalogIdentity);
+        File file = new File(dir, namespace + ".seg");
+        MetadataDiskCache<V> diskCache = new MetadataDiskCache<>(catalogIdentity, file, encoder, decoder);
+        try {
+            Files.createDirectories(dir.toPath());
+            diskCache.open();
+        } catch (IOException e) {
+            LOG.warn("Failed to open metadata disk cache {}, disable it", file, e);
+            diskCache.close();
+            return null;
+        }
+        MetadataDiskCache<?> previous = INSTANCES.put(file.getAbsolutePath(), diskCache);
+        if (previous != null) {
+            previous.close();
+        }
+        return diskCache;
+    }
+
+    /**
+     * Closes the disk caches of a dropped catalog and removes their segments.
+     */
+    public static void dropCatalog(String catalogIdentity) {
+        INSTANCES.values().removeIf(diskCache -> {
+            if (diskCache.catalogIdentity.equals(catalogIdentity)) {
+                diskCache.close();
+                return true;
+            }
+            return false;
+        });
+        File dir = new File(Config.connector_metadata_disk_cache_dir, catalogIdentity);
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        try {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.deleteIfExists(dir.toPath());
+        } catch (IOException e) {
+            LOG.warn("Failed to remove metadata disk cache {}", dir, e);
+        }
+    }
+
+    public static List<MetadataDiskCache<?>> getInstances() {
+        return ImmutableList.copyOf(INSTANCES.values());
+    }
+
+    private synchronized void open() throws IOException {
+        long validLength = 0;
+        if (file.exists()) {
+            validLength = loadIndex();
+        }
+        segment = new RandomAccessFile(file, "rw");
+        if (segment.length() != validLength) {
+            // drop the torn record left by a crash in the middle of an append
+            segment.setLength(validLength);
+        }
+        evictIfNeeded();
+        LOG.info("Loaded metadata disk cache {}, entries: {}, live bytes: {}, file bytes: {}",
+                file, index.size(), liveBytes, validLength);
+    }
+
+    private long loadIndex() throws IOException {
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte type = in.readByte();
+                long writeTimeMs = in.readLong();
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                int valueLength = in.readInt();
+                long skipped = 0;
+                while (skipped < valueLength) {
+                    int n = in.skipBytes(valueLength - (int) skipped);
+                    if (n <= 0) {
+                        throw new EOFException();
+                    }
+                    skipped += n;
+                }
+
+                int recordSize = RECORD_HEADER_SIZE + key.length + valueLength;
+                String keyStr = new String(key, StandardCharsets.UTF_8);
+                IndexEntry old;
+                if (type == RECORD_PUT) {
+                    long valueOffset = position + RECORD_HEADER_SIZE + key.length;
+                    old = index.put(keyStr, new IndexEntry(valueOffset, valueLength, recordSize, writeTimeMs));
+                    liveBytes += recordSize;
+                } else if (type == RECORD_REMOVE) {
+                    old = index.remove(keyStr);
+                } else {
+                    LOG.warn("Unknown record type {} in metadata disk cache {} at {}, truncate it", type, file, position);
+                    break;
+                }
+                if (old != null) {
+                    liveBytes -= old.recordSize;
+                }
+                position += recordSize;
+            }
+        } catch (EOFException e) {
+            // reach the end of the segment, or a torn record which is discarded
+        }
+        return position;
+    }
+
+    public V get(String key) {
+        return get(key, -1);
+    }
+
+    /**
+     * Get the value of the key if it is written within maxAgeMs, a negative maxAgeMs means no limit besides the ttl.
+     * An older entry is a miss and kept, it will be overwritten by the caller with the fresh value.
+     */
+    public V get(String key, long maxAgeMs) {
+        IndexEntry entry;
+        FileChannel channel;
+        long readGeneration;
+        synchronized (this) {
+            if (segment == null) {
+                return null;
+            }
+            entry = index.get(key);
+            if (entry == null) {
+                increaseCounter(false);
+                return null;
+            }
+            if (isExpired(entry)) {
+                removeEntry(key);
+                increaseCounter(false);
+                return null;
+            }
+            if (maxAgeMs >= 0 && System.currentTimeMillis() - entry.writeTimeMs > maxAgeMs) {
+                increaseCounter(false);
+                return null;
+            }
+            channel = segment.getChannel();
+            readGeneration = generation;
+        }
+        try {
+            byte[] value = read(channel, entry.valueOffset, entry.valueLength);
+            V result = decoder.apply(new String(value, StandardCharsets.UTF_8));
+            increaseCounter(true);
+            return result;
+        } catch (Exception e) {
+            onReadFailure(key, entry, readGeneration, e);
+            increaseCounter(false);
+            return null;
+        }
+    }
+
+    private synchronized void onReadFailure(String key, IndexEntry entry, long readGeneration, Exception e) {
+        if (segment == null || readGeneration != generation) {
+            // the segment is compacted, truncated or closed during the read
+            return;
+        }
+        if (e instanceof ClosedChannelException) {
+            // the reader is interrupted, which closes the channel of the segment
+            try {
+                reopenIfClosed();
+            } catch (IOException reopenException) {
+                LOG.warn("Failed to reopen metadata disk cache {}, disable it", file, reopenException);
+                close();
+            }
+            return;
+        }
+        LOG.warn("Failed to read {} from metadata disk cache {}", key, file, e);
+        if (index.get(key) == entry) {
+            removeEntry(key);
+        }
+    }
+
+    public synchronized void put(String key, V value) {
+        if (segment == null || value == null) {
+            return;
+        }
+        String encoded;
+        try {
+            encoded = encoder.apply(value);
+        } catch (Exception e) {
+            LOG.warn("Failed to encode {} for metadata disk cache {}", key, file, e);
+            removeEntry(key);
+            return;
+        }
+        if (encoded == null) {
+            removeEntry(key);
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = encoded.getBytes(StandardCharsets.UTF_8);
+        long writeTimeMs = System.currentTimeMillis();
+        try {
+            long position = append(RECORD_PUT, writeTimeMs, keyBytes, valueBytes);
+            int recordSize = RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length;
+            IndexEntry old = index.put(key, new IndexEntry(position + RECORD_HEADER_SIZE + keyBytes.length,
+                    valueBytes.length, recordSize, writeTimeMs));
+            liveBytes += recordSize;
+            if (old != null) {
+                liveBytes -= old.recordSize;
+            }
+            evictIfNeeded();
+            compactIfNeeded();
+        } catch (IOException e) {
+            LOG.warn("Failed to write metadata disk cache {}, disable it", file, e);
+            close();
+        }
+    }
+
+    public synchronized void putAll(Map<String, V> entries) {
+        entries.forEach(this::put);
+    }
+
+    public synchronized void invalidate(String key) {
+        if (segment != null) {
+            removeEntry(key);
+        }
+    }
+
+    public synchronized void invalidateIf(Predicate<String> keyPredicate) {
+        if (segment == null) {
+            return;
+        }
+        List<String> keys = index.keySet().stream().filter(keyPredicate).collect(ImmutableList.toImmutableList());
+        keys.forEach(this::removeEntry);
+    }
+
+    public synchronized void invalidateAll() {
+        index.clear();
+        liveBytes = 0;
+        generation++;
+        try {
+            if (segment != null) {
+                segment.setLength(0);
+            } else {
+                Files.deleteIfExists(file.toPath());
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to clear metadata disk cache {}", file, e);
+        }
+    }
+
+    public synchronized void close() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close metadata disk cache {}", file, e);
+            }
+            segment = null;
+        }
+        index.clear();
+        liveBytes = 0;
+        generation++;
+    }
+
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @VisibleForTesting
+    synchronized long getFileBytes() throws IOException {
+        return segment == null ? 0 : segment.length();
+    }
+
+    @VisibleForTesting
+    void waitForCompaction() throws Exception {
+        Future<?> future;
+        synchronized (this) {
+            future = compaction;
+        }
+        if (future != null) {
+            future.get();
+        }
+    }
+
+    private boolean isExpired(IndexEntry entry) {
+        long ttlMs = Config.connector_metadata_disk_cache_ttl_s * 1000;
+        return ttlMs >= 0 && System.currentTimeMillis() - entry.writeTimeMs > ttlMs;
+    }
+
+    private void removeEntry(String key) {
+        IndexEntry old = index.remove(key);
+        if (old == null) {
+            return;
+        }
+        liveBytes -= old.recordSize;
+        try {
+            append(RECORD_REMOVE, System.currentTimeMillis(), key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+        } catch (IOException e) {
+            LOG.warn("Failed to write metadata disk cache {}, disable it", file, e);
+            close();
+        }
+    }
+
+    private void evictIfNeeded() {
+        long capacity = Config.connector_metadata_disk_cache_capacity_bytes;
+        if (liveBytes <= capacity) {
+            return;
+        }
+        Iterator<Map.Entry<String, IndexEntry>> iterator = index.entrySet().iterator();
+        List<String> evicted = Lists.newArrayList();
+        long bytes = liveBytes;
+        while (bytes > capacity && iterator.hasNext()) {
+            Map.Entry<String, IndexEntry> eldest = iterator.next();
+            bytes -= eldest.getValue().recordSize;
+            evicted.add(eldest.getKey());
+        }
+        evicted.forEach(this::removeEntry);
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_CONNECTOR_METADATA_DISK_CACHE_EVICT.increase((long) evicted.size());
+        }
+    }
+
+    private static byte[] read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer.array();
+    }
+
+    // a reader interrupted in the middle of a positional read closes the channel, and the segment with it
+    private void reopenIfClosed() throws IOException {
+        if (segment.getChannel().isOpen()) {
+            return;
+        }
+        segment.close();
+        segment = new RandomAccessFile(file, "rw");
+    }
+
+    private long append(byte type, long writeTimeMs, byte[] key, byte[] value) throws IOException {
+        reopenIfClosed();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(RECORD_HEADER_SIZE + key.length + value.length);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(type);
+        out.writeLong(writeTimeMs);
+        out.writeInt(key.length);
+        out.write(key);
+        out.writeInt(value.length);
+        out.write(value);
+        out.flush();
+
+        long position = segment.length();
+        segment.seek(position);
+        segment.write(buffer.toByteArray());
+        return position;
+    }
+
+    /**
+     * Starts to rewrite the live entries into a new segment in the background once the tombstones and overwritten
+     * records take more than half of the file. The live entries are read from a snapshot of the index, so the
+     * cache keeps serving reads and writes during the rewrite.
+     */
+    private void compactIfNeeded() throws IOException {
+        long fileBytes = segment.length();
+        if (compaction != null || fileBytes < MIN_COMPACT_FILE_SIZE || fileBytes < liveBytes * 2) {
+            return;
+        }
+        List<Map.Entry<String, IndexEntry>> snapshot = Lists.newArrayListWithCapacity(index.size());
+        index.forEach((key, entry) -> snapshot.add(Maps.immutableEntry(key, entry)));
+        FileChannel channel = segment.getChannel();
+        long snapshotGeneration = generation;
+        try {
+            compaction = COMPACT_EXECUTOR.submit(() -> compact(snapshot, channel, fileBytes, snapshotGeneration));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Failed to submit the compaction of metadata disk cache {}", file, e);
+        }
+    }
+
+    private void compact(List<Map.Entry<String, IndexEntry>> snapshot, FileChannel channel, long snapshotBytes,
+                         long snapshotGeneration) {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        // the entry in the snapshot -> the entry in the new segment
+        IdentityHashMap<IndexEntry, IndexEntry> moved = new IdentityHashMap<>(snapshot.size());
+        try {
+            long position = 0;
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                for (Map.Entry<String, IndexEntry> entry : snapshot) {
+                    IndexEntry old = entry.getValue();
+                    byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] value = read(channel, old.valueOffset, old.valueLength);
+
+                    out.writeByte(RECORD_PUT);
+                    out.writeLong(old.writeTimeMs);
+                    out.writeInt(key.length);
+                    out.write(key);
+                    out.writeInt(value.length);
+                    out.write(value);
+                    moved.put(old, new IndexEntry(position + RECORD_HEADER_SIZE + key.length,
+                            old.valueLength, old.recordSize, old.writeTimeMs));
+                    position += old.recordSize;
+                }
+            }
+            if (!swapSegment(tmpFile, moved, snapshotBytes, position, snapshotGeneration)) {
+                Files.deleteIfExists(tmpFile.toPath());
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to compact metadata disk cache {}", file, e);
+            try {
+                Files.deleteIfExists(tmpFile.toPath());
+            } catch (IOException deleteException) {
+                LOG.warn("Failed to remove {}", tmpFile, deleteException);
+            }
+        } finally {
+            synchronized (this) {
+                compaction = null;
+            }
+        }
+    }
+
+    /**
+     * Appends the records written during the compaction to the new segment, and replaces the segment and the
+     * offsets in the index with the new ones. Returns false if the segment is truncated or closed in the meantime.
+     */
+    private synchronized boolean swapSegment(File tmpFile, IdentityHashMap<IndexEntry, IndexEntry> moved,
+                                             long snapshotBytes, long compactedBytes, long snapshotGeneration)
+            throws IOException {
+        if (segment == null || generation != snapshotGeneration) {
+            return false;
+        }
+        reopenIfClosed();
+        long fileBytes = segment.length();
+        List<IndexEntry> newEntries = Lists.newArrayListWithCapacity(index.size());
+        for (IndexEntry entry : index.values()) {
+            IndexEntry newEntry = moved.get(entry);
+            if (newEntry == null) {
+                if (entry.valueOffset < snapshotBytes) {
+                    LOG.warn("Entry at {} is not in the compacted metadata disk cache {}", entry.valueOffset, file);
+                    return false;
+                }
+                // written after the snapshot, the records are moved to the end of the new segment
+                newEntry = new IndexEntry(entry.valueOffset - snapshotBytes + compactedBytes, entry.valueLength,
+                        entry.recordSize, entry.writeTimeMs);
+            }
+            newEntries.add(newEntry);
+        }
+        try (FileChannel out = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            FileChannel in = segment.getChannel();
+            long position = snapshotBytes;
+            while (position < fileBytes) {
+                position += in.transferTo(position, fileBytes - position, out);
+            }
+        }
+
+        segment.close();
+        generation++;
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            segment = new RandomAccessFile(file, "rw");
+        }
+        // replacing the values doesn't change the access order
+        Iterator<IndexEntry> newEntryIterator = newEntries.iterator();
+        for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+            entry.setValue(newEntryIterator.next());
+        }
+        LOG.info("Compacted metadata disk cache {} from {} bytes to {} bytes", file, fileBytes, segment.length());
+        return true;
+    }
+
+    private static void increaseCounter(boolean hit) {
+        if (!MetricRepo.hasInit) {
+            return;
+        }
+        if (hit) {
+            MetricRepo.COUNTER_CONNECTOR_METADATA_DISK_CACHE_HIT.increase(1L);
+        } else {
+            MetricRepo.COUNTER_CONNECTOR_METADATA_DISK_CACHE_MISS.increase(1L);
+        }
+    }
+}
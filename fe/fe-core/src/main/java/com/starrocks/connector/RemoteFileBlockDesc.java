@@ -49,6 +49,10 @@ public class RemoteFileBlockDesc {
         return remoteFileIO.getHdfsDataNodeIp(hostId);
     }
 
+    public String getDataNodeHostPort(long hostId) {
+        return remoteFileIO.getHdfsDataNodeHostPort(hostId);
+    }
+
     @Override
     public String toString() {
         final StringBuffer sb = new StringBuffer("RemoteFileBlockDesc{");
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.starrocks.common.util.Util;
 import com.starrocks.connector.HdfsEnvironment;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.ReentrantExecutor;
 import com.starrocks.connector.hive.CachingHiveMetastore;
@@ -91,7 +92,8 @@ public class DeltaLakeInternalMgr {
                     hmsConf.getCacheTtlSec(),
                     hmsConf.getCacheRefreshIntervalSec(),
                     hmsConf.getCacheMaxNum(),
-                    hmsConf.enableListNamesCache());
+                    hmsConf.enableListNamesCache(),
+                    MetadataDiskCache.catalogIdentity("deltalake", catalogName, properties));
         }
 
         return baseHiveMetastore;
@@ -101,6 +103,7 @@ public class DeltaLakeInternalMgr {
         if (enableMetastoreCache && refreshHiveMetastoreExecutor != null) {
             refreshHiveMetastoreExecutor.shutdown();
         }
+        MetadataDiskCache.dropCatalog(MetadataDiskCache.catalogIdentity("deltalake", catalogName, properties));
     }
 
     public CachingHiveMetastoreConf getHiveMetastoreConf() {
@@ -23,15 +23,19 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.HiveMetaStoreTable;
 import com.starrocks.catalog.HiveTable;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.connector.PartitionUtil;
 import com.starrocks.connector.exception.StarRocksConnectorException;
 import com.starrocks.connector.hive.events.MetastoreNotificationFetchException;
+import com.starrocks.persist.gson.GsonUtils;
 import org.apache.hadoop.hive.metastore.api.NoSuchObjectException;
 import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
 import org.apache.logging.log4j.LogManager;
@@ -87,6 +91,14 @@ public class CachingHiveMetastore implements IHiveMetastore {
     protected LoadingCache<HiveTableName, HivePartitionStats> tableStatsCache;
     protected LoadingCache<HivePartitionName, HivePartitionStats> partitionStatsCache;
 
+    // Optional local disk tier of partitionCache and partitionStatsCache, only used by the catalog level instance.
+    // eg: "db/table/["2022","10"]" -> Partition
+    private final MetadataDiskCache<Partition> partitionDiskCache;
+    private final MetadataDiskCache<HivePartitionStats> partitionStatsDiskCache;
+    // Disk entries older than the on-heap expiration are not used, so a load after the on-heap entry expires
+    // goes to the metastore rather than reading the entry written back then.
+    private final long diskCacheMaxAgeMs;
+
     public static CachingHiveMetastore createQueryLevelInstance(IHiveMetastore metastore, long perQueryCacheMaxSize) {
         return new CachingHiveMetastore(
                 metastore,
@@ -100,15 +112,34 @@ public class CachingHiveMetastore implements IHiveMetastore {
     public static CachingHiveMetastore createCatalogLevelInstance(IHiveMetastore metastore, Executor executor,
                                                                   long expireAfterWrite, long refreshInterval,
                                                                   long maxSize, boolean enableListNamesCache) {
-        return new CachingHiveMetastore(metastore, executor, expireAfterWrite, refreshInterval, maxSize, enableListNamesCache);
+        return createCatalogLevelInstance(metastore, executor, expireAfterWrite, refreshInterval, maxSize,
+                enableListNamesCache, null);
+    }
+
+    public static CachingHiveMetastore createCatalogLevelInstance(IHiveMetastore metastore, Executor executor,
+                                                                  long expireAfterWrite, long refreshInterval,
+                                                                  long maxSize, boolean enableListNamesCache,
+                                                                  String diskCacheIdentity) {
+        return new CachingHiveMetastore(metastore, executor, expireAfterWrite, refreshInterval, maxSize, enableListNamesCache,
+                diskCacheIdentity);
     }
 
     protected CachingHiveMetastore(IHiveMetastore metastore, Executor executor, long expireAfterWriteSec,
                                    long refreshIntervalSec, long maxSize, boolean enableListNamesCache) {
+        this(metastore, executor, expireAfterWriteSec, refreshIntervalSec, maxSize, enableListNamesCache, null);
+    }
+
+    protected CachingHiveMetastore(IHiveMetastore metastore, Executor executor, long expireAfterWriteSec,
+                                   long refreshIntervalSec, long maxSize, boolean enableListNamesCache,
+                                   String diskCacheIdentity) {
         this.metastore = metastore;
         this.enableListNameCache = enableListNamesCache;
         this.lastAccessTimeMap = Maps.newConcurrentMap();
         this.tableNameLockMap = Maps.newConcurrentMap();
+        this.partitionDiskCache = MetadataDiskCache.create(diskCacheIdentity, "partition", Partition.class);
+        this.partitionStatsDiskCache = MetadataDiskCache.create(diskCacheIdentity, "partition_stats",
+                HivePartitionStats.class);
+        this.diskCacheMaxAgeMs = expireAfterWriteSec >= 0 ? SECONDS.toMillis(expireAfterWriteSec) : -1;
 
         databaseNamesCache = newCacheBuilder(NEVER_CACHE, NEVER_CACHE, NEVER_CACHE)
                 .build(asyncReloading(CacheLoader.from(this::loadAllDatabaseNames), executor));
@@ -134,13 +165,20 @@ public class CachingHiveMetastore implements IHiveMetastore {
                 .build(asyncReloading(new CacheLoader<HivePartitionName, Partition>() {
                     @Override
                     public Partition load(@NotNull HivePartitionName key) {
-                        return loadPartition(key);
+                        return loadThroughDisk(partitionDiskCache, key, CachingHiveMetastore.this::loadPartition);
+                    }
+
+                    @Override
+                    public ListenableFuture<Partition> reload(@NotNull HivePartitionName key, @NotNull Partition oldValue) {
+                        return Futures.immediateFuture(
+                                reloadThroughDisk(partitionDiskCache, key, CachingHiveMetastore.this::loadPartition));
                     }
 
                     @Override
                     public Map<HivePartitionName, Partition> loadAll(
                             @NotNull Iterable<? extends HivePartitionName> partitionKeys) {
-                        return loadPartitionsByNames(partitionKeys);
+                        return loadAllThroughDisk(partitionDiskCache, partitionKeys,
+                                CachingHiveMetastore.this::loadPartitionsByNames);
                     }
                 }, executor));
 
@@ -151,17 +189,100 @@ public class CachingHiveMetastore implements IHiveMetastore {
                 .build(asyncReloading(new CacheLoader<HivePartitionName, HivePartitionStats>() {
                     @Override
                     public HivePartitionStats load(@NotNull HivePartitionName key) {
-                        return loadPartitionStatistics(key);
+                        return loadThroughDisk(partitionStatsDiskCache, key,
+                                CachingHiveMetastore.this::loadPartitionStatistics);
+                    }
+
+                    @Override
+                    public ListenableFuture<HivePartitionStats> reload(@NotNull HivePartitionName key,
+                                                                       @NotNull HivePartitionStats oldValue) {
+                        return Futures.immediateFuture(reloadThroughDisk(partitionStatsDiskCache, key,
+                                CachingHiveMetastore.this::loadPartitionStatistics));
                     }
 
                     @Override
                     public Map<HivePartitionName, HivePartitionStats> loadAll(
                             @NotNull Iterable<? extends HivePartitionName> partitionKeys) {
-                        return loadPartitionsStatistics(partitionKeys);
+                        return loadAllThroughDisk(partitionStatsDiskCache, partitionKeys,
+                                CachingHiveMetastore.this::loadPartitionsStatistics);
                     }
                 }, executor));
     }
 
+    private static String toDiskCacheKey(HivePartitionName partitionName) {
+        return toDiskCacheKeyPrefix(partitionName.getDatabaseName(), partitionName.getTableName()) +
+                GsonUtils.GSON.toJson(partitionName.getPartitionValues());
+    }
+
+    private static String toDiskCacheKeyPrefix(String dbName, String tableName) {
+        return dbName + "/" + tableName + "/";
+    }
+
+    // The disk tier is only read on a cold miss, a refresh loads from the metastore and writes through
+    private <V> V loadThroughDisk(MetadataDiskCache<V> diskCache, HivePartitionName partitionName,
+                                  Function<HivePartitionName, V> loader) {
+        if (diskCache == null) {
+            return loader.apply(partitionName);
+        }
+        String key = toDiskCacheKey(partitionName);
+        V value = diskCache.get(key, diskCacheMaxAgeMs);
+        if (value == null) {
+            value = loader.apply(partitionName);
+            diskCache.put(key, value);
+        }
+        return value;
+    }
+
+    private static <V> V reloadThroughDisk(MetadataDiskCache<V> diskCache, HivePartitionName partitionName,
+                                           Function<HivePartitionName, V> loader) {
+        V value = loader.apply(partitionName);
+        putToDisk(diskCache, ImmutableMap.of(partitionName, value));
+        return value;
+    }
+
+    private <V> Map<HivePartitionName, V> loadAllThroughDisk(
+            MetadataDiskCache<V> diskCache, Iterable<? extends HivePartitionName> partitionNames,
+            Function<Iterable<? extends HivePartitionName>, Map<HivePartitionName, V>> loader) {
+        if (diskCache == null) {
+            return loader.apply(partitionNames);
+        }
+        Map<HivePartitionName, V> result = Maps.newHashMap();
+        List<HivePartitionName> missing = Lists.newArrayList();
+        for (HivePartitionName partitionName : partitionNames) {
+            V value = diskCache.get(toDiskCacheKey(partitionName), diskCacheMaxAgeMs);
+            if (value == null) {
+                missing.add(partitionName);
+            } else {
+                result.put(partitionName, value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<HivePartitionName, V> loaded = loader.apply(missing);
+            putToDisk(diskCache, loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    private static <V> void putToDisk(MetadataDiskCache<V> diskCache, Map<HivePartitionName, V> entries) {
+        if (diskCache != null) {
+            entries.forEach((partitionName, value) -> diskCache.put(toDiskCacheKey(partitionName), value));
+        }
+    }
+
+    private static void invalidateDisk(MetadataDiskCache<?> diskCache, List<HivePartitionName> partitionNames) {
+        if (diskCache != null) {
+            partitionNames.forEach(partitionName -> diskCache.invalidate(toDiskCacheKey(partitionName)));
+        }
+    }
+
+    private static void invalidateDisk(MetadataDiskCache<?> diskCache, String dbName, String tableName) {
+        if (diskCache != null) {
+            String prefix = toDiskCacheKeyPrefix(dbName, tableName);
+            diskCache.invalidateIf(key -> key.startsWith(prefix));
+        }
+    }
+
     private static CacheBuilder<Object, Object> newCacheBuilder(long expiresAfterWriteSec, long refreshSec, long maximumSize) {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
         if (expiresAfterWriteSec >= 0) {
@@ -517,6 +638,7 @@ public class CachingHiveMetastore implements IHiveMetastore {
             HivePartitionName hivePartitionName = HivePartitionName.of(hiveDbName, hiveTblName, Lists.newArrayList());
             Partition updatedPartition = loadPartition(hivePartitionName);
             partitionCache.put(hivePartitionName, updatedPartition);
+            putToDisk(partitionDiskCache, ImmutableMap.of(hivePartitionName, updatedPartition));
             tableStatsCache.put(hiveTableName, loadTableStatistics(hiveTableName));
         } else {
             List<HivePartitionName> allPartitionsInHms = updatedPartitionKeys.stream()
@@ -541,10 +663,10 @@ public class CachingHiveMetastore implements IHiveMetastore {
             }
 
             refreshPartitionNames = refreshPartitions(presentPartitionNames, updatedPartitionKeys,
-                    this::loadPartitionsByNames, partitionCache);
+                    this::loadPartitionsByNames, partitionCache, partitionDiskCache);
             if (Config.enable_refresh_hive_partitions_statistics) {
                 refreshPartitions(presentPartitionStatistics, updatedPartitionKeys,
-                        this::loadPartitionsStatistics, partitionStatsCache);
+                        this::loadPartitionsStatistics, partitionStatsCache, partitionStatsDiskCache);
             }
         }
         return refreshPartitionNames;
@@ -576,7 +698,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
     private <T> List<HivePartitionName> refreshPartitions(List<HivePartitionName> presentInCache,
                                                           List<String> partitionNamesInHMS,
                                                           Function<List<HivePartitionName>, Map<HivePartitionName, T>> reload,
-                                                          LoadingCache<HivePartitionName, T> cache) {
+                                                          LoadingCache<HivePartitionName, T> cache,
+                                                          MetadataDiskCache<T> diskCache) {
         List<HivePartitionName> needToRefresh = Lists.newArrayList();
         List<HivePartitionName> needToInvalidate = Lists.newArrayList();
         for (HivePartitionName name : presentInCache) {
@@ -594,9 +717,11 @@ public class CachingHiveMetastore implements IHiveMetastore {
                         i, Math.min(i + Config.max_hive_partitions_per_rpc, needToRefresh.size()));
                 Map<HivePartitionName, T> updatedPartitions = reload.apply(partsToFetch);
                 cache.putAll(updatedPartitions);
+                putToDisk(diskCache, updatedPartitions);
             }
         }
         cache.invalidateAll(needToInvalidate);
+        invalidateDisk(diskCache, needToInvalidate);
         return needToRefresh;
     }
 
@@ -606,9 +731,11 @@ public class CachingHiveMetastore implements IHiveMetastore {
         } else {
             Map<HivePartitionName, Partition> updatedPartitions = loadPartitionsByNames(partitionNames);
             partitionCache.putAll(updatedPartitions);
+            putToDisk(partitionDiskCache, updatedPartitions);
 
             Map<HivePartitionName, HivePartitionStats> updatePartitionStats = loadPartitionsStatistics(partitionNames);
             partitionStatsCache.putAll(updatePartitionStats);
+            putToDisk(partitionStatsDiskCache, updatePartitionStats);
 
             if (enableListNameCache && !partitionNames.isEmpty()) {
                 HivePartitionName firstName = partitionNames.get(0);
@@ -658,6 +785,12 @@ public class CachingHiveMetastore implements IHiveMetastore {
         partitionCache.invalidateAll();
         tableStatsCache.invalidateAll();
         partitionStatsCache.invalidateAll();
+        if (partitionDiskCache != null) {
+            partitionDiskCache.invalidateAll();
+        }
+        if (partitionStatsDiskCache != null) {
+            partitionStatsDiskCache.invalidateAll();
+        }
     }
 
     public synchronized void invalidateDatabase(String dbName) {
@@ -675,6 +808,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
         presentPartitions.forEach(p -> partitionCache.invalidate(p));
         List<HivePartitionName> presentPartitionStats = getPresentPartitionNames(partitionStatsCache, dbName, tableName);
         presentPartitionStats.forEach(p -> partitionStatsCache.invalidate(p));
+        invalidateDisk(partitionDiskCache, dbName, tableName);
+        invalidateDisk(partitionStatsDiskCache, dbName, tableName);
     }
 
     public synchronized void invalidatePartition(HivePartitionName partitionName) {
@@ -683,6 +818,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
                 equals(hiveTableName)).forEach(partitionKeysCache::invalidate);
         partitionCache.invalidate(partitionName);
         partitionStatsCache.invalidate(partitionName);
+        invalidateDisk(partitionDiskCache, Lists.newArrayList(partitionName));
+        invalidateDisk(partitionStatsDiskCache, Lists.newArrayList(partitionName));
     }
 
     public synchronized void invalidatePartitionKeys(HivePartitionValue hivePartitionValue) {
@@ -711,7 +848,9 @@ public class CachingHiveMetastore implements IHiveMetastore {
             Map<String, HiveColumnStats> columnStats = get(tableStatsCache, hiveTableName).getColumnStats();
             HivePartitionStats updatedPartitionStats = createPartitionStats(commonStats, columnStats);
             tableStatsCache.put(hiveTableName, updatedPartitionStats);
-            partitionCache.put(HivePartitionName.of(dbName, tableName, Lists.newArrayList()), partition);
+            HivePartitionName hivePartitionName = HivePartitionName.of(dbName, tableName, Lists.newArrayList());
+            partitionCache.put(hivePartitionName, partition);
+            putToDisk(partitionDiskCache, ImmutableMap.of(hivePartitionName, partition));
         } else {
             partitionKeysCache.asMap().keySet().stream().filter(hivePartitionValue -> hivePartitionValue.getHiveTableName().
                     equals(hiveTableName)).forEach(partitionKeysCache::invalidate);
@@ -719,6 +858,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
             presentPartitions.forEach(p -> partitionCache.invalidate(p));
             List<HivePartitionName> presentPartitionStats = getPresentPartitionNames(partitionStatsCache, dbName, tableName);
             presentPartitionStats.forEach(p -> partitionStatsCache.invalidate(p));
+            invalidateDisk(partitionDiskCache, dbName, tableName);
+            invalidateDisk(partitionStatsDiskCache, dbName, tableName);
         }
     }
 
@@ -732,6 +873,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
                 equals(hiveTableName)).forEach(partitionKeysCache::invalidate);
         partitionCache.put(hivePartitionName, partition);
         partitionStatsCache.put(hivePartitionName, updatedPartitionStats);
+        putToDisk(partitionDiskCache, ImmutableMap.of(hivePartitionName, partition));
+        putToDisk(partitionStatsDiskCache, ImmutableMap.of(hivePartitionName, updatedPartitionStats));
     }
 
     private HivePartitionStats createPartitionStats(HiveCommonStats commonStats, Map<String, HiveColumnStats> columnStats) {
@@ -22,6 +22,7 @@ import com.starrocks.common.util.Util;
 import com.starrocks.connector.CachingRemoteFileConf;
 import com.starrocks.connector.CachingRemoteFileIO;
 import com.starrocks.connector.HdfsEnvironment;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.ReentrantExecutor;
 import com.starrocks.connector.RemoteFileIO;
@@ -106,6 +107,7 @@ public class HiveConnectorInternalMgr {
         if (pullRemoteFileExecutor != null) {
             pullRemoteFileExecutor.shutdown();
         }
+        MetadataDiskCache.dropCatalog(MetadataDiskCache.catalogIdentity("hive", catalogName, properties));
     }
 
     public IHiveMetastore createHiveMetastore() {
@@ -124,7 +126,8 @@ public class HiveConnectorInternalMgr {
                     hmsConf.getCacheTtlSec(),
                     enableHmsEventsIncrementalSync ? NEVER_REFRESH : hmsConf.getCacheRefreshIntervalSec(),
                     hmsConf.getCacheMaxNum(),
-                    hmsConf.enableListNamesCache());
+                    hmsConf.enableListNamesCache(),
+                    MetadataDiskCache.catalogIdentity("hive", catalogName, properties));
         }
 
         return baseHiveMetastore;
@@ -146,7 +149,8 @@ public class HiveConnectorInternalMgr {
                     new ReentrantExecutor(refreshRemoteFileExecutor, remoteFileConf.getRefreshMaxThreadNum()),
                     remoteFileConf.getCacheTtlSec(),
                     enableHmsEventsIncrementalSync ? NEVER_REFRESH : remoteFileConf.getCacheRefreshIntervalSec(),
-                    remoteFileConf.getCacheMaxSize());
+                    remoteFileConf.getCacheMaxSize(),
+                    MetadataDiskCache.catalogIdentity("hive", catalogName, properties));
         }
 
         return baseRemoteFileIO;
@@ -21,6 +21,7 @@ import com.starrocks.common.util.Util;
 import com.starrocks.connector.CachingRemoteFileConf;
 import com.starrocks.connector.CachingRemoteFileIO;
 import com.starrocks.connector.HdfsEnvironment;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.ReentrantExecutor;
 import com.starrocks.connector.RemoteFileIO;
@@ -100,6 +101,7 @@ public class HudiConnectorInternalMgr {
         if (pullRemoteFileExecutor != null) {
             pullRemoteFileExecutor.shutdown();
         }
+        MetadataDiskCache.dropCatalog(MetadataDiskCache.catalogIdentity("hudi", catalogName, properties));
     }
 
     public IHiveMetastore createHiveMetastore() {
@@ -118,7 +120,8 @@ public class HudiConnectorInternalMgr {
                     hmsConf.getCacheTtlSec(),
                     hmsConf.getCacheRefreshIntervalSec(),
                     hmsConf.getCacheMaxNum(),
-                    hmsConf.enableListNamesCache());
+                    hmsConf.enableListNamesCache(),
+                    MetadataDiskCache.catalogIdentity("hudi", catalogName, properties));
         }
 
         return baseHiveMetastore;
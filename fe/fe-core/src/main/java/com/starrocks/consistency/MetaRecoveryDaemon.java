@@ -25,6 +25,7 @@ import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.clone.TabletChecker;
 import com.starrocks.common.proc.BaseProcResult;
 import com.starrocks.common.util.FrontendDaemon;
 import com.starrocks.common.util.TimeUtils;
@@ -227,6 +228,7 @@ public class MetaRecoveryDaemon extends FrontendDaemon {
                         }
 
                         LocalTablet localTablet = (LocalTablet) tablet;
+                        TabletChecker.markTabletDirty(tablet.getId());
                         for (Replica replica : localTablet.getAllReplicas()) {
                             if (replica.getVersion() > version.getVersion() && localTablet.getAllReplicas().size() > 1) {
                                 replica.setBad(true);
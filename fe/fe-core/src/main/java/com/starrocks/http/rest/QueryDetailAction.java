@@ -45,8 +45,13 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.util.List;
+import java.util.function.Predicate;
 
+// Returns the query details after event_time, which can be filtered by user, state and min_latency_ms optionally.
 public class QueryDetailAction extends RestBaseAction {
+    private static final String USER = "user";
+    private static final String STATE = "state";
+    private static final String MIN_LATENCY_MS = "min_latency_ms";
 
     public QueryDetailAction(ActionController controller) {
         super(controller);
@@ -65,10 +70,45 @@ public class QueryDetailAction extends RestBaseAction {
             return;
         }
         long eventTime = Long.parseLong(eventTimeStr.trim());
-        List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(eventTime);
+
+        Predicate<QueryDetail> filter = null;
+        String user = request.getSingleParameter(USER);
+        if (user != null) {
+            filter = queryDetail -> user.equals(queryDetail.getUser());
+        }
+        String stateStr = request.getSingleParameter(STATE);
+        if (stateStr != null) {
+            QueryDetail.QueryMemState state;
+            try {
+                state = QueryDetail.QueryMemState.valueOf(stateStr.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                response.getContent().append("not valid parameter: " + STATE);
+                sendResult(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            filter = and(filter, queryDetail -> queryDetail.getState() == state);
+        }
+        String minLatencyStr = request.getSingleParameter(MIN_LATENCY_MS);
+        if (minLatencyStr != null) {
+            long minLatency;
+            try {
+                minLatency = Long.parseLong(minLatencyStr.trim());
+            } catch (NumberFormatException e) {
+                response.getContent().append("not valid parameter: " + MIN_LATENCY_MS);
+                sendResult(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            filter = and(filter, queryDetail -> queryDetail.getLatency() >= minLatency);
+        }
+
+        List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(eventTime, filter);
         Gson gson = new Gson();
         String jsonString = gson.toJson(queryDetails);
         response.getContent().append(jsonString);
         sendResult(request, response);
     }
+
+    private static Predicate<QueryDetail> and(Predicate<QueryDetail> filter, Predicate<QueryDetail> other) {
+        return filter == null ? other : filter.and(other);
+    }
 }
@@ -138,6 +138,7 @@ import com.starrocks.persist.TablePropertyInfo;
 import com.starrocks.persist.TransactionIdInfo;
 import com.starrocks.persist.TruncateTableInfo;
 import com.starrocks.persist.UserPrivilegeCollectionInfo;
+import com.starrocks.persist.gson.GsonBinaryCodec;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.qe.SessionVariable;
@@ -495,14 +496,14 @@ public class JournalEntity implements Writable {
                 break;
             }
             case OperationType.OP_BATCH_DELETE_REPLICA: {
-                data = GsonUtils.GSON.fromJson(Text.readString(in), BatchDeleteReplicaInfo.class);
+                data = GsonBinaryCodec.read(in, BatchDeleteReplicaInfo.class);
                 isRead = true;
                 break;
             }
             case OperationType.OP_ADD_REPLICA_V2:
             case OperationType.OP_UPDATE_REPLICA_V2:
             case OperationType.OP_DELETE_REPLICA_V2: {
-                data = GsonUtils.GSON.fromJson(Text.readString(in), ReplicaPersistInfo.class);
+                data = GsonBinaryCodec.read(in, ReplicaPersistInfo.class);
                 isRead = true;
                 break;
             }
@@ -622,12 +623,12 @@ public class JournalEntity implements Writable {
                 break;
             }
             case OperationType.OP_UPSERT_TRANSACTION_STATE_V2: {
-                data = GsonUtils.GSON.fromJson(Text.readString(in), TransactionState.class);
+                data = GsonBinaryCodec.read(in, TransactionState.class);
                 isRead = true;
                 break;
             }
             case OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH: {
-                data = TransactionStateBatch.read(in);
+                data = GsonBinaryCodec.read(in, TransactionStateBatch.class);
                 isRead = true;
                 break;
             }
@@ -1169,7 +1170,7 @@ public class JournalEntity implements Writable {
                 break;
             }
             case OperationType.OP_RECOVER_PARTITION_VERSION: {
-                data = GsonUtils.GSON.fromJson(Text.readString(in), PartitionVersionRecoveryInfo.class);
+                data = GsonBinaryCodec.read(in, PartitionVersionRecoveryInfo.class);
                 isRead = true;
                 break;
             }
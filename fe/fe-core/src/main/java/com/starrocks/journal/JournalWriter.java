@@ -25,18 +25,30 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An independent thread to write journals by batch asynchronously.
  * Each thread that needs to write a log can put the log in a blocking queue, while JournalWriter constantly gets as
  * many logs as possible from the queue and write them all in one batch.
  * After committing, JournalWriter will notify the caller thread for consistency.
+ * <p>
+ * If {@link Config#metadata_journal_pipelined_commit} is set, the logs are collected into batches by another thread,
+ * which keeps collecting the next batch while the current batch is being committed, and hands it over once the
+ * commit finishes.
  */
 public class JournalWriter {
     public static final Logger LOG = LogManager.getLogger(JournalWriter.class);
+    // the smallest batch limit that adaptive batch sizing can shrink to
+    private static final int MIN_ADAPTIVE_BATCH_CNT = 16;
+    private static final long PIPELINE_POLL_INTERVAL_MS = 1;
+
     // other threads can put log to this queue by calling Editlog.logEdit()
     private final BlockingQueue<JournalTask> journalQueue;
     private final Journal journal;
+    // pipelined mode only, the collector hands over a batch when the writer is waiting for it
+    private final SynchronousQueue<JournalBatch> collectedBatches = new SynchronousQueue<>();
 
     // used for checking if edit log need to roll
     protected long rollJournalCounter = 0;
@@ -54,6 +66,9 @@ public class JournalWriter {
     // batch size in bytes
     private long uncommittedEstimatedBytes;
 
+    // max number of journals in a batch, adjusted by the commit latency if adaptive batch sizing is enabled
+    protected volatile int batchLimit = Config.metadata_journal_max_batch_cnt;
+
     /**
      * If this flag is set true, we will roll journal,
      * i.e. create a new database in BDB immediately after
@@ -82,28 +97,51 @@ public class JournalWriter {
     public void startDaemon() {
         // ensure init() is called.
         assert (nextVisibleJournalId > 0);
+        boolean pipelined = Config.metadata_journal_pipelined_commit;
+        LOG.info("start journal writer, pipelined commit: {}", pipelined);
+        if (pipelined) {
+            Daemon collector = new Daemon("JournalCollector", 0L) {
+                @Override
+                protected void runOneCycle() {
+                    try {
+                        collectOneBatch();
+                    } catch (InterruptedException e) {
+                        exitOnInterrupted(e);
+                    }
+                }
+            };
+            collector.start();
+        }
         Daemon d = new Daemon("JournalWriter", 0L) {
             @Override
             protected void runOneCycle() {
                 try {
-                    writeOneBatch();
+                    if (pipelined) {
+                        writeCollectedBatch();
+                    } else {
+                        writeOneBatch();
+                    }
                 } catch (InterruptedException e) {
-                    String msg = "got interrupted exception when trying to write one batch, will exit now.";
-                    LOG.error(msg, e);
-                    // TODO we should exit gracefully on InterruptedException
-                    Util.stdoutWithTime(msg);
-                    System.exit(-1);
+                    exitOnInterrupted(e);
                 }
             }
         };
         d.start();
     }
 
+    private void exitOnInterrupted(InterruptedException e) {
+        String msg = "got interrupted exception when trying to write one batch, will exit now.";
+        LOG.error(msg, e);
+        // TODO we should exit gracefully on InterruptedException
+        Util.stdoutWithTime(msg);
+        System.exit(-1);
+    }
+
     protected void writeOneBatch() throws InterruptedException {
         // waiting if necessary until an element becomes available
         currentJournal = journalQueue.take();
         long nextJournalId = nextVisibleJournalId;
-        initBatch();
+        initBatch(System.nanoTime());
 
         try {
             this.journal.batchWriteBegin();
@@ -111,6 +149,7 @@ public class JournalWriter {
             while (true) {
                 journal.batchWriteAppend(nextJournalId, currentJournal.getBuffer());
                 currentBatchTasks.add(currentJournal);
+                updateQueueWaitMetric(currentJournal, System.nanoTime());
                 nextJournalId += 1;
 
                 if (shouldCommitNow()) {
@@ -124,23 +163,64 @@ public class JournalWriter {
             LOG.warn("failed to write batch, will abort current journal {} and commit", currentJournal, e);
             abortJournalTask(currentJournal, e.getMessage());
         } finally {
-            try {
-                // commit
-                journal.batchWriteCommit();
-                LOG.debug("batch write commit success, from {} - {}", nextVisibleJournalId, nextJournalId);
-                nextVisibleJournalId = nextJournalId;
-                markCurrentBatchSucceed();
-            } catch (JournalException e) {
-                // abort
-                LOG.warn("failed to commit batch, will abort current {} journals.",
-                        currentBatchTasks.size(), e);
-                try {
-                    journal.batchWriteAbort();
-                } catch (JournalException e2) {
-                    LOG.warn("failed to abort batch, will ignore and continue.", e);
+            commitBatch(nextJournalId);
+        }
+
+        rollJournalAfterBatch();
+
+        updateBatchMetrics();
+    }
+
+    /**
+     * Pipelined mode, collect journals into a batch and hand it over to {@link #writeCollectedBatch()}.
+     * Journals are added to the batch until it's full, or the queue is empty and the writer is idle.
+     */
+    protected void collectOneBatch() throws InterruptedException {
+        JournalBatch batch = new JournalBatch(journalQueue.take());
+        while (!batch.isFull()) {
+            JournalTask task = journalQueue.poll();
+            if (task == null) {
+                if (collectedBatches.offer(batch)) {
+                    return;
+                }
+                // the writer is still committing the previous batch, keep collecting
+                task = journalQueue.poll(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (task == null) {
+                    continue;
                 }
-                abortCurrentBatch(e.getMessage());
             }
+            batch.add(task);
+        }
+        collectedBatches.put(batch);
+    }
+
+    /**
+     * Pipelined mode, write and commit the batch collected by {@link #collectOneBatch()}.
+     */
+    protected void writeCollectedBatch() throws InterruptedException {
+        JournalBatch batch = collectedBatches.take();
+        long nextJournalId = nextVisibleJournalId;
+        // the write latency of a batch starts when it's written rather than collected, the next batch is collected
+        // while this one is written, so the latencies of the batches don't overlap
+        initBatch(System.nanoTime());
+        uncommittedEstimatedBytes = batch.estimatedBytes;
+
+        try {
+            this.journal.batchWriteBegin();
+            for (JournalTask task : batch.tasks) {
+                currentJournal = task;
+                journal.batchWriteAppend(nextJournalId, task.getBuffer());
+                currentBatchTasks.add(task);
+                nextJournalId += 1;
+            }
+        } catch (JournalException e) {
+            // abort current task, the rest tasks of the batch are not appended
+            LOG.warn("failed to write batch, will abort current journal {} and commit", currentJournal, e);
+            for (int i = currentBatchTasks.size(); i < batch.tasks.size(); i++) {
+                abortJournalTask(batch.tasks.get(i), e.getMessage());
+            }
+        } finally {
+            commitBatch(nextJournalId);
         }
 
         rollJournalAfterBatch();
@@ -148,8 +228,63 @@ public class JournalWriter {
         updateBatchMetrics();
     }
 
-    private void initBatch() {
-        startTimeNano = System.nanoTime();
+    private void commitBatch(long nextJournalId) throws InterruptedException {
+        long commitStartTimeNano = System.nanoTime();
+        try {
+            // commit
+            journal.batchWriteCommit();
+            LOG.debug("batch write commit success, from {} - {}", nextVisibleJournalId, nextJournalId);
+            nextVisibleJournalId = nextJournalId;
+            markCurrentBatchSucceed();
+        } catch (JournalException e) {
+            // abort
+            LOG.warn("failed to commit batch, will abort current {} journals.",
+                    currentBatchTasks.size(), e);
+            try {
+                journal.batchWriteAbort();
+            } catch (JournalException e2) {
+                LOG.warn("failed to abort batch, will ignore and continue.", e);
+            }
+            abortCurrentBatch(e.getMessage());
+        }
+        long commitLatencyMs = (System.nanoTime() - commitStartTimeNano) / 1000000;
+        adjustBatchLimit(commitLatencyMs, currentBatchTasks.size());
+        if (MetricRepo.hasInit) {
+            MetricRepo.HISTO_JOURNAL_COMMIT_LATENCY.update(commitLatencyMs);
+        }
+    }
+
+    /**
+     * Adaptive batch sizing: halve the batch limit if the commit is slower than the target latency, otherwise
+     * increase it gradually when the batches are full, up to metadata_journal_max_batch_cnt.
+     */
+    protected void adjustBatchLimit(long commitLatencyMs, int batchSize) {
+        int maxBatchCnt = Config.metadata_journal_max_batch_cnt;
+        if (!Config.metadata_journal_adaptive_batch || maxBatchCnt <= MIN_ADAPTIVE_BATCH_CNT) {
+            batchLimit = maxBatchCnt;
+            return;
+        }
+        int limit = Math.min(batchLimit, maxBatchCnt);
+        if (commitLatencyMs > Config.metadata_journal_target_commit_latency_ms) {
+            limit = Math.max(MIN_ADAPTIVE_BATCH_CNT, limit / 2);
+        } else if (batchSize >= limit) {
+            limit = Math.min(maxBatchCnt, limit + Math.max(1, limit / 4));
+        }
+        if (limit != batchLimit) {
+            LOG.debug("journal batch limit changes from {} to {}, commit latency: {}ms, batch size: {}",
+                    batchLimit, limit, commitLatencyMs, batchSize);
+            batchLimit = limit;
+        }
+    }
+
+    private void updateQueueWaitMetric(JournalTask task, long takenTimeNano) {
+        if (MetricRepo.hasInit) {
+            MetricRepo.HISTO_JOURNAL_QUEUE_WAIT.update((takenTimeNano - task.getStartTimeNano()) / 1000000);
+        }
+    }
+
+    private void initBatch(long batchStartTimeNano) {
+        startTimeNano = batchStartTimeNano;
         uncommittedEstimatedBytes = 0;
         currentBatchTasks.clear();
     }
@@ -180,37 +315,88 @@ public class JournalWriter {
 
     private boolean shouldCommitNow() {
         // 1. check if is an emergency journal
-        if (currentJournal.getBetterCommitBeforeTimeInNano() > 0) {
-            long delayNanos = System.nanoTime() - currentJournal.getBetterCommitBeforeTimeInNano();
+        if (isCommitDelayed(currentJournal.getBetterCommitBeforeTimeInNano())) {
+            return true;
+        }
+
+        // 2. check uncommitted journal by count
+        if (isBatchFullByCount(currentBatchTasks.size())) {
+            return true;
+        }
+
+        // 3. check uncommitted journals by size
+        uncommittedEstimatedBytes += currentJournal.estimatedSizeByte();
+        if (isBatchFullBySize(uncommittedEstimatedBytes)) {
+            return true;
+        }
+
+        // 4. no more journal in queue
+        return journalQueue.peek() == null;
+    }
+
+    private boolean isCommitDelayed(long betterCommitBeforeTimeInNano) {
+        if (betterCommitBeforeTimeInNano > 0) {
+            long delayNanos = System.nanoTime() - betterCommitBeforeTimeInNano;
             if (delayNanos >= 0) {
                 long logTime = System.currentTimeMillis();
                 // avoid logging too many messages if triggered frequently
                 if (lastLogTimeForDelayTriggeredCommit + 500 < logTime) {
                     lastLogTimeForDelayTriggeredCommit = logTime;
                     LOG.warn("journal expect commit before {} is delayed {} nanos, will commit now",
-                            currentJournal.getBetterCommitBeforeTimeInNano(), delayNanos);
+                            betterCommitBeforeTimeInNano, delayNanos);
                 }
                 return true;
             }
         }
+        return false;
+    }
 
-        // 2. check uncommitted journal by count
-        if (currentBatchTasks.size() >= Config.metadata_journal_max_batch_cnt) {
+    private boolean isBatchFullByCount(int batchSize) {
+        if (batchSize >= Config.metadata_journal_max_batch_cnt) {
             LOG.warn("uncommitted journal {} >= {}, will commit now",
-                    currentBatchTasks.size(), Config.metadata_journal_max_batch_cnt);
+                    batchSize, Config.metadata_journal_max_batch_cnt);
             return true;
         }
+        // the limit is lowered by adaptive batch sizing, no need to warn
+        return batchSize >= batchLimit;
+    }
 
-        // 3. check uncommitted journals by size
-        uncommittedEstimatedBytes += currentJournal.estimatedSizeByte();
-        if (uncommittedEstimatedBytes >= (long) Config.metadata_journal_max_batch_size_mb * 1024 * 1024) {
+    private boolean isBatchFullBySize(long estimatedBytes) {
+        if (estimatedBytes >= (long) Config.metadata_journal_max_batch_size_mb * 1024 * 1024) {
             LOG.warn("uncommitted estimated bytes {} >= {}MB, will commit now",
-                    uncommittedEstimatedBytes, Config.metadata_journal_max_batch_size_mb);
+                    estimatedBytes, Config.metadata_journal_max_batch_size_mb);
             return true;
         }
+        return false;
+    }
+
+    /**
+     * Journals collected by the collector thread in pipelined mode.
+     */
+    protected class JournalBatch {
+        private final List<JournalTask> tasks = new ArrayList<>();
+        private long estimatedBytes = 0;
+        // the earliest time that any journal in the batch expects to be committed before
+        private long betterCommitBeforeTimeInNano = -1;
+
+        JournalBatch(JournalTask task) {
+            add(task);
+        }
 
-        // 4. no more journal in queue
-        return journalQueue.peek() == null;
+        void add(JournalTask task) {
+            tasks.add(task);
+            estimatedBytes += task.estimatedSizeByte();
+            long commitBefore = task.getBetterCommitBeforeTimeInNano();
+            if (commitBefore > 0 && (betterCommitBeforeTimeInNano <= 0 || commitBefore < betterCommitBeforeTimeInNano)) {
+                betterCommitBeforeTimeInNano = commitBefore;
+            }
+            updateQueueWaitMetric(task, System.nanoTime());
+        }
+
+        boolean isFull() {
+            return isCommitDelayed(betterCommitBeforeTimeInNano) || isBatchFullByCount(tasks.size()) ||
+                    isBatchFullBySize(estimatedBytes);
+        }
     }
 
     /**
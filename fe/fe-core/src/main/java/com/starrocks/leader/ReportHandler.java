@@ -45,6 +45,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
 import com.starrocks.alter.SchemaChangeHandler;
 import com.starrocks.binlog.BinlogConfig;
 import com.starrocks.catalog.ColocateTableIndex;
@@ -72,6 +73,7 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.InternalErrorCode;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.NetUtils;
 import com.starrocks.common.util.TimeUtils;
@@ -138,6 +140,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 public class ReportHandler extends Daemon implements MemoryTrackable {
@@ -171,6 +174,9 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
      */
     private static final long MAX_REPORT_HANDLING_TIME_LOGGING_THRESHOLD_MS = 3000;
 
+    // ReportHandler is blocked if the queue of an executor is full
+    private static final int REPORT_EXECUTOR_QUEUE_SIZE = 1024;
+
     private static final Logger LOG = LogManager.getLogger(ReportHandler.class);
 
     private BlockingQueue<Pair<Long, ReportType>> reportQueue = Queues.newLinkedBlockingQueue();
@@ -182,13 +188,19 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
      * We will delay the drop of tablet based on configuration `tablet_report_drop_tablet_delay_sec`
      * if we don't find the meta of the tablet in FE.
      * <p>
-     * There's no concurrency here since it will only be used by a single thread of ReportHandler, so
-     * we don't need lock protection.
+     * The reports of different backends may be processed in parallel, see {@link Config#report_process_thread_num},
+     * but a cell is only accessed by the thread processing the reports of its backend.
      * <p>
      * And because the tablet drop only relies on some runtime state, if the map is lost after restart,
      * the drop can retry. So we don't need to persist this map either.
      */
-    private static final Table<Long, Long, Long> TABLET_TO_DROP_TIME = HashBasedTable.create();
+    private static final Table<Long, Long, Long> TABLET_TO_DROP_TIME = Tables.synchronizedTable(HashBasedTable.create());
+
+    /**
+     * Executors to process the reports in parallel if report_process_thread_num is greater than 1.
+     * The reports of a backend are always processed by the same executor, so they are processed in order.
+     */
+    private ThreadPoolExecutor[] reportExecutors;
 
     public ReportHandler() {
         super("ReportHandler");
@@ -371,6 +383,13 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
         }
     }
 
+    private ReportTask takePendingTask(Pair<Long, ReportType> pair) {
+        synchronized (pendingTaskMap) {
+            // using the lastest task
+            return pendingTaskMap.get(pair.second).remove(pair.first);
+        }
+    }
+
     private Map<Long, TTablet> buildTabletMap(List<TTablet> tabletList) {
         Map<Long, TTablet> tabletMap = Maps.newHashMap();
         for (TTablet tTablet : tabletList) {
@@ -938,6 +957,7 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
                                 } else {
                                     // just set this replica as bad
                                     if (replica.setBad(true)) {
+                                        TabletChecker.markTabletDirty(tabletId);
                                         LOG.warn("tablet {} has only one replica {} on backend {}"
                                                         + " and it is lost, set it as bad",
                                                 tabletId, replica.getId(), backendId);
@@ -1328,6 +1348,7 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
                     }
 
                     if (replica.setBad(true)) {
+                        TabletChecker.markTabletDirty(tabletId);
                         LOG.warn("set bad for replica {} of tablet {} on backend {}",
                                 replica.getId(), tabletId, backendId);
                         ReplicaPersistInfo replicaPersistInfo = ReplicaPersistInfo.createForReport(
@@ -1873,19 +1894,41 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
         }
     }
 
+    @Override
+    public synchronized void start() {
+        int threadNum = Config.report_process_thread_num;
+        if (threadNum > 1 && reportExecutors == null) {
+            reportExecutors = new ThreadPoolExecutor[threadNum];
+            for (int i = 0; i < threadNum; i++) {
+                reportExecutors[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, REPORT_EXECUTOR_QUEUE_SIZE,
+                        "report-processor-" + i, false);
+            }
+            LOG.info("process reports in parallel by {} threads", threadNum);
+        }
+        super.start();
+    }
+
     @Override
     protected void runOneCycle() {
         while (true) {
             try {
                 Pair<Long, ReportType> pair = reportQueue.take();
-                ReportTask task = null;
-                synchronized (pendingTaskMap) {
-                    // using the lastest task
-                    task = pendingTaskMap.get(pair.second).get(pair.first);
-                    if (task == null) {
-                        throw new Exception("pendingTaskMap not exists " + pair.first);
-                    }
-                    pendingTaskMap.get(task.type).remove(task.beId, task);
+                if (reportExecutors != null) {
+                    // the pending task is kept until the executor starts to process it, so the reports of the
+                    // backend received in the meantime replace it instead of being queued again
+                    reportExecutors[(int) Math.floorMod(pair.first, (long) reportExecutors.length)].execute(() -> {
+                        ReportTask task = takePendingTask(pair);
+                        if (task == null) {
+                            LOG.warn("pendingTaskMap not exists {}", pair.first);
+                            return;
+                        }
+                        task.run();
+                    });
+                    continue;
+                }
+                ReportTask task = takePendingTask(pair);
+                if (task == null) {
+                    throw new Exception("pendingTaskMap not exists " + pair.first);
                 }
                 task.exec();
             } catch (Exception e) {
@@ -244,10 +244,9 @@ public class LoadLoadingTask extends LoadTask {
 
                 StringBuilder builder = new StringBuilder();
                 profile.prettyPrint(builder, "");
-                String profileContent = ProfileManager.getInstance().pushProfile(
-                        loadPlanner.getExecPlan().getProfilingPlan(), profile);
+                ProfileManager.getInstance().pushProfile(loadPlanner.getExecPlan().getProfilingPlan(), profile);
                 if (context.getQueryDetail() != null) {
-                    context.getQueryDetail().setProfile(profileContent);
+                    context.getQueryDetail().setProfile(ProfileManager.getInstance().generateProfileString(profile));
                 }
             }
         } finally {
@@ -16,14 +16,13 @@ package com.starrocks.memory;
 
 import com.google.common.collect.ImmutableMap;
 import com.starrocks.qe.QueryDetailQueue;
-import org.apache.spark.util.SizeEstimator;
 
 import java.util.Map;
 
 public class QueryTracker implements MemoryTrackable {
     @Override
     public long estimateSize() {
-        return SizeEstimator.estimate(QueryDetailQueue.TOTAL_QUERIES);
+        return QueryDetailQueue.getTotalQueriesBytes();
     }
 
     @Override
@@ -53,6 +53,7 @@ import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
 import com.starrocks.common.util.NetUtils;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.http.HttpMetricRegistry;
 import com.starrocks.http.rest.MetricsAction;
 import com.starrocks.load.EtlJobType;
@@ -67,6 +68,7 @@ import com.starrocks.metric.Metric.MetricType;
 import com.starrocks.metric.Metric.MetricUnit;
 import com.starrocks.monitor.jvm.JvmStatCollector;
 import com.starrocks.monitor.jvm.JvmStats;
+import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.proto.PKafkaOffsetProxyRequest;
 import com.starrocks.proto.PKafkaOffsetProxyResult;
 import com.starrocks.server.GlobalStateMgr;
@@ -81,6 +83,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -103,6 +106,13 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_HIT;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_MISS;
+    public static LongCounterMetric COUNTER_CONNECTOR_METADATA_DISK_CACHE_HIT;
+    public static LongCounterMetric COUNTER_CONNECTOR_METADATA_DISK_CACHE_MISS;
+    public static LongCounterMetric COUNTER_CONNECTOR_METADATA_DISK_CACHE_EVICT;
+    public static LongCounterMetric COUNTER_RESULT_FETCH_BACKEND_WAIT_MS;
+    public static LongCounterMetric COUNTER_RESULT_FETCH_CLIENT_WAIT_MS;
 
     public static LongCounterMetric COUNTER_QUERY_QUEUE_PENDING;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TOTAL;
@@ -134,6 +144,8 @@ public final class MetricRepo {
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
+    public static Histogram HISTO_JOURNAL_QUEUE_WAIT;
+    public static Histogram HISTO_JOURNAL_COMMIT_LATENCY;
     public static Histogram HISTO_SHORTCIRCUIT_RPC_LATENCY;
 
     // following metrics will be updated by metric calculator
@@ -156,6 +168,9 @@ public final class MetricRepo {
     public static List<GaugeMetricImpl<Long>> GAUGE_MEMORY_USAGE_STATS;
     public static List<GaugeMetricImpl<Long>> GAUGE_OBJECT_COUNT_STATS;
 
+    // time to save or load every meta block of image, keyed by "<operation>_<block id>"
+    private static final Map<String, GaugeMetricImpl<Long>> GAUGE_IMAGE_BLOCK_TIMES = new ConcurrentHashMap<>();
+
     // Currently, we use gauge for safe mode metrics, since we do not have unTyped metrics till now
     public static GaugeMetricImpl<Integer> GAUGE_SAFE_MODE;
 
@@ -276,6 +291,51 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(scheduledTabletNum);
 
+        // tablet checker
+        GaugeMetric<Long> tabletCheckerRoundTime = new GaugeMetric<Long>("tablet_checker_round_time_ms",
+                MetricUnit.MILLISECONDS, "time cost of the last round of tablet checker") {
+            @Override
+            public Long getValue() {
+                if (!GlobalStateMgr.getCurrentState().isLeader()) {
+                    return 0L;
+                }
+                return GlobalStateMgr.getCurrentState().getTabletChecker().getLastRoundCostMs();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(tabletCheckerRoundTime);
+
+        GaugeMetric<Long> tabletCheckerDirtyTabletNum = new GaugeMetric<Long>("tablet_checker_dirty_tablet_num",
+                MetricUnit.NOUNIT, "number of tablets to be checked in incremental mode of tablet checker") {
+            @Override
+            public Long getValue() {
+                if (!GlobalStateMgr.getCurrentState().isLeader()) {
+                    return 0L;
+                }
+                return (long) GlobalStateMgr.getCurrentState().getTabletChecker().getDirtyTabletNum();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(tabletCheckerDirtyTabletNum);
+
+        // connector metadata disk cache
+        GaugeMetric<Long> connectorMetadataDiskCacheBytes = new GaugeMetric<Long>("connector_metadata_disk_cache_bytes",
+                MetricUnit.BYTES, "live bytes of the connector metadata disk cache") {
+            @Override
+            public Long getValue() {
+                return MetadataDiskCache.getInstances().stream().mapToLong(MetadataDiskCache::getLiveBytes).sum();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(connectorMetadataDiskCacheBytes);
+
+        GaugeMetric<Long> connectorMetadataDiskCacheEntries = new GaugeMetric<Long>(
+                "connector_metadata_disk_cache_entries", MetricUnit.NOUNIT,
+                "number of entries in the connector metadata disk cache") {
+            @Override
+            public Long getValue() {
+                return MetadataDiskCache.getInstances().stream().mapToLong(MetadataDiskCache::size).sum();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(connectorMetadataDiskCacheEntries);
+
         // routine load jobs
         RoutineLoadMgr routineLoadManger = GlobalStateMgr.getCurrentState().getRoutineLoadMgr();
         for (RoutineLoadJob.JobState state : RoutineLoadJob.JobState.values()) {
@@ -377,6 +437,27 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_SUCCESS);
         COUNTER_SLOW_QUERY = new LongCounterMetric("slow_query", MetricUnit.REQUESTS, "total slow query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
+        COUNTER_PLAN_CACHE_HIT = new LongCounterMetric("plan_cache_hit", MetricUnit.REQUESTS,
+                "total query planned from the plan cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PLAN_CACHE_HIT);
+        COUNTER_PLAN_CACHE_MISS = new LongCounterMetric("plan_cache_miss", MetricUnit.REQUESTS,
+                "total cacheable query not found in the plan cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PLAN_CACHE_MISS);
+        COUNTER_CONNECTOR_METADATA_DISK_CACHE_HIT = new LongCounterMetric("connector_metadata_disk_cache_hit",
+                MetricUnit.REQUESTS, "total lookups served by the connector metadata disk cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_CONNECTOR_METADATA_DISK_CACHE_HIT);
+        COUNTER_CONNECTOR_METADATA_DISK_CACHE_MISS = new LongCounterMetric("connector_metadata_disk_cache_miss",
+                MetricUnit.REQUESTS, "total lookups not found in the connector metadata disk cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_CONNECTOR_METADATA_DISK_CACHE_MISS);
+        COUNTER_CONNECTOR_METADATA_DISK_CACHE_EVICT = new LongCounterMetric("connector_metadata_disk_cache_evict",
+                MetricUnit.NOUNIT, "total entries evicted from the connector metadata disk cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_CONNECTOR_METADATA_DISK_CACHE_EVICT);
+        COUNTER_RESULT_FETCH_BACKEND_WAIT_MS = new LongCounterMetric("result_fetch_backend_wait_ms", MetricUnit.MILLISECONDS,
+                "total time of queries waiting for the results from backend");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_RESULT_FETCH_BACKEND_WAIT_MS);
+        COUNTER_RESULT_FETCH_CLIENT_WAIT_MS = new LongCounterMetric("result_fetch_client_wait_ms", MetricUnit.MILLISECONDS,
+                "total time of queries sending the results to client between two fetches");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_RESULT_FETCH_CLIENT_WAIT_MS);
         COUNTER_QUERY_QUEUE_PENDING = new LongCounterMetric("query_queue_pending", MetricUnit.REQUESTS,
                 "total pending query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_PENDING);
@@ -467,6 +548,10 @@ public final class MetricRepo {
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "batch"));
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
+        HISTO_JOURNAL_QUEUE_WAIT =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "queue", "wait", "ms"));
+        HISTO_JOURNAL_COMMIT_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "commit", "latency", "ms"));
         HISTO_SHORTCIRCUIT_RPC_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("shortcircuit", "latency", "ms"));
 
         // init system metrics
@@ -841,5 +926,19 @@ public final class MetricRepo {
         init();
         STARROCKS_METRIC_REGISTER.addMetric(metric);
     }
+
+    /**
+     * @param operation "save" or "load"
+     */
+    public static void updateImageBlockTime(String operation, SRMetaBlockID id, long timeMs) {
+        GaugeMetricImpl<Long> gauge = GAUGE_IMAGE_BLOCK_TIMES.computeIfAbsent(operation + "_" + id, key -> {
+            GaugeMetricImpl<Long> metric = new GaugeMetricImpl<>("image_block_" + operation + "_time_ms",
+                    MetricUnit.MILLISECONDS, "time of the last " + operation + " of the meta block in image");
+            metric.addLabel(new MetricLabel("block", id.toString()));
+            STARROCKS_METRIC_REGISTER.addMetric(metric);
+            return metric;
+        });
+        gauge.setValue(timeMs);
+    }
 }
 
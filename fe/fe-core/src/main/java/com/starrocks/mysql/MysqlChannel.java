@@ -34,6 +34,8 @@
 
 package com.starrocks.mysql;
 
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
 import com.starrocks.common.util.NetUtils;
 import com.starrocks.mysql.ssl.SSLChannel;
 import org.apache.logging.log4j.LogManager;
@@ -43,6 +45,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.List;
 
 /**
  * This class used to read/write MySQL logical packet.
@@ -56,6 +59,8 @@ public class MysqlChannel {
     // MySQL packet header length
     protected static final int PACKET_HEADER_LEN = 4;
     protected static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    // IOV_MAX of linux is 1024, more buffers can not be written in one writev call
+    protected static final int MAX_GATHERED_BUFFERS = 1000;
     // logger for this class
     protected static final Logger LOG = LogManager.getLogger(MysqlChannel.class);
     // next sequence id to receive or send
@@ -248,6 +253,30 @@ public class MysqlChannel {
         channel.write(buffer);
     }
 
+    public void realNetSend(ByteBuffer[] buffers) throws IOException {
+        long bufLen = remaining(buffers);
+        long writeLen = 0;
+        while (writeLen < bufLen) {
+            long len = channel.write(buffers);
+            if (len <= 0) {
+                break;
+            }
+            writeLen += len;
+        }
+        if (bufLen != writeLen) {
+            throw new IOException("Write mysql packet failed.[write=" + writeLen
+                    + ", needToWrite=" + bufLen + "]");
+        }
+    }
+
+    protected static long remaining(ByteBuffer[] buffers) {
+        long len = 0;
+        for (ByteBuffer buffer : buffers) {
+            len += buffer.remaining();
+        }
+        return len;
+    }
+
     public void flush() throws IOException {
         if (null == sendBuffer || sendBuffer.position() == 0) {
             // Nothing to send
@@ -322,6 +351,82 @@ public class MysqlChannel {
         accSequenceId();
     }
 
+    /**
+     * Send the packets like calling sendOnePacket for each of them, but the packets not smaller than
+     * mysql_gathering_write_min_packet_size are not copied into the send buffer.
+     * Only their headers are put into the send buffer, and the segments of the send buffer are written
+     * together with these packets by vectored writes.
+     */
+    public void sendPackets(List<ByteBuffer> packets) throws IOException {
+        if (sslChannel != null || !Config.enable_mysql_gathering_write) {
+            for (ByteBuffer packet : packets) {
+                sendOnePacket(packet);
+            }
+            return;
+        }
+
+        initBuffer(DEFAULT_BUFFER_SIZE);
+        int minGatheredSize = Config.mysql_gathering_write_min_packet_size;
+        List<ByteBuffer> gathered = Lists.newArrayList();
+        // the data of send buffer from segmentStart is not in gathered yet
+        int segmentStart = 0;
+        for (ByteBuffer packet : packets) {
+            int length = packet.remaining();
+            if (length >= MAX_PHYSICAL_PACKET_LENGTH) {
+                // rarely happens, just keep the packet split logic in one place
+                segmentStart = gatheringSend(gathered, segmentStart);
+                sendOnePacket(packet);
+            } else if (length < minGatheredSize) {
+                if (sendBuffer.remaining() < PACKET_HEADER_LEN + length) {
+                    segmentStart = gatheringSend(gathered, segmentStart);
+                }
+                sendOnePacket(packet);
+            } else {
+                if (sendBuffer.remaining() < PACKET_HEADER_LEN) {
+                    segmentStart = gatheringSend(gathered, segmentStart);
+                }
+                writeHeader(length);
+                gathered.add(segment(segmentStart, sendBuffer.position()));
+                gathered.add(packet);
+                segmentStart = sendBuffer.position();
+                accSequenceId();
+                if (gathered.size() >= MAX_GATHERED_BUFFERS) {
+                    segmentStart = gatheringSend(gathered, segmentStart);
+                }
+            }
+        }
+        // the small packets left in send buffer are sent by the next flush, the same as sendOnePacket
+        if (!gathered.isEmpty()) {
+            gatheringSend(gathered, segmentStart);
+        }
+    }
+
+    // Send all the gathered buffers and the data of send buffer after them, return the new segment start.
+    private int gatheringSend(List<ByteBuffer> gathered, int segmentStart) throws IOException {
+        if (gathered.isEmpty()) {
+            flush();
+            return 0;
+        }
+        if (sendBuffer.position() > segmentStart) {
+            gathered.add(segment(segmentStart, sendBuffer.position()));
+        }
+        try {
+            realNetSend(gathered.toArray(new ByteBuffer[0]));
+            isSend = true;
+        } finally {
+            gathered.clear();
+            sendBuffer.clear();
+        }
+        return 0;
+    }
+
+    private ByteBuffer segment(int start, int end) {
+        ByteBuffer segment = sendBuffer.duplicate();
+        segment.limit(end);
+        segment.position(start);
+        return segment;
+    }
+
     public void sendAndFlush(ByteBuffer packet) throws IOException {
         sendOnePacket(packet);
         flush();
@@ -77,6 +77,7 @@ import com.starrocks.load.routineload.RoutineLoadJob;
 import com.starrocks.load.streamload.StreamLoadTask;
 import com.starrocks.meta.MetaContext;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.gson.GsonBinaryCodec;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.privilege.RolePrivilegeCollectionV2;
@@ -1491,19 +1492,19 @@ public class EditLog {
     }
 
     public void logAddReplica(ReplicaPersistInfo info) {
-        logJsonObject(OperationType.OP_ADD_REPLICA_V2, info);
+        logCompactObject(OperationType.OP_ADD_REPLICA_V2, info);
     }
 
     public void logUpdateReplica(ReplicaPersistInfo info) {
-        logJsonObject(OperationType.OP_UPDATE_REPLICA_V2, info);
+        logCompactObject(OperationType.OP_UPDATE_REPLICA_V2, info);
     }
 
     public void logDeleteReplica(ReplicaPersistInfo info) {
-        logJsonObject(OperationType.OP_DELETE_REPLICA_V2, info);
+        logCompactObject(OperationType.OP_DELETE_REPLICA_V2, info);
     }
 
     public void logBatchDeleteReplica(BatchDeleteReplicaInfo info) {
-        logEdit(OperationType.OP_BATCH_DELETE_REPLICA, info);
+        logCompactObject(OperationType.OP_BATCH_DELETE_REPLICA, info);
     }
 
     public void logTimestamp(Timestamp stamp) {
@@ -1576,11 +1577,11 @@ public class EditLog {
 
     // for TransactionState
     public void logInsertTransactionState(TransactionState transactionState) {
-        logJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, transactionState);
+        logCompactObject(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, transactionState);
     }
 
     public void logInsertTransactionStateBatch(TransactionStateBatch stateBatch) {
-        logJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH, stateBatch);
+        logCompactObject(OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH, stateBatch);
     }
 
     public void logBackupJob(BackupJob job) {
@@ -1970,6 +1971,15 @@ public class EditLog {
         logEdit(op, out -> Text.writeString(out, GsonUtils.GSON.toJson(obj)));
     }
 
+    // The operations logged frequently, they are read by GsonBinaryCodec.read, which accepts both json and binary.
+    private void logCompactObject(short op, Object obj) {
+        if (Config.edit_log_binary_encoding) {
+            logEdit(op, out -> GsonBinaryCodec.write(out, obj));
+        } else {
+            logJsonObject(op, obj);
+        }
+    }
+
     public void logModifyTableAddOrDropColumns(TableAddOrDropColumnsInfo info) {
         logEdit(OperationType.OP_MODIFY_TABLE_ADD_OR_DROP_COLUMNS, info);
     }
@@ -2032,6 +2042,6 @@ public class EditLog {
     }
 
     public void logRecoverPartitionVersion(PartitionVersionRecoveryInfo info) {
-        logEdit(OperationType.OP_RECOVER_PARTITION_VERSION, info);
+        logCompactObject(OperationType.OP_RECOVER_PARTITION_VERSION, info);
     }
 }
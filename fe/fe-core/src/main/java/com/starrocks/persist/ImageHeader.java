@@ -15,11 +15,20 @@
 package com.starrocks.persist;
 
 import com.google.gson.annotations.SerializedName;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+
+import java.util.List;
 
 public class ImageHeader {
     @SerializedName("beid")
     private long batchEndId;
 
+    // Offset and length of every meta block, only written by ParallelImageWriter.
+    // The blocks follow the header in the same order as the sequential save, so the image can still be
+    // loaded one block after another by the versions which don't know the index.
+    @SerializedName("bidx")
+    private List<BlockIndex> blockIndex;
+
     public long getBatchEndId() {
         return batchEndId;
     }
@@ -27,4 +36,40 @@ public class ImageHeader {
     public void setBatchEndId(long batchEndId) {
         this.batchEndId = batchEndId;
     }
+
+    public List<BlockIndex> getBlockIndex() {
+        return blockIndex;
+    }
+
+    public void setBlockIndex(List<BlockIndex> blockIndex) {
+        this.blockIndex = blockIndex;
+    }
+
+    public static class BlockIndex {
+        @SerializedName("i")
+        private SRMetaBlockID id;
+        // relative to the end of the header
+        @SerializedName("o")
+        private long offset;
+        @SerializedName("l")
+        private long length;
+
+        public BlockIndex(SRMetaBlockID id, long offset, long length) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public SRMetaBlockID getId() {
+            return id;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
 }
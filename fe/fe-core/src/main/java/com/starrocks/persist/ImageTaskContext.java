@@ -0,0 +1,65 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.server.GlobalStateMgr;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Captures the context of the thread which saves or loads the image, and applies it to the pool threads
+ * which save or load the meta blocks for it, so that they work on the same catalog with the same meta version.
+ */
+class ImageTaskContext {
+    interface ImageTask {
+        void run() throws Exception;
+    }
+
+    private final boolean checkpoint;
+    private final MetaContext metaContext;
+
+    ImageTaskContext() {
+        this.checkpoint = GlobalStateMgr.isCheckpointThread();
+        this.metaContext = MetaContext.get();
+    }
+
+    static ThreadPoolExecutor newPool(String name, int numThreads, int numTasks) {
+        return ThreadPoolManager.newDaemonFixedThreadPool(numThreads, Math.max(numTasks, 1), name, false);
+    }
+
+    Runnable wrap(ImageTask task) {
+        return () -> {
+            if (checkpoint) {
+                GlobalStateMgr.registerCheckpointWorkerThread();
+            }
+            if (metaContext != null) {
+                metaContext.setThreadLocalInfo();
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                MetaContext.remove();
+                if (checkpoint) {
+                    GlobalStateMgr.unregisterCheckpointWorkerThread();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.metablock.SRMetaBlockEOFException;
+import com.starrocks.persist.metablock.SRMetaBlockException;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import com.starrocks.persist.metablock.SRMetaBlockLoader;
+import com.starrocks.persist.metablock.SRMetaBlockReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Loads the meta blocks of an image saved by {@link ParallelImageWriter} concurrently.
+ * <p>
+ * Every block is read from its own offset of the image by a bounded pool, after the blocks it depends on
+ * are loaded. All the blocks depend on the catalog ({@link SRMetaBlockID#LOCAL_META_STORE}), which depends on
+ * the nodes ({@link SRMetaBlockID#NODE_MGR}), the other dependencies are listed in {@link #DEPENDENCIES}.
+ * A dependency which doesn't exist in the image is ignored.
+ */
+public class ParallelImageLoader {
+    private static final Logger LOG = LogManager.getLogger(ParallelImageLoader.class);
+
+    private static final Map<SRMetaBlockID, List<SRMetaBlockID>> DEPENDENCIES =
+            ImmutableMap.<SRMetaBlockID, List<SRMetaBlockID>>builder()
+                    .put(SRMetaBlockID.NODE_MGR, ImmutableList.of())
+                    .put(SRMetaBlockID.LOCAL_META_STORE, ImmutableList.of(SRMetaBlockID.NODE_MGR))
+                    // both of them add tablets to the inverted index and the catalog
+                    .put(SRMetaBlockID.CATALOG_RECYCLE_BIN,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.ALTER_MGR))
+                    .put(SRMetaBlockID.AUTHORIZATION_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.AUTHENTICATION_MGR))
+                    .put(SRMetaBlockID.CATALOG_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.RESOURCE_MGR))
+                    .put(SRMetaBlockID.MATERIALIZED_VIEW_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.CATALOG_MGR))
+                    // the jobs register their callbacks of transactions
+                    .put(SRMetaBlockID.ROUTINE_LOAD_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .put(SRMetaBlockID.LOAD_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .put(SRMetaBlockID.DELETE_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .put(SRMetaBlockID.INSERT_OVERWRITE_JOB_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .put(SRMetaBlockID.COMPACTION_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .put(SRMetaBlockID.STREAM_LOAD_MGR,
+                            ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.GLOBAL_TRANSACTION_MGR))
+                    .build();
+    private static final List<SRMetaBlockID> DEFAULT_DEPENDENCIES = ImmutableList.of(SRMetaBlockID.LOCAL_META_STORE);
+
+    private final File imageFile;
+    // position of the first block in the image
+    private final long blocksOffset;
+    private final List<ImageHeader.BlockIndex> blockIndex;
+    private final int numThreads;
+
+    public ParallelImageLoader(File imageFile, long blocksOffset, List<ImageHeader.BlockIndex> blockIndex,
+                               int numThreads) {
+        this.imageFile = imageFile;
+        this.blocksOffset = blocksOffset;
+        this.blockIndex = blockIndex;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Load all the blocks in the image.
+     *
+     * @return id of the blocks loaded
+     */
+    public Set<SRMetaBlockID> load(Map<SRMetaBlockID, SRMetaBlockLoader> loaders)
+            throws IOException, SRMetaBlockException {
+        Set<SRMetaBlockID> loaded = ConcurrentHashMap.newKeySet();
+        ImageTaskContext context = new ImageTaskContext();
+        ThreadPoolExecutor executor = ImageTaskContext.newPool("image-loader", numThreads, blockIndex.size());
+        try {
+            // the blocks are saved after the blocks they depend on, so the dependencies are always created before
+            Map<SRMetaBlockID, CompletableFuture<Void>> futures = new HashMap<>();
+            for (ImageHeader.BlockIndex block : blockIndex) {
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (SRMetaBlockID dependency : DEPENDENCIES.getOrDefault(block.getId(), DEFAULT_DEPENDENCIES)) {
+                    CompletableFuture<Void> future = futures.get(dependency);
+                    if (future != null) {
+                        dependencies.add(future);
+                    }
+                }
+                CompletableFuture<Void> future = CompletableFuture
+                        .allOf(dependencies.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(context.wrap(() -> {
+                            if (loadBlock(block, loaders)) {
+                                loaded.add(block.getId());
+                            }
+                        }), executor);
+                futures.put(block.getId(), future);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof SRMetaBlockException) {
+                throw (SRMetaBlockException) cause;
+            }
+            throw new IOException("Load meta block failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        return loaded;
+    }
+
+    private boolean loadBlock(ImageHeader.BlockIndex block, Map<SRMetaBlockID, SRMetaBlockLoader> loaders)
+            throws IOException, SRMetaBlockException {
+        long startTime = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(imageFile.toPath(), StandardOpenOption.READ)) {
+            channel.position(blocksOffset + block.getOffset());
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(
+                    ByteStreams.limit(Channels.newInputStream(channel), block.getLength())));
+            boolean loaded = loadBlock(new SRMetaBlockReader(dis), loaders);
+            long duration = System.currentTimeMillis() - startTime;
+            MetricRepo.updateImageBlockTime("load", block.getId(), duration);
+            LOG.info("Finished load meta block {} in {} ms", block.getId(), duration);
+            return loaded;
+        }
+    }
+
+    /**
+     * Load one block by the loader of its id, the block is skipped if there is no loader for it.
+     *
+     * @return whether the block is loaded
+     */
+    public static boolean loadBlock(SRMetaBlockReader reader, Map<SRMetaBlockID, SRMetaBlockLoader> loaders)
+            throws IOException, SRMetaBlockException {
+        SRMetaBlockID srMetaBlockID = reader.getHeader().getSrMetaBlockID();
+        try {
+            SRMetaBlockLoader imageLoader = loaders.get(srMetaBlockID);
+            if (imageLoader == null) {
+                /*
+                 * The expected read module does not match the module stored in the image,
+                 * and the json chunk is skipped directly. This usually occurs in several situations.
+                 * 1. When the obsolete image code is deleted.
+                 * 2. When the new version rolls back to the old version,
+                 *    the old version ignores the functions of the new version
+                 */
+                LOG.warn(String.format("Ignore this invalid meta block, sr meta block id mismatch" +
+                        "(expect sr meta block id %s)", srMetaBlockID));
+                return false;
+            }
+
+            imageLoader.apply(reader);
+            LOG.info("Success load StarRocks meta block " + srMetaBlockID + " from image");
+            return true;
+        } catch (SRMetaBlockEOFException srMetaBlockEOFException) {
+            /*
+             * The number of json expected to be read is more than the number of json actually stored in the image
+             */
+            LOG.warn("Got EOF exception, ignore, ", srMetaBlockEOFException);
+            return true;
+        } finally {
+            reader.close();
+        }
+    }
+}
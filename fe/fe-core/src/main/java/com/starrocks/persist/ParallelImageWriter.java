@@ -0,0 +1,139 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.starrocks.common.Pair;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.metablock.SRMetaBlockException;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import com.starrocks.persist.metablock.SRMetaBlockSaver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Saves the meta blocks of an image concurrently.
+ * <p>
+ * Every block is written into its own section file by a bounded pool. After all the sections are written,
+ * the header with the offset and length of every block is written to the image, followed by the sections
+ * in the order they are added, so the layout of the blocks is the same as the sequential save.
+ * See {@link ParallelImageLoader} for loading the blocks concurrently.
+ */
+public class ParallelImageWriter {
+    private static final Logger LOG = LogManager.getLogger(ParallelImageWriter.class);
+
+    public interface HeaderSaver {
+        void apply(DataOutputStream dos, List<ImageHeader.BlockIndex> blockIndex) throws IOException;
+    }
+
+    private final File imageFile;
+    private final int numThreads;
+    private final List<Pair<SRMetaBlockID, SRMetaBlockSaver>> blocks = new ArrayList<>();
+
+    public ParallelImageWriter(File imageFile, int numThreads) {
+        this.imageFile = imageFile;
+        this.numThreads = numThreads;
+    }
+
+    public ParallelImageWriter addBlock(SRMetaBlockID id, SRMetaBlockSaver saver) {
+        blocks.add(Pair.create(id, saver));
+        return this;
+    }
+
+    public void save(HeaderSaver headerSaver) throws IOException, SRMetaBlockException {
+        List<File> sections = new ArrayList<>(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            sections.add(new File(imageFile.getParentFile(), imageFile.getName() + ".section." + i));
+        }
+        try {
+            saveSections(sections);
+
+            List<ImageHeader.BlockIndex> blockIndex = new ArrayList<>(blocks.size());
+            long offset = 0;
+            for (int i = 0; i < blocks.size(); i++) {
+                long length = sections.get(i).length();
+                blockIndex.add(new ImageHeader.BlockIndex(blocks.get(i).first, offset, length));
+                offset += length;
+            }
+
+            try (FileChannel image = FileChannel.open(imageFile.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(image)));
+                headerSaver.apply(dos, blockIndex);
+                dos.flush();
+                for (File section : sections) {
+                    try (FileChannel channel = FileChannel.open(section.toPath(), StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = channel.size();
+                        while (position < size) {
+                            position += channel.transferTo(position, size - position, image);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (File section : sections) {
+                Files.deleteIfExists(section.toPath());
+            }
+        }
+    }
+
+    private void saveSections(List<File> sections) throws IOException, SRMetaBlockException {
+        ImageTaskContext context = new ImageTaskContext();
+        ThreadPoolExecutor executor = ImageTaskContext.newPool("image-writer", numThreads, blocks.size());
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(blocks.size());
+            for (int i = 0; i < blocks.size(); i++) {
+                SRMetaBlockID id = blocks.get(i).first;
+                SRMetaBlockSaver saver = blocks.get(i).second;
+                File section = sections.get(i);
+                futures.add(CompletableFuture.runAsync(context.wrap(() -> {
+                    long startTime = System.currentTimeMillis();
+                    try (DataOutputStream dos = new DataOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(section.toPath())))) {
+                        saver.apply(dos);
+                    }
+                    long duration = System.currentTimeMillis() - startTime;
+                    MetricRepo.updateImageBlockTime("save", id, duration);
+                    LOG.info("Finished save meta block {} in {} ms", id, duration);
+                }), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof SRMetaBlockException) {
+                throw (SRMetaBlockException) cause;
+            }
+            throw new IOException("Save meta block failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
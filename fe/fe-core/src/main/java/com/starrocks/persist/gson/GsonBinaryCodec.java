@@ -0,0 +1,243 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of the json produced by {@link GsonUtils#GSON}.
+ * <p>
+ * The object is converted to a json tree by its gson adapters, and the tree is written as tagged tokens:
+ * integers are zigzag varints, doubles are 8 bytes, and every member name is written once, later
+ * occurrences refer to it by index. So any class which can be serialized by gson can be encoded,
+ * and the result is the same as reading its json.
+ * <p>
+ * The encoded data starts with a negative int -version, while the json written by {@link Text#writeString}
+ * starts with its non-negative length, {@link #read} accepts both of them.
+ * <pre>
+ * +----------------+----------------+------------------+
+ * | -version (int) | length (int)   | tokens           |
+ * +----------------+----------------+------------------+
+ * </pre>
+ */
+public class GsonBinaryCodec {
+    public static final int VERSION_1 = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    // numbers that are neither integers nor doubles, e.g. BigDecimal, kept as their text
+    private static final byte TAG_NUMBER = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_BEGIN_OBJECT = 7;
+    private static final byte TAG_BEGIN_ARRAY = 8;
+    private static final byte TAG_END = 9;
+    private static final byte TAG_NEW_NAME = 10;
+    private static final byte TAG_NAME_REF = 11;
+
+    public static void write(DataOutput out, Object object) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.encode(GsonUtils.GSON.toJsonTree(object));
+        out.writeInt(-VERSION_1);
+        out.writeInt(encoder.buffer.getLength());
+        out.write(encoder.buffer.getData(), 0, encoder.buffer.getLength());
+    }
+
+    /**
+     * Read the object written by {@link #write} or as json by {@link Text#writeString}.
+     */
+    public static <T> T read(DataInput in, Class<T> clazz) throws IOException {
+        int head = in.readInt();
+        if (head >= 0) {
+            byte[] bytes = new byte[head];
+            in.readFully(bytes);
+            return GsonUtils.GSON.fromJson(Text.decode(bytes), clazz);
+        }
+        int version = -head;
+        if (version != VERSION_1) {
+            throw new IOException("unknown binary json version: " + version);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        Decoder decoder = new Decoder(ByteBuffer.wrap(bytes));
+        JsonElement element = decoder.decode(decoder.buffer.get());
+        if (decoder.buffer.hasRemaining()) {
+            throw new IOException("binary json is not fully consumed, remaining: " + decoder.buffer.remaining());
+        }
+        return GsonUtils.GSON.fromJson(element, clazz);
+    }
+
+    private static class Encoder {
+        private final DataOutputBuffer buffer = new DataOutputBuffer(256);
+        private final Map<String, Integer> names = new HashMap<>();
+
+        void encode(JsonElement element) throws IOException {
+            if (element.isJsonNull()) {
+                buffer.writeByte(TAG_NULL);
+            } else if (element.isJsonObject()) {
+                buffer.writeByte(TAG_BEGIN_OBJECT);
+                for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                    Integer index = names.get(member.getKey());
+                    if (index == null) {
+                        names.put(member.getKey(), names.size());
+                        buffer.writeByte(TAG_NEW_NAME);
+                        writeString(member.getKey());
+                    } else {
+                        buffer.writeByte(TAG_NAME_REF);
+                        writeVarLong(index);
+                    }
+                    encode(member.getValue());
+                }
+                buffer.writeByte(TAG_END);
+            } else if (element.isJsonArray()) {
+                buffer.writeByte(TAG_BEGIN_ARRAY);
+                for (JsonElement e : element.getAsJsonArray()) {
+                    encode(e);
+                }
+                buffer.writeByte(TAG_END);
+            } else {
+                JsonPrimitive primitive = element.getAsJsonPrimitive();
+                if (primitive.isBoolean()) {
+                    buffer.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+                } else if (primitive.isString()) {
+                    buffer.writeByte(TAG_STRING);
+                    writeString(primitive.getAsString());
+                } else {
+                    Number number = primitive.getAsNumber();
+                    if (number instanceof Long || number instanceof Integer || number instanceof Short ||
+                            number instanceof Byte) {
+                        buffer.writeByte(TAG_LONG);
+                        long value = number.longValue();
+                        writeVarLong((value << 1) ^ (value >> 63));
+                    } else if (number instanceof Double) {
+                        buffer.writeByte(TAG_DOUBLE);
+                        buffer.writeDouble(number.doubleValue());
+                    } else {
+                        buffer.writeByte(TAG_NUMBER);
+                        writeString(number.toString());
+                    }
+                }
+            }
+        }
+
+        private void writeString(String s) throws IOException {
+            // same as Text.encode, malformed chars are replaced
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            buffer.write(bytes);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                buffer.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.writeByte((int) value);
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private final List<String> names = new ArrayList<>();
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        JsonElement decode(byte tag) throws IOException {
+            switch (tag) {
+                case TAG_NULL:
+                    return JsonNull.INSTANCE;
+                case TAG_TRUE:
+                    return new JsonPrimitive(true);
+                case TAG_FALSE:
+                    return new JsonPrimitive(false);
+                case TAG_LONG: {
+                    long value = readVarLong();
+                    return new JsonPrimitive((value >>> 1) ^ -(value & 1));
+                }
+                case TAG_DOUBLE:
+                    return new JsonPrimitive(buffer.getDouble());
+                case TAG_NUMBER:
+                    return new JsonPrimitive(new LazilyParsedNumber(readString()));
+                case TAG_STRING:
+                    return new JsonPrimitive(readString());
+                case TAG_BEGIN_OBJECT: {
+                    JsonObject object = new JsonObject();
+                    for (byte t = buffer.get(); t != TAG_END; t = buffer.get()) {
+                        String name;
+                        if (t == TAG_NEW_NAME) {
+                            name = readString();
+                            names.add(name);
+                        } else if (t == TAG_NAME_REF) {
+                            name = names.get((int) readVarLong());
+                        } else {
+                            throw new IOException("expect a member name, but got tag " + t);
+                        }
+                        object.add(name, decode(buffer.get()));
+                    }
+                    return object;
+                }
+                case TAG_BEGIN_ARRAY: {
+                    JsonArray array = new JsonArray();
+                    for (byte t = buffer.get(); t != TAG_END; t = buffer.get()) {
+                        array.add(decode(t));
+                    }
+                    return array;
+                }
+                default:
+                    throw new IOException("unknown binary json tag: " + tag);
+            }
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return s;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
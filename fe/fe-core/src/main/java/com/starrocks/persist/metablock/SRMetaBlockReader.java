@@ -15,14 +15,21 @@
 
 package com.starrocks.persist.metablock;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.gson.stream.JsonReader;
 import com.starrocks.common.io.Text;
 import com.starrocks.persist.gson.GsonUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedInputStream;
 
@@ -43,6 +50,9 @@ import java.util.zip.CheckedInputStream;
  * |      footer      | {"checksum": xxx}
  * +------------------+
  * <p>
+ * The objects are deserialized by a {@link JsonReader} from the input stream, without reading the json as a string,
+ * see {@link SRMetaBlockWriter}.
+ * <p>
  * Usage see com.starrocks.persist.metablock.SRMetaBlockTest#testSimple()
  */
 public class SRMetaBlockReader {
@@ -66,18 +76,30 @@ public class SRMetaBlockReader {
         return header;
     }
 
-    private String readJsonText() throws IOException, SRMetaBlockEOFException {
+    private <T> T readJsonStream(Type returnType) throws IOException, SRMetaBlockEOFException {
         if (numJsonRead >= header.getNumJson()) {
             throw new SRMetaBlockEOFException(String.format(
                     "Read json more than expect: %d >= %d", numJsonRead, header.getNumJson()));
         }
-        String s = Text.readStringWithChecksum(checkedInputStream);
+        byte[] bytes = new byte[4];
+        ByteStreams.readFully(checkedInputStream, bytes);
+        int length = ByteBuffer.wrap(bytes).getInt();
+
+        // Same as Text#decode, malformed bytes are replaced.
+        CountingInputStream in = new CountingInputStream(ByteStreams.limit(checkedInputStream, length));
+        JsonReader jsonReader = GsonUtils.GSON.newJsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        T object = GsonUtils.GSON.fromJson(jsonReader, returnType);
+        // skip the trailing whitespaces, so that the next json starts at the right position
+        ByteStreams.exhaust(in);
+        if (in.getCount() != length) {
+            throw new EOFException(String.format("reach EOF: read expect %d actual %d!", length, in.getCount()));
+        }
         numJsonRead += 1;
-        return s;
+        return object;
     }
 
     public <T> T readJson(Class<T> returnClass) throws IOException, SRMetaBlockException, SRMetaBlockEOFException {
-        return GsonUtils.GSON.fromJson(readJsonText(), returnClass);
+        return readJsonStream(returnClass);
     }
 
     public int readInt() throws IOException, SRMetaBlockException, SRMetaBlockEOFException {
@@ -85,7 +107,7 @@ public class SRMetaBlockReader {
     }
 
     public Object readJson(Type returnType) throws IOException, SRMetaBlockException, SRMetaBlockEOFException {
-        return GsonUtils.GSON.fromJson(readJsonText(), returnType);
+        return readJsonStream(returnType);
     }
 
     public void close() throws IOException, SRMetaBlockException {
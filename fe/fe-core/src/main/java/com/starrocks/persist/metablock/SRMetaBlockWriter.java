@@ -15,11 +15,19 @@
 
 package com.starrocks.persist.metablock;
 
+import com.google.common.io.CountingOutputStream;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonWriter;
 import com.starrocks.common.io.Text;
 import com.starrocks.persist.gson.GsonUtils;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedOutputStream;
 
@@ -40,9 +48,16 @@ import java.util.zip.CheckedOutputStream;
  * |      footer      | {"checksum": xxx}
  * +------------------+
  * <p>
+ * Every json is written as a 4-byte length followed by its UTF-8 bytes, the same as
+ * {@link Text#writeStringWithChecksum}. The objects are serialized by a {@link JsonWriter} onto the output stream
+ * instead of to a string. An object whose json is larger than {@link #JSON_BUFFER_SIZE} is serialized twice,
+ * the first time only counts its length, so the memory doesn't grow with the size of the object.
+ * <p>
  * Usage see com.starrocks.persist.metablock.SRMetaBlockTest#testSimple()
  */
 public class SRMetaBlockWriter {
+    static final int JSON_BUFFER_SIZE = 1024 * 1024;
+
     private final CheckedOutputStream checkedOutputStream;
     private final SRMetaBlockHeader header;
     private int numJsonWritten;
@@ -76,10 +91,73 @@ public class SRMetaBlockWriter {
             // write header
             Text.writeStringWithChecksum(checkedOutputStream, GsonUtils.GSON.toJson(header));
         }
-        Text.writeStringWithChecksum(checkedOutputStream, GsonUtils.GSON.toJson(object));
+        writeJsonStream(object);
         numJsonWritten += 1;
     }
 
+    private void writeJsonStream(Object object) throws IOException, SRMetaBlockException {
+        JsonBuffer buffer = new JsonBuffer();
+        toJson(object, buffer);
+        if (buffer.length > Integer.MAX_VALUE) {
+            throw new SRMetaBlockException(String.format("json is too large: %d bytes", buffer.length));
+        }
+        checkedOutputStream.write(ByteBuffer.allocate(4).putInt((int) buffer.length).array());
+        if (buffer.bytes != null) {
+            checkedOutputStream.write(buffer.bytes, 0, (int) buffer.length);
+            return;
+        }
+
+        // too large to be buffered, serialize it again onto the output stream
+        CountingOutputStream out = new CountingOutputStream(checkedOutputStream);
+        toJson(object, out);
+        if (out.getCount() != buffer.length) {
+            throw new SRMetaBlockException(String.format(
+                    "json length changed while writing, expect %d actual %d", buffer.length, out.getCount()));
+        }
+    }
+
+    private static void toJson(Object object, OutputStream out) throws IOException {
+        // The writer is flushed but not closed, which would close the underlying stream.
+        // Same as Text#encode, malformed chars are replaced.
+        OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonWriter jsonWriter = GsonUtils.GSON.newJsonWriter(writer);
+        if (object == null) {
+            GsonUtils.GSON.toJson(JsonNull.INSTANCE, jsonWriter);
+        } else {
+            GsonUtils.GSON.toJson(object, object.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Keeps the bytes of the json until it's larger than {@link #JSON_BUFFER_SIZE}, then only counts its length.
+     */
+    private static class JsonBuffer extends OutputStream {
+        private byte[] bytes = new byte[1024];
+        private long length = 0;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (bytes != null) {
+                if (length + len > JSON_BUFFER_SIZE) {
+                    bytes = null;
+                } else {
+                    if (length + len > bytes.length) {
+                        bytes = Arrays.copyOf(bytes, (int) Math.min(JSON_BUFFER_SIZE,
+                                Math.max(length + len, bytes.length * 2L)));
+                    }
+                    System.arraycopy(b, off, bytes, (int) length, len);
+                }
+            }
+            length += len;
+        }
+    }
+
     public void close() throws IOException, SRMetaBlockException {
         // check if write as many json string as expect
         if (numJsonWritten != header.getNumJson()) {
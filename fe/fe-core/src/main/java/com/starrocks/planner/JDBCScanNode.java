@@ -17,7 +17,9 @@ package com.starrocks.planner;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.starrocks.analysis.Analyzer;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.ExprSubstitutionMap;
@@ -27,26 +29,66 @@ import com.starrocks.analysis.TupleDescriptor;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.JDBCResource;
 import com.starrocks.catalog.JDBCTable;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
+import com.starrocks.connector.ConnectorMetadata;
+import com.starrocks.connector.jdbc.JDBCMetadata;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.RunMode;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.system.ComputeNode;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TJDBCScanNode;
+import com.starrocks.thrift.TJDBCScanRange;
+import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPlanNode;
 import com.starrocks.thrift.TPlanNodeType;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * full scan on JDBC table.
  */
 public class JDBCScanNode extends ScanNode {
+    private static final Logger LOG = LogManager.getLogger(JDBCScanNode.class);
+
+    private static final ExecutorService PARTITION_BOUNDS_EXECUTOR =
+            ThreadPoolManager.newDaemonCacheThreadPool(16, "jdbc-partition-bounds", false);
+    // the class loaders of the driver jars of jdbc resources, keyed by the url and the checksum of the jar
+    private static final Map<String, ClassLoader> DRIVER_CLASS_LOADERS = Maps.newConcurrentMap();
 
     private final List<String> columns = new ArrayList<>();
     private final List<String> filters = new ArrayList<>();
     private String tableName;
     private JDBCTable table;
+    // the scan is split into numPartitions ranges on partitionColumn, each scan range reads one of them
+    private String partitionColumn;
+    private int numPartitions = 1;
+    private List<TScanRangeLocations> scanRangeLocations = null;
 
     public JDBCScanNode(PlanNodeId id, TupleDescriptor desc, JDBCTable tbl) {
         super(id, desc, "SCAN JDBC");
@@ -78,6 +120,10 @@ public class JDBCScanNode extends ScanNode {
         StringBuilder output = new StringBuilder();
         output.append(prefix).append("TABLE: ").append(tableName).append("\n");
         output.append(prefix).append("QUERY: ").append(getJDBCQueryStr()).append("\n");
+        if (numPartitions > 1) {
+            output.append(prefix).append("PARTITIONS: ").append(numPartitions)
+                    .append(" ON ").append(partitionColumn).append("\n");
+        }
         return output.toString();
     }
 
@@ -94,6 +140,192 @@ public class JDBCScanNode extends ScanNode {
         return sql.toString();
     }
 
+    /**
+     * Returns the number of range partitions the scan on the table is split into, 1 means the scan is not split.
+     * The scan is split only if jdbc_scan_partition_column is an integer column of the table and
+     * there is no limit, because every partition would apply the limit by itself.
+     */
+    public static int getNumRangePartitions(ConnectContext context, JDBCTable table, long limit) {
+        if (context == null || limit != -1) {
+            return 1;
+        }
+        SessionVariable sessionVariable = context.getSessionVariable();
+        if (sessionVariable.getJdbcScanPartitionNum() <= 1 ||
+                Strings.isNullOrEmpty(sessionVariable.getJdbcScanPartitionColumn())) {
+            return 1;
+        }
+        Column column = table.getColumn(sessionVariable.getJdbcScanPartitionColumn());
+        if (column == null || !column.getType().isIntegerType()) {
+            return 1;
+        }
+        return sessionVariable.getJdbcScanPartitionNum();
+    }
+
+    public void computeRangePartitions(ConnectContext context) {
+        numPartitions = getNumRangePartitions(context, table, limit);
+        if (numPartitions <= 1) {
+            return;
+        }
+        String objectIdentifier = getIdentifierSymbol();
+        Column column = table.getColumn(context.getSessionVariable().getJdbcScanPartitionColumn());
+        partitionColumn = objectIdentifier + column.getName() + objectIdentifier;
+
+        // EXPLAIN doesn't execute the scan, so the remote database is not queried for the bounds
+        if (context.getExplainLevel() != null && context.getExplainLevel() != StatementBase.ExplainLevel.ANALYZE) {
+            return;
+        }
+        // the bounds are queried once, so all the ranges are cut from the same snapshot of the column
+        long[] bounds = queryPartitionColumnBounds();
+        if (bounds == null) {
+            numPartitions = 1;
+            return;
+        }
+        List<String> predicates = buildRangePartitionPredicates(partitionColumn, bounds[0], bounds[1], numPartitions);
+
+        List<ComputeNode> nodeList;
+        if (RunMode.getCurrentRunMode() == RunMode.SHARED_DATA) {
+            long warehouseId = context.getCurrentWarehouseId();
+            List<Long> computeNodeIds = GlobalStateMgr.getCurrentState().getWarehouseMgr().getAllComputeNodeIds(warehouseId);
+            nodeList = computeNodeIds.stream()
+                    .map(id -> GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackendOrComputeNode(id))
+                    .collect(Collectors.toList());
+        } else {
+            nodeList = Lists.newArrayList(GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getIdToBackend().values());
+        }
+
+        // every partition can be read by any alive node, the backend selector spreads them evenly.
+        scanRangeLocations = Lists.newArrayList();
+        for (String predicate : predicates) {
+            TScanRangeLocations locations = new TScanRangeLocations();
+            for (ComputeNode node : nodeList) {
+                if (node == null || !node.isAlive()) {
+                    continue;
+                }
+                TScanRangeLocation location = new TScanRangeLocation();
+                location.setBackend_id(node.getId());
+                location.setServer(new TNetworkAddress(node.getHost(), node.getBePort()));
+                locations.addToLocations(location);
+            }
+            TJDBCScanRange jdbcScanRange = new TJDBCScanRange();
+            jdbcScanRange.setPartition_predicate(predicate);
+            TScanRange scanRange = new TScanRange();
+            scanRange.setJdbc_scan_range(jdbcScanRange);
+            locations.setScan_range(scanRange);
+            scanRangeLocations.add(locations);
+        }
+    }
+
+    /**
+     * Split [lower, upper] of the partition column into numPartitions ranges, and return the predicate of each
+     * range. The first range also reads NULL values, the last range also reads the values written after the
+     * bounds are queried. The predicates are pushed to the remote database as filters, so the partition column
+     * doesn't need to be projected.
+     */
+    public static List<String> buildRangePartitionPredicates(String column, long lower, long upper, int numPartitions) {
+        List<String> predicates = Lists.newArrayList();
+        for (int i = 0; i < numPartitions; i++) {
+            long start = partitionBoundary(lower, upper, numPartitions, i);
+            long end = partitionBoundary(lower, upper, numPartitions, i + 1);
+            if (i == 0) {
+                predicates.add(String.format("%s < %d OR %s IS NULL", column, end, column));
+            } else if (i == numPartitions - 1) {
+                predicates.add(String.format("%s >= %d", column, start));
+            } else {
+                predicates.add(String.format("%s >= %d AND %s < %d", column, start, column, end));
+            }
+        }
+        return predicates;
+    }
+
+    // lower + (upper - lower + 1) * index / numPartitions, in BigInteger to avoid overflow
+    private static long partitionBoundary(long lower, long upper, int numPartitions, int index) {
+        BigInteger length = BigInteger.valueOf(upper).subtract(BigInteger.valueOf(lower)).add(BigInteger.ONE);
+        return BigInteger.valueOf(lower)
+                .add(length.multiply(BigInteger.valueOf(index)).divide(BigInteger.valueOf(numPartitions)))
+                .longValue();
+    }
+
+    /**
+     * Query MIN and MAX of the partition column under the filters of the scan, returns null if they can't be
+     * queried within {@link Config#jdbc_scan_partition_bounds_timeout_ms} or the table is empty, then the scan
+     * is not split.
+     */
+    protected long[] queryPartitionColumnBounds() {
+        StringBuilder sql = new StringBuilder("SELECT MIN(").append(partitionColumn).append("), MAX(")
+                .append(partitionColumn).append(") FROM ").append(tableName);
+        if (!filters.isEmpty()) {
+            sql.append(" WHERE (");
+            sql.append(Joiner.on(") AND (").join(filters));
+            sql.append(")");
+        }
+        long timeoutMs = Config.jdbc_scan_partition_bounds_timeout_ms;
+        // the connection is made in another thread, so that planning is not blocked by a remote database which
+        // doesn't respond, no matter whether the driver supports login timeout or not
+        Future<long[]> future = PARTITION_BOUNDS_EXECUTOR.submit(() -> queryPartitionColumnBounds(sql.toString(),
+                (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs))));
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            future.cancel(true);
+            LOG.warn("query bounds of partition column {} of jdbc table {} failed, the scan is not split",
+                    partitionColumn, tableName, e);
+            return null;
+        }
+    }
+
+    private long[] queryPartitionColumnBounds(String sql, int timeoutSeconds) throws Exception {
+        try (Connection connection = getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                long lower = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return null;
+                }
+                return new long[] {lower, resultSet.getLong(2)};
+            }
+        }
+    }
+
+    private Connection getConnection() throws Exception {
+        if (!Strings.isNullOrEmpty(table.getCatalogName())) {
+            Optional<ConnectorMetadata> metadata =
+                    GlobalStateMgr.getCurrentState().getMetadataMgr().getOptionalMetadata(table.getCatalogName());
+            if (metadata.isPresent() && metadata.get() instanceof JDBCMetadata) {
+                return ((JDBCMetadata) metadata.get()).getConnection();
+            }
+        }
+        JDBCResource resource = (JDBCResource) GlobalStateMgr.getCurrentState().getResourceMgr()
+                .getResource(table.getResourceName());
+        if (resource == null) {
+            throw new SQLException("jdbc resource " + table.getResourceName() + " doesn't exist");
+        }
+        // the driver of the resource is in the jar of driver_url rather than the classpath of FE
+        String driverUrl = resource.getProperty(JDBCResource.DRIVER_URL);
+        String key = driverUrl + "#" + Strings.nullToEmpty(resource.getProperty(JDBCResource.CHECK_SUM));
+        ClassLoader classLoader = DRIVER_CLASS_LOADERS.get(key);
+        if (classLoader == null) {
+            classLoader = new URLClassLoader(new URL[] {new URL(driverUrl)}, JDBCScanNode.class.getClassLoader());
+            ClassLoader existing = DRIVER_CLASS_LOADERS.putIfAbsent(key, classLoader);
+            classLoader = existing != null ? existing : classLoader;
+        }
+        Driver driver = (Driver) Class.forName(resource.getProperty(JDBCResource.DRIVER_CLASS), true, classLoader)
+                .getDeclaredConstructor().newInstance();
+
+        Properties info = new Properties();
+        info.setProperty("user", resource.getProperty(JDBCResource.USER));
+        info.setProperty("password", resource.getProperty(JDBCResource.PASSWORD));
+        Connection connection = driver.connect(resource.getProperty(JDBCResource.URI), info);
+        if (connection == null) {
+            throw new SQLException("driver " + resource.getProperty(JDBCResource.DRIVER_CLASS) +
+                    " doesn't accept " + resource.getProperty(JDBCResource.URI));
+        }
+        return connection;
+    }
+
     private void createJDBCTableColumns() {
         String objectIdentifier = getIdentifierSymbol();
         for (SlotDescriptor slot : desc.getSlots()) {
@@ -161,12 +393,12 @@ public class JDBCScanNode extends ScanNode {
 
     @Override
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
-        return null;
+        return scanRangeLocations;
     }
 
     @Override
     public int getNumInstances() {
-        return 1;
+        return scanRangeLocations == null ? 1 : scanRangeLocations.size();
     }
 
     @Override
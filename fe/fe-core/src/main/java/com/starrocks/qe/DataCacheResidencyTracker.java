@@ -0,0 +1,157 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+
+import java.util.Map;
+
+/**
+ * DataCacheResidencyTracker keeps a compact summary of the remote scan ranges which are likely resident in the
+ * data cache of each compute node, together with the recently assigned scan bytes of the node.
+ * <p>
+ * A node populates its data cache with what it scans, so every scan range assigned by {@link HDFSBackendSelector}
+ * is added to the bloom filter of the chosen node. Each node keeps two generations of bloom filters, when the
+ * current one is full the older one is dropped, which roughly follows the LRU eviction of the data cache.
+ * The assigned bytes decay with a half-life of {@link Config#hdfs_backend_selector_load_half_life_ms} and
+ * approximate the in-flight scan bytes of the node across queries.
+ */
+public class DataCacheResidencyTracker {
+    private static final DataCacheResidencyTracker INSTANCE = new DataCacheResidencyTracker();
+
+    // false positive probability of each bloom filter generation
+    private static final double FPP = 0.03;
+
+    private final Map<Long, NodeResidency> nodeResidencies = Maps.newConcurrentMap();
+
+    public static DataCacheResidencyTracker getInstance() {
+        return INSTANCE;
+    }
+
+    private static class BloomFilter {
+        private final long[] bits;
+        private final int numBits;
+        private final int numHashFunctions;
+
+        BloomFilter(long expectedInsertions) {
+            long n = Math.max(expectedInsertions, 1);
+            long m = (long) (-n * Math.log(FPP) / (Math.log(2) * Math.log(2)));
+            this.numBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+            this.bits = new long[(numBits + 63) / 64];
+            this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        }
+
+        // double hashing of a 64 bit hash, see "Less Hashing, Same Performance: Building a Better Bloom Filter"
+        void put(long hash) {
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashFunctions; i++) {
+                int combined = (hash1 + i * hash2) & Integer.MAX_VALUE;
+                int index = combined % numBits;
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashFunctions; i++) {
+                int combined = (hash1 + i * hash2) & Integer.MAX_VALUE;
+                int index = combined % numBits;
+                if ((bits[index >>> 6] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class NodeResidency {
+        private BloomFilter current;
+        private BloomFilter previous;
+        private long currentInsertions = 0;
+        private long expectedInsertions;
+
+        private double loadBytes = 0;
+        private long loadUpdateTimeMs = 0;
+
+        synchronized boolean mightContain(long rangeHash) {
+            return (current != null && current.mightContain(rangeHash)) ||
+                    (previous != null && previous.mightContain(rangeHash));
+        }
+
+        synchronized void add(long rangeHash, long bytes, long nowMs) {
+            long expected = Config.hdfs_backend_selector_cache_residency_expected_ranges;
+            if (current == null || expected != expectedInsertions) {
+                current = new BloomFilter(expected);
+                previous = null;
+                currentInsertions = 0;
+                expectedInsertions = expected;
+            } else if (currentInsertions >= expectedInsertions) {
+                previous = current;
+                current = new BloomFilter(expectedInsertions);
+                currentInsertions = 0;
+            }
+            current.put(rangeHash);
+            currentInsertions++;
+
+            loadBytes = getLoadBytes(nowMs) + bytes;
+            loadUpdateTimeMs = nowMs;
+        }
+
+        synchronized double getLoadBytes(long nowMs) {
+            long halfLifeMs = Math.max(Config.hdfs_backend_selector_load_half_life_ms, 1);
+            long elapsedMs = Math.max(nowMs - loadUpdateTimeMs, 0);
+            return loadBytes * Math.pow(0.5, (double) elapsedMs / halfLifeMs);
+        }
+
+        synchronized double getResidentLoadBytes(long rangeHash, long nowMs) {
+            return mightContain(rangeHash) ? getLoadBytes(nowMs) : -1;
+        }
+    }
+
+    /**
+     * Returns whether the scan range is possibly resident in the data cache of the node.
+     */
+    public boolean mightBeResident(long nodeId, long rangeHash) {
+        NodeResidency residency = nodeResidencies.get(nodeId);
+        return residency != null && residency.mightContain(rangeHash);
+    }
+
+    /**
+     * Returns the recently assigned bytes of the node if the scan range is possibly resident in its data cache,
+     * otherwise returns a negative value. Both are read under the same lock of the node.
+     */
+    public double getResidentLoadBytes(long nodeId, long rangeHash, long nowMs) {
+        NodeResidency residency = nodeResidencies.get(nodeId);
+        return residency == null ? -1 : residency.getResidentLoadBytes(rangeHash, nowMs);
+    }
+
+    public double getLoadBytes(long nodeId, long nowMs) {
+        NodeResidency residency = nodeResidencies.get(nodeId);
+        return residency == null ? 0 : residency.getLoadBytes(nowMs);
+    }
+
+    public void recordAssignment(long nodeId, long rangeHash, long bytes, long nowMs) {
+        nodeResidencies.computeIfAbsent(nodeId, k -> new NodeResidency()).add(rangeHash, bytes, nowMs);
+    }
+
+    @VisibleForTesting
+    public void clear() {
+        nodeResidencies.clear();
+    }
+}
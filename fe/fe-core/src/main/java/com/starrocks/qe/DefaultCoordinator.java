@@ -104,6 +104,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
@@ -951,6 +952,7 @@ public class DefaultCoordinator extends Coordinator {
                 unlock();
             }
 
+            queryProfile.mergeFinishedInstance(execState);
             queryProfile.finishInstance(params.getFragment_instance_id());
         }
 
@@ -1073,8 +1075,12 @@ public class DefaultCoordinator extends Coordinator {
                 return true;
             }
 
-            if (ThriftServer.getExecutor() != null
-                    && ThriftServer.getExecutor().getPoolSize() >= Config.thrift_server_max_worker_threads) {
+            // the pool size stays at the max after a burst, so the server is only regarded as high load when all
+            // the workers are busy and there are requests waiting for them
+            ThreadPoolExecutor thriftExecutor = ThriftServer.getExecutor();
+            if (thriftExecutor != null
+                    && thriftExecutor.getActiveCount() >= thriftExecutor.getMaximumPoolSize()
+                    && !thriftExecutor.getQueue().isEmpty()) {
                 thriftServerHighLoad = true;
             }
 
@@ -20,6 +20,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.PrimitiveSink;
@@ -53,6 +54,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -67,6 +69,9 @@ import java.util.Set;
  * <p>
  * If force_schedule_local variable is set, HybridBackendSelector will force to
  * assign scan ranges to local backend if there has one.
+ * <p>
+ * If hdfs_backend_selector_cache_affinity variable is set, remote scan ranges prefer the nodes which likely
+ * hold them in the data cache and are not overloaded, see {@link DataCacheResidencyTracker}.
  */
 
 public class HDFSBackendSelector implements BackendSelector {
@@ -84,11 +89,21 @@ public class HDFSBackendSelector implements BackendSelector {
     private final boolean forceScheduleLocal;
     private final boolean shuffleScanRange;
     private final int kCandidateNumber = 3;
+    // the number of nodes after the hash candidates which are probed for the scan range in their data cache
+    private final int kResidentProbeNumber = 3;
     // After testing, this value can ensure that the scan range size assigned to each BE is as uniform as possible,
     // and the largest scan data is not more than 1.1 times of the average value
     private final double kMaxImbalanceRatio = 1.1;
     public static final int CONSISTENT_HASH_RING_VIRTUAL_NUMBER = 256;
 
+    private final DataCacheResidencyTracker residencyTracker = DataCacheResidencyTracker.getInstance();
+    private boolean cacheAffinity = false;
+    // statistics of the remote scan ranges assigned to the nodes which likely hold them in the data cache
+    long cacheAffinityHitRanges = 0;
+    long cacheAffinityHitBytes = 0;
+    long cacheAffinityTotalRanges = 0;
+    long cacheAffinityTotalBytes = 0;
+
     class HdfsScanRangeHasher {
         String basePath;
         HDFSScanNodePredicates predicates;
@@ -184,6 +199,46 @@ public class HDFSBackendSelector implements BackendSelector {
         return node;
     }
 
+    // Order the candidates by cache affinity. The probed nodes which likely hold the scan range in their data cache
+    // come first, less loaded ones ahead, followed by the candidates of the hash ring. Only the first
+    // kCandidateNumber + kResidentProbeNumber nodes of the hash ring are probed, since a node caches the ranges
+    // assigned to it as one of their hash candidates, and those stay close to the head of the ring when nodes join
+    // or leave. A probed node whose recently assigned bytes exceed loadBound is not preferred even if it holds the
+    // range.
+    private List<ComputeNode> orderByCacheAffinity(List<ComputeNode> probeNodes, long rangeHash, double loadBound,
+                                                   long nowMs) {
+        List<ComputeNode> hashCandidates = probeNodes.subList(0, Math.min(kCandidateNumber, probeNodes.size()));
+        Map<ComputeNode, Double> loads = Maps.newHashMap();
+        for (ComputeNode node : probeNodes) {
+            double load = residencyTracker.getResidentLoadBytes(node.getId(), rangeHash, nowMs);
+            if (load >= 0 && load <= loadBound) {
+                loads.put(node, load);
+            }
+        }
+        if (loads.isEmpty()) {
+            return hashCandidates;
+        }
+
+        Set<ComputeNode> ordered = Sets.newLinkedHashSet();
+        loads.entrySet().stream()
+                .sorted(Map.Entry.<ComputeNode, Double>comparingByValue()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .forEach(entry -> ordered.add(entry.getKey()));
+        ordered.addAll(hashCandidates);
+        return Lists.newArrayList(ordered);
+    }
+
+    private ComputeNode selectByCacheAffinity(List<ComputeNode> candidates, long avgNodeScanRangeBytes,
+                                              TScanRangeLocations scanRangeLocations) {
+        ComputeNode node = reBalanceScanRangeForComputeNode(candidates, avgNodeScanRangeBytes, scanRangeLocations);
+        long addedScans = scanRangeLocations.scan_range.hdfs_scan_range.length;
+        if (node != null && assignedScansPerComputeNode.get(node) + addedScans >= avgNodeScanRangeBytes * kMaxImbalanceRatio) {
+            // all the candidates are overloaded, bound the skew by the least assigned one
+            node = candidates.stream().min(Comparator.comparingLong(assignedScansPerComputeNode::get)).orElse(node);
+        }
+        return node;
+    }
+
     class ComputeNodeFunnel implements Funnel<ComputeNode> {
         @Override
         public void funnel(ComputeNode computeNode, PrimitiveSink primitiveSink) {
@@ -275,15 +330,50 @@ public class HDFSBackendSelector implements BackendSelector {
         if (shuffleScanRange) {
             Collections.shuffle(remoteScanRangeLocations);
         }
+        cacheAffinity = ConnectContext.get() != null &&
+                ConnectContext.get().getSessionVariable().isHdfsBackendSelectorCacheAffinity();
+        TScanRangeLocationsFunnel scanRangeFunnel = new TScanRangeLocationsFunnel();
+        long nowMs = System.currentTimeMillis();
+        // the recently assigned bytes of all nodes, kept up to date with the assignments below
+        double totalLoadBytes = 0;
+        if (cacheAffinity) {
+            for (ComputeNode computeNode : assignedScansPerComputeNode.keySet()) {
+                totalLoadBytes += residencyTracker.getLoadBytes(computeNode.getId(), nowMs);
+            }
+        }
+        int candidateNumber = cacheAffinity ? kCandidateNumber + kResidentProbeNumber : kCandidateNumber;
         // assign scan ranges.
         for (int i = 0; i < remoteScanRangeLocations.size(); ++i) {
             TScanRangeLocations scanRangeLocations = remoteScanRangeLocations.get(i);
-            List<ComputeNode> backends = hashRing.get(scanRangeLocations, kCandidateNumber);
-            ComputeNode node = reBalanceScanRangeForComputeNode(backends, avgNodeScanRangeBytes, scanRangeLocations);
+            List<ComputeNode> backends = hashRing.get(scanRangeLocations, candidateNumber);
+            if (!cacheAffinity) {
+                ComputeNode node = reBalanceScanRangeForComputeNode(backends, avgNodeScanRangeBytes, scanRangeLocations);
+                if (node == null) {
+                    throw new RuntimeException("Failed to find backend to execute");
+                }
+                recordScanRangeAssignment(node, backends, scanRangeLocations);
+                continue;
+            }
+
+            long rangeHash = Hashing.murmur3_128().hashObject(scanRangeLocations, scanRangeFunnel).asLong();
+            double loadBound = totalLoadBytes / assignedScansPerComputeNode.size() * kMaxImbalanceRatio +
+                    avgNodeScanRangeBytes;
+            List<ComputeNode> candidates = orderByCacheAffinity(backends, rangeHash, loadBound, nowMs);
+            ComputeNode node = selectByCacheAffinity(candidates, avgNodeScanRangeBytes, scanRangeLocations);
             if (node == null) {
                 throw new RuntimeException("Failed to find backend to execute");
             }
-            recordScanRangeAssignment(node, backends, scanRangeLocations);
+            recordScanRangeAssignment(node, candidates, scanRangeLocations);
+
+            long length = scanRangeLocations.scan_range.hdfs_scan_range.length;
+            if (residencyTracker.mightBeResident(node.getId(), rangeHash)) {
+                cacheAffinityHitRanges++;
+                cacheAffinityHitBytes += length;
+            }
+            cacheAffinityTotalRanges++;
+            cacheAffinityTotalBytes += length;
+            residencyTracker.recordAssignment(node.getId(), rangeHash, length, nowMs);
+            totalLoadBytes += length;
         }
 
         recordScanRangeStatistic();
@@ -322,5 +412,13 @@ public class HDFSBackendSelector implements BackendSelector {
             sb.append(entry.getKey().getAddress().hostname).append(":").append(entry.getValue()).append(",");
         }
         Tracers.record(Tracers.Module.EXTERNAL, scanNode.getTableName() + " rebalance_bytes", sb.toString());
+        if (cacheAffinity) {
+            // the locality hit ratio of the remote scan ranges by bytes
+            double hitRatio = cacheAffinityTotalBytes == 0 ? 0 : (double) cacheAffinityHitBytes / cacheAffinityTotalBytes;
+            Tracers.record(Tracers.Module.EXTERNAL, scanNode.getTableName() + " cache_affinity_hit_ratio",
+                    String.format("%.2f", hitRatio));
+            Tracers.record(Tracers.Module.EXTERNAL, scanNode.getTableName() + " cache_affinity_hit_ranges",
+                    cacheAffinityHitRanges + "/" + cacheAffinityTotalRanges);
+        }
     }
 }
\ No newline at end of file
@@ -238,9 +238,7 @@ public class LeaderOpExecutor {
         if (!result.isSetChannelBufferList() || result.channelBufferList.isEmpty()) {
             return false;
         }
-        for (ByteBuffer byteBuffer : result.channelBufferList) {
-            channel.sendOnePacket(byteBuffer);
-        }
+        channel.sendPackets(result.channelBufferList);
         return true;
     }
 
@@ -38,50 +38,172 @@ import com.google.common.collect.Lists;
 import com.starrocks.common.Config;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 // Queue of QueryDetail.
 // It's used to collect queries for monitor.
+// Query details are kept in a ring buffer ordered by event time, so that the queries after a time can be found
+// by binary search, and the oldest ones are evicted when they expire or the buffer exceeds the memory limit.
 public class QueryDetailQueue {
-    public static final ConcurrentLinkedDeque<QueryDetail> TOTAL_QUERIES = new ConcurrentLinkedDeque<>();
     private static final ScheduledExecutorService SCHEDULED = Executors.newSingleThreadScheduledExecutor();
 
     private static final AtomicLong LATEST_MS = new AtomicLong();
     private static final AtomicLong LATEST_MS_CNT = new AtomicLong();
 
+    private static final int INITIAL_CAPACITY = 1024;
+    // estimated memory of a QueryDetail object except its strings
+    private static final long QUERY_DETAIL_BASE_BYTES = 200;
+
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+    // all the fields below are guarded by LOCK, the capacity of the buffer is always a power of 2
+    private static QueryDetail[] queries = new QueryDetail[INITIAL_CAPACITY];
+    // event time and estimated bytes of each query detail, kept aside to make binary search cache friendly
+    private static long[] eventTimes = new long[INITIAL_CAPACITY];
+    private static long[] bytes = new long[INITIAL_CAPACITY];
+    private static int head = 0;
+    private static volatile int count = 0;
+    private static volatile long totalBytes = 0;
+
     static {
         SCHEDULED.scheduleAtFixedRate(QueryDetailQueue::removeExpiredQueryDetails, 0, 5, TimeUnit.SECONDS);
     }
 
     public static void addQueryDetail(QueryDetail queryDetail) {
-        queryDetail.setEventTime(getCurrentTimeNS());
-        TOTAL_QUERIES.addLast(queryDetail);
+        long size = estimateBytes(queryDetail);
+        LOCK.writeLock().lock();
+        try {
+            // set event time in the lock, so that the query details are ordered by event time,
+            // even if the clock goes backwards
+            long eventTime = getCurrentTimeNS();
+            if (count > 0) {
+                eventTime = Math.max(eventTime, eventTimes[(head + count - 1) & (queries.length - 1)] + 1);
+            }
+            queryDetail.setEventTime(eventTime);
+            if (count == queries.length) {
+                resize(queries.length * 2);
+            }
+            int pos = (head + count) & (queries.length - 1);
+            queries[pos] = queryDetail;
+            eventTimes[pos] = eventTime;
+            bytes[pos] = size;
+            count++;
+            totalBytes += size;
+
+            long maxBytes = Config.query_detail_cache_max_bytes;
+            while (count > 1 && totalBytes > maxBytes) {
+                removeFirst();
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
     }
 
     private static void removeExpiredQueryDetails() {
-        long deleteTime = getCurrentTimeNS() - Config.query_detail_cache_time_nanosecond;
+        long deleteTime = System.currentTimeMillis() * 1000000 - Config.query_detail_cache_time_nanosecond;
 
-        while (!TOTAL_QUERIES.isEmpty() && TOTAL_QUERIES.peekFirst().getEventTime() < deleteTime) {
-            TOTAL_QUERIES.pollFirst();
+        LOCK.writeLock().lock();
+        try {
+            while (count > 0 && eventTimes[head] < deleteTime) {
+                removeFirst();
+            }
+            if (queries.length > INITIAL_CAPACITY && count < queries.length / 4) {
+                resize(Math.max(INITIAL_CAPACITY, queries.length / 2));
+            }
+        } finally {
+            LOCK.writeLock().unlock();
         }
     }
 
     public static List<QueryDetail> getQueryDetailsAfterTime(long eventTime) {
+        return getQueryDetailsAfterTime(eventTime, null);
+    }
+
+    /**
+     * Return the query details whose event time is after eventTime and match the filter if it's not null,
+     * ordered by event time.
+     */
+    public static List<QueryDetail> getQueryDetailsAfterTime(long eventTime, Predicate<QueryDetail> filter) {
         List<QueryDetail> results = Lists.newArrayList();
-        for (QueryDetail queryDetail : TOTAL_QUERIES) {
-            if (queryDetail.getEventTime() > eventTime) {
-                results.add(queryDetail);
+        LOCK.readLock().lock();
+        try {
+            int mask = queries.length - 1;
+            // find the first query detail whose event time is after eventTime
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (eventTimes[(head + mid) & mask] > eventTime) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            for (int i = low; i < count; i++) {
+                QueryDetail queryDetail = queries[(head + i) & mask];
+                if (filter == null || filter.test(queryDetail)) {
+                    results.add(queryDetail);
+                }
             }
+        } finally {
+            LOCK.readLock().unlock();
         }
         return results;
     }
 
     public static long getTotalQueriesCount() {
-        return TOTAL_QUERIES.size();
+        return count;
+    }
+
+    public static long getTotalQueriesBytes() {
+        return totalBytes;
+    }
+
+    private static void removeFirst() {
+        totalBytes -= bytes[head];
+        queries[head] = null;
+        head = (head + 1) & (queries.length - 1);
+        count--;
+    }
+
+    private static void resize(int capacity) {
+        QueryDetail[] newQueries = new QueryDetail[capacity];
+        long[] newEventTimes = new long[capacity];
+        long[] newBytes = new long[capacity];
+        int mask = queries.length - 1;
+        for (int i = 0; i < count; i++) {
+            int pos = (head + i) & mask;
+            newQueries[i] = queries[pos];
+            newEventTimes[i] = eventTimes[pos];
+            newBytes[i] = bytes[pos];
+        }
+        queries = newQueries;
+        eventTimes = newEventTimes;
+        bytes = newBytes;
+        head = 0;
+    }
+
+    private static long estimateBytes(QueryDetail queryDetail) {
+        return QUERY_DETAIL_BASE_BYTES
+                + stringBytes(queryDetail.getQueryId())
+                + stringBytes(queryDetail.getRemoteIP())
+                + stringBytes(queryDetail.getDatabase())
+                + stringBytes(queryDetail.getSql())
+                + stringBytes(queryDetail.getUser())
+                + stringBytes(queryDetail.getErrorMessage())
+                + stringBytes(queryDetail.getExplain())
+                + stringBytes(queryDetail.getProfile())
+                + stringBytes(queryDetail.getResourceGroupName())
+                + stringBytes(queryDetail.getDigest())
+                + stringBytes(queryDetail.getCatalog());
+    }
+
+    private static long stringBytes(String str) {
+        return str == null ? 0 : 40 + 2L * str.length();
     }
 
     private static long getCurrentTimeNS() {
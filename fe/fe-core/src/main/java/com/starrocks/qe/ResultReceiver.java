@@ -34,7 +34,10 @@
 
 package com.starrocks.qe;
 
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import com.starrocks.common.Status;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.proto.PFetchDataResult;
@@ -51,13 +54,26 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class ResultReceiver {
     private static final Logger LOG = LogManager.getLogger(ResultReceiver.class);
+
+    // fetch the results in background, a query falls back to fetch the results by itself if the pool is full
+    private static final ThreadPoolExecutor PREFETCH_EXECUTOR = ThreadPoolManager.newDaemonThreadPool(
+            0, Config.result_prefetch_thread_num, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadPoolExecutor.AbortPolicy(), "result-prefetch", false);
+    private static final long PREFETCH_POLL_INTERVAL_MS = 1000L;
+
     private volatile boolean isDone = false;
     private volatile boolean isCancel = false;
     private long packetIdx = 0;
@@ -67,6 +83,14 @@ public class ResultReceiver {
     private final Long backendId;
     private Thread currentThread;
 
+    private Prefetcher prefetcher;
+    // the time waiting for the results from backend, and the time between two getNext(), which is mostly
+    // spent on sending the results to the client
+    private long backendWaitNs = 0;
+    private long clientWaitNs = 0;
+    private long lastReturnNs = 0;
+    private boolean waitTimeReported = false;
+
     public ResultReceiver(TUniqueId tid, Long backendId, TNetworkAddress address, int timeoutMs) {
         this.finstId = new PUniqueId();
         this.finstId.hi = tid.hi;
@@ -80,6 +104,24 @@ public class ResultReceiver {
         if (isDone) {
             return null;
         }
+        long startNs = System.nanoTime();
+        if (lastReturnNs > 0) {
+            clientWaitNs += startNs - lastReturnNs;
+        }
+        RowBatch rowBatch = null;
+        try {
+            rowBatch = prefetcher == null ? fetchNext(status) : prefetcher.take(status);
+            return rowBatch;
+        } finally {
+            lastReturnNs = System.nanoTime();
+            backendWaitNs += lastReturnNs - startNs;
+            if (rowBatch == null || rowBatch.isEos() || !status.ok()) {
+                reportWaitTime();
+            }
+        }
+    }
+
+    private RowBatch fetchNext(Status status) throws TException {
         final RowBatch rowBatch = new RowBatch();
         try {
             while (!isDone && !isCancel) {
@@ -128,14 +170,32 @@ public class ResultReceiver {
                     deserializer.deserialize(resultBatch, serialResult);
                     rowBatch.setBatch(resultBatch);
                     rowBatch.setEos(pResult.eos);
+                    if (!isDone) {
+                        startPrefetch();
+                    }
                     return rowBatch;
                 }
             }
-        } catch (RpcException e) {
+        } catch (RpcException | ExecutionException | TimeoutException e) {
+            handleFetchException(e, status);
+        } finally {
+            synchronized (this) {
+                currentThread = null;
+            }
+        }
+
+        if (isCancel) {
+            status.setStatus(Status.CANCELLED);
+        }
+        return rowBatch;
+    }
+
+    private void handleFetchException(Exception e, Status status) {
+        if (e instanceof RpcException) {
             LOG.warn("fetch result rpc exception, finstId={}", DebugUtil.printId(finstId), e);
             status.setRpcStatus(e.getMessage());
             SimpleScheduler.addToBlocklist(backendId);
-        } catch (ExecutionException e) {
+        } else if (e instanceof ExecutionException) {
             LOG.warn("fetch result execution exception, finstId={}", DebugUtil.printId(finstId), e);
             if (e.getMessage().contains("time out")) {
                 // if timeout, we set error code to TIMEOUT, and it will not retry querying.
@@ -146,23 +206,46 @@ public class ResultReceiver {
                 status.setRpcStatus(e.getMessage());
                 SimpleScheduler.addToBlocklist(backendId);
             }
-        } catch (TimeoutException e) {
+        } else {
             LOG.warn("fetch result timeout, finstId={}", DebugUtil.printId(finstId), e);
             status.setInternalErrorStatus(String.format("Query exceeded time limit of %d seconds",
                     ConnectContext.get().getSessionVariable().getQueryTimeoutS()));
             if (MetricRepo.hasInit) {
                 MetricRepo.COUNTER_QUERY_TIMEOUT.increase(1L);
             }
-        } finally {
-            synchronized (this) {
-                currentThread = null;
-            }
         }
+    }
 
-        if (isCancel) {
-            status.setStatus(Status.CANCELLED);
+    private void startPrefetch() {
+        if (Config.result_prefetch_rpc_num <= 1) {
+            return;
         }
-        return rowBatch;
+        Prefetcher newPrefetcher = new Prefetcher(Config.result_prefetch_rpc_num, Config.result_prefetch_max_bytes);
+        try {
+            PREFETCH_EXECUTOR.execute(newPrefetcher);
+            prefetcher = newPrefetcher;
+        } catch (RejectedExecutionException e) {
+            LOG.debug("no thread to prefetch the results, finstId={}", DebugUtil.printId(finstId));
+        }
+    }
+
+    private void reportWaitTime() {
+        if (waitTimeReported) {
+            return;
+        }
+        waitTimeReported = true;
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_RESULT_FETCH_BACKEND_WAIT_MS.increase(TimeUnit.NANOSECONDS.toMillis(backendWaitNs));
+            MetricRepo.COUNTER_RESULT_FETCH_CLIENT_WAIT_MS.increase(TimeUnit.NANOSECONDS.toMillis(clientWaitNs));
+        }
+    }
+
+    public long getBackendWaitNs() {
+        return backendWaitNs;
+    }
+
+    public long getClientWaitNs() {
+        return clientWaitNs;
     }
 
     public void cancel() {
@@ -176,5 +259,226 @@ public class ResultReceiver {
                 // currentThread.interrupt();
             }
         }
+        Prefetcher p = prefetcher;
+        if (p != null) {
+            p.wakeUp();
+        }
+    }
+
+    // A fetched packet, or the exception thrown when fetching it.
+    private static class FetchedPacket {
+        private final PFetchDataResult result;
+        private final TResultBatch batch;
+        private final long bytes;
+        private final Exception exception;
+
+        FetchedPacket(PFetchDataResult result, TResultBatch batch, long bytes) {
+            this.result = result;
+            this.batch = batch;
+            this.bytes = bytes;
+            this.exception = null;
+        }
+
+        FetchedPacket(Exception exception) {
+            this.result = null;
+            this.batch = null;
+            this.bytes = 0;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Keeps at most maxInflight fetch_data rpcs in flight and deserializes the results in a background thread,
+     * so fetching from backend overlaps with sending the previous results to the client.
+     * No more rpc is sent once the deserialized results not taken by the receiver exceed maxBytes.
+     * <p>
+     * Backend assigns the packet sequences in the order the rpcs arrive, so the packets are reordered by their
+     * sequences before being handed to the receiver.
+     */
+    private class Prefetcher implements Runnable {
+        private final int maxInflight;
+        private final long maxBytes;
+
+        // guarded by this
+        private final Deque<FetchedPacket> packets = new ArrayDeque<>();
+        private long bufferedBytes = 0;
+
+        Prefetcher(int maxInflight, long maxBytes) {
+            this.maxInflight = maxInflight;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void run() {
+            Deque<PFetchDataRequest> requests = new ArrayDeque<>();
+            Deque<Future<PFetchDataResult>> futures = new ArrayDeque<>();
+            Map<Long, FetchedPacket> outOfOrder = Maps.newHashMap();
+            long nextSeq = packetIdx;
+            boolean eos = false;
+            try {
+                while (!eos && !isStopped()) {
+                    while (futures.size() < maxInflight && (futures.isEmpty() ? waitForSpace() : hasSpace())) {
+                        PFetchDataRequest request = new PFetchDataRequest(finstId);
+                        futures.add(BackendServiceClient.getInstance().fetchDataAsync(address, request));
+                        requests.add(request);
+                    }
+                    if (futures.isEmpty()) {
+                        // stopped
+                        break;
+                    }
+
+                    PFetchDataRequest request = requests.poll();
+                    PFetchDataResult result = waitResult(futures.poll());
+                    if (result == null) {
+                        break;
+                    }
+                    if (TStatusCode.findByValue(result.status.statusCode) != TStatusCode.OK) {
+                        // handed to the receiver directly, it stops fetching
+                        offer(new FetchedPacket(result, null, 0));
+                        return;
+                    }
+
+                    byte[] serialResult = request.getSerializedResult();
+                    TResultBatch resultBatch = null;
+                    if (serialResult != null && serialResult.length > 0) {
+                        resultBatch = new TResultBatch();
+                        new TDeserializer().deserialize(resultBatch, serialResult);
+                    }
+                    if (result.packetSeq < nextSeq || outOfOrder.containsKey(result.packetSeq)) {
+                        // all the rpcs waiting when the result sink is closed get an eos packet with the same sequence
+                        if (!result.eos) {
+                            LOG.warn("receive packet failed, expect={}, receive={}", nextSeq, result.packetSeq);
+                            throw new RpcException(address.hostname, "receive error packet");
+                        }
+                        continue;
+                    }
+                    outOfOrder.put(result.packetSeq,
+                            new FetchedPacket(result, resultBatch, serialResult == null ? 0 : serialResult.length));
+
+                    FetchedPacket packet;
+                    while (!eos && (packet = outOfOrder.remove(nextSeq)) != null) {
+                        nextSeq++;
+                        eos = packet.result.eos;
+                        if (packet.batch != null || eos) {
+                            offer(packet);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                offer(new FetchedPacket(e));
+            }
+        }
+
+        private PFetchDataResult waitResult(Future<PFetchDataResult> future)
+                throws ExecutionException, TimeoutException {
+            while (!isStopped()) {
+                long currentTs = System.currentTimeMillis();
+                if (currentTs >= timeoutTs) {
+                    throw new TimeoutException("query timeout");
+                }
+                try {
+                    return future.get(Math.min(timeoutTs - currentTs, PREFETCH_POLL_INTERVAL_MS), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // check whether the query is cancelled or timeout
+                } catch (InterruptedException e) {
+                    LOG.info("future get interrupted Exception");
+                }
+            }
+            return null;
+        }
+
+        private synchronized boolean hasSpace() {
+            return bufferedBytes < maxBytes;
+        }
+
+        // the query is cancelled, or the receiver stops taking the results because of an error
+        private boolean isStopped() {
+            return isCancel || isDone;
+        }
+
+        // wait until the buffered results are taken by the receiver, return false if stopped
+        private synchronized boolean waitForSpace() throws TimeoutException {
+            while (bufferedBytes >= maxBytes) {
+                if (isStopped()) {
+                    return false;
+                }
+                long currentTs = System.currentTimeMillis();
+                if (currentTs >= timeoutTs) {
+                    throw new TimeoutException("query timeout");
+                }
+                try {
+                    wait(Math.min(timeoutTs - currentTs, PREFETCH_POLL_INTERVAL_MS));
+                } catch (InterruptedException e) {
+                    LOG.info("wait for prefetch space interrupted Exception");
+                }
+            }
+            return !isStopped();
+        }
+
+        private synchronized void offer(FetchedPacket packet) {
+            packets.add(packet);
+            bufferedBytes += packet.bytes;
+            notifyAll();
+        }
+
+        synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        RowBatch take(Status status) throws TException {
+            FetchedPacket packet = null;
+            try {
+                synchronized (this) {
+                    while (packets.isEmpty() && !isCancel) {
+                        long currentTs = System.currentTimeMillis();
+                        if (currentTs >= timeoutTs) {
+                            throw new TimeoutException("query timeout");
+                        }
+                        try {
+                            wait(Math.min(timeoutTs - currentTs, PREFETCH_POLL_INTERVAL_MS));
+                        } catch (InterruptedException e) {
+                            LOG.info("wait for prefetched results interrupted Exception");
+                        }
+                    }
+                    if (isCancel) {
+                        status.setStatus(Status.CANCELLED);
+                        return null;
+                    }
+                    packet = packets.poll();
+                    bufferedBytes -= packet.bytes;
+                    notifyAll();
+                }
+
+                if (packet.exception != null) {
+                    throw packet.exception;
+                }
+            } catch (RpcException | ExecutionException | TimeoutException e) {
+                isDone = true;
+                handleFetchException(e, status);
+                return null;
+            } catch (TException e) {
+                isDone = true;
+                throw e;
+            } catch (Exception e) {
+                isDone = true;
+                status.setInternalErrorStatus(e.getMessage());
+                return null;
+            }
+
+            PFetchDataResult result = packet.result;
+            if (TStatusCode.findByValue(result.status.statusCode) != TStatusCode.OK) {
+                isDone = true;
+                status.setPstatus(result.status);
+                return null;
+            }
+            isDone = result.eos;
+            RowBatch rowBatch = new RowBatch();
+            rowBatch.setQueryStatistics(result.queryStatistics);
+            if (packet.batch != null) {
+                rowBatch.setBatch(packet.batch);
+                rowBatch.setEos(result.eos);
+            }
+            return rowBatch;
+        }
     }
 }
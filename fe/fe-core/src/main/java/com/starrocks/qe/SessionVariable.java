@@ -329,6 +329,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_MAX_REORDER_NODE_USE_EXHAUSTIVE = "cbo_max_reorder_node_use_exhaustive";
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
+    public static final String CBO_MAX_REORDER_PAIRS_USE_DP = "cbo_max_reorder_pairs_use_dp";
+    public static final String CBO_ENABLE_PARALLEL_EXPLORE = "cbo_enable_parallel_explore";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
@@ -649,6 +651,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String DISTINCT_COLUMN_BUCKETS = "count_distinct_column_buckets";
     public static final String ENABLE_DISTINCT_COLUMN_BUCKETIZATION = "enable_distinct_column_bucketization";
     public static final String HDFS_BACKEND_SELECTOR_SCAN_RANGE_SHUFFLE = "hdfs_backend_selector_scan_range_shuffle";
+    // prefer the nodes which likely hold the scan range in their data cache and are less loaded when assigning
+    // remote scan ranges, on top of the hash ring of hdfs_backend_selector_hash_algorithm.
+    public static final String HDFS_BACKEND_SELECTOR_CACHE_AFFINITY = "hdfs_backend_selector_cache_affinity";
+
+    // split the scan of a jdbc table into jdbc_scan_partition_num range partitions on the integer column
+    // jdbc_scan_partition_column, so the table can be read by several scanners at once.
+    public static final String JDBC_SCAN_PARTITION_COLUMN = "jdbc_scan_partition_column";
+    public static final String JDBC_SCAN_PARTITION_NUM = "jdbc_scan_partition_num";
 
     public static final String SQL_QUOTE_SHOW_CREATE = "sql_quote_show_create";
 
@@ -1195,7 +1205,18 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     private boolean cboEnableDPJoinReorder = true;
 
     @VariableMgr.VarAttr(name = CBO_MAX_REORDER_NODE_USE_DP)
-    private long cboMaxReorderNodeUseDP = 10;
+    private long cboMaxReorderNodeUseDP = 20;
+
+    // The max number of the pairs of connected sub-graphs enumerated by dp join reorder, which depends on the
+    // shape of the join graph. Join reorder by dp is skipped if there are more pairs. The default is about the
+    // pairs of a 10 tables clique (28501), the worst case when dp was limited to 10 tables.
+    @VariableMgr.VarAttr(name = CBO_MAX_REORDER_PAIRS_USE_DP, flag = VariableMgr.INVISIBLE)
+    private long cboMaxReorderPairsUseDP = 30000;
+
+    // Explore the independent groups of the memo concurrently, the threads are configured by
+    // optimizer_parallel_explore_thread_num of fe.conf
+    @VariableMgr.VarAttr(name = CBO_ENABLE_PARALLEL_EXPLORE, flag = VariableMgr.INVISIBLE)
+    private boolean cboEnableParallelExplore = false;
 
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
@@ -1844,6 +1865,15 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = HDFS_BACKEND_SELECTOR_SCAN_RANGE_SHUFFLE, flag = VariableMgr.INVISIBLE)
     private boolean hdfsBackendSelectorScanRangeShuffle = false;
 
+    @VariableMgr.VarAttr(name = HDFS_BACKEND_SELECTOR_CACHE_AFFINITY, flag = VariableMgr.INVISIBLE)
+    private boolean hdfsBackendSelectorCacheAffinity = false;
+
+    @VariableMgr.VarAttr(name = JDBC_SCAN_PARTITION_COLUMN)
+    private String jdbcScanPartitionColumn = "";
+
+    @VariableMgr.VarAttr(name = JDBC_SCAN_PARTITION_NUM)
+    private int jdbcScanPartitionNum = 1;
+
     @VariableMgr.VarAttr(name = CBO_PUSH_DOWN_DISTINCT_BELOW_WINDOW)
     private boolean cboPushDownDistinctBelowWindow = true;
 
@@ -2697,6 +2727,26 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseDP;
     }
 
+    public void setCboMaxReorderNodeUseDP(long cboMaxReorderNodeUseDP) {
+        this.cboMaxReorderNodeUseDP = cboMaxReorderNodeUseDP;
+    }
+
+    public long getCboMaxReorderPairsUseDP() {
+        return cboMaxReorderPairsUseDP;
+    }
+
+    public void setCboMaxReorderPairsUseDP(long cboMaxReorderPairsUseDP) {
+        this.cboMaxReorderPairsUseDP = cboMaxReorderPairsUseDP;
+    }
+
+    public boolean isCboEnableParallelExplore() {
+        return cboEnableParallelExplore;
+    }
+
+    public void setCboEnableParallelExplore(boolean cboEnableParallelExplore) {
+        this.cboEnableParallelExplore = cboEnableParallelExplore;
+    }
+
     public boolean isCboEnableGreedyJoinReorder() {
         return cboEnableGreedyJoinReorder;
     }
@@ -3576,6 +3626,30 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return hdfsBackendSelectorScanRangeShuffle;
     }
 
+    public boolean isHdfsBackendSelectorCacheAffinity() {
+        return hdfsBackendSelectorCacheAffinity;
+    }
+
+    public void setHdfsBackendSelectorCacheAffinity(boolean hdfsBackendSelectorCacheAffinity) {
+        this.hdfsBackendSelectorCacheAffinity = hdfsBackendSelectorCacheAffinity;
+    }
+
+    public String getJdbcScanPartitionColumn() {
+        return jdbcScanPartitionColumn;
+    }
+
+    public void setJdbcScanPartitionColumn(String jdbcScanPartitionColumn) {
+        this.jdbcScanPartitionColumn = jdbcScanPartitionColumn;
+    }
+
+    public int getJdbcScanPartitionNum() {
+        return jdbcScanPartitionNum;
+    }
+
+    public void setJdbcScanPartitionNum(int jdbcScanPartitionNum) {
+        this.jdbcScanPartitionNum = jdbcScanPartitionNum;
+    }
+
     public boolean isEnableStrictType() {
         return enableStrictType;
     }
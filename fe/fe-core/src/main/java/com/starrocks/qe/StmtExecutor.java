@@ -77,7 +77,6 @@ import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.ProfileManager;
 import com.starrocks.common.util.ProfilingExecPlan;
 import com.starrocks.common.util.RuntimeProfile;
-import com.starrocks.common.util.RuntimeProfileParser;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.common.util.concurrent.lock.LockType;
@@ -897,9 +896,9 @@ public class StmtExecutor {
             }
 
             ProfilingExecPlan profilingPlan = plan == null ? null : plan.getProfilingPlan();
-            String profileContent = ProfileManager.getInstance().pushProfile(profilingPlan, profile);
+            ProfileManager.getInstance().pushProfile(profilingPlan, profile);
             if (queryDetail != null) {
-                queryDetail.setProfile(profileContent);
+                queryDetail.setProfile(ProfileManager.getInstance().generateProfileString(profile));
             }
             QeProcessorImpl.INSTANCE.unMonitorQuery(executionId);
             QeProcessorImpl.INSTANCE.unregisterQuery(executionId);
@@ -1101,12 +1100,10 @@ public class StmtExecutor {
                         channel.initBuffer(bufferSize + 8);
                     }
 
-                    for (ByteBuffer row : batch.getBatch().getRows()) {
-                        if (isProxy) {
-                            proxyResultBuffer.add(row);
-                        } else {
-                            channel.sendOnePacket(row);
-                        }
+                    if (isProxy) {
+                        proxyResultBuffer.addAll(batch.getBatch().getRows());
+                    } else {
+                        channel.sendPackets(batch.getBatch().getRows());
                     }
                     context.updateReturnRows(batch.getBatch().getRows().size());
                 }
@@ -1218,9 +1215,9 @@ public class StmtExecutor {
         List<Integer> planNodeIds = analyzeProfileStmt.getPlanNodeIds();
         ProfileManager.ProfileElement profileElement = ProfileManager.getInstance().getProfileElement(queryId);
         Preconditions.checkNotNull(profileElement, "query not exists");
-        handleExplainStmt(ExplainAnalyzer.analyze(profileElement.plan,
-                RuntimeProfileParser.parseFrom(CompressionUtils.gzipDecompressString(profileElement.profileContent)),
-                planNodeIds));
+        RuntimeProfile profile = ProfileManager.getInstance().getRuntimeProfile(profileElement);
+        Preconditions.checkNotNull(profile, "profile of the query has been dropped");
+        handleExplainStmt(ExplainAnalyzer.analyze(profileElement.plan, profile, planNodeIds));
     }
 
     private void executeAnalyze(AnalyzeStmt analyzeStmt, AnalyzeStatus analyzeStatus, Database db, Table table) {
@@ -14,6 +14,7 @@
 
 package com.starrocks.qe.scheduler;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -24,6 +25,7 @@ import com.starrocks.common.Status;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.Counter;
 import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.IsomorphicProfileAccumulator;
 import com.starrocks.common.util.ProfileManager;
 import com.starrocks.common.util.ProfilingExecPlan;
 import com.starrocks.common.util.RuntimeProfile;
@@ -51,6 +53,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -99,6 +102,17 @@ public class QueryRuntimeProfile {
     private RuntimeProfile queryProfile;
     private final List<RuntimeProfile> fragmentProfiles;
 
+    /**
+     * If true, the profile of each fragment instance is merged into {@link #mergedInstanceProfiles} once the instance
+     * is finished, instead of merging all the instance profiles when building the query profile.
+     * See {@link Config#enable_incremental_profile_merge}.
+     */
+    private final boolean incrementalMerge;
+    // merged instance profiles of each fragment, only used in incremental merge mode
+    private final List<MergedInstanceProfiles> mergedInstanceProfiles;
+    // instance profiles that have been merged into mergedInstanceProfiles, guarded by mergedInstanceProfiles
+    private final Set<RuntimeProfile> mergedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+
     // The load channel profile is only present if loading to OlapTables.
     // The hierarchy is LoadChannel -> Channel(BE) -> Index
     private final Optional<RuntimeProfile> loadChannelProfile;
@@ -150,6 +164,14 @@ public class QueryRuntimeProfile {
             queryProfile.addChild(profile);
         }
 
+        this.incrementalMerge = Config.enable_incremental_profile_merge && jobSpec.isEnablePipeline();
+        this.mergedInstanceProfiles = new ArrayList<>(numFragments);
+        if (incrementalMerge) {
+            for (int i = 0; i < numFragments; i++) {
+                mergedInstanceProfiles.add(new MergedInstanceProfiles(true));
+            }
+        }
+
         if (jobSpec.hasOlapTableSink()) {
             loadChannelProfile = Optional.of(new RuntimeProfile(LOAD_CHANNEL_PROFILE_NAME));
             queryProfile.addChild(loadChannelProfile.get());
@@ -223,6 +245,53 @@ public class QueryRuntimeProfile {
         }
     }
 
+    /**
+     * Merge the profile of the finished instance in incremental merge mode, and release its children which are
+     * not needed anymore.
+     */
+    public void mergeFinishedInstance(FragmentInstanceExecState execState) {
+        // the instance profile is kept as it is if the query profile may be read without being merged
+        if (!incrementalMerge || !isProfileMerged()) {
+            return;
+        }
+        RuntimeProfile instanceProfile = execState.getProfile();
+        int fragmentIndex = execState.getFragmentIndex();
+        if (fragmentIndex < 0 || fragmentIndex >= fragmentProfiles.size() ||
+                fragmentProfiles.get(fragmentIndex).getChild(instanceProfile.getName()) != instanceProfile) {
+            return;
+        }
+        synchronized (mergedInstanceProfiles) {
+            if (!mergedInstances.add(instanceProfile)) {
+                return;
+            }
+            mergedInstanceProfiles.get(fragmentIndex).add(instanceProfile);
+            instanceProfile.removeAllChildren();
+        }
+    }
+
+    /**
+     * Whether the query profile is merged by {@link #buildQueryProfile} when it's collected, which is the same decision
+     * as the callers of {@link #buildQueryProfile} make. It's checked when an instance is finished rather than in the
+     * constructor, because the load job type of broker load is set after the coordinator is created.
+     */
+    @VisibleForTesting
+    boolean isProfileMerged() {
+        // broker load always merges the profile, see LoadLoadingTask
+        if (jobSpec.isBrokerLoad()) {
+            return true;
+        }
+        // export reads the query profile as it is, see ExportExportingTask
+        if (jobSpec.isSetLoadJobId() && !jobSpec.isLoadType()) {
+            return false;
+        }
+        // stream load decides by the session of the thread collecting the profile, which is unknown here
+        if (jobSpec.isStreamLoad()) {
+            return false;
+        }
+        // queries and insert merge the profile if the session needs it, see StmtExecutor
+        return connectContext != null && connectContext.needMergeProfile();
+    }
+
     public void finishInstance(TUniqueId instanceId) {
         if (profileDoneSignal != null) {
             profileDoneSignal.markedCountDown(instanceId, MARKED_COUNT_DOWN_VALUE);
@@ -389,70 +458,36 @@ public class QueryRuntimeProfile {
         long maxQuerySpillBytes = 0;
 
         List<RuntimeProfile> newFragmentProfiles = Lists.newArrayList();
-        for (RuntimeProfile fragmentProfile : fragmentProfiles) {
+        for (int fragmentIndex = 0; fragmentIndex < fragmentProfiles.size(); fragmentIndex++) {
+            RuntimeProfile fragmentProfile = fragmentProfiles.get(fragmentIndex);
             RuntimeProfile newFragmentProfile = new RuntimeProfile(fragmentProfile.getName());
             newFragmentProfiles.add(newFragmentProfile);
             newFragmentProfile.copyAllInfoStringsFrom(fragmentProfile, null);
             newFragmentProfile.copyAllCountersFrom(fragmentProfile);
 
-            if (fragmentProfile.getChildList().isEmpty()) {
+            MergedInstanceProfiles instances = collectInstanceProfiles(fragmentIndex);
+            if (instances.numInstances == 0) {
                 continue;
             }
-
-            List<RuntimeProfile> instanceProfiles = fragmentProfile.getChildList().stream()
-                    .map(pair -> pair.first)
-                    .collect(Collectors.toList());
-
-            Set<String> backendAddresses = Sets.newHashSet();
-            Set<String> instanceIds = Sets.newHashSet();
-            Set<String> missingInstanceIds = Sets.newHashSet();
-            for (RuntimeProfile instanceProfile : instanceProfiles) {
-                // Setup backend meta infos
-                backendAddresses.add(instanceProfile.getInfoString("Address"));
-                instanceIds.add(instanceProfile.getInfoString("InstanceId"));
-                if (CollectionUtils.isEmpty(instanceProfile.getChildList())) {
-                    missingInstanceIds.add(instanceProfile.getInfoString("InstanceId"));
-                }
-
-                // Get query level peak memory usage, cpu cost, wall time
-                Counter toBeRemove = instanceProfile.getCounter("QueryCumulativeCpuTime");
-                if (toBeRemove != null) {
-                    maxQueryCumulativeCpuTime = Math.max(maxQueryCumulativeCpuTime, toBeRemove.getValue());
-                }
-                instanceProfile.removeCounter("QueryCumulativeCpuTime");
-
-                toBeRemove = instanceProfile.getCounter("QueryPeakMemoryUsage");
-                if (toBeRemove != null) {
-                    maxQueryPeakMemoryUsage = Math.max(maxQueryPeakMemoryUsage, toBeRemove.getValue());
-                }
-                instanceProfile.removeCounter("QueryPeakMemoryUsage");
-
-                toBeRemove = instanceProfile.getCounter("QueryExecutionWallTime");
-                if (toBeRemove != null) {
-                    maxQueryExecutionWallTime = Math.max(maxQueryExecutionWallTime, toBeRemove.getValue());
-                }
-                instanceProfile.removeCounter("QueryExecutionWallTime");
-
-                toBeRemove = instanceProfile.getCounter("QuerySpillBytes");
-                if (toBeRemove != null) {
-                    maxQuerySpillBytes = Math.max(maxQuerySpillBytes, toBeRemove.getValue());
-                }
-                instanceProfile.removeCounter("QuerySpillBytes");
-            }
-            newFragmentProfile.addInfoString("BackendAddresses", String.join(",", backendAddresses));
-            newFragmentProfile.addInfoString("InstanceIds", String.join(",", instanceIds));
-            if (!missingInstanceIds.isEmpty()) {
-                newFragmentProfile.addInfoString("MissingInstanceIds", String.join(",", missingInstanceIds));
+            // Get query level peak memory usage, cpu cost, wall time
+            maxQueryCumulativeCpuTime = Math.max(maxQueryCumulativeCpuTime, instances.maxQueryCumulativeCpuTime);
+            maxQueryPeakMemoryUsage = Math.max(maxQueryPeakMemoryUsage, instances.maxQueryPeakMemoryUsage);
+            maxQueryExecutionWallTime = Math.max(maxQueryExecutionWallTime, instances.maxQueryExecutionWallTime);
+            maxQuerySpillBytes = Math.max(maxQuerySpillBytes, instances.maxQuerySpillBytes);
+
+            newFragmentProfile.addInfoString("BackendAddresses", String.join(",", instances.backendAddresses));
+            newFragmentProfile.addInfoString("InstanceIds", String.join(",", instances.instanceIds));
+            if (!instances.missingInstanceIds.isEmpty()) {
+                newFragmentProfile.addInfoString("MissingInstanceIds", String.join(",", instances.missingInstanceIds));
             }
             Counter backendNum = newFragmentProfile.addCounter("BackendNum", TUnit.UNIT, null);
-            backendNum.setValue(backendAddresses.size());
+            backendNum.setValue(instances.backendAddresses.size());
 
             // Setup number of instance
             Counter counter = newFragmentProfile.addCounter("InstanceNum", TUnit.UNIT, null);
-            counter.setValue(instanceProfiles.size());
+            counter.setValue(instances.numInstances);
 
-            RuntimeProfile mergedInstanceProfile =
-                    RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, Sets.newHashSet("Address", "InstanceId"));
+            RuntimeProfile mergedInstanceProfile = instances.merge();
             Preconditions.checkState(mergedInstanceProfile != null);
 
             newFragmentProfile.copyAllInfoStringsFrom(mergedInstanceProfile, null);
@@ -580,6 +615,23 @@ public class QueryRuntimeProfile {
         return newQueryProfile;
     }
 
+    private MergedInstanceProfiles collectInstanceProfiles(int fragmentIndex) {
+        List<RuntimeProfile> instanceProfiles = fragmentProfiles.get(fragmentIndex).getChildList().stream()
+                .map(pair -> pair.first)
+                .collect(Collectors.toList());
+        if (!incrementalMerge) {
+            MergedInstanceProfiles instances = new MergedInstanceProfiles(false);
+            instanceProfiles.forEach(instances::add);
+            return instances;
+        }
+        synchronized (mergedInstanceProfiles) {
+            // merge the instances which are still running or never report into a copy
+            MergedInstanceProfiles instances = mergedInstanceProfiles.get(fragmentIndex).copy();
+            instanceProfiles.stream().filter(profile -> !mergedInstances.contains(profile)).forEach(instances::add);
+            return instances;
+        }
+    }
+
     Optional<RuntimeProfile> mergeLoadChannelProfile() {
         if (loadChannelProfile.isEmpty()) {
             return Optional.empty();
@@ -686,4 +738,83 @@ public class QueryRuntimeProfile {
         return defaultValue;
     }
 
+    /**
+     * Profiles of the fragment instances to merge, the instance level counters are extracted when the profile
+     * is added.
+     */
+    private static class MergedInstanceProfiles {
+        private final Set<String> backendAddresses = Sets.newHashSet();
+        private final Set<String> instanceIds = Sets.newHashSet();
+        private final Set<String> missingInstanceIds = Sets.newHashSet();
+        private int numInstances = 0;
+
+        private long maxQueryCumulativeCpuTime = 0;
+        private long maxQueryPeakMemoryUsage = 0;
+        private long maxQueryExecutionWallTime = 0;
+        private long maxQuerySpillBytes = 0;
+
+        // merge the profiles as soon as they are added if accumulator is not null, otherwise merge them all at once
+        private final IsomorphicProfileAccumulator accumulator;
+        private final List<RuntimeProfile> instanceProfiles = Lists.newArrayList();
+
+        MergedInstanceProfiles(boolean incremental) {
+            this(incremental ? new IsomorphicProfileAccumulator(Sets.newHashSet("Address", "InstanceId")) : null);
+        }
+
+        private MergedInstanceProfiles(IsomorphicProfileAccumulator accumulator) {
+            this.accumulator = accumulator;
+        }
+
+        void add(RuntimeProfile instanceProfile) {
+            numInstances++;
+            // Setup backend meta infos
+            backendAddresses.add(instanceProfile.getInfoString("Address"));
+            instanceIds.add(instanceProfile.getInfoString("InstanceId"));
+            if (CollectionUtils.isEmpty(instanceProfile.getChildList())) {
+                missingInstanceIds.add(instanceProfile.getInfoString("InstanceId"));
+            }
+
+            // Get query level peak memory usage, cpu cost, wall time
+            maxQueryCumulativeCpuTime = Math.max(maxQueryCumulativeCpuTime,
+                    removeCounter(instanceProfile, "QueryCumulativeCpuTime"));
+            maxQueryPeakMemoryUsage = Math.max(maxQueryPeakMemoryUsage,
+                    removeCounter(instanceProfile, "QueryPeakMemoryUsage"));
+            maxQueryExecutionWallTime = Math.max(maxQueryExecutionWallTime,
+                    removeCounter(instanceProfile, "QueryExecutionWallTime"));
+            maxQuerySpillBytes = Math.max(maxQuerySpillBytes, removeCounter(instanceProfile, "QuerySpillBytes"));
+
+            if (accumulator != null) {
+                accumulator.add(instanceProfile);
+            } else {
+                instanceProfiles.add(instanceProfile);
+            }
+        }
+
+        private static long removeCounter(RuntimeProfile instanceProfile, String name) {
+            Counter toBeRemove = instanceProfile.getCounter(name);
+            instanceProfile.removeCounter(name);
+            return toBeRemove == null ? 0 : toBeRemove.getValue();
+        }
+
+        RuntimeProfile merge() {
+            if (accumulator != null) {
+                return accumulator.build();
+            }
+            return RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, Sets.newHashSet("Address", "InstanceId"));
+        }
+
+        MergedInstanceProfiles copy() {
+            Preconditions.checkState(accumulator != null);
+            MergedInstanceProfiles copy = new MergedInstanceProfiles(accumulator.copy());
+            copy.backendAddresses.addAll(backendAddresses);
+            copy.instanceIds.addAll(instanceIds);
+            copy.missingInstanceIds.addAll(missingInstanceIds);
+            copy.numInstances = numInstances;
+            copy.maxQueryCumulativeCpuTime = maxQueryCumulativeCpuTime;
+            copy.maxQueryPeakMemoryUsage = maxQueryPeakMemoryUsage;
+            copy.maxQueryExecutionWallTime = maxQueryExecutionWallTime;
+            copy.maxQuerySpillBytes = maxQuerySpillBytes;
+            return copy;
+        }
+    }
 }
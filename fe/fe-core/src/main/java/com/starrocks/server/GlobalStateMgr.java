@@ -40,6 +40,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
 import com.starrocks.alter.AlterJobMgr;
 import com.starrocks.alter.CompactionHandler;
 import com.starrocks.alter.MaterializedViewHandler;
@@ -159,13 +160,15 @@ import com.starrocks.persist.BackendIdsUpdateInfo;
 import com.starrocks.persist.EditLog;
 import com.starrocks.persist.ImageHeader;
 import com.starrocks.persist.OperationType;
+import com.starrocks.persist.ParallelImageLoader;
+import com.starrocks.persist.ParallelImageWriter;
 import com.starrocks.persist.Storage;
 import com.starrocks.persist.gson.GsonUtils;
-import com.starrocks.persist.metablock.SRMetaBlockEOFException;
 import com.starrocks.persist.metablock.SRMetaBlockException;
 import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.persist.metablock.SRMetaBlockLoader;
 import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockSaver;
 import com.starrocks.plugin.PluginMgr;
 import com.starrocks.privilege.AccessControlProvider;
 import com.starrocks.privilege.AuthorizationMgr;
@@ -243,6 +246,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -340,6 +344,8 @@ public class GlobalStateMgr {
 
     private static GlobalStateMgr CHECKPOINT = null;
     private static long checkpointThreadId = -1;
+    // pool threads saving or loading image blocks for the checkpoint thread, see ParallelImageWriter
+    private static final Set<Long> checkpointWorkerThreadIds = ConcurrentHashMap.newKeySet();
     private Checkpoint checkpointer;
 
     private HAProtocol haProtocol = null;
@@ -858,7 +864,18 @@ public class GlobalStateMgr {
     }
 
     public static boolean isCheckpointThread() {
-        return Thread.currentThread().getId() == checkpointThreadId;
+        long threadId = Thread.currentThread().getId();
+        return threadId == checkpointThreadId ||
+                (!checkpointWorkerThreadIds.isEmpty() && checkpointWorkerThreadIds.contains(threadId));
+    }
+
+    // let the current thread work on the checkpoint catalog until it's unregistered
+    public static void registerCheckpointWorkerThread() {
+        checkpointWorkerThreadIds.add(Thread.currentThread().getId());
+    }
+
+    public static void unregisterCheckpointWorkerThread() {
+        checkpointWorkerThreadIds.remove(Thread.currentThread().getId());
     }
 
     public StatisticStorage getStatisticStorage() {
@@ -1459,48 +1476,31 @@ public class GlobalStateMgr {
                 .build();
 
         Set<SRMetaBlockID> metaMgrMustExists = new HashSet<>(loadImages.keySet());
-        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(curFile.toPath())))) {
-            loadHeader(dis);
-            while (true) {
-                SRMetaBlockReader reader = new SRMetaBlockReader(dis);
-                SRMetaBlockID srMetaBlockID = reader.getHeader().getSrMetaBlockID();
-
-                try {
-                    SRMetaBlockLoader imageLoader = loadImages.get(srMetaBlockID);
-                    if (imageLoader == null) {
-                        /*
-                         * The expected read module does not match the module stored in the image,
-                         * and the json chunk is skipped directly. This usually occurs in several situations.
-                         * 1. When the obsolete image code is deleted.
-                         * 2. When the new version rolls back to the old version,
-                         *    the old version ignores the functions of the new version
-                         */
-                        LOG.warn(String.format("Ignore this invalid meta block, sr meta block id mismatch" +
-                                "(expect sr meta block id %s)", srMetaBlockID));
-                        continue;
+        // count the bytes above the buffer to know where the header ends
+        try (CountingInputStream cis = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(curFile.toPath())));
+                DataInputStream dis = new DataInputStream(cis)) {
+            ImageHeader header = loadHeader(dis);
+            int numThreads = Config.metadata_image_parallel_threads;
+            if (header.getBlockIndex() != null && numThreads > 1) {
+                ParallelImageLoader loader =
+                        new ParallelImageLoader(curFile, cis.getCount(), header.getBlockIndex(), numThreads);
+                metaMgrMustExists.removeAll(loader.load(loadImages));
+                logMissingMetaBlocks(metaMgrMustExists);
+            } else {
+                while (true) {
+                    long startTime = System.currentTimeMillis();
+                    SRMetaBlockReader reader = new SRMetaBlockReader(dis);
+                    SRMetaBlockID srMetaBlockID = reader.getHeader().getSrMetaBlockID();
+                    if (ParallelImageLoader.loadBlock(reader, loadImages)) {
+                        metaMgrMustExists.remove(srMetaBlockID);
+                        MetricRepo.updateImageBlockTime("load", srMetaBlockID,
+                                System.currentTimeMillis() - startTime);
                     }
-
-                    imageLoader.apply(reader);
-                    metaMgrMustExists.remove(srMetaBlockID);
-                    LOG.info("Success load StarRocks meta block " + srMetaBlockID + " from image");
-                } catch (SRMetaBlockEOFException srMetaBlockEOFException) {
-                    /*
-                     * The number of json expected to be read is more than the number of json actually stored in the image
-                     */
-                    metaMgrMustExists.remove(srMetaBlockID);
-                    LOG.warn("Got EOF exception, ignore, ", srMetaBlockEOFException);
-                } finally {
-                    reader.close();
                 }
             }
         } catch (EOFException exception) {
-            if (!metaMgrMustExists.isEmpty()) {
-                LOG.warn("Miss meta block [" + Joiner.on(",").join(new ArrayList<>(metaMgrMustExists)) + "], " +
-                        "This may not be a fatal error. It may be because there are new features in the version " +
-                        "you upgraded this time, but there is no relevant metadata.");
-            } else {
-                LOG.info("Load meta-image EOF, successful loading all requires meta module");
-            }
+            logMissingMetaBlocks(metaMgrMustExists);
         } catch (SRMetaBlockException e) {
             LOG.error("load meta block failed ", e);
             throw new IOException("load meta block failed ", e);
@@ -1517,6 +1517,16 @@ public class GlobalStateMgr {
         LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
     }
 
+    private void logMissingMetaBlocks(Set<SRMetaBlockID> metaMgrMustExists) {
+        if (!metaMgrMustExists.isEmpty()) {
+            LOG.warn("Miss meta block [" + Joiner.on(",").join(new ArrayList<>(metaMgrMustExists)) + "], " +
+                    "This may not be a fatal error. It may be because there are new features in the version " +
+                    "you upgraded this time, but there is no relevant metadata.");
+        } else {
+            LOG.info("Load meta-image EOF, successful loading all requires meta module");
+        }
+    }
+
     private void postLoadImage() {
         processMvRelatedMeta();
     }
@@ -1536,7 +1546,7 @@ public class GlobalStateMgr {
         LOG.info("finish processing all tables' related materialized views in {}ms", duration);
     }
 
-    public void loadHeader(DataInputStream dis) throws IOException {
+    public ImageHeader loadHeader(DataInputStream dis) throws IOException {
         // for new format, version schema is [starrocksMetaVersion], and the int value must be positive
         // for old format, version schema is [-1, metaVersion, starrocksMetaVersion]
         // so we can check the first int to determine the version schema
@@ -1560,6 +1570,7 @@ public class GlobalStateMgr {
         ImageHeader header = GsonUtils.GSON.fromJson(Text.readString(dis), ImageHeader.class);
         idGenerator.setId(header.getBatchEndId());
         LOG.info("finished to replay header from image");
+        return header;
     }
 
     // Only called by checkpoint thread
@@ -1590,55 +1601,83 @@ public class GlobalStateMgr {
         // save image does not need any lock. because only checkpoint thread will call this method.
         LOG.info("start save image to {}. is ckpt: {}", curFile.getAbsolutePath(), GlobalStateMgr.isCheckpointThread());
 
+        Map<SRMetaBlockID, SRMetaBlockSaver> saveImages = ImmutableMap.<SRMetaBlockID, SRMetaBlockSaver>builder()
+                .put(SRMetaBlockID.NODE_MGR, nodeMgr::save)
+                .put(SRMetaBlockID.LOCAL_META_STORE, localMetastore::save)
+                .put(SRMetaBlockID.ALTER_MGR, alterJobMgr::save)
+                .put(SRMetaBlockID.CATALOG_RECYCLE_BIN, recycleBin::save)
+                .put(SRMetaBlockID.VARIABLE_MGR, VariableMgr::save)
+                .put(SRMetaBlockID.RESOURCE_MGR, resourceMgr::saveResourcesV2)
+                .put(SRMetaBlockID.EXPORT_MGR, exportMgr::saveExportJobV2)
+                .put(SRMetaBlockID.BACKUP_MGR, backupHandler::saveBackupHandlerV2)
+                .put(SRMetaBlockID.GLOBAL_TRANSACTION_MGR, globalTransactionMgr::saveTransactionStateV2)
+                .put(SRMetaBlockID.COLOCATE_TABLE_INDEX, colocateTableIndex::saveColocateTableIndexV2)
+                .put(SRMetaBlockID.ROUTINE_LOAD_MGR, routineLoadMgr::saveRoutineLoadJobsV2)
+                .put(SRMetaBlockID.LOAD_MGR, loadMgr::saveLoadJobsV2JsonFormat)
+                .put(SRMetaBlockID.SMALL_FILE_MGR, smallFileMgr::saveSmallFilesV2)
+                .put(SRMetaBlockID.PLUGIN_MGR, pluginMgr::save)
+                .put(SRMetaBlockID.DELETE_MGR, deleteMgr::save)
+                .put(SRMetaBlockID.ANALYZE_MGR, analyzeMgr::save)
+                .put(SRMetaBlockID.RESOURCE_GROUP_MGR, resourceGroupMgr::save)
+                .put(SRMetaBlockID.AUTHENTICATION_MGR, authenticationMgr::saveV2)
+                .put(SRMetaBlockID.AUTHORIZATION_MGR, authorizationMgr::saveV2)
+                .put(SRMetaBlockID.TASK_MGR, taskManager::saveTasksV2)
+                .put(SRMetaBlockID.CATALOG_MGR, catalogMgr::save)
+                .put(SRMetaBlockID.INSERT_OVERWRITE_JOB_MGR, insertOverwriteJobMgr::save)
+                .put(SRMetaBlockID.COMPACTION_MGR, compactionMgr::save)
+                .put(SRMetaBlockID.STREAM_LOAD_MGR, streamLoadMgr::save)
+                .put(SRMetaBlockID.MATERIALIZED_VIEW_MGR, MaterializedViewMgr.getInstance()::save)
+                .put(SRMetaBlockID.GLOBAL_FUNCTION_MGR, globalFunctionMgr::save)
+                .put(SRMetaBlockID.STORAGE_VOLUME_MGR, storageVolumeMgr::save)
+                .put(SRMetaBlockID.DICTIONARY_MGR, dictionaryMgr::save)
+                .put(SRMetaBlockID.REPLICATION_MGR, replicationMgr::save)
+                .build();
+
         long saveImageStartTime = System.currentTimeMillis();
-        try (DataOutputStream dos = new DataOutputStream(Files.newOutputStream(curFile.toPath()))) {
+        int numThreads = Config.metadata_image_parallel_threads;
+        // Other threads may save the image with the locks of databases held, e.g. dumping the image,
+        // the blocks are saved in parallel only by the checkpoint thread, which works on its own catalog.
+        if (numThreads > 1 && GlobalStateMgr.isCheckpointThread()) {
+            ParallelImageWriter writer = new ParallelImageWriter(curFile, numThreads);
+            saveImages.forEach(writer::addBlock);
             try {
-                saveHeader(dos);
-                nodeMgr.save(dos);
-                localMetastore.save(dos);
-                alterJobMgr.save(dos);
-                recycleBin.save(dos);
-                VariableMgr.save(dos);
-                resourceMgr.saveResourcesV2(dos);
-                exportMgr.saveExportJobV2(dos);
-                backupHandler.saveBackupHandlerV2(dos);
-                globalTransactionMgr.saveTransactionStateV2(dos);
-                colocateTableIndex.saveColocateTableIndexV2(dos);
-                routineLoadMgr.saveRoutineLoadJobsV2(dos);
-                loadMgr.saveLoadJobsV2JsonFormat(dos);
-                smallFileMgr.saveSmallFilesV2(dos);
-                pluginMgr.save(dos);
-                deleteMgr.save(dos);
-                analyzeMgr.save(dos);
-                resourceGroupMgr.save(dos);
-                authenticationMgr.saveV2(dos);
-                authorizationMgr.saveV2(dos);
-                taskManager.saveTasksV2(dos);
-                catalogMgr.save(dos);
-                insertOverwriteJobMgr.save(dos);
-                compactionMgr.save(dos);
-                streamLoadMgr.save(dos);
-                MaterializedViewMgr.getInstance().save(dos);
-                globalFunctionMgr.save(dos);
-                storageVolumeMgr.save(dos);
-                dictionaryMgr.save(dos);
-                replicationMgr.save(dos);
+                writer.save(this::saveHeader);
             } catch (SRMetaBlockException e) {
                 LOG.error("Save meta block failed ", e);
                 throw new IOException("Save meta block failed ", e);
             }
-
-            long saveImageEndTime = System.currentTimeMillis();
-            LOG.info("Finished save meta block {} in {} ms.",
-                    curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime));
+        } else {
+            try (DataOutputStream dos = new DataOutputStream(Files.newOutputStream(curFile.toPath()))) {
+                try {
+                    saveHeader(dos);
+                    for (Map.Entry<SRMetaBlockID, SRMetaBlockSaver> entry : saveImages.entrySet()) {
+                        long startTime = System.currentTimeMillis();
+                        entry.getValue().apply(dos);
+                        MetricRepo.updateImageBlockTime("save", entry.getKey(),
+                                System.currentTimeMillis() - startTime);
+                    }
+                } catch (SRMetaBlockException e) {
+                    LOG.error("Save meta block failed ", e);
+                    throw new IOException("Save meta block failed ", e);
+                }
+            }
         }
+
+        long saveImageEndTime = System.currentTimeMillis();
+        LOG.info("Finished save meta block {} in {} ms.",
+                curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime));
     }
 
     public void saveHeader(DataOutputStream dos) throws IOException {
+        saveHeader(dos, null);
+    }
+
+    public void saveHeader(DataOutputStream dos, List<ImageHeader.BlockIndex> blockIndex) throws IOException {
         dos.writeInt(FeConstants.STARROCKS_META_VERSION);
         ImageHeader header = new ImageHeader();
         long id = idGenerator.getBatchEndId();
         header.setBatchEndId(id);
+        header.setBlockIndex(blockIndex);
         Text.writeString(dos, GsonUtils.GSON.toJson(header));
     }
 
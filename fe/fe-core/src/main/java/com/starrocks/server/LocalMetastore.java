@@ -107,6 +107,7 @@ import com.starrocks.catalog.UniqueConstraint;
 import com.starrocks.catalog.View;
 import com.starrocks.catalog.system.information.InfoSchemaDb;
 import com.starrocks.catalog.system.sys.SysDb;
+import com.starrocks.clone.TabletChecker;
 import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.common.AlreadyExistsException;
 import com.starrocks.common.AnalysisException;
@@ -4350,6 +4351,7 @@ public class LocalMetastore implements ConnectorMetadata {
             if (propertiesToPersist.containsKey(PropertyAnalyzer.PROPERTIES_LABELS_LOCATION)) {
                 String location = propertiesToPersist.get(PropertyAnalyzer.PROPERTIES_LABELS_LOCATION);
                 table.setLocation(location);
+                TabletChecker.requestFullCheck();
                 ModifyTablePropertyOperationLog info =
                         new ModifyTablePropertyOperationLog(db.getId(), table.getId(),
                                 ImmutableMap.of(key, propertiesToPersist.get(key)));
@@ -4448,6 +4450,7 @@ public class LocalMetastore implements ConnectorMetadata {
 
         // update table default replication num
         table.setReplicationNum(replicationNum);
+        TabletChecker.requestFullCheck();
 
         // log
         ModifyPartitionInfo info = new ModifyPartitionInfo(db.getId(), table.getId(), partition.getId(),
@@ -5411,6 +5414,7 @@ public class LocalMetastore implements ConnectorMetadata {
                     }
 
                     LocalTablet localTablet = (LocalTablet) tablet;
+                    TabletChecker.markTabletDirty(tablet.getId());
                     for (Replica replica : localTablet.getAllReplicas()) {
                         if (replica.getVersion() > stmt.getVersion() && localTablet.getAllReplicas().size() > 1) {
                             replica.setBad(true);
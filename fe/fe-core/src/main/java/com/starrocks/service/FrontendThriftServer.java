@@ -34,6 +34,8 @@
 
 package com.starrocks.service;
 
+import com.google.common.collect.ImmutableSet;
+import com.starrocks.common.SRTSelectorServer;
 import com.starrocks.common.ThriftServer;
 import com.starrocks.thrift.FrontendService;
 import org.apache.logging.log4j.LogManager;
@@ -41,6 +43,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TProcessor;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * StarRocks frontend thrift server
@@ -48,6 +51,12 @@ import java.io.IOException;
 public class FrontendThriftServer {
     private static final Logger LOG = LogManager.getLogger(FrontendThriftServer.class);
 
+    // heartbeats, query status reports and txn operations, which should not wait behind the metadata queries
+    private static final Set<String> HIGH_PRIORITY_METHODS = ImmutableSet.of(
+            "updateResourceUsage", "reportExecStatus", "batchReportExecStatus", "finishTask",
+            "loadTxnBegin", "loadTxnPrepare", "loadTxnCommit", "loadTxnRollback",
+            "beginRemoteTxn", "commitRemoteTxn", "abortRemoteTxn");
+
     private int port;
     private ThriftServer server;
 
@@ -60,6 +69,7 @@ public class FrontendThriftServer {
         TProcessor tprocessor = new FrontendService.Processor<FrontendService.Iface>(
                 new FrontendServiceImpl(ExecuteEnv.getInstance()));
         server = new ThriftServer(port, tprocessor);
+        server.setMethodPriority(FrontendThriftServer::getMethodPriority);
         try {
             server.start();
             LOG.info("thrift server started with port {}.", port);
@@ -68,4 +78,16 @@ public class FrontendThriftServer {
             System.exit(-1);
         }
     }
+
+    static SRTSelectorServer.Priority getMethodPriority(String method) {
+        if (HIGH_PRIORITY_METHODS.contains(method)) {
+            return SRTSelectorServer.Priority.HIGH;
+        }
+        // metadata queries, mostly from information_schema and show statements
+        if (method.startsWith("get") || method.startsWith("list") || method.startsWith("describe")
+                || method.startsWith("show")) {
+            return SRTSelectorServer.Priority.LOW;
+        }
+        return SRTSelectorServer.Priority.NORMAL;
+    }
 }
@@ -0,0 +1,507 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.analysis.CompoundPredicate;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.Parameter;
+import com.starrocks.analysis.SlotRef;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.TimeUtils;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.common.SqlDigestBuilder;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.OptDistributionPruner;
+import com.starrocks.sql.optimizer.rewrite.OptOlapPartitionPruner;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.optimizer.transformer.OptExprBuilder;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanFragmentBuilder;
+import com.starrocks.thrift.TPlanCacheItem;
+import com.starrocks.thrift.TResultSinkType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A plan cache shared by all sessions for the point queries on the key columns of an olap table, e.g.
+ * <pre>
+ *     SELECT v1, v2 FROM t WHERE k1 = 1 AND k2 = 'a'
+ * </pre>
+ * The queries are parameterized by replacing the literals of the key predicates with '?', the same query
+ * text with literals of the same types shares one plan, no matter if it is a plain sql or a prepared statement.
+ * <p>
+ * A cached plan is reused by binding the literals of the new query into its predicate, pruning the partitions
+ * and the tablets again and rebuilding the fragments, so the transformer and the optimizer are skipped. The
+ * statement is still analyzed and authorized for every query.
+ * <p>
+ * A plan is dropped once the schema, the partitions or the visible versions of its table change, because the
+ * plan may refer to a copy of the table made when it was planned.
+ */
+public class PlanCache {
+    private static final Logger LOG = LogManager.getLogger(PlanCache.class);
+
+    private static final PlanCache INSTANCE = new PlanCache();
+
+    private final Cache<CacheKey, CacheEntry> cache = Caffeine.newBuilder()
+            .maximumSize(Config.plan_cache_max_size)
+            .build();
+
+    public static PlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Parameterize the analyzed query, return null if the query could not use the plan cache.
+     */
+    public ParameterizedQuery parameterize(QueryStatement stmt, ConnectContext session, TResultSinkType resultSinkType) {
+        if (!Config.enable_plan_cache || stmt.isExplain() || stmt.hasOutFileClause()) {
+            return null;
+        }
+        if (!(stmt.getQueryRelation() instanceof SelectRelation)) {
+            return null;
+        }
+        SelectRelation select = (SelectRelation) stmt.getQueryRelation();
+        if (select.hasLimit() || select.hasOffset() || select.hasHavingClause() || select.hasAggregation() ||
+                select.hasOrderByClause() || select.hasWithClause()) {
+            return null;
+        }
+        // the digest replaces all literals with '?', so literals are only allowed in the key predicates
+        if (!select.getOutputExpression().stream().allMatch(expr -> expr instanceof SlotRef)) {
+            return null;
+        }
+        if (!(select.getRelation() instanceof TableRelation)) {
+            return null;
+        }
+        TableRelation tableRelation = (TableRelation) select.getRelation();
+        if (tableRelation.getTable().getType() != Table.TableType.OLAP || tableRelation.isSyncMVQuery() ||
+                tableRelation.getPartitionNames() != null || !isEmpty(tableRelation.getTabletIds()) ||
+                !isEmpty(tableRelation.getReplicaIds()) || tableRelation.getTemporalClause() != null) {
+            return null;
+        }
+        OlapTable table = (OlapTable) tableRelation.getTable();
+
+        Map<String, LiteralExpr> params = Maps.newHashMap();
+        if (!collectKeyParams(select.getPredicate(), params)) {
+            return null;
+        }
+        List<Column> keyColumns = table.getKeyColumns();
+        if (keyColumns.size() != params.size()) {
+            return null;
+        }
+        List<String> paramTypes = Lists.newArrayListWithCapacity(keyColumns.size());
+        for (Column column : keyColumns) {
+            LiteralExpr literal = params.get(column.getName().toLowerCase());
+            if (literal == null) {
+                return null;
+            }
+            paramTypes.add(literal.getType().toSql());
+        }
+
+        TableSnapshot snapshot = TableSnapshot.of(table);
+        if (snapshot == null) {
+            return null;
+        }
+        CacheKey key = new CacheKey(table.getId(), SqlDigestBuilder.build(stmt), paramTypes,
+                planningVariables(session.getSessionVariable()), resultSinkType);
+        return new ParameterizedQuery(key, params, table, snapshot);
+    }
+
+    /**
+     * Return the cached plan of the query with its literals bound, or null if it's not cached.
+     */
+    public ExecPlan getPlan(ParameterizedQuery query, QueryStatement stmt, ConnectContext session) {
+        CacheEntry entry = cache.getIfPresent(query.key);
+        if (entry != null && !entry.snapshot.equals(query.snapshot)) {
+            cache.asMap().remove(query.key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            countMiss();
+            return null;
+        }
+
+        ExecPlan plan;
+        synchronized (entry) {
+            plan = entry.bind(query, stmt, session);
+        }
+        if (plan == null) {
+            cache.asMap().remove(query.key, entry);
+            countMiss();
+            return null;
+        }
+        // the table is changed while building the fragments, the versions of the partitions may be inconsistent
+        if (!query.snapshot.equals(TableSnapshot.of(query.table))) {
+            countMiss();
+            return null;
+        }
+        entry.hitCount.incrementAndGet();
+        entry.lastHitTime = System.currentTimeMillis();
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_PLAN_CACHE_HIT.increase(1L);
+        }
+        return plan;
+    }
+
+    public void putPlan(ParameterizedQuery query, ExecPlan plan) {
+        CacheEntry entry = CacheEntry.create(query, plan);
+        if (entry != null) {
+            cache.put(query.key, entry);
+        }
+    }
+
+    public List<TPlanCacheItem> listItems() {
+        List<TPlanCacheItem> items = Lists.newArrayList();
+        cache.asMap().forEach((key, entry) -> {
+            TPlanCacheItem item = new TPlanCacheItem();
+            item.setTable_id(key.tableId);
+            item.setSql_digest(key.digest);
+            item.setParam_types(String.join(",", key.paramTypes));
+            item.setHit_count(entry.hitCount.get());
+            item.setCreate_time(TimeUtils.longToTimeString(entry.createTime));
+            item.setLast_hit_time(TimeUtils.longToTimeString(entry.lastHitTime));
+            items.add(item);
+        });
+        return items;
+    }
+
+    @VisibleForTesting
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @VisibleForTesting
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static void countMiss() {
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_PLAN_CACHE_MISS.increase(1L);
+        }
+    }
+
+    private static boolean isEmpty(List<Long> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
+    /**
+     * Collect the literals of the conjunctive `slot = literal` predicates by the lower case column name,
+     * return false if there is any other predicate.
+     */
+    private static boolean collectKeyParams(Expr predicate, Map<String, LiteralExpr> params) {
+        if (predicate instanceof CompoundPredicate) {
+            CompoundPredicate compound = (CompoundPredicate) predicate;
+            return compound.getOp() == CompoundPredicate.Operator.AND &&
+                    collectKeyParams(compound.getChild(0), params) && collectKeyParams(compound.getChild(1), params);
+        }
+        if (!(predicate instanceof BinaryPredicate) || ((BinaryPredicate) predicate).getOp() != BinaryType.EQ) {
+            return false;
+        }
+        Expr left = predicate.getChild(0);
+        Expr right = predicate.getChild(1);
+        if (!(left instanceof SlotRef)) {
+            Expr tmp = left;
+            left = right;
+            right = tmp;
+        }
+        if (right instanceof Parameter) {
+            right = ((Parameter) right).getExpr();
+        }
+        if (!(left instanceof SlotRef) || !(right instanceof LiteralExpr) || right instanceof NullLiteral) {
+            return false;
+        }
+        return params.put(((SlotRef) left).getColumnName().toLowerCase(), (LiteralExpr) right) == null;
+    }
+
+    // the session variables which change the plan of a point query
+    private static String planningVariables(SessionVariable sessionVariable) {
+        return sessionVariable.getSqlMode() + "," + sessionVariable.getTimeZone() + "," +
+                sessionVariable.isEnableShortCircuit() + "," + sessionVariable.isSingleNodeExecPlan();
+    }
+
+    public static class ParameterizedQuery {
+        private final CacheKey key;
+        private final Map<String, LiteralExpr> params;
+        private final OlapTable table;
+        private final TableSnapshot snapshot;
+
+        private ParameterizedQuery(CacheKey key, Map<String, LiteralExpr> params, OlapTable table,
+                                   TableSnapshot snapshot) {
+            this.key = key;
+            this.params = params;
+            this.table = table;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static class CacheKey {
+        private final long tableId;
+        private final String digest;
+        private final List<String> paramTypes;
+        private final String planningVariables;
+        private final TResultSinkType resultSinkType;
+
+        CacheKey(long tableId, String digest, List<String> paramTypes, String planningVariables,
+                 TResultSinkType resultSinkType) {
+            this.tableId = tableId;
+            this.digest = digest;
+            this.paramTypes = paramTypes;
+            this.planningVariables = planningVariables;
+            this.resultSinkType = resultSinkType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return tableId == other.tableId && digest.equals(other.digest) && paramTypes.equals(other.paramTypes) &&
+                    planningVariables.equals(other.planningVariables) && resultSinkType == other.resultSinkType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, digest, paramTypes, planningVariables, resultSinkType);
+        }
+    }
+
+    /**
+     * The state of the table which a plan depends on.
+     */
+    private static class TableSnapshot {
+        private final long schemaUpdateTime;
+        private final long versionUpdateTime;
+        private final int partitionCount;
+        private final long partitionIdHash;
+
+        private TableSnapshot(long schemaUpdateTime, long versionUpdateTime, int partitionCount, long partitionIdHash) {
+            this.schemaUpdateTime = schemaUpdateTime;
+            this.versionUpdateTime = versionUpdateTime;
+            this.partitionCount = partitionCount;
+            this.partitionIdHash = partitionIdHash;
+        }
+
+        // return null if the visible versions of the table are being updated
+        static TableSnapshot of(OlapTable table) {
+            long versionUpdateStartTime = table.lastVersionUpdateStartTime.get();
+            long versionUpdateTime = table.lastVersionUpdateEndTime.get();
+            if (versionUpdateStartTime > versionUpdateTime) {
+                return null;
+            }
+            int partitionCount = 0;
+            long partitionIdHash = 0;
+            for (Partition partition : table.getPartitions()) {
+                partitionCount++;
+                partitionIdHash += partition.getId() * 0x9E3779B97F4A7C15L;
+            }
+            return new TableSnapshot(table.lastSchemaUpdateTime.get(), versionUpdateTime, partitionCount,
+                    partitionIdHash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TableSnapshot)) {
+                return false;
+            }
+            TableSnapshot other = (TableSnapshot) o;
+            return schemaUpdateTime == other.schemaUpdateTime && versionUpdateTime == other.versionUpdateTime &&
+                    partitionCount == other.partitionCount && partitionIdHash == other.partitionIdHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaUpdateTime, versionUpdateTime, partitionCount, partitionIdHash);
+        }
+    }
+
+    /**
+     * A cached plan. The cached operators are a template which is never changed: every bind copies the predicate
+     * and the operators it changes, so the plans returned before are not affected by the later binds. The
+     * fragments are still built under the lock of the entry, because the other operators are shared.
+     */
+    private static class CacheEntry {
+        private final TableSnapshot snapshot;
+        private final LogicalPlan logicalPlan;
+        private final OptExpression physicalPlan;
+        private final ColumnRefFactory columnRefFactory;
+        private final LogicalFilterOperator filter;
+        private final LogicalOlapScanOperator logicalScan;
+        private final long createTime = System.currentTimeMillis();
+        private final AtomicLong hitCount = new AtomicLong();
+        private volatile long lastHitTime;
+
+        private CacheEntry(TableSnapshot snapshot, ExecPlan plan, LogicalFilterOperator filter,
+                           LogicalOlapScanOperator logicalScan) {
+            this.snapshot = snapshot;
+            this.logicalPlan = plan.getLogicalPlan();
+            this.physicalPlan = plan.getPhysicalPlan();
+            this.columnRefFactory = plan.getColumnRefFactory();
+            this.filter = filter;
+            this.logicalScan = logicalScan;
+        }
+
+        // return null if the plan is not a single olap scan with the key predicates
+        static CacheEntry create(ParameterizedQuery query, ExecPlan plan) {
+            if (plan.getLogicalPlan() == null || plan.getColumnRefFactory() == null ||
+                    !(plan.getPhysicalPlan().getOp() instanceof PhysicalOlapScanOperator) ||
+                    ((PhysicalOlapScanOperator) plan.getPhysicalPlan().getOp()).getTable().getId() != query.table.getId()) {
+                return null;
+            }
+            List<LogicalFilterOperator> filters = Lists.newArrayList();
+            List<LogicalOlapScanOperator> scans = Lists.newArrayList();
+            collectOperators(plan.getLogicalPlan().getRoot(), filters, scans);
+            if (filters.size() != 1 || scans.size() != 1 || scans.get(0).getTable().getId() != query.table.getId()) {
+                return null;
+            }
+            return new CacheEntry(query.snapshot, plan, filters.get(0), scans.get(0));
+        }
+
+        private static void collectOperators(OptExpression expression, List<LogicalFilterOperator> filters,
+                                             List<LogicalOlapScanOperator> scans) {
+            Operator op = expression.getOp();
+            if (op instanceof LogicalFilterOperator) {
+                filters.add((LogicalFilterOperator) op);
+            } else if (op instanceof LogicalOlapScanOperator) {
+                scans.add((LogicalOlapScanOperator) op);
+            }
+            for (OptExpression input : expression.getInputs()) {
+                collectOperators(input, filters, scans);
+            }
+        }
+
+        ExecPlan bind(ParameterizedQuery query, QueryStatement stmt, ConnectContext session) {
+            ScalarOperator predicate = filter.getPredicate().clone();
+            List<ScalarOperator> conjuncts = Utils.extractConjuncts(predicate);
+            if (conjuncts.size() != query.params.size()) {
+                return null;
+            }
+            for (ScalarOperator conjunct : conjuncts) {
+                if (!bindConjunct(conjunct, query.params)) {
+                    return null;
+                }
+            }
+
+            LogicalOlapScanOperator scan = new LogicalOlapScanOperator.Builder()
+                    .withOperator(logicalScan)
+                    .setPredicate(predicate)
+                    .build();
+            scan.buildColumnFilters(predicate);
+            LogicalOlapScanOperator prunedScan = OptOlapPartitionPruner.prunePartitions(scan);
+            prunedScan.buildColumnFilters(predicate);
+            List<Long> tabletIds = OptDistributionPruner.pruneTabletIds(prunedScan, prunedScan.getSelectedPartitionId());
+
+            PhysicalOlapScanOperator.Builder builder = PhysicalOlapScanOperator.builder();
+            builder.withOperator((PhysicalOlapScanOperator) physicalPlan.getOp());
+            builder.setPredicate(predicate);
+            PhysicalOlapScanOperator physicalScan = builder.build();
+            physicalScan.setSelectedPartitionId(prunedScan.getSelectedPartitionId());
+            physicalScan.setSelectedTabletId(tabletIds);
+            OptExpression boundPhysicalPlan = OptExpression.builder().with(physicalPlan).setOp(physicalScan).build();
+            // the logical plan is kept by the prepared statements, which bind their own literals into it
+            LogicalPlan boundLogicalPlan = new LogicalPlan(
+                    copyWithFilter(logicalPlan.getRootBuilder(), new LogicalFilterOperator(predicate)),
+                    logicalPlan.getOutputColumn(), logicalPlan.getCorrelation());
+
+            try {
+                ExecPlan plan = PlanFragmentBuilder.createPhysicalPlan(
+                        boundPhysicalPlan, session, logicalPlan.getOutputColumn(), columnRefFactory,
+                        stmt.getQueryRelation().getColumnOutputNames(), query.key.resultSinkType,
+                        !session.getSessionVariable().isSingleNodeExecPlan());
+                plan.setLogicalPlan(boundLogicalPlan);
+                plan.setColumnRefFactory(columnRefFactory);
+                return plan;
+            } catch (Exception e) {
+                LOG.warn("failed to build the cached plan of {}", query.key.digest, e);
+                return null;
+            }
+        }
+
+        // copy the builders of the logical plan with the filter replaced by the bound one
+        private OptExprBuilder copyWithFilter(OptExprBuilder builder, LogicalFilterOperator boundFilter) {
+            Operator op = builder.getRoot().getOp();
+            List<OptExprBuilder> inputs = Lists.newArrayList();
+            for (OptExprBuilder input : builder.getInputs()) {
+                inputs.add(copyWithFilter(input, boundFilter));
+            }
+            return new OptExprBuilder(op == filter ? boundFilter : op, inputs, builder.getExpressionMapping());
+        }
+
+        private boolean bindConjunct(ScalarOperator conjunct, Map<String, LiteralExpr> params) {
+            if (!(conjunct instanceof BinaryPredicateOperator) ||
+                    ((BinaryPredicateOperator) conjunct).getBinaryType() != BinaryType.EQ) {
+                return false;
+            }
+            int constantIndex = conjunct.getChild(1) instanceof ConstantOperator ? 1 : 0;
+            ScalarOperator columnRef = conjunct.getChild(1 - constantIndex);
+            ScalarOperator constant = conjunct.getChild(constantIndex);
+            if (!(columnRef instanceof ColumnRefOperator) || !(constant instanceof ConstantOperator)) {
+                return false;
+            }
+            Column column = logicalScan.getColRefToColumnMetaMap().get((ColumnRefOperator) columnRef);
+            LiteralExpr literal = column == null ? null : params.get(column.getName().toLowerCase());
+            if (literal == null) {
+                return false;
+            }
+            Optional<ConstantOperator> value =
+                    new ConstantOperator(literal.getRealObjectValue(), literal.getType()).castTo(constant.getType());
+            if (!value.isPresent()) {
+                return false;
+            }
+            conjunct.setChild(constantIndex, value.get());
+            return true;
+        }
+    }
+}
@@ -121,6 +121,16 @@ public class StatementPlanner {
             if (stmt instanceof QueryStatement) {
                 QueryStatement queryStmt = (QueryStatement) stmt;
                 resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
+                PlanCache.ParameterizedQuery cacheQuery =
+                        PlanCache.getInstance().parameterize(queryStmt, session, resultSinkType);
+                if (cacheQuery != null) {
+                    try (Timer ignored = Tracers.watchScope("PlanCache")) {
+                        ExecPlan cachedPlan = PlanCache.getInstance().getPlan(cacheQuery, queryStmt, session);
+                        if (cachedPlan != null) {
+                            return cachedPlan;
+                        }
+                    }
+                }
                 boolean isOnlyOlapTableQueries = AnalyzerUtils.isOnlyHasOlapTables(queryStmt);
                 needWholePhaseLock =  isLockFree(isOnlyOlapTableQueries, session) ? false : true;
                 ExecPlan plan;
@@ -131,6 +141,9 @@ public class StatementPlanner {
                     plan = createQueryPlanWithReTry(queryStmt, session, resultSinkType, plannerMetaLocker);
                 }
                 setOutfileSink(queryStmt, plan);
+                if (cacheQuery != null) {
+                    PlanCache.getInstance().putPlan(cacheQuery, plan);
+                }
                 return plan;
             } else if (stmt instanceof InsertStmt) {
                 return planInsertStmt(plannerMetaLocker, (InsertStmt) stmt, session);
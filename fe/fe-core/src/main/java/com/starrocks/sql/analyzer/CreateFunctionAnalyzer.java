@@ -190,10 +190,14 @@ public class CreateFunctionAnalyzer {
         Method method = mainClass.getMethod(CreateFunctionStmt.EVAL_METHOD_NAME, true);
         mainClass.checkMethodNonStaticAndPublic(method);
         mainClass.checkArgumentCount(method, argsDef.getArgTypes().length);
-        mainClass.checkReturnUdfType(method, returnType.getType());
+        // evaluate returns a primitive type, e.g. long evaluate(int a, double b), all the parameters should be
+        // primitive types too, BE reads and writes the column data directly without boxing.
+        boolean primitive = method.getReturnType().isPrimitive();
+        mainClass.checkUdfType(method, returnType.getType(), method.getReturnType(),
+                CreateFunctionStmt.RETURN_FIELD_NAME, primitive);
         for (int i = 0; i < method.getParameters().length; i++) {
             Parameter p = method.getParameters()[i];
-            mainClass.checkUdfType(method, argsDef.getArgTypes()[i], p.getType(), p.getName());
+            mainClass.checkUdfType(method, argsDef.getArgTypes()[i], p.getType(), p.getName(), primitive);
         }
     }
 
@@ -368,6 +372,17 @@ public class CreateFunctionAnalyzer {
                     .put(PrimitiveType.VARCHAR, String.class)
                     .build();
 
+    private static final ImmutableMap<PrimitiveType, Class<?>> PRIMITIVE_TYPE_TO_JAVA_PRIMITIVE_TYPE =
+            new ImmutableMap.Builder<PrimitiveType, Class<?>>()
+                    .put(PrimitiveType.BOOLEAN, boolean.class)
+                    .put(PrimitiveType.TINYINT, byte.class)
+                    .put(PrimitiveType.SMALLINT, short.class)
+                    .put(PrimitiveType.INT, int.class)
+                    .put(PrimitiveType.FLOAT, float.class)
+                    .put(PrimitiveType.DOUBLE, double.class)
+                    .put(PrimitiveType.BIGINT, long.class)
+                    .build();
+
     public static class UDFInternalClassLoader extends URLClassLoader {
         public UDFInternalClassLoader(String udfPath) throws IOException {
             super(new URL[] {new URL("jar:" + udfPath + "!/")});
@@ -492,13 +507,18 @@ public class CreateFunctionAnalyzer {
         }
 
         private void checkUdfType(Method method, Type expType, Class<?> ptype, String pname) {
+            checkUdfType(method, expType, ptype, pname, false);
+        }
+
+        private void checkUdfType(Method method, Type expType, Class<?> ptype, String pname, boolean primitive) {
             if (!(expType instanceof ScalarType)) {
                 ErrorReport.reportSemanticException(ErrorCode.ERR_COMMON_ERROR,
                         String.format("UDF class '%s' method '%s' does not support non-scalar type '%s'",
                                 clazz.getCanonicalName(), method.getName(), expType));
             }
             ScalarType scalarType = (ScalarType) expType;
-            Class<?> cls = PRIMITIVE_TYPE_TO_JAVA_CLASS_TYPE.get(scalarType.getPrimitiveType());
+            Class<?> cls = primitive ? PRIMITIVE_TYPE_TO_JAVA_PRIMITIVE_TYPE.get(scalarType.getPrimitiveType()) :
+                    PRIMITIVE_TYPE_TO_JAVA_CLASS_TYPE.get(scalarType.getPrimitiveType());
             if (cls == null) {
                 ErrorReport.reportSemanticException(ErrorCode.ERR_COMMON_ERROR,
                         String.format("UDF class '%s' method '%s' does not support type '%s'",
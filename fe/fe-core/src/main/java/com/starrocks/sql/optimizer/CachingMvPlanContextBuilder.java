@@ -117,7 +117,9 @@ public class CachingMvPlanContextBuilder {
 
     private List<MvPlanContext> loadMvPlanContext(MaterializedView mv) {
         try {
-            return MvPlanContextBuilder.getPlanContext(mv);
+            List<MvPlanContext> planContexts = MvPlanContextBuilder.getPlanContext(mv);
+            MvSignatureIndex.getInstance().updatePlanShape(mv, planContexts);
+            return planContexts;
         } catch (Throwable e) {
             LOG.warn("load mv plan cache failed: {}", mv.getName(), e);
             return null;
@@ -132,10 +134,12 @@ public class CachingMvPlanContextBuilder {
     public void invalidateFromCache(MaterializedView mv, boolean isActive) {
         mvPlanContextCache.invalidate(mv);
         invalidateAstFromCache(mv);
+        MvSignatureIndex.getInstance().removeMv(mv);
 
         // if transfer to active, put it into cache
         if (isActive) {
             putAstIfAbsent(mv);
+            MvSignatureIndex.getInstance().addMv(mv);
         }
     }
 
@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A group is a set of logically equivalent logical and
@@ -48,6 +49,9 @@ import java.util.Set;
 public class Group {
     private final int id;
 
+    // The logical expressions are iterated by the explore workers of ParallelTaskScheduler while other
+    // workers may add or merge expressions, so the list is copy-on-write in that case and modified under
+    // the group lock. The serial optimizer keeps a plain list, which is cheaper to add and merge.
     private final List<GroupExpression> logicalExpressions;
     private final List<GroupExpression> physicalExpressions;
 
@@ -73,8 +77,12 @@ public class Group {
     private boolean isStatisticsAdjustedByMv = false;
 
     public Group(int groupId) {
+        this(groupId, false);
+    }
+
+    public Group(int groupId, boolean concurrent) {
         this.id = groupId;
-        logicalExpressions = Lists.newArrayList();
+        logicalExpressions = concurrent ? new CopyOnWriteArrayList<>() : Lists.newArrayList();
         physicalExpressions = Lists.newArrayList();
         lowestCostExpressions = Maps.newHashMap();
         satisfyOutputPropertyGroupExpressions = Maps.newHashMap();
@@ -136,7 +144,12 @@ public class Group {
         return logicalExpressions.get(0);
     }
 
-    public void addExpression(GroupExpression groupExpression) {
+    // Return null if the group has no more logical expressions, the group may be merged concurrently
+    public synchronized GroupExpression getLogicalExpression(int index) {
+        return index < logicalExpressions.size() ? logicalExpressions.get(index) : null;
+    }
+
+    public synchronized void addExpression(GroupExpression groupExpression) {
         if (groupExpression.getOp().isLogical()) {
             Preconditions.checkState(!logicalExpressions.contains(groupExpression));
             logicalExpressions.add(groupExpression);
@@ -298,13 +311,15 @@ public class Group {
         this.logicalProperty = logicalProperty;
     }
 
-    public void mergeGroup(Group other) {
-        other.getLogicalExpressions().removeAll(logicalExpressions);
-        other.getPhysicalExpressions().removeAll(physicalExpressions);
-        logicalExpressions.addAll(other.getLogicalExpressions());
-        physicalExpressions.addAll(other.getPhysicalExpressions());
-        other.logicalExpressions.clear();
-        other.physicalExpressions.clear();
+    public synchronized void mergeGroup(Group other) {
+        synchronized (other) {
+            other.getLogicalExpressions().removeAll(logicalExpressions);
+            other.getPhysicalExpressions().removeAll(physicalExpressions);
+            logicalExpressions.addAll(other.getLogicalExpressions());
+            physicalExpressions.addAll(other.getPhysicalExpressions());
+            other.logicalExpressions.clear();
+            other.physicalExpressions.clear();
+        }
         for (Map.Entry<PhysicalPropertySet, Pair<Double, GroupExpression>> entry : other.lowestCostExpressions
                 .entrySet()) {
             GroupExpression bestGroupExpression = entry.getValue().second;
@@ -337,7 +352,7 @@ public class Group {
         }
     }
 
-    public void removeGroupExpression(GroupExpression groupExpression) {
+    public synchronized void removeGroupExpression(GroupExpression groupExpression) {
         if (groupExpression.getOp().isLogical()) {
             logicalExpressions.remove(groupExpression);
         } else {
@@ -45,12 +45,18 @@ import java.util.Set;
  * which is efficient to look up if there is already GroupExpression.
  * <p>
  * All the group should be created from this class.
+ * <p>
+ * The methods which modify the groups are synchronized, because the groups may be
+ * explored by several threads when the optimizer uses ParallelTaskScheduler.
  */
 public class Memo {
     private static final Logger LOG = LogManager.getLogger(Memo.class);
 
     private int nextGroupId = 0;
 
+    // whether the groups are explored by several threads, see Group
+    private final boolean concurrentGroups;
+
     // The group id is same with the group index in groups List
     private final List<Group> groups;
 
@@ -72,6 +78,11 @@ public class Memo {
     }
 
     public Memo() {
+        this(false);
+    }
+
+    public Memo(boolean concurrentGroups) {
+        this.concurrentGroups = concurrentGroups;
         groups = Lists.newLinkedList();
         groupExpressions = Maps.newHashMap();
     }
@@ -88,7 +99,7 @@ public class Memo {
      * Scan(A) and Scan(B).
      * We return GroupExpression rather than Group because we can get Group from GroupExpression
      */
-    public GroupExpression init(OptExpression originExpression) {
+    public synchronized GroupExpression init(OptExpression originExpression) {
         Preconditions.checkState(groups.size() == 0);
         Preconditions.checkState(groupExpressions.size() == 0);
         GroupExpression rootGroupExpression = copyIn(null, originExpression).second;
@@ -96,7 +107,8 @@ public class Memo {
         return rootGroupExpression;
     }
 
-    public Pair<Boolean, GroupExpression> insertGroupExpression(GroupExpression groupExpression, Group targetGroup) {
+    public synchronized Pair<Boolean, GroupExpression> insertGroupExpression(GroupExpression groupExpression,
+                                                                          Group targetGroup) {
         if (groupExpressions.get(groupExpression) != null) {
             GroupExpression existedGroupExpression = groupExpressions.get(groupExpression);
             Group existedGroup = existedGroupExpression.getGroup();
@@ -128,10 +140,10 @@ public class Memo {
     }
 
     private Group newGroup() {
-        return new Group(nextGroupId++);
+        return new Group(nextGroupId++, concurrentGroups);
     }
 
-    public Pair<Boolean, GroupExpression> copyIn(Group targetGroup, OptExpression expression) {
+    public synchronized Pair<Boolean, GroupExpression> copyIn(Group targetGroup, OptExpression expression) {
         List<Group> inputs = Lists.newArrayList();
         for (OptExpression input : expression.getInputs()) {
             Group group;
@@ -269,7 +281,7 @@ public class Memo {
         return groups;
     }
 
-    public void removeAllEmptyGroup() {
+    public synchronized void removeAllEmptyGroup() {
         Set<Group> groups = getAllEmptyGroups();
         while (!groups.isEmpty()) {
             for (Group group : groups) {
@@ -314,7 +326,7 @@ public class Memo {
      * In order to reduce the number of groups entering Memo,
      * we will delete inaccessible groups in this function.
      */
-    public void removeUnreachableGroup() {
+    public synchronized void removeUnreachableGroup() {
         LinkedList<Integer> touch = new LinkedList<>();
         touch.add(rootGroup.getId());
         deepSearchGroup(rootGroup, touch);
@@ -329,7 +341,7 @@ public class Memo {
     }
 
     // For rewrite rule, we directly replace the old group expression by new expression
-    public void replaceRewriteExpression(Group targetGroup, OptExpression expression) {
+    public synchronized void replaceRewriteExpression(Group targetGroup, OptExpression expression) {
         removeGroupInitLogicExpression(targetGroup);
         GroupExpression groupExpression = copyIn(targetGroup, expression).second;
 
@@ -32,6 +32,7 @@ import com.starrocks.catalog.HashDistributionInfo;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.MaterializedIndexMeta;
 import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.MvId;
 import com.starrocks.catalog.MvPlanContext;
 import com.starrocks.catalog.MvUpdateInfo;
 import com.starrocks.catalog.OlapTable;
@@ -50,6 +51,7 @@ import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.PropertyAnalyzer;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.server.CatalogMgr;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.PartitionNames;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
@@ -142,7 +144,9 @@ public class MvRewritePreprocessor {
      * <p>
      *     Choose the best related mvs from all active mvs as following order:
      *     1. find the max intersected table num between mv and query which means it's better for rewrite.
-     *     2. find the latest fresh mv which means its freshness is better.
+     *     2. find the mv whose signature(group by columns, aggregate functions and join num) matches
+     *     the query most.
+     *     3. find the latest fresh mv which means its freshness is better.
      * </p>
      *
      * <h3>More Information</h3>
@@ -155,6 +159,7 @@ public class MvRewritePreprocessor {
     public static class MVCorrelation implements Comparable<MVCorrelation> {
         private final MaterializedView mv;
         private final long mvQueryIntersectedTablesNum;
+        private final int mvQueryMatchedShapeNum;
         private final int mvQueryScanOpNumDiff;
         private final long mvRefreshTimestamp;
 
@@ -162,8 +167,17 @@ public class MvRewritePreprocessor {
                              long mvQueryIntersectedTablesNum,
                              int mvQueryScanOpNumDiff,
                              long mvRefreshTimestamp) {
+            this(mv, mvQueryIntersectedTablesNum, 0, mvQueryScanOpNumDiff, mvRefreshTimestamp);
+        }
+
+        public MVCorrelation(MaterializedView mv,
+                             long mvQueryIntersectedTablesNum,
+                             int mvQueryMatchedShapeNum,
+                             int mvQueryScanOpNumDiff,
+                             long mvRefreshTimestamp) {
             this.mv = mv;
             this.mvQueryIntersectedTablesNum = mvQueryIntersectedTablesNum;
+            this.mvQueryMatchedShapeNum = mvQueryMatchedShapeNum;
             this.mvQueryScanOpNumDiff = mvQueryScanOpNumDiff;
             this.mvRefreshTimestamp = mvRefreshTimestamp;
         }
@@ -206,20 +220,25 @@ public class MvRewritePreprocessor {
             if (result != 0) {
                 return result;
             }
-            // 2. compare base table num diff,  less is better
+            // 2. compare matched signature num, larger is better.
+            result = Integer.compare(this.mvQueryMatchedShapeNum, other.mvQueryMatchedShapeNum);
+            if (result != 0) {
+                return result;
+            }
+            // 3. compare base table num diff,  less is better
             result = Integer.compare(other.mvQueryScanOpNumDiff, this.mvQueryScanOpNumDiff);
             if (result != 0) {
                 return result;
             }
-            // 3. compare refresh timestamp, larger is better.
+            // 4. compare refresh timestamp, larger is better.
             return Long.compare(this.mvRefreshTimestamp, other.mvRefreshTimestamp);
         }
 
         @Override
         public String toString() {
-            return String.format("Correlation: mv=%s, mvQueryInteractedTablesNum=%s, " +
+            return String.format("Correlation: mv=%s, mvQueryInteractedTablesNum=%s, mvQueryMatchedShapeNum=%s, " +
                     "mvQueryScanOpNumDiff=%s, mvRefreshTimestamp=%s", mv.getName(),
-                    mvQueryIntersectedTablesNum, mvQueryScanOpNumDiff, mvRefreshTimestamp);
+                    mvQueryIntersectedTablesNum, mvQueryMatchedShapeNum, mvQueryScanOpNumDiff, mvRefreshTimestamp);
         }
     }
 
@@ -460,6 +479,33 @@ public class MvRewritePreprocessor {
                 .collect(Collectors.toSet());
     }
 
+    private Set<MaterializedView> getRelatedMVsBySignature(Set<MaterializedView> relatedMVs,
+                                                           MvSignatureIndex.MvSignature querySignature) {
+        MvSignatureIndex signatureIndex = MvSignatureIndex.getInstance();
+        boolean usePlanCache = connectContext.getSessionVariable().isEnableMaterializedViewPlanCache();
+        Set<MaterializedView> compatibleMVs = Sets.newHashSet();
+        for (MaterializedView mv : relatedMVs) {
+            // sync mvs are not indexed
+            if (mv.getRefreshScheme().isSync()) {
+                compatibleMVs.add(mv);
+                continue;
+            }
+            // fill the plan shape up front, the plan is cached and used by the rewrite later
+            if (mv.isActive() && !signatureIndex.hasPlanShape(mv)) {
+                try {
+                    signatureIndex.updatePlanShape(mv,
+                            CachingMvPlanContextBuilder.getInstance().getPlanContext(mv, usePlanCache));
+                } catch (Exception e) {
+                    logMVPrepare(connectContext, mv, "Build mv plan for signature failed: {}", e.getMessage());
+                }
+            }
+            if (signatureIndex.isCompatible(mv, querySignature)) {
+                compatibleMVs.add(mv);
+            }
+        }
+        return compatibleMVs;
+    }
+
     private List<MvWithPlanContext> getMVWithContext(MaterializedView mv) {
         if (!mv.isActive()) {
             logMVPrepare(connectContext, mv, "MV is not active: {}", mv.getName());
@@ -488,11 +534,16 @@ public class MvRewritePreprocessor {
 
     private static boolean canMVRewriteIfMVHasExtraTables(ConnectContext connectContext,
                                                           MaterializedView mv,
-                                                          Set<Table> queryTables) {
+                                                          Set<Table> queryTables,
+                                                          MvSignatureIndex.MvSignature querySignature) {
         // 1. when mv has foreign key constraints, it's ok whether query has extra tables or mv has extra tables.
         if (mv.hasForeignKeyConstraints()) {
             return true;
         }
+        // all base tables are in the query, no need to look up them
+        if (querySignature != null && MvSignatureIndex.getInstance().containsAllBaseTables(mv, querySignature)) {
+            return true;
+        }
         Set<Table> baseTables = mv.getBaseTableInfos().stream().map(x -> MvUtils.getTableChecked(x))
                 .filter(x -> !x.isView() && !x.isMaterializedView())
                 .collect(Collectors.toSet());
@@ -520,6 +571,14 @@ public class MvRewritePreprocessor {
                                                                 MaterializedView mv,
                                                                 boolean force,
                                                                 Set<Table> queryTables) {
+        return isMVValidToRewriteQuery(connectContext, mv, force, queryTables, null);
+    }
+
+    private static Pair<Boolean, String> isMVValidToRewriteQuery(ConnectContext connectContext,
+                                                                 MaterializedView mv,
+                                                                 boolean force,
+                                                                 Set<Table> queryTables,
+                                                                 MvSignatureIndex.MvSignature querySignature) {
         if (!mv.isActive())  {
             logMVPrepare(connectContext, mv, "MV is not active: {}", mv.getName());
             return Pair.create(false, "MV is not active");
@@ -532,7 +591,7 @@ public class MvRewritePreprocessor {
         }
         // if mv is a subset of query tables, it can be used for rewrite.
         if (CollectionUtils.isNotEmpty(queryTables) &&
-                !canMVRewriteIfMVHasExtraTables(connectContext, mv, queryTables)) {
+                !canMVRewriteIfMVHasExtraTables(connectContext, mv, queryTables, querySignature)) {
             return Pair.create(false, "MV contains extra tables besides FK-PK");
         }
         // if mv is in plan cache(avoid building plan), check whether it's valid
@@ -556,6 +615,7 @@ public class MvRewritePreprocessor {
     private Set<MaterializedView> chooseBestRelatedMVsByCorrelations(Set<Table> queryTables,
                                                                      Set<MaterializedView> validMVs,
                                                                      OptExpression queryOptExpression,
+                                                                     MvSignatureIndex.MvSignature querySignature,
                                                                      int maxRelatedMVsLimit) {
         int queryScanOpNum = MvUtils.getOlapScanNode(queryOptExpression).size();
         Set<String> queryTableNames = queryTables.stream().map(t -> t.getName()).collect(Collectors.toSet());
@@ -566,7 +626,8 @@ public class MvRewritePreprocessor {
             List<MvPlanContext> planContexts =
                     CachingMvPlanContextBuilder.getInstance().getPlanContextFromCacheIfPresent(mv);
             int mvQueryScanOpDiff = MVCorrelation.getMvQueryScanOpDiff(planContexts, baseTableInfos.size(), queryScanOpNum);
-            MVCorrelation mvCorrelation = new MVCorrelation(mv, mvQueryInteractedTableNum,
+            int mvQueryMatchedShapeNum = MvSignatureIndex.getInstance().getMatchedShapeNum(mv, querySignature);
+            MVCorrelation mvCorrelation = new MVCorrelation(mv, mvQueryInteractedTableNum, mvQueryMatchedShapeNum,
                     mvQueryScanOpDiff, mv.getLastRefreshTime());
             if (bestRelatedMVs.size() < maxRelatedMVsLimit) {
                 bestRelatedMVs.add(mvCorrelation);
@@ -590,19 +651,32 @@ public class MvRewritePreprocessor {
         Set<MaterializedView> validMVs = getRelatedMVsByConfig(relatedMVs);
         logMVPrepare(connectContext, "Choose {}/{} mvs after user config", validMVs.size(), relatedMVs.size());
 
-        // 2. choose all valid mvs and filter mvs that cannot be rewritten for the query
+        // 2. filter the aggregate mvs out for a query without aggregation, the signatures are also used to rank
+        // the mvs later.
+        MvSignatureIndex.MvSignature querySignature = null;
+        if (Config.enable_materialized_view_signature_index) {
+            querySignature = MvSignatureIndex.getInstance()
+                    .buildQuerySignature(queryOptExpression, queryTables, queryColumnRefFactory);
+            validMVs = getRelatedMVsBySignature(validMVs, querySignature);
+            logMVPrepare(connectContext, "Choose {}/{} mvs after checking signature",
+                    validMVs.size(), relatedMVs.size());
+        }
+
+        // 3. choose all valid mvs and filter mvs that cannot be rewritten for the query
+        MvSignatureIndex.MvSignature finalQuerySignature = querySignature;
         validMVs = validMVs.stream()
-                .filter(mv -> isMVValidToRewriteQuery(connectContext, mv, false, queryTables).first)
+                .filter(mv -> isMVValidToRewriteQuery(connectContext, mv, false, queryTables, finalQuerySignature).first)
                 .collect(Collectors.toSet());
         logMVPrepare(connectContext, "Choose {}/{} valid mvs after checking valid",
                 validMVs.size(), relatedMVs.size());
 
-        // 3. choose max config related mvs for mv rewrite to avoid too much optimize time
+        // 4. choose max config related mvs for mv rewrite to avoid too much optimize time
         int maxRelatedMVsLimit = connectContext.getSessionVariable().getCboMaterializedViewRewriteRelatedMVsLimit();
         if (validMVs.size() <= maxRelatedMVsLimit) {
             return validMVs;
         }
-        return chooseBestRelatedMVsByCorrelations(queryTables, validMVs, queryOptExpression, maxRelatedMVsLimit);
+        return chooseBestRelatedMVsByCorrelations(queryTables, validMVs, queryOptExpression, querySignature,
+                maxRelatedMVsLimit);
     }
 
     @VisibleForTesting
@@ -628,8 +702,27 @@ public class MvRewritePreprocessor {
 
     private Set<MaterializedView> getRelatedAsyncMVs(Set<Table> queryTables) {
         int maxLevel = connectContext.getSessionVariable().getNestedMvRewriteMaxLevel();
-        // get all related materialized views, include nested mvs
-        return MvUtils.getRelatedMvs(connectContext, maxLevel, queryTables);
+        if (!Config.enable_materialized_view_signature_index) {
+            // get all related materialized views, include nested mvs
+            return MvUtils.getRelatedMvs(connectContext, maxLevel, queryTables);
+        }
+        // look up the mvs by the bitmap of the internal tables, the tables not indexed are still walked
+        Set<MaterializedView> relatedMVs = Sets.newHashSet();
+        for (MvId mvId : MvSignatureIndex.getInstance().getCandidateMvIds(queryTables, maxLevel)) {
+            Database db = GlobalStateMgr.getCurrentState().getDb(mvId.getDbId());
+            Table table = db == null ? null : db.getTable(mvId.getId());
+            if (table instanceof MaterializedView) {
+                relatedMVs.add((MaterializedView) table);
+            } else {
+                logMVPrepare(connectContext, "Cannot find materialized view from mvId:{}", mvId);
+            }
+        }
+        Set<Table> notIndexedTables = queryTables.stream()
+                .filter(t -> !CatalogMgr.isInternalCatalog(t.getCatalogName()))
+                .collect(Collectors.toSet());
+        relatedMVs.addAll(MvUtils.getRelatedMvs(connectContext, maxLevel, notIndexedTables));
+        logMVPrepare(connectContext, "Look up {} related mvs by signature", relatedMVs.size());
+        return relatedMVs;
     }
 
     private Set<MaterializedView> getRelatedSyncMVs(Set<Table> queryTables) {
@@ -0,0 +1,400 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.BaseTableInfo;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.MvId;
+import com.starrocks.catalog.MvPlanContext;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
+import com.starrocks.server.CatalogMgr;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MvSignatureIndex keeps a structural signature for every active materialized view, which is used to look up,
+ * prune and rank the related mvs of a query before their plans are built and tried for rewrite. The related mvs
+ * are looked up by the bitmap of the query tables, the signature of each of them is then checked against the
+ * query's one.
+ * <p>
+ * The signature contains the base tables as a bitmap, and the shape of the mv plan: the number of joins, the
+ * group by columns and the aggregate functions. The base tables are known once the mv is active, the plan
+ * shape is filled when the mv plan is built by {@link CachingMvPlanContextBuilder}. The index is updated with
+ * the plan cache, when the mv is created, dropped, altered or its base tables are changed by refresh. The bit of
+ * a table is released when the table is dropped, and reused by the tables created later.
+ */
+public class MvSignatureIndex {
+    private static final Logger LOG = LogManager.getLogger(MvSignatureIndex.class);
+    private static final MvSignatureIndex INSTANCE = new MvSignatureIndex();
+
+    // dense bit of each internal table in the bitmap of the signatures
+    private final Map<Long, Integer> tableBits = Maps.newConcurrentMap();
+    private final AtomicInteger nextTableBit = new AtomicInteger(0);
+    // the bits released by the dropped tables, guarded by this
+    private final Deque<Integer> freeTableBits = new ArrayDeque<>();
+    private final Map<MvId, MvSignature> signatures = Maps.newConcurrentMap();
+
+    /**
+     * The structural signature of a materialized view or a query.
+     */
+    public static class MvSignature {
+        private final BitSet tables;
+        // false if some tables are not in the bitmap, e.g. the tables of external catalogs
+        private final boolean allTablesIndexed;
+        // plan shape, unknown until the plan of the mv is built
+        private final boolean hasPlanShape;
+        private final int joinNum;
+        private final boolean hasAggregate;
+        private final Set<String> groupByColumns;
+        private final Set<String> aggFunctions;
+
+        private MvSignature(BitSet tables, boolean allTablesIndexed, boolean hasPlanShape, int joinNum,
+                            boolean hasAggregate, Set<String> groupByColumns, Set<String> aggFunctions) {
+            this.tables = tables;
+            this.allTablesIndexed = allTablesIndexed;
+            this.hasPlanShape = hasPlanShape;
+            this.joinNum = joinNum;
+            this.hasAggregate = hasAggregate;
+            this.groupByColumns = groupByColumns;
+            this.aggFunctions = aggFunctions;
+        }
+
+        private MvSignature withoutTable(int tableBit) {
+            BitSet newTables = (BitSet) tables.clone();
+            newTables.clear(tableBit);
+            return new MvSignature(newTables, false, hasPlanShape, joinNum, hasAggregate, groupByColumns, aggFunctions);
+        }
+
+        private MvSignature withPlanShape(PlanShape shape) {
+            return new MvSignature(tables, allTablesIndexed, true, shape.joinNum, shape.hasAggregate,
+                    ImmutableSet.copyOf(shape.groupByColumns), ImmutableSet.copyOf(shape.aggFunctions));
+        }
+
+        public boolean hasPlanShape() {
+            return hasPlanShape;
+        }
+
+        public int getJoinNum() {
+            return joinNum;
+        }
+
+        public boolean hasAggregate() {
+            return hasAggregate;
+        }
+
+        public Set<String> getGroupByColumns() {
+            return groupByColumns;
+        }
+
+        public Set<String> getAggFunctions() {
+            return aggFunctions;
+        }
+
+        @Override
+        public String toString() {
+            return "MvSignature{tables=" + tables + ", joinNum=" + joinNum + ", hasAggregate=" + hasAggregate +
+                    ", groupByColumns=" + groupByColumns + ", aggFunctions=" + aggFunctions + "}";
+        }
+    }
+
+    private static class PlanShape {
+        private int joinNum = 0;
+        private boolean hasAggregate = false;
+        private final Set<String> groupByColumns = Sets.newHashSet();
+        private final Set<String> aggFunctions = Sets.newHashSet();
+
+        private void collect(OptExpression expression, ColumnRefFactory factory) {
+            Operator op = expression.getOp();
+            if (op instanceof LogicalJoinOperator) {
+                joinNum++;
+            } else if (op instanceof LogicalAggregationOperator) {
+                LogicalAggregationOperator aggregation = (LogicalAggregationOperator) op;
+                hasAggregate = true;
+                for (ColumnRefOperator key : aggregation.getGroupingKeys()) {
+                    String column = getColumnKey(key, factory);
+                    if (column != null) {
+                        groupByColumns.add(column);
+                    }
+                }
+                for (CallOperator call : aggregation.getAggregations().values()) {
+                    aggFunctions.add(call.getFnName().toLowerCase());
+                }
+            }
+            for (OptExpression input : expression.getInputs()) {
+                collect(input, factory);
+            }
+        }
+
+        // only the group by keys from the scan columns are recorded, as table uuid and column name
+        private static String getColumnKey(ColumnRefOperator columnRef, ColumnRefFactory factory) {
+            Table table = factory.getTableForColumn(columnRef.getId());
+            Column column = factory.getColumn(columnRef);
+            if (table == null || column == null) {
+                return null;
+            }
+            return table.getUUID() + "." + column.getName().toLowerCase();
+        }
+    }
+
+    private MvSignatureIndex() {
+    }
+
+    public static MvSignatureIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private int getOrCreateTableBit(long tableId) {
+        return tableBits.computeIfAbsent(tableId, k -> {
+            Integer bit = freeTableBits.poll();
+            return bit != null ? bit : nextTableBit.getAndIncrement();
+        });
+    }
+
+    /**
+     * Add or reset the signature of the mv by its base tables, the plan shape will be filled
+     * when the mv plan is built. The mvs are always indexed, so that the index is complete once
+     * it is enabled at runtime.
+     */
+    public synchronized void addMv(MaterializedView mv) {
+        if (mv == null) {
+            return;
+        }
+        BitSet tables = new BitSet();
+        boolean allTablesIndexed = true;
+        for (BaseTableInfo baseTableInfo : ListUtils.emptyIfNull(mv.getBaseTableInfos())) {
+            if (baseTableInfo.isInternalCatalog()) {
+                tables.set(getOrCreateTableBit(baseTableInfo.getTableId()));
+            } else {
+                allTablesIndexed = false;
+            }
+        }
+        signatures.put(mv.getMvId(), new MvSignature(tables, allTablesIndexed, false, 0, false,
+                ImmutableSet.of(), ImmutableSet.of()));
+    }
+
+    public void removeMv(MaterializedView mv) {
+        if (mv == null) {
+            return;
+        }
+        signatures.remove(mv.getMvId());
+    }
+
+    /**
+     * Release the bit of the dropped table. The mvs on it are inactive and removed already, the ones still
+     * indexed are no longer regarded as having all tables in the bitmap, so that the bit can be reused.
+     */
+    public synchronized void removeTable(long tableId) {
+        Integer bit = tableBits.remove(tableId);
+        if (bit == null) {
+            return;
+        }
+        signatures.replaceAll((mvId, signature) -> signature.tables.get(bit) ? signature.withoutTable(bit) : signature);
+        freeTableBits.push(bit);
+    }
+
+    /**
+     * Fill the plan shape of the mv from its valid plans, the mv is regarded as an aggregate mv
+     * only if all of its plans have aggregations.
+     */
+    public void updatePlanShape(MaterializedView mv, List<MvPlanContext> planContexts) {
+        if (!Config.enable_materialized_view_signature_index || mv == null || planContexts == null) {
+            return;
+        }
+        PlanShape shape = null;
+        boolean allHasAggregate = true;
+        for (MvPlanContext planContext : planContexts) {
+            if (!planContext.isValidMvPlan() || planContext.getLogicalPlan() == null) {
+                continue;
+            }
+            PlanShape planShape = new PlanShape();
+            planShape.collect(planContext.getLogicalPlan(), planContext.getRefFactory());
+            allHasAggregate &= planShape.hasAggregate;
+            if (shape == null) {
+                shape = planShape;
+            } else {
+                shape.joinNum = Math.max(shape.joinNum, planShape.joinNum);
+                shape.groupByColumns.addAll(planShape.groupByColumns);
+                shape.aggFunctions.addAll(planShape.aggFunctions);
+            }
+        }
+        if (shape == null) {
+            return;
+        }
+        shape.hasAggregate = allHasAggregate;
+        PlanShape mvShape = shape;
+        signatures.computeIfPresent(mv.getMvId(), (k, signature) -> signature.withPlanShape(mvShape));
+        LOG.debug("Update signature of mv {}: {}", mv.getName(), signatures.get(mv.getMvId()));
+    }
+
+    public MvSignature buildQuerySignature(OptExpression queryExpression, Set<Table> queryTables,
+                                           ColumnRefFactory queryColumnRefFactory) {
+        PlanShape shape = new PlanShape();
+        shape.collect(queryExpression, queryColumnRefFactory);
+        return new MvSignature(getQueryTableBits(queryTables), false, true, shape.joinNum, shape.hasAggregate,
+                shape.groupByColumns, shape.aggFunctions);
+    }
+
+    private BitSet getQueryTableBits(Set<Table> queryTables) {
+        BitSet tables = new BitSet();
+        for (Table table : queryTables) {
+            if (!CatalogMgr.isInternalCatalog(table.getCatalogName())) {
+                continue;
+            }
+            Integer bit = tableBits.get(table.getId());
+            if (bit != null) {
+                tables.set(bit);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Look up the mvs which may rewrite the query by the bitmap of the query tables, the nested mvs are looked up
+     * by adding the bits of the found mvs to the bitmap, up to the max level.
+     * The mvs whose base tables are all in the query are matched first. The mvs with only part of their base
+     * tables in the query are also returned, because they may still rewrite the query with the foreign key
+     * constraints or the tables not indexed, which are checked with their base tables later. The mvs only on
+     * the tables not indexed, e.g. the tables of external catalogs, are not returned.
+     */
+    public Set<MvId> getCandidateMvIds(Set<Table> queryTables, int maxLevel) {
+        BitSet tables = getQueryTableBits(queryTables);
+        Set<MvId> candidates = Sets.newHashSet();
+        for (int level = 0; level < maxLevel && !tables.isEmpty(); level++) {
+            Set<MvId> matched = Sets.newHashSet();
+            Set<MvId> partialMatched = Sets.newHashSet();
+            for (Map.Entry<MvId, MvSignature> entry : signatures.entrySet()) {
+                MvSignature signature = entry.getValue();
+                if (candidates.contains(entry.getKey()) || !signature.tables.intersects(tables)) {
+                    continue;
+                }
+                BitSet extraTables = (BitSet) signature.tables.clone();
+                extraTables.andNot(tables);
+                if (extraTables.isEmpty() && signature.allTablesIndexed) {
+                    matched.add(entry.getKey());
+                } else {
+                    partialMatched.add(entry.getKey());
+                }
+            }
+            if (matched.isEmpty() && partialMatched.isEmpty()) {
+                break;
+            }
+            LOG.debug("Look up mvs by signature at level {}, matched: {}, partial matched: {}",
+                    level, matched, partialMatched);
+            candidates.addAll(matched);
+            candidates.addAll(partialMatched);
+            for (MvId mvId : Sets.union(matched, partialMatched)) {
+                Integer bit = tableBits.get(mvId.getId());
+                if (bit != null) {
+                    tables.set(bit);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return true if the query contains all base tables of the mv, false if not or the mv is not indexed.
+     */
+    public boolean containsAllBaseTables(MaterializedView mv, Set<Table> queryTables) {
+        return containsAllBaseTables(mv, getQueryTableBits(queryTables));
+    }
+
+    /**
+     * Same as {@link #containsAllBaseTables(MaterializedView, Set)} with the tables of the query signature, which
+     * are looked up once for all the mvs of the query.
+     */
+    public boolean containsAllBaseTables(MaterializedView mv, MvSignature querySignature) {
+        return containsAllBaseTables(mv, querySignature.tables);
+    }
+
+    private boolean containsAllBaseTables(MaterializedView mv, BitSet queryTables) {
+        MvSignature signature = signatures.get(mv.getMvId());
+        if (signature == null || !signature.allTablesIndexed) {
+            return false;
+        }
+        BitSet extraTables = (BitSet) signature.tables.clone();
+        extraTables.andNot(queryTables);
+        return extraTables.isEmpty();
+    }
+
+    /**
+     * Check whether the mv may be used to rewrite the query by its signature, the mvs not indexed or without
+     * a plan shape are regarded as incompatible, the caller should fill the shape by building the mv plan first.
+     * An aggregate mv can not be used by a query without any aggregation, the other parts of the signature
+     * are only used to order the mvs, because the rewrite may still succeed with the equivalent columns
+     * and the rollup functions.
+     */
+    public boolean isCompatible(MaterializedView mv, MvSignature querySignature) {
+        MvSignature signature = signatures.get(mv.getMvId());
+        if (signature == null || !signature.hasPlanShape) {
+            return false;
+        }
+        return !signature.hasAggregate || querySignature.hasAggregate;
+    }
+
+    public boolean hasPlanShape(MaterializedView mv) {
+        MvSignature signature = signatures.get(mv.getMvId());
+        return signature != null && signature.hasPlanShape;
+    }
+
+    /**
+     * @return the number of the group by columns and the aggregate functions of the query which are also
+     * in the mv, plus one if they have the same number of joins. Larger means more similar.
+     */
+    public int getMatchedShapeNum(MaterializedView mv, MvSignature querySignature) {
+        MvSignature signature = signatures.get(mv.getMvId());
+        if (querySignature == null || signature == null || !signature.hasPlanShape || !querySignature.hasAggregate) {
+            return 0;
+        }
+        return Sets.intersection(signature.groupByColumns, querySignature.groupByColumns).size() +
+                Sets.intersection(signature.aggFunctions, querySignature.aggFunctions).size() +
+                (signature.joinNum == querySignature.joinNum ? 1 : 0);
+    }
+
+    @VisibleForTesting
+    public Integer getTableBit(long tableId) {
+        return tableBits.get(tableId);
+    }
+
+    @VisibleForTesting
+    public MvSignature getSignature(MaterializedView mv) {
+        return signatures.get(mv.getMvId());
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+}
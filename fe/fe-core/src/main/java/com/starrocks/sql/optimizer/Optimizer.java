@@ -307,7 +307,7 @@ public class Optimizer {
                          OptExpression logicOperatorTree) {
         Memo memo = null;
         if (!optimizerConfig.isRuleBased()) {
-            memo = new Memo();
+            memo = new Memo(connectContext.getSessionVariable().isCboEnableParallelExplore());
         }
 
         context = new OptimizerContext(memo, columnRefFactory, connectContext, optimizerConfig);
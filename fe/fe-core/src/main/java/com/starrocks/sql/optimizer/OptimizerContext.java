@@ -31,6 +31,7 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.rule.RuleSet;
 import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.task.ParallelTaskScheduler;
 import com.starrocks.sql.optimizer.task.SeriallyTaskScheduler;
 import com.starrocks.sql.optimizer.task.TaskContext;
 import com.starrocks.sql.optimizer.task.TaskScheduler;
@@ -54,6 +55,7 @@ public class OptimizerContext {
     private Set<Long> currentSqlDbIds;
     private CTEContext cteContext;
     private TaskContext currentTaskContext;
+    private ThreadLocal<TaskContext> workerTaskContext;
     private final OptimizerConfig optimizerConfig;
     private final List<MaterializationContext> candidateMvs;
 
@@ -63,7 +65,7 @@ public class OptimizerContext {
     private boolean enableLeftRightJoinEquivalenceDerive = true;
     private boolean isObtainedFromInternalStatistics = false;
     private final Stopwatch optimizerTimer = Stopwatch.createStarted();
-    private final Map<RuleType, Stopwatch> ruleWatchMap = Maps.newHashMap();
+    private final Map<RuleType, Stopwatch> ruleWatchMap = Maps.newConcurrentMap();
 
     // QueryMaterializationContext is different from MaterializationContext that it keeps the context during the query
     // lifecycle instead of per materialized view.
@@ -106,7 +108,12 @@ public class OptimizerContext {
         this.memo = memo;
         this.ruleSet = new RuleSet();
         this.globalStateMgr = GlobalStateMgr.getCurrentState();
-        this.taskScheduler = SeriallyTaskScheduler.create();
+        if (connectContext.getSessionVariable().isCboEnableParallelExplore()) {
+            this.taskScheduler = ParallelTaskScheduler.create(connectContext);
+            this.workerTaskContext = new ThreadLocal<>();
+        } else {
+            this.taskScheduler = SeriallyTaskScheduler.create();
+        }
         this.columnRefFactory = columnRefFactory;
         this.queryId = connectContext.getQueryId();
         this.sessionVariable = connectContext.getSessionVariable();
@@ -165,7 +172,22 @@ public class OptimizerContext {
         this.currentTaskContext = context;
     }
 
+    // The explore workers of ParallelTaskScheduler keep their own task context
+    public void setWorkerTaskContext(TaskContext context) {
+        if (context == null) {
+            workerTaskContext.remove();
+        } else {
+            workerTaskContext.set(context);
+        }
+    }
+
     public TaskContext getTaskContext() {
+        if (workerTaskContext != null) {
+            TaskContext context = workerTaskContext.get();
+            if (context != null) {
+                return context;
+            }
+        }
         return currentTaskContext;
     }
 
@@ -19,7 +19,10 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.JoinOperator;
 import com.starrocks.catalog.ColocateTableIndex;
+import com.starrocks.catalog.JDBCTable;
 import com.starrocks.catalog.system.SystemTable;
+import com.starrocks.planner.JDBCScanNode;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.optimizer.base.CTEProperty;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
@@ -508,6 +511,10 @@ public class OutputPropertyDeriver extends PropertyDeriverBase<PhysicalPropertyS
 
     @Override
     public PhysicalPropertySet visitPhysicalJDBCScan(PhysicalJDBCScanOperator node, ExpressionContext context) {
+        // a range partitioned jdbc scan is read by several instances
+        if (JDBCScanNode.getNumRangePartitions(ConnectContext.get(), (JDBCTable) node.getTable(), node.getLimit()) > 1) {
+            return PhysicalPropertySet.EMPTY;
+        }
         return createGatherPropertySet();
     }
 
@@ -54,7 +54,7 @@ public class ColumnRefFactory {
         return columnRefToColumns;
     }
 
-    public ColumnRefOperator create(Expr expression, Type type, boolean nullable) {
+    public synchronized ColumnRefOperator create(Expr expression, Type type, boolean nullable) {
         String nameHint = "expr";
         if (expression instanceof SlotRef) {
             nameHint = ((SlotRef) expression).getColumnName();
@@ -68,7 +68,7 @@ public class ColumnRefFactory {
         return create(nextId++, nameHint, type, nullable, false);
     }
 
-    public ColumnRefOperator create(ScalarOperator operator, Type type, boolean nullable) {
+    public synchronized ColumnRefOperator create(ScalarOperator operator, Type type, boolean nullable) {
         String nameHint = "expr";
         if (operator.isColumnRef()) {
             nameHint = ((ColumnRefOperator) operator).getName();
@@ -84,11 +84,11 @@ public class ColumnRefFactory {
         return create(nextId++, nameHint, type, nullable, false);
     }
 
-    public ColumnRefOperator create(String name, Type type, boolean nullable) {
+    public synchronized ColumnRefOperator create(String name, Type type, boolean nullable) {
         return create(nextId++, name, type, nullable, false);
     }
 
-    public ColumnRefOperator create(String name, Type type, boolean nullable, boolean isLambdaArg) {
+    public synchronized ColumnRefOperator create(String name, Type type, boolean nullable, boolean isLambdaArg) {
         return create(nextId++, name, type, nullable, isLambdaArg);
     }
 
@@ -98,11 +98,11 @@ public class ColumnRefFactory {
         return columnRef;
     }
 
-    public ColumnRefOperator getColumnRef(int id) {
+    public synchronized ColumnRefOperator getColumnRef(int id) {
         return columnRefs.get(id - 1);
     }
 
-    public Set<ColumnRefOperator> getColumnRefs(ColumnRefSet columnRefSet) {
+    public synchronized Set<ColumnRefOperator> getColumnRefs(ColumnRefSet columnRefSet) {
         Set<ColumnRefOperator> columnRefOperators = Sets.newHashSet();
         for (int idx : columnRefSet.getColumnIds()) {
             columnRefOperators.add(getColumnRef(idx));
@@ -114,24 +114,24 @@ public class ColumnRefFactory {
         return columnRefs;
     }
 
-    public void updateColumnRefToColumns(ColumnRefOperator columnRef, Column column, Table table) {
+    public synchronized void updateColumnRefToColumns(ColumnRefOperator columnRef, Column column, Table table) {
         columnRefToColumns.put(columnRef, column);
         columnRefToTable.put(columnRef, table);
     }
 
-    public Column getColumn(ColumnRefOperator columnRef) {
+    public synchronized Column getColumn(ColumnRefOperator columnRef) {
         return columnRefToColumns.get(columnRef);
     }
 
-    public void updateColumnToRelationIds(int columnId, int tableId) {
+    public synchronized void updateColumnToRelationIds(int columnId, int tableId) {
         columnToRelationIds.put(columnId, tableId);
     }
 
-    public Integer getRelationId(int id) {
+    public synchronized Integer getRelationId(int id) {
         return columnToRelationIds.getOrDefault(id, -1);
     }
 
-    public int getNextRelationId() {
+    public synchronized int getNextRelationId() {
         return nextRelationId++;
     }
 
@@ -143,11 +143,11 @@ public class ColumnRefFactory {
         return columnRefToTable;
     }
 
-    public Table getTableForColumn(int columnId) {
+    public synchronized Table getTableForColumn(int columnId) {
         return columnRefToTable.get(getColumnRef(columnId));
     }
 
-    public int getNextUniqueId() {
+    public synchronized int getNextUniqueId() {
         return id++;
     }
 }
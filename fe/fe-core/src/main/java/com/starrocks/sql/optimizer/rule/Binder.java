@@ -162,11 +162,11 @@ public class Binder {
             }
             return group.getFirstLogicalExpression();
         } else {
-            if (valueIndex >= group.getLogicalExpressions().size()) {
+            GroupExpression next = group.getLogicalExpression(valueIndex);
+            if (next == null) {
                 groupExpressionIndex.remove(groupTraceKey);
-                return null;
             }
-            return group.getLogicalExpressions().get(valueIndex);
+            return next;
         }
     }
 
@@ -218,12 +218,11 @@ public class Binder {
 
         private GroupExpression extractGroupExpression(Group group) {
             int valueIndex = groupExpressionIndex.get(groupTraceKey);
-            if (valueIndex >= group.getLogicalExpressions().size()) {
+            GroupExpression next = group.getLogicalExpression(valueIndex);
+            if (next == null) {
                 groupExpressionIndex.remove(groupTraceKey);
                 return null;
             }
-            List<GroupExpression> groupExpressions = group.getLogicalExpressions();
-            GroupExpression next = groupExpressions.get(valueIndex);
             if (nextIdx == 0) {
                 return next;
             }
@@ -242,9 +241,7 @@ public class Binder {
             // group expressions which are already rewritten by mv except the first iteration, so can be used for
             // nested mv rewritten.
             // TODO: Introduce rule based join-reorder for mv rewrite, so can reduce this iteration time.
-            int geSize = groupExpressions.size();
-            while (++valueIndex < geSize) {
-                next = group.getLogicalExpressions().get(valueIndex);
+            while ((next = group.getLogicalExpression(++valueIndex)) != null) {
                 if (next.hasAppliedMVRules()) {
                     groupExpressionIndex.set(groupTraceKey, valueIndex);
                     return next;
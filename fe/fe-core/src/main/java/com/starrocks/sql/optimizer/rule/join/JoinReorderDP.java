@@ -14,132 +14,299 @@
 
 package com.starrocks.sql.optimizer.rule.join;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Ordering;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptimizerContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.IntStream;
-
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
-import static com.google.common.collect.Sets.powerSet;
+import java.util.stream.Collectors;
 
+/**
+ * Join reorder by dynamic programming, which enumerates the pairs of connected sub-graph and its connected
+ * complement of the join graph (DPccp), so that the cross joins are not considered unless the join graph
+ * is not connected. A set of atoms is represented by the bits of a long.
+ * <p>
+ * Unlike enumerating all the bipartitions of every subset, a cross join between two parts of a connected
+ * join graph is never considered, e.g. for t1 join t2 on p12 join t3 on p23, (t1 cross join t3) join t2 is
+ * not a candidate. Such plans are rarely better, and skipping them keeps the enumeration polynomial for sparse
+ * join graphs like chains.
+ * <p>
+ * The number of the pairs depends on the shape of the join graph, it's O(n^3) for chain, O(n * 2^n) for star
+ * and O(3^n) for clique, so the pairs are counted before building any join, and give up if they are too many.
+ */
 public class JoinReorderDP extends JoinOrder {
+    private static final Logger LOG = LogManager.getLogger(JoinReorderDP.class);
+
+    public static final int MAX_ATOMS = Long.SIZE - 1;
+
     public JoinReorderDP(OptimizerContext context) {
         super(context);
     }
 
-    private final Map<BitSet, GroupInfo> bestPlanMemo = new HashMap<>();
-    List<GroupInfo> groups = new ArrayList<>();
+    private final LongObjectHashMap<GroupInfo> bestPlanMemo = new LongObjectHashMap<>();
+    private List<GroupInfo> groups = new ArrayList<>();
 
     @Override
     protected void enumerate() {
         groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
-        getBestExpr(joinKeys);
+        if (atomSize > MAX_ATOMS) {
+            return;
+        }
+        for (int i = 0; i < atomSize; i++) {
+            bestPlanMemo.put(1L << i, groups.get(i));
+        }
+        if (atomSize == 1) {
+            return;
+        }
+
+        List<Long> hyperEdges = edges.stream().map(edge -> toLong(edge.vertexes)).collect(Collectors.toList());
+        long maxPairNum = context.getSessionVariable().getCboMaxReorderPairsUseDP();
+        PairEnumerator enumerator = new PairEnumerator(atomSize, hyperEdges, maxPairNum);
+        if (!enumerator.enumerate()) {
+            LOG.debug("give up join reorder by dp, there are more than {} pairs for {} atoms", maxPairNum, atomSize);
+            return;
+        }
+
+        // the plans of sub-graphs must be built before the larger ones
+        int[] order = enumerator.sortPairsBySize();
+        for (int i : order) {
+            joinPair(enumerator.leftAtoms[i], enumerator.rightAtoms[i]);
+        }
     }
 
     @Override
     public List<OptExpression> getResult() {
-        groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
-
-        GroupInfo g = getBestExpr(joinKeys);
+        GroupInfo g = atomSize > MAX_ATOMS ? null : bestPlanMemo.get((1L << atomSize) - 1);
+        if (g == null) {
+            return Collections.emptyList();
+        }
         return Lists.newArrayList(g.bestExprInfo.expr);
     }
 
-    private GroupInfo getBestExpr(BitSet joinKeys) {
-        if (joinKeys.cardinality() == 1) {
-            int index = 0;
-            while (!joinKeys.get(index)) {
-                index++;
-            }
+    private static long toLong(BitSet bitSet) {
+        long[] words = bitSet.toLongArray();
+        return words.length == 0 ? 0 : words[0];
+    }
 
-            return groups.get(index);
-        }
+    private static BitSet toBitSet(long atoms) {
+        return BitSet.valueOf(new long[] {atoms});
+    }
 
-        GroupInfo bestPlan = bestPlanMemo.get(joinKeys);
-        if (bestPlan == null) {
-            Ordering<ExpressionInfo> resultComparator = Ordering.from(Comparator.comparing(ExpressionInfo::getCost));
+    /**
+     * The join graph on the atoms, and the pairs of connected sub-graph and its connected complement on it.
+     */
+    static class PairEnumerator {
+        private final int atomSize;
+        private final long maxPairNum;
+        // atom -> the atoms which are connected with it by join predicates
+        private final long[] neighbors;
 
-            List<ExpressionInfo> results = new ArrayList<>();
-            List<BitSet> partitions = generatePartitions(joinKeys);
-            for (BitSet partition : partitions) {
-                GroupInfo leftGroup = getBestExpr(partition);
-                if (!results.isEmpty() && leftGroup.bestExprInfo.cost > resultComparator.min(results).cost) {
-                    continue;
-                }
+        // the enumerated pairs of connected sub-graph and its connected complement
+        long[] leftAtoms = new long[64];
+        long[] rightAtoms = new long[64];
+        int pairNum = 0;
+
+        // hyperEdges: the atoms referenced by each join predicate
+        PairEnumerator(int atomSize, List<Long> hyperEdges, long maxPairNum) {
+            Preconditions.checkArgument(atomSize <= MAX_ATOMS);
+            this.atomSize = atomSize;
+            this.maxPairNum = maxPairNum;
+            this.neighbors = new long[atomSize];
+            buildJoinGraph(hyperEdges);
+        }
 
-                BitSet otherPartition = (BitSet) joinKeys.clone();
-                otherPartition.andNot(partition);
+        private long allAtoms() {
+            return (1L << atomSize) - 1;
+        }
 
-                GroupInfo rightGroup = getBestExpr(otherPartition);
-                if (!results.isEmpty() && rightGroup.bestExprInfo.cost > resultComparator.min(results).cost) {
+        private void buildJoinGraph(List<Long> hyperEdges) {
+            for (long vertexes : hyperEdges) {
+                if (Long.bitCount(vertexes) < 2) {
                     continue;
                 }
+                // a predicate on more than two atoms connects all of them
+                for (long bits = vertexes; bits != 0; bits &= bits - 1) {
+                    int i = Long.numberOfTrailingZeros(bits);
+                    neighbors[i] |= vertexes & ~(1L << i);
+                }
+            }
 
-                Optional<ExpressionInfo> joinExpr = buildJoinExpr(leftGroup, rightGroup);
-                if (!joinExpr.isPresent())  {
+            // connect the disconnected components by cross joins
+            List<Long> components = Lists.newArrayList();
+            long visited = 0;
+            for (int i = 0; i < atomSize; i++) {
+                if ((visited & (1L << i)) != 0) {
                     continue;
                 }
+                long component = 1L << i;
+                long frontier = component;
+                while (frontier != 0) {
+                    long next = getNeighbors(frontier) & ~component;
+                    component |= next;
+                    frontier = next;
+                }
+                visited |= component;
+                components.add(component);
+            }
+            if (components.size() > 1) {
+                long all = allAtoms();
+                for (long component : components) {
+                    for (long bits = component; bits != 0; bits &= bits - 1) {
+                        neighbors[Long.numberOfTrailingZeros(bits)] |= all & ~component;
+                    }
+                }
+            }
+        }
+
+        long getNeighbors(long atoms) {
+            long result = 0;
+            for (long bits = atoms; bits != 0; bits &= bits - 1) {
+                result |= neighbors[Long.numberOfTrailingZeros(bits)];
+            }
+            return result & ~atoms;
+        }
 
-                joinExpr.get().expr.deriveLogicalPropertyItself();
-                calculateStatistics(joinExpr.get().expr);
-                computeCost(joinExpr.get());
-                results.add(joinExpr.get());
+        // atoms whose index is not greater than i
+        private static long lowerAtoms(int i) {
+            return i >= Long.SIZE - 1 ? -1L : (1L << (i + 1)) - 1;
+        }
+
+        /**
+         * Enumerate all the pairs of connected sub-graph and its connected complement, each pair is enumerated
+         * once. Return false if there are more than maxPairNum pairs.
+         */
+        boolean enumerate() {
+            for (int i = atomSize - 1; i >= 0; i--) {
+                long start = 1L << i;
+                if (!emitSubGraph(start) || !enumerateSubGraph(start, lowerAtoms(i))) {
+                    return false;
+                }
             }
-            ExpressionInfo minCostPlan = resultComparator.min(results);
+            return true;
+        }
 
-            BitSet atoms = new BitSet();
-            atoms.or(minCostPlan.leftChildExpr.atoms);
-            atoms.or(minCostPlan.rightChildExpr.atoms);
-            GroupInfo g = new GroupInfo(atoms);
-            g.bestExprInfo = minCostPlan;
-            g.lowestExprCost = minCostPlan.cost;
+        // enumerate the connected sub-graphs which are extended from atoms, excluding the excluded atoms
+        private boolean enumerateSubGraph(long atoms, long excluded) {
+            long neighborAtoms = getNeighbors(atoms) & ~excluded;
+            if (neighborAtoms == 0) {
+                return true;
+            }
+            for (long subset = neighborAtoms; subset != 0; subset = (subset - 1) & neighborAtoms) {
+                if (!emitSubGraph(atoms | subset)) {
+                    return false;
+                }
+            }
+            for (long subset = neighborAtoms; subset != 0; subset = (subset - 1) & neighborAtoms) {
+                if (!enumerateSubGraph(atoms | subset, excluded | neighborAtoms)) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-            bestPlanMemo.put(joinKeys, g);
-            return g;
+        // enumerate the connected complements of the sub-graph
+        private boolean emitSubGraph(long left) {
+            long excluded = left | lowerAtoms(Long.numberOfTrailingZeros(left));
+            long neighborAtoms = getNeighbors(left) & ~excluded;
+            for (long bits = neighborAtoms; bits != 0; ) {
+                int i = Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+                long right = 1L << i;
+                bits &= ~right;
+                if (!addPair(left, right) ||
+                        !enumerateComplement(left, right, excluded | (lowerAtoms(i) & neighborAtoms))) {
+                    return false;
+                }
+            }
+            return true;
         }
 
-        return bestPlan;
-    }
+        private boolean enumerateComplement(long left, long right, long excluded) {
+            long neighborAtoms = getNeighbors(right) & ~excluded;
+            if (neighborAtoms == 0) {
+                return true;
+            }
+            for (long subset = neighborAtoms; subset != 0; subset = (subset - 1) & neighborAtoms) {
+                if (!addPair(left, right | subset)) {
+                    return false;
+                }
+            }
+            for (long subset = neighborAtoms; subset != 0; subset = (subset - 1) & neighborAtoms) {
+                if (!enumerateComplement(left, right | subset, excluded | neighborAtoms)) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-    private List<BitSet> generatePartitions(BitSet totalNodes) {
-        Set<Integer> numbers = IntStream.range(0, totalNodes.cardinality()).boxed().collect(toImmutableSet());
-        Set<Set<Integer>> sets = powerSet(numbers).stream()
-                .filter(subSet -> subSet.size() > 0)
-                .filter(subSet -> subSet.size() < numbers.size())
-                .collect(toImmutableSet());
+        private boolean addPair(long left, long right) {
+            if (pairNum >= maxPairNum) {
+                return false;
+            }
+            if (pairNum == leftAtoms.length) {
+                leftAtoms = Arrays.copyOf(leftAtoms, pairNum * 2);
+                rightAtoms = Arrays.copyOf(rightAtoms, pairNum * 2);
+            }
+            leftAtoms[pairNum] = left;
+            rightAtoms[pairNum] = right;
+            pairNum++;
+            return true;
+        }
 
-        List<Integer> l = bitSet2Array(totalNodes);
-        List<BitSet> partitions = new ArrayList<>();
-        for (Set<Integer> s : sets) {
-            BitSet b = new BitSet();
-            for (Integer i : s) {
-                b.set(l.get(i));
+        // sort the pairs by the number of atoms they join, by counting sort
+        int[] sortPairsBySize() {
+            int[] starts = new int[atomSize + 2];
+            for (int i = 0; i < pairNum; i++) {
+                starts[Long.bitCount(leftAtoms[i] | rightAtoms[i]) + 1]++;
+            }
+            for (int size = 1; size < starts.length; size++) {
+                starts[size] += starts[size - 1];
+            }
+            int[] order = new int[pairNum];
+            for (int i = 0; i < pairNum; i++) {
+                order[starts[Long.bitCount(leftAtoms[i] | rightAtoms[i])]++] = i;
             }
-            partitions.add(b);
+            return order;
         }
-        return partitions;
     }
 
-    List<Integer> bitSet2Array(BitSet bitSet) {
-        List<Integer> l = Lists.newArrayList();
-        for (int i = 0; i < bitSet.size(); ++i) {
-            if (bitSet.get(i)) {
-                l.add(i);
-            }
+    private void joinPair(long left, long right) {
+        GroupInfo leftGroup = bestPlanMemo.get(left);
+        GroupInfo rightGroup = bestPlanMemo.get(right);
+        if (leftGroup == null || rightGroup == null) {
+            return;
+        }
+
+        long atoms = left | right;
+        GroupInfo g = bestPlanMemo.get(atoms);
+        if (g != null && (leftGroup.bestExprInfo.cost > g.lowestExprCost ||
+                rightGroup.bestExprInfo.cost > g.lowestExprCost)) {
+            return;
+        }
+
+        Optional<ExpressionInfo> joinExpr = buildJoinExpr(leftGroup, rightGroup);
+        if (!joinExpr.isPresent()) {
+            return;
+        }
+
+        joinExpr.get().expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExpr.get().expr);
+        computeCost(joinExpr.get());
+        if (g == null) {
+            g = new GroupInfo(toBitSet(atoms));
+            bestPlanMemo.put(atoms, g);
+        }
+        if (g.bestExprInfo == null || joinExpr.get().cost < g.lowestExprCost) {
+            g.bestExprInfo = joinExpr.get();
+            g.lowestExprCost = joinExpr.get().cost;
         }
-        return l;
     }
-}
\ No newline at end of file
+}
@@ -224,9 +224,10 @@ public class ReorderJoinRule extends Rule {
                 }
 
                 if (multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDP()
+                        && multiJoinNode.getAtoms().size() <= JoinReorderDP.MAX_ATOMS
                         && context.getSessionVariable().isCboEnableDPJoinReorder()) {
-                    // 10 table join reorder takes more than 100ms,
-                    // so the join reorder using dp is currently controlled below 10.
+                    // the cost of dp depends on the number of connected sub-graph pairs rather than the tables,
+                    // so dp gives up if there are more than cbo_max_reorder_pairs_use_dp pairs.
                     enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode, true);
                 }
 
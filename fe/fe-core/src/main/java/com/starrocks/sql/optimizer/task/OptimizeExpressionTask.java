@@ -17,6 +17,7 @@ package com.starrocks.sql.optimizer.task;
 
 import com.google.common.collect.Lists;
 import com.starrocks.sql.optimizer.GroupExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.rule.Rule;
 import com.starrocks.sql.optimizer.rule.RuleType;
 
@@ -80,6 +81,14 @@ public class OptimizeExpressionTask extends OptimizerTask {
         }
 
         pushTask(new DeriveStatsTask(context, groupExpression));
+        OptimizerContext optimizerContext = context.getOptimizerContext();
+        if (groupExpression.arity() > 0 && optimizerContext.getTaskScheduler() instanceof ParallelTaskScheduler &&
+                optimizerContext.getCandidateMvs().isEmpty()) {
+            // the inputs are explored and joined in one task, before the statistics of this expression.
+            // mv rewrite rules share the mv contexts of the query, so they are always explored serially
+            pushTask(new ParallelExploreGroupTask(context, Lists.newArrayList(groupExpression.getInputs())));
+            return;
+        }
         for (int i = groupExpression.arity() - 1; i >= 0; i--) {
             pushTask(new ExploreGroupTask(context, groupExpression.getInputs().get(i)));
         }
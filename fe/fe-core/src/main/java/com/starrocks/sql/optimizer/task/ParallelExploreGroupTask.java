@@ -0,0 +1,44 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.task;
+
+import com.starrocks.sql.optimizer.Group;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * Explore the input groups of a group expression concurrently, used by ParallelTaskScheduler
+ */
+public class ParallelExploreGroupTask extends OptimizerTask {
+    private final List<Group> groups;
+
+    ParallelExploreGroupTask(TaskContext context, List<Group> groups) {
+        super(context);
+        this.groups = groups;
+    }
+
+    @Override
+    public void execute() {
+        ParallelTaskScheduler scheduler = (ParallelTaskScheduler) context.getOptimizerContext().getTaskScheduler();
+        scheduler.exploreGroups(context, groups);
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelExploreGroupTask for groups " +
+                groups.stream().map(g -> String.valueOf(g.getId())).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,253 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.task;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.common.Config;
+import com.starrocks.common.profile.Timer;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.Group;
+import com.starrocks.sql.optimizer.OptimizerContext;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ParallelTaskScheduler runs the optimizer tasks like {@link SeriallyTaskScheduler}, but explores the
+ * input groups of a group expression concurrently on a shared work-stealing pool.
+ * <p>
+ * Every group is explored exactly once, by the worker which claims it first, with a private task stack.
+ * The other threads which reach the same group join its exploration, so a group is fully explored
+ * (and its statistics derived) before any parent expression uses it, as in the serial order.
+ * <p>
+ * Only exploration runs in parallel, implementation and cost of the physical expressions still happen
+ * on the query thread, so the best plan is picked in the same order as the serial scheduler.
+ * <p>
+ * Queries with materialized view candidates are explored serially, because the mv rewrite rules share
+ * the materialization contexts of the query.
+ * <p>
+ * A thread waits for a group claimed by another thread with a timed wait, which checks the optimizer timeout.
+ * If the claiming thread waits for the current thread, directly or through other threads, the group is in
+ * exploration on the current call stack, and it is skipped as the serial scheduler does.
+ */
+public class ParallelTaskScheduler implements TaskScheduler {
+    private static volatile ForkJoinPool explorePool;
+    private static final long WAIT_INTERVAL_MS = 10;
+
+    private final ConnectContext connectContext;
+    // tasks of the query thread
+    private final Deque<OptimizerTask> tasks = new ArrayDeque<>();
+    // tasks of the explore workers, each running group exploration has its own stack
+    private final ThreadLocal<Deque<OptimizerTask>> workerTasks = new ThreadLocal<>();
+    private final Map<Group, ExploreGroupAction> exploreActions = new ConcurrentHashMap<>();
+    // thread -> the group exploration it waits for, used to detect the wait cycles between workers
+    private final Map<Thread, ExploreGroupAction> waitingActions = new ConcurrentHashMap<>();
+
+    private ParallelTaskScheduler(ConnectContext connectContext) {
+        this.connectContext = connectContext;
+    }
+
+    public static TaskScheduler create(ConnectContext connectContext) {
+        return new ParallelTaskScheduler(connectContext);
+    }
+
+    private static ForkJoinPool getExplorePool() {
+        if (explorePool == null) {
+            synchronized (ParallelTaskScheduler.class) {
+                if (explorePool == null) {
+                    int threads = Config.optimizer_parallel_explore_thread_num > 0 ?
+                            Config.optimizer_parallel_explore_thread_num : Runtime.getRuntime().availableProcessors();
+                    explorePool = new ForkJoinPool(threads);
+                }
+            }
+        }
+        return explorePool;
+    }
+
+    @Override
+    public void executeTasks(TaskContext context) {
+        Deque<OptimizerTask> stack = currentTasks();
+        while (!stack.isEmpty()) {
+            if (SeriallyTaskScheduler.isTimeout(context)) {
+                break;
+            }
+            OptimizerTask task = stack.pop();
+            if (stack == tasks) {
+                context.getOptimizerContext().setTaskContext(context);
+            } else {
+                context.getOptimizerContext().setWorkerTaskContext(context);
+            }
+            try (Timer ignore = Tracers.watchScope(Tracers.Module.OPTIMIZER, task.getClass().getSimpleName())) {
+                task.execute();
+            }
+        }
+    }
+
+    @Override
+    public void pushTask(OptimizerTask task) {
+        currentTasks().push(task);
+    }
+
+    private Deque<OptimizerTask> currentTasks() {
+        Deque<OptimizerTask> stack = workerTasks.get();
+        return stack == null ? tasks : stack;
+    }
+
+    /**
+     * Explore the groups and wait for all of them. The groups not claimed yet are explored by the pool,
+     * the groups claimed by other threads are joined.
+     */
+    void exploreGroups(TaskContext context, List<Group> groups) {
+        List<ExploreGroupAction> claimed = Lists.newArrayList();
+        List<ExploreGroupAction> waiting = Lists.newArrayList();
+        for (Group group : groups) {
+            ExploreGroupAction action = new ExploreGroupAction(context, group);
+            ExploreGroupAction exist = exploreActions.putIfAbsent(group, action);
+            if (exist == null) {
+                claimed.add(action);
+            } else if (exist.runner != Thread.currentThread()) {
+                // the group being explored by the current thread is skipped, same as serial mode
+                waiting.add(exist);
+            }
+        }
+
+        if (!claimed.isEmpty()) {
+            if (ForkJoinTask.getPool() == getExplorePool()) {
+                // fork all but the first one, which is explored by the current worker
+                ForkJoinTask.invokeAll(claimed);
+            } else {
+                // the query thread hands the groups to the pool, and waits for them
+                getExplorePool().invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(claimed);
+                    }
+                });
+            }
+        }
+        for (ExploreGroupAction action : waiting) {
+            awaitExplored(context, action);
+        }
+
+        claimed.forEach(ExploreGroupAction::checkFailure);
+        waiting.forEach(ExploreGroupAction::checkFailure);
+    }
+
+    private void awaitExplored(TaskContext context, ExploreGroupAction action) {
+        Thread self = Thread.currentThread();
+        waitingActions.put(self, action);
+        try {
+            while (true) {
+                try {
+                    action.get(WAIT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    // stop waiting once the optimizer runs out of time, the tasks left are skipped by executeTasks
+                    if (SeriallyTaskScheduler.isTimeout(context) || waitsFor(action, self)) {
+                        return;
+                    }
+                } catch (ExecutionException e) {
+                    // the failure is rethrown by checkFailure
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            waitingActions.remove(self);
+        }
+    }
+
+    // Whether the thread exploring the action waits for the given thread, by following the wait chain
+    private boolean waitsFor(ExploreGroupAction action, Thread thread) {
+        Set<Thread> visited = Sets.newHashSet();
+        ExploreGroupAction next = action;
+        while (next != null) {
+            Thread runner = next.runner;
+            if (runner == null || !visited.add(runner)) {
+                return false;
+            }
+            if (runner == thread) {
+                return true;
+            }
+            next = waitingActions.get(runner);
+        }
+        return false;
+    }
+
+    private class ExploreGroupAction extends RecursiveAction {
+        private final TaskContext context;
+        private final Group group;
+        private volatile Thread runner;
+        private volatile RuntimeException failure;
+
+        ExploreGroupAction(TaskContext context, Group group) {
+            this.context = context;
+            this.group = group;
+        }
+
+        @Override
+        protected void compute() {
+            OptimizerContext optimizerContext = context.getOptimizerContext();
+            Deque<OptimizerTask> prevTasks = workerTasks.get();
+            TaskContext prevTaskContext = prevTasks == null ? null : optimizerContext.getTaskContext();
+            ConnectContext prevConnectContext = ConnectContext.get();
+
+            runner = Thread.currentThread();
+            workerTasks.set(new ArrayDeque<>());
+            if (connectContext != null) {
+                connectContext.setThreadLocalInfo();
+            }
+            try {
+                pushTask(new ExploreGroupTask(context, group));
+                executeTasks(context);
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                runner = null;
+                if (prevTasks == null) {
+                    workerTasks.remove();
+                } else {
+                    workerTasks.set(prevTasks);
+                }
+                optimizerContext.setWorkerTaskContext(prevTaskContext);
+                if (prevConnectContext == null) {
+                    ConnectContext.remove();
+                } else {
+                    prevConnectContext.setThreadLocalInfo();
+                }
+            }
+        }
+
+        void checkFailure() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -36,27 +36,8 @@ public class SeriallyTaskScheduler implements TaskScheduler {
 
     @Override
     public void executeTasks(TaskContext context) {
-        long timeout = context.getOptimizerContext().getSessionVariable().getOptimizerExecuteTimeout();
-        long watch = context.getOptimizerContext().optimizerElapsedMs();
         while (!tasks.empty()) {
-            if (timeout > 0 && watch > timeout) {
-                // Should have at least one valid plan
-                // group will be null when in rewrite phase
-                // memo may be null for rule-based optimizer
-                Memo memo = context.getOptimizerContext().getMemo();
-                Group group = memo == null ? null : memo.getRootGroup();
-                if (group == null || !group.hasBestExpression(context.getRequiredProperty())) {
-                    throw new StarRocksPlannerException("StarRocks planner use long time " + timeout +
-                            " ms in " + (group == null ? "logical" : "memo") + " phase, This probably because " +
-                            "1. FE Full GC, " +
-                            "2. Hive external table fetch metadata took a long time, " +
-                            "3. The SQL is very complex. " +
-                            "You could " +
-                            "1. adjust FE JVM config, " +
-                            "2. try query again, " +
-                            "3. enlarge new_planner_optimize_timeout session variable",
-                            ErrorType.INTERNAL_ERROR);
-                }
+            if (isTimeout(context)) {
                 break;
             }
             OptimizerTask task = tasks.pop();
@@ -67,6 +48,36 @@ public class SeriallyTaskScheduler implements TaskScheduler {
         }
     }
 
+    /**
+     * Check whether the optimizer runs out of time, throw an exception if there is no valid plan yet,
+     * otherwise the caller should stop and use the current best plan.
+     */
+    static boolean isTimeout(TaskContext context) {
+        long timeout = context.getOptimizerContext().getSessionVariable().getOptimizerExecuteTimeout();
+        long watch = context.getOptimizerContext().optimizerElapsedMs();
+        if (timeout > 0 && watch > timeout) {
+            // Should have at least one valid plan
+            // group will be null when in rewrite phase
+            // memo may be null for rule-based optimizer
+            Memo memo = context.getOptimizerContext().getMemo();
+            Group group = memo == null ? null : memo.getRootGroup();
+            if (group == null || !group.hasBestExpression(context.getRequiredProperty())) {
+                throw new StarRocksPlannerException("StarRocks planner use long time " + timeout +
+                        " ms in " + (group == null ? "logical" : "memo") + " phase, This probably because " +
+                        "1. FE Full GC, " +
+                        "2. Hive external table fetch metadata took a long time, " +
+                        "3. The SQL is very complex. " +
+                        "You could " +
+                        "1. adjust FE JVM config, " +
+                        "2. try query again, " +
+                        "3. enlarge new_planner_optimize_timeout session variable",
+                        ErrorType.INTERNAL_ERROR);
+            }
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void pushTask(OptimizerTask task) {
         tasks.push(task);
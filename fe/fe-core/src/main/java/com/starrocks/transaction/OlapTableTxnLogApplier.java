@@ -22,6 +22,7 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.clone.TabletChecker;
 import com.starrocks.clone.TabletScheduler;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.optimizer.statistics.IDictManager;
@@ -105,6 +106,9 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
                     for (Replica replica : replicas) {
                         if (txnState.isNewFinish()) {
                             updateReplicaVersion(version, replica, txnState.getFinishState());
+                            if (replica.getVersion() < version) {
+                                TabletChecker.markTabletDirty(tablet.getId());
+                            }
                             continue;
                         }
                         long lastFailedVersion = replica.getLastFailedVersion();
@@ -151,6 +155,10 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
                             lastSucessVersion = version;
                         }
                         replica.updateVersionInfo(newVersion, lastFailedVersion, lastSucessVersion);
+                        if (newVersion < version) {
+                            // the replica falls behind, let tablet checker repair it
+                            TabletChecker.markTabletDirty(tablet.getId());
+                        }
                     } // end for replicas
 
                     if (hasFailedVersion && replicationNum == 1) {
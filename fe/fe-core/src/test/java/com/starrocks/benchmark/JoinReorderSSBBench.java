@@ -0,0 +1,131 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.google.common.collect.Lists;
+import com.starrocks.common.FeConstants;
+import com.starrocks.planner.MaterializedViewTestBase;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.List;
+
+/**
+ * Benchmark the planner time of join reorder on SSB tables, with star joins and snowflake (chain) joins
+ * of different number of tables.
+ */
+@Ignore
+public class JoinReorderSSBBench extends MaterializedViewTestBase {
+
+    private static final int BENCHMARK_RUNS = 20;
+
+    // join each dimension table by a different column of lineorder, so that no predicate is derived between them
+    private static final List<String> FACT_COLUMNS = Lists.newArrayList(
+            "lo_orderdate", "lo_custkey", "lo_suppkey", "lo_partkey", "lo_commitdate", "lo_orderkey",
+            "lo_linenumber", "lo_shippriority", "lo_quantity", "lo_extendedprice", "lo_ordtotalprice",
+            "lo_discount", "lo_revenue", "lo_supplycost", "lo_tax");
+    private static final List<String> DIMENSION_TABLES = Lists.newArrayList("dates", "customer", "supplier", "part");
+    private static final List<String> DIMENSION_KEYS =
+            Lists.newArrayList("d_datekey", "c_custkey", "s_suppkey", "p_partkey");
+    // columns of dates to join the next dates in the chain
+    private static final List<String> DATE_COLUMNS = Lists.newArrayList(
+            "d_year", "d_yearmonthnum", "d_daynuminweek", "d_daynuminmonth", "d_daynuminyear",
+            "d_monthnuminyear", "d_weeknuminyear");
+
+    @Rule
+    public TestRule benchRun = new BenchmarkRule();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        MaterializedViewTestBase.beforeClass();
+        starRocksAssert.useDatabase(MATERIALIZED_DB_NAME);
+        // put lineorder last because it depends on other tables for foreign key constraints
+        createTables("sql/ssb/", Lists.newArrayList("customer", "dates", "supplier", "part", "lineorder"));
+        connectContext.getSessionVariable().setEnableQueryDump(false);
+    }
+
+    @Before
+    public void before() {
+        FeConstants.runningUnitTest = true;
+        connectContext.setThreadLocalInfo();
+        connectContext.getSessionVariable().enableDPJoinReorder();
+        connectContext.getSessionVariable().enableGreedyJoinReorder();
+        connectContext.getSessionVariable().setCboMaxReorderNodeUseDP(20);
+    }
+
+    // lineorder joins (tableNum - 1) dimension tables
+    private static String starJoin(int tableNum) {
+        StringBuilder sb = new StringBuilder("select count(*) from lineorder l");
+        for (int i = 1; i < tableNum; i++) {
+            int dim = (i - 1) % DIMENSION_TABLES.size();
+            sb.append(String.format(" join %s t%d on l.%s = t%d.%s", DIMENSION_TABLES.get(dim), i,
+                    FACT_COLUMNS.get(i - 1), i, DIMENSION_KEYS.get(dim)));
+        }
+        return sb.toString();
+    }
+
+    // lineorder joins dates, which joins the next dates, and so on
+    private static String chainJoin(int tableNum) {
+        StringBuilder sb = new StringBuilder("select count(*) from lineorder l join dates t1 on l.lo_orderdate = t1.d_datekey");
+        for (int i = 2; i < tableNum; i++) {
+            sb.append(String.format(" join dates t%d on t%d.%s = t%d.d_datekey", i, i - 1,
+                    DATE_COLUMNS.get(i % DATE_COLUMNS.size()), i));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testStarJoin6() throws Exception {
+        getFragmentPlan(starJoin(6));
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testStarJoin10() throws Exception {
+        getFragmentPlan(starJoin(10));
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testStarJoin14() throws Exception {
+        getFragmentPlan(starJoin(14));
+    }
+
+    // too many pairs for dp, falls back to greedy
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testStarJoin16() throws Exception {
+        getFragmentPlan(starJoin(16));
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testChainJoin10() throws Exception {
+        getFragmentPlan(chainJoin(10));
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testChainJoin20() throws Exception {
+        getFragmentPlan(chainJoin(20));
+    }
+}
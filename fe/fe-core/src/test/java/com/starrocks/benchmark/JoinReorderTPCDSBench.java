@@ -0,0 +1,112 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.starrocks.common.FeConstants;
+import com.starrocks.sql.plan.MockTPCDSStatisticStorage;
+import com.starrocks.sql.plan.TPCDSPlanTestBase;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+/**
+ * Benchmark the planner time of TPC-DS queries with many joins, reordered by dp or greedy.
+ */
+@Ignore
+public class JoinReorderTPCDSBench extends TPCDSPlanTestBase {
+
+    private static final int BENCHMARK_RUNS = 20;
+
+    @Rule
+    public TestRule benchRun = new BenchmarkRule();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        TPCDSPlanTestBase.beforeClass();
+        connectContext.getGlobalStateMgr().setStatisticStorage(new MockTPCDSStatisticStorage());
+        connectContext.getSessionVariable().setEnableQueryDump(false);
+    }
+
+    @Before
+    public void before() {
+        FeConstants.runningUnitTest = true;
+        setTPCDSFactor(1);
+        connectContext.setThreadLocalInfo();
+    }
+
+    private void plan(String sql, boolean useDP) throws Exception {
+        if (useDP) {
+            connectContext.getSessionVariable().enableDPJoinReorder();
+            connectContext.getSessionVariable().disableGreedyJoinReorder();
+        } else {
+            connectContext.getSessionVariable().disableDPJoinReorder();
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+        }
+        getFragmentPlan(sql);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ64DP() throws Exception {
+        plan(Q64, true);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ64Greedy() throws Exception {
+        plan(Q64, false);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ72DP() throws Exception {
+        plan(Q72, true);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ72Greedy() throws Exception {
+        plan(Q72, false);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ85DP() throws Exception {
+        plan(Q85, true);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ85Greedy() throws Exception {
+        plan(Q85, false);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ25DP() throws Exception {
+        plan(Q25, true);
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = BENCHMARK_RUNS)
+    public void testQ25Greedy() throws Exception {
+        plan(Q25, false);
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.persist.BatchDeleteReplicaInfo;
+import com.starrocks.persist.OperationType;
+import com.starrocks.persist.ReplicaPersistInfo;
+import com.starrocks.persist.gson.GsonBinaryCodec;
+import com.starrocks.persist.gson.GsonBinaryCodecTest;
+import com.starrocks.persist.gson.GsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a journal of the frequent operations, which are written in json or in binary by GsonBinaryCodec,
+ * the same as EditLog writes them. Reports the time to deserialize the whole journal, and prints its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class JournalReplayBench {
+
+    @Param({"json", "binary"})
+    private String encoding;
+
+    @Param({"10000"})
+    private int numJournals;
+
+    private final List<byte[]> journals = new ArrayList<>();
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JournalReplayBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        long totalBytes = 0;
+        for (int i = 0; i < numJournals; i++) {
+            // a transaction is upserted when it's prepared, committed and visible, mixed with replica changes
+            short op;
+            Object data;
+            switch (i % 5) {
+                case 0:
+                case 1:
+                case 2:
+                    op = OperationType.OP_UPSERT_TRANSACTION_STATE_V2;
+                    data = GsonBinaryCodecTest.createTransactionState(i, 1 + i % 8);
+                    break;
+                case 3:
+                    op = OperationType.OP_UPDATE_REPLICA_V2;
+                    data = ReplicaPersistInfo.createForAdd(1, 2, 3, 4, i, 6, i, 8, 9, 10, 11, -1, 8, 0);
+                    break;
+                default:
+                    op = OperationType.OP_BATCH_DELETE_REPLICA;
+                    data = new BatchDeleteReplicaInfo(10001L, Lists.newArrayList((long) i, i + 1L, i + 2L));
+                    break;
+            }
+            Writable writable = "binary".equals(encoding) ?
+                    out -> GsonBinaryCodec.write(out, data) :
+                    out -> Text.writeString(out, GsonUtils.GSON.toJson(data));
+            JournalEntity entity = new JournalEntity();
+            entity.setOpCode(op);
+            entity.setData(writable);
+            DataOutputBuffer buffer = new DataOutputBuffer();
+            entity.write(buffer);
+            byte[] bytes = new byte[buffer.getLength()];
+            System.arraycopy(buffer.getData(), 0, bytes, 0, bytes.length);
+            journals.add(bytes);
+            totalBytes += bytes.length;
+        }
+        System.out.printf("%n%d journals in %s: %d bytes%n", numJournals, encoding, totalBytes);
+    }
+
+    @Benchmark
+    public int replay() throws IOException {
+        int count = 0;
+        for (byte[] journal : journals) {
+            JournalEntity entity = new JournalEntity();
+            entity.readFields(new DataInputStream(new ByteArrayInputStream(journal)));
+            if (entity.getData() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
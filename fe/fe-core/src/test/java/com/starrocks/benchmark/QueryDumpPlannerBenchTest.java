@@ -61,4 +61,20 @@ public class QueryDumpPlannerBenchTest extends ReplayFromDumpTestBase {
         connectContext.setThreadLocalInfo();
         UtFrameUtils.replaySql(connectContext, sql);
     }
+
+    /**
+     * Same dump as benchDump, but explore the memo groups with ParallelTaskScheduler.
+     */
+    @Test
+    @Ignore
+    @BenchmarkOptions(concurrency = 1, warmupRounds = 10, benchmarkRounds = 1000)
+    public void benchDumpParallelExplore() throws Exception {
+        connectContext.setThreadLocalInfo();
+        connectContext.getSessionVariable().setCboEnableParallelExplore(true);
+        try {
+            UtFrameUtils.replaySql(connectContext, sql);
+        } finally {
+            connectContext.getSessionVariable().setCboEnableParallelExplore(false);
+        }
+    }
 }
@@ -0,0 +1,131 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.thrift.TPartitionVersionInfo;
+import com.starrocks.thrift.TStorageMedium;
+import com.starrocks.thrift.TTablet;
+import com.starrocks.thrift.TTabletInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes a full tablet report of a backend against a TabletInvertedIndex with 3 replicas for each tablet,
+ * and prints the estimated size of the index. It only uses the public methods of the index, so it can be run
+ * against an older index as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class TabletReportBench {
+    private static final long DB_ID = 1;
+    private static final long TABLE_ID = 2;
+    private static final int SCHEMA_HASH = 1234;
+    private static final long VERSION = 10;
+    private static final long[] BACKEND_IDS = {10001, 10002, 10003};
+
+    @Param({"1000000"})
+    private int numTablets;
+
+    private TabletInvertedIndex index;
+    private final Map<Long, TTablet> backendTablets = new HashMap<>();
+    private final List<Long> tabletIds = new ArrayList<>();
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TabletReportBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        index = new TabletInvertedIndex();
+        long id = 100000;
+        for (int i = 0; i < numTablets; i++) {
+            long tabletId = id++;
+            // 100 tablets for each partition
+            long partitionId = 10 + i / 100;
+            index.addTablet(tabletId, new TabletMeta(DB_ID, TABLE_ID, partitionId, 3, SCHEMA_HASH, TStorageMedium.HDD));
+            for (long backendId : BACKEND_IDS) {
+                index.addReplica(tabletId,
+                        new Replica(id++, backendId, Replica.ReplicaState.NORMAL, VERSION, SCHEMA_HASH));
+            }
+            tabletIds.add(tabletId);
+
+            TTabletInfo tabletInfo = new TTabletInfo(tabletId, SCHEMA_HASH, VERSION, 0, 100, 1024);
+            tabletInfo.setPartition_id(partitionId);
+            tabletInfo.setPath_hash(1);
+            tabletInfo.setVersion_count(1);
+            backendTablets.put(tabletId, new TTablet(Lists.newArrayList(tabletInfo)));
+        }
+        System.out.printf("%n%d tablets, %d replicas, estimated size of index: %d bytes%n",
+                index.getTabletCount(), index.getReplicaCount(), index.estimateSize());
+    }
+
+    @Benchmark
+    public int tabletReport() {
+        ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+        ListMultimap<Long, Long> tabletDeleteFromMeta = ArrayListMultimap.create();
+        HashSet<Long> foundTabletsWithValidSchema = new HashSet<>();
+        Map<Long, TTabletInfo> foundTabletsWithInvalidSchema = new HashMap<>();
+        ListMultimap<TStorageMedium, Long> tabletMigrationMap = ArrayListMultimap.create();
+        Map<Long, Map<Long, Map<Long, TPartitionVersionInfo>>> transactionsToPublish = new HashMap<>();
+        Map<Long, Long> transactionsToCommitTime = new HashMap<>();
+        ListMultimap<Long, Long> transactionsToClear = ArrayListMultimap.create();
+        ListMultimap<Long, Long> tabletRecoveryMap = ArrayListMultimap.create();
+        HashSet<Long> tabletWithoutPartitionId = new HashSet<>();
+        index.tabletReport(BACKEND_IDS[0], backendTablets, new HashMap<>(), tabletSyncMap, tabletDeleteFromMeta,
+                foundTabletsWithValidSchema, foundTabletsWithInvalidSchema, tabletMigrationMap,
+                transactionsToPublish, transactionsToCommitTime, transactionsToClear, tabletRecoveryMap,
+                tabletWithoutPartitionId);
+        return foundTabletsWithValidSchema.size();
+    }
+
+    @Benchmark
+    public int getReplicasOnBackend() {
+        List<Replica> replicas = index.getReplicasOnBackendByTabletIds(tabletIds, BACKEND_IDS[1]);
+        return replicas.size();
+    }
+}
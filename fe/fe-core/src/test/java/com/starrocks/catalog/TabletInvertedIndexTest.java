@@ -0,0 +1,86 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog;
+
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TabletInvertedIndexTest {
+
+    @Test
+    public void testConcurrentModification() throws Exception {
+        TabletInvertedIndex index = new TabletInvertedIndex();
+        int numTablets = 10000;
+        long[] backendIds = {10001, 10002, 10003, 10004};
+        ExecutorService executor = Executors.newFixedThreadPool(backendIds.length);
+        try {
+            for (int i = 0; i < numTablets; i++) {
+                index.addTablet(i, new TabletMeta(1, 2, 3, 4, 5, i % 2 == 0 ? TStorageMedium.HDD : TStorageMedium.SSD));
+            }
+            // each thread adds and removes the replicas on a backend
+            List<Future<?>> futures = new ArrayList<>();
+            for (long backendId : backendIds) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < numTablets; i++) {
+                        index.addReplica(i, new Replica(backendId * numTablets + i, backendId,
+                                Replica.ReplicaState.NORMAL, 1, 5));
+                    }
+                    for (int i = 0; i < numTablets; i += 2) {
+                        index.deleteReplica(i, backendId);
+                    }
+                }));
+            }
+            // read the backends concurrently
+            for (int round = 0; round < 10; round++) {
+                for (long backendId : backendIds) {
+                    Assert.assertTrue(index.getTabletIdsByBackendId(backendId).size() <= numTablets);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(numTablets, index.getTabletCount());
+        Assert.assertEquals(numTablets / 2 * backendIds.length, index.getReplicaCount());
+        for (long backendId : backendIds) {
+            List<Long> tabletIds = index.getTabletIdsByBackendId(backendId);
+            Assert.assertEquals(numTablets / 2, tabletIds.size());
+            Assert.assertTrue(tabletIds.stream().allMatch(id -> id % 2 == 1));
+            Assert.assertEquals(0, index.getTabletIdsByBackendIdAndStorageMedium(backendId, TStorageMedium.HDD).size());
+            Assert.assertEquals(numTablets / 2, (long) index.getReplicaNumByBeIdAndStorageMedium(backendId)
+                    .get(TStorageMedium.SSD));
+        }
+        Assert.assertEquals(backendIds.length, index.getReplicasByTabletId(1).size());
+        Assert.assertNull(index.getReplica(0, backendIds[0]));
+        Assert.assertEquals(Long.valueOf(1), index.getTabletIdByReplica(backendIds[0] * numTablets + 1));
+        Assert.assertNull(index.getTabletIdByReplica(backendIds[0] * numTablets));
+
+        index.deleteTablet(1);
+        Assert.assertNull(index.getTabletMeta(1));
+        Assert.assertNull(index.getTabletIdByReplica(backendIds[0] * numTablets + 1));
+        Assert.assertEquals(numTablets / 2 - 1, index.getTabletNumByBackendId(backendIds[1]));
+        Assert.assertTrue(index.estimateSize() > 0);
+    }
+}
@@ -0,0 +1,181 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TabletCheckerTest {
+    private static final int BUCKET_NUM = 4;
+
+    private static ConnectContext connectContext;
+    private static StarRocksAssert starRocksAssert;
+
+    private TabletSchedulerStat stat;
+    private TabletChecker checker;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        // the rounds are driven by the tests
+        GlobalStateMgr.getCurrentState().getTabletChecker().setStop();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE test.tbl1 (k1 int, v1 int)\n" +
+                        "DISTRIBUTED BY HASH(k1) BUCKETS " + BUCKET_NUM + "\n" +
+                        "PROPERTIES('replication_num' = '1');");
+    }
+
+    @Before
+    public void setUp() {
+        Config.tablet_checker_incremental_mode = true;
+        stat = new TabletSchedulerStat();
+        checker = new TabletChecker(GlobalStateMgr.getCurrentState().getTabletScheduler(), stat);
+        // the first round in incremental mode is a full check
+        checker.runAfterCatalogReady();
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+    }
+
+    @After
+    public void tearDown() {
+        Config.tablet_checker_incremental_mode = false;
+        Config.tablet_checker_max_dirty_tablets = 1000000;
+        // stop receiving the changes of tablets
+        checker.runAfterCatalogReady();
+    }
+
+    private static List<LocalTablet> getTablets() {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable tbl = (OlapTable) db.getTable("tbl1");
+        Partition partition = tbl.getPartitions().iterator().next();
+        return partition.getBaseIndex().getTablets().stream().map(t -> (LocalTablet) t).collect(Collectors.toList());
+    }
+
+    private long checkOneRound() {
+        long checked = stat.counterTabletChecked.get();
+        checker.runAfterCatalogReady();
+        return stat.counterTabletChecked.get() - checked;
+    }
+
+    @Test
+    public void testCheckChangedTablets() {
+        Assert.assertEquals(0, checkOneRound());
+
+        Tablet tablet = getTablets().get(0);
+        TabletChecker.markTabletDirty(tablet.getId());
+        Assert.assertEquals(1, checker.getDirtyTabletNum());
+        // only the dirty tablet is checked, and it is removed from the dirty set as it is healthy
+        Assert.assertEquals(1, checkOneRound());
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+
+        // tablets are not tracked out of incremental mode
+        Config.tablet_checker_incremental_mode = false;
+        checker.runAfterCatalogReady();
+        TabletChecker.markTabletDirty(tablet.getId());
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+    }
+
+    @Test
+    public void testUpdateBackendStates() {
+        SystemInfoService systemInfoService = new SystemInfoService();
+        Backend be1 = new Backend(20001, "host1", 9050);
+        Backend be2 = new Backend(20002, "host2", 9050);
+        systemInfoService.addBackend(be1);
+        systemInfoService.addBackend(be2);
+        Assert.assertEquals(Sets.newHashSet(20001L, 20002L), checker.updateBackendStates(systemInfoService));
+        Assert.assertTrue(checker.updateBackendStates(systemInfoService).isEmpty());
+
+        be1.setDecommissioned(true);
+        Assert.assertEquals(Sets.newHashSet(20001L), checker.updateBackendStates(systemInfoService));
+        Assert.assertTrue(checker.updateBackendStates(systemInfoService).isEmpty());
+
+        be2.setAlive(true);
+        Assert.assertEquals(Sets.newHashSet(20002L), checker.updateBackendStates(systemInfoService));
+
+        // dropped backend
+        systemInfoService.dropBackend(be1);
+        Assert.assertEquals(Sets.newHashSet(20001L), checker.updateBackendStates(systemInfoService));
+        Assert.assertTrue(checker.updateBackendStates(systemInfoService).isEmpty());
+    }
+
+    @Test
+    public void testDirtyTabletsOverflow() {
+        Config.tablet_checker_max_dirty_tablets = 2;
+        List<LocalTablet> tablets = getTablets();
+        TabletChecker.markTabletDirty(tablets.get(0).getId());
+        TabletChecker.markTabletDirty(tablets.get(1).getId());
+        Assert.assertEquals(2, checker.getDirtyTabletNum());
+        // the dirty set is dropped, and all tablets are checked in the next round
+        TabletChecker.markTabletDirty(tablets.get(2).getId());
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+        TabletChecker.markTabletDirty(tablets.get(2).getId());
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+
+        Assert.assertTrue(checkOneRound() >= BUCKET_NUM);
+        // back to incremental check
+        Assert.assertEquals(0, checkOneRound());
+    }
+
+    @Test
+    public void testUnhealthyTabletStaysDirty() {
+        new MockUp<TabletScheduler>() {
+            @Mock
+            public Pair<Boolean, Long> blockingAddTabletCtxToScheduler(Database db, TabletSchedCtx tabletSchedCtx,
+                                                                        boolean forceAdd) {
+                return Pair.create(false, 0L);
+            }
+        };
+
+        LocalTablet tablet = getTablets().get(0);
+        Replica replica = tablet.getImmutableReplicas().get(0);
+        replica.setBad(true);
+        try {
+            TabletChecker.markTabletDirty(tablet.getId());
+            Assert.assertEquals(1, checkOneRound());
+            Assert.assertEquals(1, checker.getDirtyTabletNum());
+            // checked again until it is repaired
+            Assert.assertEquals(1, checkOneRound());
+            Assert.assertEquals(1, checker.getDirtyTabletNum());
+        } finally {
+            replica.setBad(false);
+        }
+        Assert.assertEquals(1, checkOneRound());
+        Assert.assertEquals(0, checker.getDirtyTabletNum());
+    }
+}
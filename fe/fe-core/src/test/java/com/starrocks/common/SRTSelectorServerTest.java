@@ -0,0 +1,106 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common;
+
+import com.starrocks.thrift.HeartbeatService;
+import com.starrocks.thrift.TBackendInfo;
+import com.starrocks.thrift.THeartbeatResult;
+import com.starrocks.thrift.TMasterInfo;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TStatus;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.utframe.UtFrameUtils;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TSocket;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SRTSelectorServerTest {
+
+    @Test
+    public void testParseMethodName() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        Assert.assertNull(SRTSelectorServer.parseMethodName(buffer));
+
+        // strict binary protocol
+        buffer.putInt(0x80010001);
+        Assert.assertNull(SRTSelectorServer.parseMethodName(buffer));
+        buffer.putInt(9);
+        buffer.put("heart".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(SRTSelectorServer.parseMethodName(buffer));
+        buffer.put("beat".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("heartbeat", SRTSelectorServer.parseMethodName(buffer));
+
+        // old binary protocol
+        buffer.clear();
+        buffer.putInt(6);
+        buffer.put("report".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("report", SRTSelectorServer.parseMethodName(buffer));
+
+        // method name longer than the buffer
+        buffer.clear();
+        buffer.putInt(0x80010001);
+        buffer.putInt(1000);
+        Assert.assertEquals("unknown", SRTSelectorServer.parseMethodName(buffer));
+    }
+
+    @Test
+    public void testServe() throws Exception {
+        AtomicInteger heartbeats = new AtomicInteger(0);
+        HeartbeatService.Iface handler = masterInfo -> {
+            heartbeats.incrementAndGet();
+            return new THeartbeatResult(new TStatus(TStatusCode.OK), new TBackendInfo(1, 2));
+        };
+        int port = UtFrameUtils.findValidPort();
+        SRTSelectorServer.Args args = new SRTSelectorServer.Args(new InetSocketAddress("127.0.0.1", port))
+                .selectorThreads(1)
+                .workerThreads(2)
+                .methodPriority(method -> SRTSelectorServer.Priority.HIGH)
+                .protocolFactory(new TBinaryProtocol.Factory())
+                .processor(new HeartbeatService.Processor<>(handler));
+        SRTSelectorServer server = new SRTSelectorServer(args);
+        Thread serverThread = new Thread(server::serve);
+        serverThread.start();
+        while (!server.isServing() && serverThread.isAlive()) {
+            Thread.sleep(10);
+        }
+        try {
+            TMasterInfo masterInfo = new TMasterInfo(new TNetworkAddress("127.0.0.1", 9020), 1);
+            for (int i = 0; i < 2; i++) {
+                TSocket socket = new TSocket("127.0.0.1", port, 5000);
+                socket.open();
+                HeartbeatService.Client client = new HeartbeatService.Client(new TBinaryProtocol(socket));
+                // the connection is handed between the selector and the workers for each request
+                for (int j = 0; j < 10; j++) {
+                    THeartbeatResult result = client.heartbeat(masterInfo);
+                    Assert.assertEquals(TStatusCode.OK, result.getStatus().getStatus_code());
+                    Assert.assertEquals(1, result.getBackend_info().getBe_port());
+                }
+                socket.close();
+            }
+            Assert.assertEquals(20, heartbeats.get());
+            Assert.assertEquals(0, server.getPendingRequests());
+        } finally {
+            server.stop();
+            serverThread.join(10000);
+        }
+        Assert.assertFalse(server.isServing());
+    }
+}
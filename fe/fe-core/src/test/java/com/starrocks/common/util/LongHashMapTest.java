@@ -0,0 +1,108 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongHashMapTest {
+
+    @Test
+    public void testLongObjectHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put(1L, "a"));
+        Assert.assertNull(map.put(0L, "zero"));
+        Assert.assertNull(map.put(-1L, "minus"));
+        Assert.assertEquals("a", map.put(1L, "b"));
+        Assert.assertEquals("b", map.putIfAbsent(1L, "c"));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("zero", map.get(0L));
+        Assert.assertEquals("minus", map.get(-1L));
+        Assert.assertNull(map.get(2L));
+        Assert.assertEquals("d", map.getOrDefault(2L, "d"));
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        Assert.assertArrayEquals(new long[] {-1L, 0L, 1L}, keys);
+
+        LongObjectHashMap<String> copy = map.copy();
+        Assert.assertEquals("zero", map.remove(0L));
+        Assert.assertEquals("zero", copy.get(0L));
+        Assert.assertEquals(3, copy.size());
+        Assert.assertNull(map.remove(0L));
+        Assert.assertFalse(map.containsKey(0L));
+        Assert.assertEquals(2, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.cursor().advance());
+    }
+
+    @Test
+    public void testLongLongHashMap() {
+        LongLongHashMap map = new LongLongHashMap(-1L);
+        Assert.assertEquals(-1L, map.put(0L, 10L));
+        Assert.assertEquals(-1L, map.put(5L, 50L));
+        Assert.assertEquals(10L, map.put(0L, 11L));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(11L, map.get(0L));
+        Assert.assertEquals(50L, map.get(5L));
+        Assert.assertEquals(-1L, map.get(6L));
+        Assert.assertEquals(11L, map.remove(0L));
+        Assert.assertEquals(-1L, map.get(0L));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(1234);
+        Map<Long, Long> expected = new HashMap<>();
+        LongObjectHashMap<Long> objectMap = new LongObjectHashMap<>();
+        LongLongHashMap longMap = new LongLongHashMap(Long.MIN_VALUE);
+        for (int i = 0; i < 200000; i++) {
+            // a small key range to have many collisions and removals
+            long key = random.nextInt(5000) - 100;
+            long value = random.nextLong();
+            int op = random.nextInt(3);
+            if (op == 0) {
+                Long old = expected.put(key, value);
+                Assert.assertEquals(old, objectMap.put(key, value));
+                Assert.assertEquals(old == null ? Long.MIN_VALUE : old, longMap.put(key, value));
+            } else if (op == 1) {
+                Long old = expected.remove(key);
+                Assert.assertEquals(old, objectMap.remove(key));
+                Assert.assertEquals(old == null ? Long.MIN_VALUE : old, longMap.remove(key));
+            } else {
+                Long old = expected.get(key);
+                Assert.assertEquals(old, objectMap.get(key));
+                Assert.assertEquals(old == null ? Long.MIN_VALUE : old, longMap.get(key));
+            }
+            Assert.assertEquals(expected.size(), objectMap.size());
+            Assert.assertEquals(expected.size(), longMap.size());
+        }
+
+        Map<Long, Long> traversed = new HashMap<>();
+        for (LongObjectHashMap.Cursor<Long> cursor = objectMap.cursor(); cursor.advance(); ) {
+            Assert.assertNull(traversed.put(cursor.key(), cursor.value()));
+        }
+        Assert.assertEquals(expected, traversed);
+        Assert.assertTrue(objectMap.estimateSize() > 12L * objectMap.size());
+    }
+}
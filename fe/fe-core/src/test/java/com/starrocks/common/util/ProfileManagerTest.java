@@ -14,7 +14,13 @@
 package com.starrocks.common.util;
 
 import com.starrocks.common.Config;
+import com.starrocks.thrift.TCounterAggregateType;
+import com.starrocks.thrift.TUnit;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -117,5 +123,73 @@ public class ProfileManagerTest {
 
         manager.clearProfiles();
     }
-}
 
+    @Test
+    public void testProfileCodec() throws Exception {
+        RuntimeProfile profile = buildRuntimeProfile("127", "Query");
+        RuntimeProfile summaryProfile = profile.getChild("Summary");
+        summaryProfile.addInfoString(ProfileManager.SQL_STATEMENT, "select * from t");
+        summaryProfile.addInfoString("Empty", null);
+
+        RuntimeProfile fragment = new RuntimeProfile("Fragment 0");
+        fragment.getCounterTotalTime().setValue(123456789L);
+        fragment.addCounter("BytesRead", TUnit.BYTES, null).setValue(1L << 40);
+        fragment.addCounter("RowsRead", TUnit.UNIT, null, "BytesRead").setValue(-1);
+        fragment.addCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + "RowsRead", TUnit.UNIT,
+                Counter.createStrategy(TCounterAggregateType.AVG), "RowsRead").setValue(Long.MAX_VALUE);
+        fragment.getCounter("BytesRead").setStrategy(null);
+        RuntimeProfile operator = new RuntimeProfile("Operator");
+        operator.addCounter("BytesRead", TUnit.BYTES, null).setValue(100);
+        fragment.addChild(operator, false);
+        fragment.addChild(new RuntimeProfile("Operator"));
+        profile.addChild(fragment);
+        profile.computeTimeInProfile(123456789L * 2);
+
+        RuntimeProfile decoded = ProfileCodec.decode(ProfileCodec.encode(profile));
+        assertEquals(profile.toString(), decoded.toString());
+        assertEquals(2, decoded.getChild("Fragment 0").getChildList().size());
+        assertFalse(decoded.getChild("Fragment 0").getChildList().get(0).second);
+        assertEquals(TCounterAggregateType.AVG, decoded.getChild("Fragment 0")
+                .getCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + "RowsRead").getStrategy().aggregate_type);
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        ProfileManager manager = ProfileManager.getInstance();
+        assertTrue(manager.getAllProfileElements().isEmpty());
+
+        long memoryLimit = Config.profile_info_reserved_memory_mb;
+        Config.profile_info_reserved_memory_mb = 0;
+        try {
+            manager.pushProfile(null, buildRuntimeProfile("128", "Query"));
+            manager.pushProfile(null, buildRuntimeProfile("129", "Load"));
+            // the newest profile is kept anyway
+            assertFalse(manager.hasProfile("128"));
+            assertNotNull(manager.getProfile("129"));
+        } finally {
+            Config.profile_info_reserved_memory_mb = memoryLimit;
+            manager.clearProfiles();
+        }
+    }
+
+    @Test
+    public void testProfileArchive(@TempDir File dir) throws Exception {
+        ProfileArchive archive = new ProfileArchive(dir.getAbsolutePath(), 2, 200);
+        byte[] data1 = "profile1".getBytes(StandardCharsets.UTF_8);
+        byte[] data2 = new byte[95];
+        byte[] data3 = new byte[60];
+        data3[59] = 3;
+
+        ProfileArchive.Entry entry1 = archive.append(data1);
+        ProfileArchive.Entry entry2 = archive.append(data2);
+        assertEquals("profile1", new String(archive.read(entry1), StandardCharsets.UTF_8));
+        assertEquals(95, archive.read(entry2).length);
+
+        // the file of entry1 is reused
+        ProfileArchive.Entry entry3 = archive.append(data3);
+        assertFalse(archive.isValid(entry1));
+        assertNull(archive.read(entry1));
+        assertTrue(archive.isValid(entry2));
+        assertEquals(3, archive.read(entry3)[59]);
+    }
+}
@@ -783,4 +783,57 @@ public class RuntimeProfileTest {
         Assert.assertEquals(1, profile.getVersion());
         Assert.assertEquals(1, childProfile.getVersion());
     }
+
+    private static RuntimeProfile buildInstanceProfile(int i) {
+        RuntimeProfile profile = new RuntimeProfile("Instance");
+        profile.addInfoString("Address", "host" + i);
+        profile.addInfoString("Mode", i % 3 == 0 ? "a" : "b");
+        profile.addCounter("time", TUnit.TIME_NS, null).setValue(1000L * i);
+        profile.addCounter("rows", TUnit.UNIT, null).setValue(i);
+        profile.addCounter("rows_sub", TUnit.UNIT, null, "rows").setValue(2L * i);
+        if (i % 2 == 0) {
+            // merged by be already
+            profile.addCounter("__MIN_OF_rows", TUnit.UNIT, null, "rows").setValue(i - 1);
+            profile.addCounter("__MAX_OF_rows", TUnit.UNIT, null, "rows").setValue(i + 1);
+        }
+        TCounterStrategy skipStrategy = Counter.createStrategy(TCounterAggregateType.SUM);
+        skipStrategy.merge_type = TCounterMergeType.SKIP_ALL;
+        profile.addCounter("skip", TUnit.UNIT, skipStrategy).setValue(10L + i);
+        if (i % 4 == 1) {
+            profile.addCounter("bytes", TUnit.BYTES, null).setValue(i);
+        }
+
+        RuntimeProfile pipeline = new RuntimeProfile("Pipeline");
+        pipeline.addCounter("time", TUnit.TIME_NS, null).setValue(10L * i);
+        profile.addChild(pipeline);
+        if (i % 3 != 0) {
+            RuntimeProfile operator = new RuntimeProfile("Operator");
+            operator.addCounter("rows", TUnit.UNIT, null).setValue(i);
+            profile.addChild(operator);
+        }
+        return profile;
+    }
+
+    @Test
+    public void testIsomorphicProfileAccumulator() {
+        List<RuntimeProfile> profiles = Lists.newArrayList();
+        IsomorphicProfileAccumulator accumulator = new IsomorphicProfileAccumulator(Sets.newHashSet("Address"));
+        Assert.assertNull(accumulator.build());
+        for (int i = 0; i < 10; i++) {
+            RuntimeProfile profile = buildInstanceProfile(i);
+            profiles.add(profile);
+            accumulator.add(profile);
+        }
+        Assert.assertEquals(10, accumulator.getNumProfiles());
+        String expected = RuntimeProfile.mergeIsomorphicProfiles(profiles, Sets.newHashSet("Address")).toString();
+        Assert.assertEquals(expected, accumulator.build().toString());
+
+        IsomorphicProfileAccumulator copy = accumulator.copy();
+        profiles.add(buildInstanceProfile(10));
+        copy.add(buildInstanceProfile(10));
+        Assert.assertEquals(RuntimeProfile.mergeIsomorphicProfiles(profiles, Sets.newHashSet("Address")).toString(),
+                copy.build().toString());
+        // the copy doesn't change the original one
+        Assert.assertEquals(expected, accumulator.build().toString());
+    }
 }
@@ -16,6 +16,8 @@
 package com.starrocks.connector;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.connector.hive.HiveRemoteFileIO;
 import com.starrocks.connector.hive.MockedRemoteFileSystem;
@@ -24,6 +26,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -73,4 +76,82 @@ public class CachingRemoteFileIOTest {
         queryLevelCache.updateRemoteFiles(pathKey);
         queryLevelCache.invalidatePartition(pathKey);
     }
+
+    @Test
+    public void testGetHiveRemoteFilesFromDiskCache() throws Exception {
+        boolean enable = Config.enable_connector_metadata_disk_cache;
+        String dir = Config.connector_metadata_disk_cache_dir;
+        Config.enable_connector_metadata_disk_cache = true;
+        Config.connector_metadata_disk_cache_dir = Files.createTempDirectory("connector_meta_cache").toString();
+        try {
+            HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration());
+            hiveRemoteFileIO.setFileSystem(new MockedRemoteFileSystem(HDFS_HIVE_TABLE));
+            FeConstants.runningUnitTest = true;
+            ExecutorService executor = Executors.newFixedThreadPool(5);
+            CachingRemoteFileIO cachingFileIO = new CachingRemoteFileIO(hiveRemoteFileIO, executor, 10, 10, 10, "c");
+            RemotePathKey pathKey = RemotePathKey.of("hdfs://127.0.0.1:10000/hive.db/hive_tbl", false);
+            Assert.assertEquals(1, cachingFileIO.getRemoteFiles(pathKey).get(pathKey).size());
+
+            // the file system of the new instance is not set, the files can only come from the disk cache
+            HiveRemoteFileIO restartedFileIO = new HiveRemoteFileIO(new Configuration());
+            CachingRemoteFileIO restartedCachingFileIO =
+                    new CachingRemoteFileIO(restartedFileIO, executor, 10, 10, 10, "c");
+            List<RemoteFileDesc> fileDescs = restartedCachingFileIO.getRemoteFiles(pathKey).get(pathKey);
+            Assert.assertEquals(1, fileDescs.size());
+            RemoteFileDesc fileDesc = fileDescs.get(0);
+            Assert.assertEquals("000000_0", fileDesc.getFileName());
+            Assert.assertEquals(20, fileDesc.getLength());
+            RemoteFileBlockDesc blockDesc = fileDesc.getBlockDescs().get(0);
+            Assert.assertEquals(20, blockDesc.getLength());
+            Assert.assertEquals(2, blockDesc.getReplicaHostIds().length);
+            Assert.assertEquals("host1", blockDesc.getDataNodeIp(blockDesc.getReplicaHostIds()[0]));
+
+            restartedCachingFileIO.invalidatePartition(pathKey);
+            Assert.assertThrows(Exception.class, () -> restartedCachingFileIO.getRemoteFiles(pathKey));
+        } finally {
+            MetadataDiskCache.dropCatalog("c");
+            Config.enable_connector_metadata_disk_cache = enable;
+            Config.connector_metadata_disk_cache_dir = dir;
+        }
+    }
+
+    @Test
+    public void testRefreshHiveRemoteFilesBypassDiskCache() throws Exception {
+        boolean enable = Config.enable_connector_metadata_disk_cache;
+        String dir = Config.connector_metadata_disk_cache_dir;
+        Config.enable_connector_metadata_disk_cache = true;
+        Config.connector_metadata_disk_cache_dir = Files.createTempDirectory("connector_meta_cache").toString();
+        int[] listings = {0};
+        HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration()) {
+            @Override
+            public Map<RemotePathKey, List<RemoteFileDesc>> getRemoteFiles(RemotePathKey pathKey) {
+                listings[0]++;
+                return super.getRemoteFiles(pathKey);
+            }
+        };
+        hiveRemoteFileIO.setFileSystem(new MockedRemoteFileSystem(HDFS_HIVE_TABLE));
+        FeConstants.runningUnitTest = true;
+        try {
+            CachingRemoteFileIO cachingFileIO = new CachingRemoteFileIO(
+                    hiveRemoteFileIO, MoreExecutors.directExecutor(), 10, 1, 10, "c");
+            RemotePathKey pathKey = RemotePathKey.of("hdfs://127.0.0.1:10000/hive.db/hive_tbl", false);
+            Assert.assertEquals(1, cachingFileIO.getRemoteFiles(pathKey).get(pathKey).size());
+            Assert.assertEquals(1, listings[0]);
+
+            // the restarted instance reads the files from disk
+            CachingRemoteFileIO restartedCachingFileIO = new CachingRemoteFileIO(
+                    hiveRemoteFileIO, MoreExecutors.directExecutor(), 10, 1, 10, "c");
+            Assert.assertEquals(1, restartedCachingFileIO.getRemoteFiles(pathKey).get(pathKey).size());
+            Assert.assertEquals(1, listings[0]);
+
+            // the refresh after write lists the files again rather than reading the disk
+            Thread.sleep(1500);
+            Assert.assertEquals(1, restartedCachingFileIO.getRemoteFiles(pathKey).get(pathKey).size());
+            Assert.assertEquals(2, listings[0]);
+        } finally {
+            MetadataDiskCache.dropCatalog("c");
+            Config.enable_connector_metadata_disk_cache = enable;
+            Config.connector_metadata_disk_cache_dir = dir;
+        }
+    }
 }
@@ -0,0 +1,231 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector;
+
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MetadataDiskCacheTest {
+    private static class Value {
+        private Map<String, String> parameters = Maps.newHashMap();
+        private double min = Double.NEGATIVE_INFINITY;
+
+        Value(String v) {
+            parameters.put("k", v);
+        }
+    }
+
+    private boolean enable;
+    private String dir;
+    private long capacity;
+    private long ttl;
+
+    @Before
+    public void setUp() throws Exception {
+        enable = Config.enable_connector_metadata_disk_cache;
+        dir = Config.connector_metadata_disk_cache_dir;
+        capacity = Config.connector_metadata_disk_cache_capacity_bytes;
+        ttl = Config.connector_metadata_disk_cache_ttl_s;
+        Config.enable_connector_metadata_disk_cache = true;
+        Config.connector_metadata_disk_cache_dir = Files.createTempDirectory("connector_meta_cache").toString();
+    }
+
+    @After
+    public void tearDown() {
+        MetadataDiskCache.dropCatalog("c");
+        new File(Config.connector_metadata_disk_cache_dir).delete();
+        Config.enable_connector_metadata_disk_cache = enable;
+        Config.connector_metadata_disk_cache_dir = dir;
+        Config.connector_metadata_disk_cache_capacity_bytes = capacity;
+        Config.connector_metadata_disk_cache_ttl_s = ttl;
+    }
+
+    @Test
+    public void testDisabled() {
+        Config.enable_connector_metadata_disk_cache = false;
+        Assert.assertNull(MetadataDiskCache.create("c", "p", Value.class));
+    }
+
+    @Test
+    public void testReload() {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        for (int i = 0; i < 100; i++) {
+            diskCache.put("db/tbl/" + i, new Value("v" + i));
+        }
+        diskCache.put("db/tbl/1", new Value("new"));
+        diskCache.invalidate("db/tbl/2");
+        diskCache.invalidateIf(key -> key.startsWith("db/tbl/9"));
+        Assert.assertEquals("new", diskCache.get("db/tbl/1").parameters.get("k"));
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, diskCache.get("db/tbl/3").min, 0);
+        Assert.assertNull(diskCache.get("db/tbl/2"));
+        int size = diskCache.size();
+        long liveBytes = diskCache.getLiveBytes();
+
+        // reopen as it is after a restart
+        diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        Assert.assertEquals(size, diskCache.size());
+        Assert.assertEquals(liveBytes, diskCache.getLiveBytes());
+        Assert.assertEquals("new", diskCache.get("db/tbl/1").parameters.get("k"));
+        Assert.assertEquals("v3", diskCache.get("db/tbl/3").parameters.get("k"));
+        Assert.assertNull(diskCache.get("db/tbl/2"));
+        Assert.assertNull(diskCache.get("db/tbl/95"));
+
+        diskCache.invalidateAll();
+        diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        Assert.assertEquals(0, diskCache.size());
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        diskCache.put("a", new Value("a"));
+        diskCache.close();
+        File file = new File(new File(Config.connector_metadata_disk_cache_dir, "c"), "p.seg");
+        try (RandomAccessFile segment = new RandomAccessFile(file, "rw")) {
+            segment.seek(segment.length());
+            segment.write(new byte[] {1, 0, 0});
+        }
+
+        diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        Assert.assertEquals(1, diskCache.size());
+        diskCache.put("b", new Value("b"));
+        diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        Assert.assertEquals("a", diskCache.get("a").parameters.get("k"));
+        Assert.assertEquals("b", diskCache.get("b").parameters.get("k"));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        for (int i = 0; i < 10; i++) {
+            diskCache.put(String.valueOf(i), new Value("v" + i));
+        }
+        Config.connector_metadata_disk_cache_capacity_bytes = diskCache.getLiveBytes();
+        Assert.assertNotNull(diskCache.get("0"));
+        diskCache.put("x", new Value("vx"));
+
+        Assert.assertEquals(10, diskCache.size());
+        Assert.assertTrue(diskCache.getLiveBytes() <= Config.connector_metadata_disk_cache_capacity_bytes);
+        Assert.assertNotNull(diskCache.get("0"));
+        Assert.assertNull(diskCache.get("1"));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        MetadataDiskCache<String> diskCache = MetadataDiskCache.create("c", "s", v -> v, v -> v);
+        String value = new String(new char[100000]).replace('\0', 'x');
+        for (int i = 0; i < 1000; i++) {
+            diskCache.put(String.valueOf(i % 10), value + i);
+        }
+        diskCache.waitForCompaction();
+        Assert.assertTrue(diskCache.getFileBytes() < 64L * 1024 * 1024);
+        Assert.assertEquals(value + 993, diskCache.get("3"));
+
+        diskCache = MetadataDiskCache.create("c", "s", v -> v, v -> v);
+        Assert.assertEquals(10, diskCache.size());
+        Assert.assertEquals(value + 993, diskCache.get("3"));
+    }
+
+    @Test
+    public void testReadWhileCompact() throws Exception {
+        MetadataDiskCache<String> diskCache = MetadataDiskCache.create("c", "s", v -> v, v -> v);
+        String value = new String(new char[100000]).replace('\0', 'x');
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        AtomicInteger mismatched = new AtomicInteger(0);
+        Thread reader = new Thread(() -> {
+            while (!stopped.get()) {
+                for (int k = 0; k < 10; k++) {
+                    String v = diskCache.get(String.valueOf(k));
+                    if (v != null && Integer.parseInt(v.substring(value.length())) % 10 != k) {
+                        mismatched.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        // the records written during a compaction are moved to the new segment
+        for (int i = 0; i < 2000; i++) {
+            diskCache.put(String.valueOf(i % 10), value + i);
+        }
+        diskCache.waitForCompaction();
+        stopped.set(true);
+        reader.join();
+        Assert.assertEquals(0, mismatched.get());
+        Assert.assertEquals(value + 1993, diskCache.get("3"));
+
+        diskCache = MetadataDiskCache.create("c", "s", v -> v, v -> v);
+        Assert.assertEquals(10, diskCache.size());
+        Assert.assertEquals(value + 1993, diskCache.get("3"));
+    }
+
+    @Test
+    public void testInterruptedRead() {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        diskCache.put("a", new Value("a"));
+        // the interrupted read closes the channel of the segment, which is reopened for the later reads
+        Thread.currentThread().interrupt();
+        Assert.assertNull(diskCache.get("a"));
+        Assert.assertTrue(Thread.interrupted());
+        Assert.assertEquals("a", diskCache.get("a").parameters.get("k"));
+        diskCache.put("b", new Value("b"));
+        Assert.assertEquals("b", diskCache.get("b").parameters.get("k"));
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        diskCache.put("a", new Value("a"));
+        Config.connector_metadata_disk_cache_ttl_s = 0;
+        Thread.sleep(10);
+        Assert.assertNull(diskCache.get("a"));
+        Assert.assertEquals(0, diskCache.size());
+    }
+
+    @Test
+    public void testMaxAge() throws Exception {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        diskCache.put("a", new Value("a"));
+        Thread.sleep(10);
+        Assert.assertNotNull(diskCache.get("a", 60000));
+        Assert.assertNull(diskCache.get("a", 0));
+        // the older entry is kept until it is overwritten
+        Assert.assertEquals(1, diskCache.size());
+        diskCache.put("a", new Value("b"));
+        Assert.assertEquals("b", diskCache.get("a", 60000).parameters.get("k"));
+    }
+
+    @Test
+    public void testDropCatalog() {
+        MetadataDiskCache<Value> diskCache = MetadataDiskCache.create("c", "p", Value.class);
+        diskCache.put("a", new Value("a"));
+        Assert.assertEquals(1, MetadataDiskCache.getInstances().stream().filter(c -> c == diskCache).count());
+
+        MetadataDiskCache.dropCatalog("c");
+        Assert.assertFalse(new File(Config.connector_metadata_disk_cache_dir, "c").exists());
+        Assert.assertTrue(MetadataDiskCache.getInstances().stream().noneMatch(c -> c == diskCache));
+        Assert.assertNull(diskCache.get("a"));
+    }
+}
@@ -24,6 +24,7 @@ import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.Config;
+import com.starrocks.connector.MetadataDiskCache;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.PartitionUtil;
 import com.starrocks.connector.exception.StarRocksConnectorException;
@@ -34,12 +35,15 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static com.starrocks.connector.hive.RemoteFileInputFormat.ORC;
 import static org.apache.hadoop.hive.common.StatsSetupConst.TOTAL_SIZE;
@@ -462,4 +466,100 @@ public class CachingHiveMetastoreTest {
         processor = new CacheUpdateProcessor("hive_catalog", metastore, null, null, false, false);
         Assert.assertTrue(processor.getCachedTableNames().isEmpty());
     }
+
+    // Returns the partitions of the current version, and counts the partitions loaded from it
+    private static class VersionedHiveMetastore extends HiveMetastore {
+        private int version = 1;
+        private int loads = 0;
+
+        VersionedHiveMetastore(HiveMetaClient client) {
+            super(client, "hive_catalog", MetastoreType.HMS);
+        }
+
+        private Partition newPartition() {
+            loads++;
+            Map<String, String> parameters = new HashMap<>();
+            parameters.put(TOTAL_SIZE, String.valueOf(version));
+            return new Partition(parameters, ORC, null, "hdfs://127.0.0.1:10000/hive.db/tbl1/col1=1", true);
+        }
+
+        @Override
+        public Partition getPartition(String dbName, String tblName, List<String> partitionValues) {
+            return newPartition();
+        }
+
+        @Override
+        public Map<String, Partition> getPartitionsByNames(String dbName, String tblName, List<String> partitionNames) {
+            return partitionNames.stream().collect(Collectors.toMap(name -> name, name -> newPartition()));
+        }
+
+        @Override
+        public Map<String, HivePartitionStats> getPartitionStatistics(com.starrocks.catalog.Table table,
+                                                                     List<String> partitionNames) {
+            return partitionNames.stream().collect(Collectors.toMap(name -> name, name -> HivePartitionStats.empty()));
+        }
+    }
+
+    @Test
+    public void testPartitionDiskCache() throws Exception {
+        boolean enable = Config.enable_connector_metadata_disk_cache;
+        String dir = Config.connector_metadata_disk_cache_dir;
+        Config.enable_connector_metadata_disk_cache = true;
+        Config.connector_metadata_disk_cache_dir = Files.createTempDirectory("connector_meta_cache").toString();
+        String identity = "hive_catalog_disk";
+        VersionedHiveMetastore versionedMetastore = new VersionedHiveMetastore(client);
+        HivePartitionName partitionName = HivePartitionName.of("db1", "tbl1", "col1=1");
+        List<String> values = partitionName.getPartitionValues();
+        try {
+            // cold miss, load from the metastore and write through
+            CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(
+                    versionedMetastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false, identity);
+            Assert.assertEquals("1", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            Assert.assertEquals(1, versionedMetastore.loads);
+
+            // restarted instance reads the partition from disk
+            versionedMetastore.version = 2;
+            cachingHiveMetastore = new CachingHiveMetastore(
+                    versionedMetastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false, identity);
+            Assert.assertEquals("1", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            Assert.assertEquals(1, versionedMetastore.loads);
+
+            // refresh loads from the metastore and writes through
+            cachingHiveMetastore.refreshPartition(Lists.newArrayList(partitionName));
+            Assert.assertEquals("2", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            int loads = versionedMetastore.loads;
+            cachingHiveMetastore = new CachingHiveMetastore(
+                    versionedMetastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false, identity);
+            Assert.assertEquals("2", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            Assert.assertEquals(loads, versionedMetastore.loads);
+
+            // invalidate drops the disk entry
+            versionedMetastore.version = 3;
+            cachingHiveMetastore.invalidatePartition(partitionName);
+            cachingHiveMetastore = new CachingHiveMetastore(
+                    versionedMetastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false, identity);
+            Assert.assertEquals("3", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            Assert.assertEquals(loads + 1, versionedMetastore.loads);
+
+            // a load after the on-heap entry expires does not use the disk entry written back then
+            versionedMetastore.version = 4;
+            cachingHiveMetastore = new CachingHiveMetastore(
+                    versionedMetastore, executor, 1, refreshAfterWriteSec, 1000, false, identity);
+            Assert.assertEquals("3", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+            Thread.sleep(1500);
+            Assert.assertEquals("4", cachingHiveMetastore.getPartition("db1", "tbl1", values)
+                    .getParameters().get(TOTAL_SIZE));
+        } finally {
+            MetadataDiskCache.dropCatalog(identity);
+            new File(Config.connector_metadata_disk_cache_dir).delete();
+            Config.enable_connector_metadata_disk_cache = enable;
+            Config.connector_metadata_disk_cache_dir = dir;
+        }
+    }
 }
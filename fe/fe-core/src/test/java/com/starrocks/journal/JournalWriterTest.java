@@ -59,6 +59,8 @@ public class JournalWriterTest {
         Config.edit_log_roll_num = 50000;
         Config.metadata_journal_max_batch_size_mb = 100;
         Config.metadata_journal_max_batch_cnt = 100;
+        Config.metadata_journal_adaptive_batch = false;
+        Config.metadata_journal_target_commit_latency_ms = 100;
     }
 
     private DataOutputBuffer makeBuffer(int size) throws IOException {
@@ -336,4 +338,82 @@ public class JournalWriterTest {
         Assert.assertFalse(task2.get());
         Assert.assertEquals(0, journalQueue.size());
     }
+
+    @Test
+    public void testPipelinedCommit() throws Exception {
+        JournalTask[] tasks = new JournalTask[3];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new JournalTask(System.nanoTime(), makeBuffer(10), -1);
+            journalQueue.add(tasks[i]);
+        }
+        Thread collector = new Thread(() -> {
+            try {
+                writer.collectOneBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        collector.start();
+        writer.writeCollectedBatch();
+        collector.join();
+
+        Assert.assertEquals(4, writer.nextVisibleJournalId);
+        Assert.assertEquals(3, writer.currentBatchTasks.size());
+        for (JournalTask task : tasks) {
+            Assert.assertEquals(0, task.latch.getCount());
+        }
+        Assert.assertTrue(journalQueue.isEmpty());
+    }
+
+    @Test
+    public void testPipelinedBatchLimit() throws Exception {
+        Config.metadata_journal_max_batch_cnt = 2;
+        for (int i = 0; i < 3; i++) {
+            journalQueue.add(new JournalTask(System.nanoTime(), makeBuffer(10), -1));
+        }
+        Thread collector = new Thread(() -> {
+            try {
+                writer.collectOneBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        collector.start();
+        writer.writeCollectedBatch();
+        collector.join();
+
+        Assert.assertEquals(3, writer.nextVisibleJournalId);
+        Assert.assertEquals(2, writer.currentBatchTasks.size());
+        Assert.assertEquals(1, journalQueue.size());
+    }
+
+    @Test
+    public void testAdjustBatchLimit() {
+        Config.metadata_journal_max_batch_cnt = 1000;
+        writer.adjustBatchLimit(500, 10);
+        // adaptive batch is disabled
+        Assert.assertEquals(1000, writer.batchLimit);
+
+        Config.metadata_journal_adaptive_batch = true;
+        Config.metadata_journal_target_commit_latency_ms = 100;
+        writer.adjustBatchLimit(500, 1000);
+        Assert.assertEquals(500, writer.batchLimit);
+        writer.adjustBatchLimit(500, 500);
+        Assert.assertEquals(250, writer.batchLimit);
+
+        // the batch is not full, keep the limit
+        writer.adjustBatchLimit(10, 100);
+        Assert.assertEquals(250, writer.batchLimit);
+        writer.adjustBatchLimit(10, 250);
+        Assert.assertEquals(312, writer.batchLimit);
+
+        for (int i = 0; i < 20; i++) {
+            writer.adjustBatchLimit(1000, 10);
+        }
+        Assert.assertEquals(16, writer.batchLimit);
+        for (int i = 0; i < 100; i++) {
+            writer.adjustBatchLimit(10, writer.batchLimit);
+        }
+        Assert.assertEquals(1000, writer.batchLimit);
+    }
 }
@@ -17,6 +17,8 @@
 
 package com.starrocks.mysql;
 
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
 import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
@@ -24,10 +26,12 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.List;
 
 public class MysqlChannelTest {
     int packetId = 0;
@@ -333,4 +337,74 @@ public class MysqlChannelTest {
         channel1.sendOnePacket(buf);
     }
 
+    @Test
+    public void testSendPackets() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new Expectations() {
+            {
+                channel.write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeWrite(ByteBuffer buffer) {
+                        int writeLen = buffer.remaining();
+                        while (buffer.hasRemaining()) {
+                            written.write(buffer.get());
+                        }
+                        return writeLen;
+                    }
+                };
+
+                channel.write((ByteBuffer[]) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    long fakeWrite(ByteBuffer[] buffers) {
+                        long writeLen = 0;
+                        for (ByteBuffer buffer : buffers) {
+                            writeLen += buffer.remaining();
+                            while (buffer.hasRemaining()) {
+                                written.write(buffer.get());
+                            }
+                        }
+                        return writeLen;
+                    }
+                };
+            }
+        };
+
+        int[] sizes = {10, 2000, 0, 5, 3000, 100, 70000, 1024, 1023, 20000};
+        boolean enableGatheringWrite = Config.enable_mysql_gathering_write;
+        try {
+            Config.enable_mysql_gathering_write = false;
+            MysqlChannel channel1 = new MysqlChannel(channel);
+            for (int i = 0; i < 3; i++) {
+                channel1.sendPackets(makePackets(sizes));
+            }
+            channel1.flush();
+            byte[] expected = written.toByteArray();
+
+            written.reset();
+            Config.enable_mysql_gathering_write = true;
+            MysqlChannel channel2 = new MysqlChannel(channel);
+            for (int i = 0; i < 3; i++) {
+                channel2.sendPackets(makePackets(sizes));
+            }
+            channel2.flush();
+            Assert.assertArrayEquals(expected, written.toByteArray());
+        } finally {
+            Config.enable_mysql_gathering_write = enableGatheringWrite;
+        }
+    }
+
+    private static List<ByteBuffer> makePackets(int[] sizes) {
+        List<ByteBuffer> packets = Lists.newArrayList();
+        for (int size : sizes) {
+            ByteBuffer packet = ByteBuffer.allocate(size);
+            for (int i = 0; i < size; i++) {
+                packet.put((byte) (size + i));
+            }
+            packet.flip();
+            packets.add(packet);
+        }
+        return packets;
+    }
 }
@@ -0,0 +1,157 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CountingInputStream;
+import com.starrocks.common.io.Text;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import com.starrocks.persist.metablock.SRMetaBlockLoader;
+import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockWriter;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelImageTest {
+    private static Path tmpDir;
+
+    private static final List<SRMetaBlockID> BLOCKS = Arrays.asList(SRMetaBlockID.NODE_MGR,
+            SRMetaBlockID.LOCAL_META_STORE, SRMetaBlockID.ALTER_MGR, SRMetaBlockID.CATALOG_RECYCLE_BIN,
+            SRMetaBlockID.VARIABLE_MGR, SRMetaBlockID.GLOBAL_TRANSACTION_MGR, SRMetaBlockID.LOAD_MGR);
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory(Paths.get("."), "ParallelImageTest");
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir.toFile());
+    }
+
+    // every block has (id * 10) json strings
+    private File saveImage(String name) throws Exception {
+        File imageFile = new File(tmpDir.toFile(), name);
+        Assert.assertTrue(imageFile.createNewFile());
+        ParallelImageWriter writer = new ParallelImageWriter(imageFile, 4);
+        for (SRMetaBlockID id : BLOCKS) {
+            writer.addBlock(id, dos -> {
+                int numJson = id.getId() * 10;
+                SRMetaBlockWriter blockWriter = new SRMetaBlockWriter(dos, id, numJson);
+                for (int i = 0; i < numJson; i++) {
+                    blockWriter.writeJson("block-" + id + "-" + i);
+                }
+                blockWriter.close();
+            });
+        }
+        writer.save((dos, blockIndex) -> {
+            ImageHeader header = new ImageHeader();
+            header.setBatchEndId(1000L);
+            header.setBlockIndex(blockIndex);
+            Text.writeString(dos, GsonUtils.GSON.toJson(header));
+        });
+        // the section files are removed after they are copied to the image
+        Assert.assertEquals(0, tmpDir.toFile().list((dir, file) -> file.startsWith(name + ".section")).length);
+        return imageFile;
+    }
+
+    private SRMetaBlockLoader checkBlock(Map<SRMetaBlockID, Integer> loadOrder, AtomicInteger counter) {
+        return reader -> {
+            SRMetaBlockID id = reader.getHeader().getSrMetaBlockID();
+            for (int i = 0; i < id.getId() * 10; i++) {
+                Assert.assertEquals("block-" + id + "-" + i, reader.readJson(String.class));
+            }
+            loadOrder.put(id, counter.getAndIncrement());
+        };
+    }
+
+    @Test
+    public void testLoadSequentially() throws Exception {
+        File imageFile = saveImage("image.sequential");
+        Map<SRMetaBlockID, Integer> loadOrder = new HashMap<>();
+        AtomicInteger counter = new AtomicInteger();
+        Map<SRMetaBlockID, SRMetaBlockLoader> loaders = new HashMap<>();
+        // the blocks without loader are skipped
+        for (SRMetaBlockID id : BLOCKS.subList(0, BLOCKS.size() - 1)) {
+            loaders.put(id, checkBlock(loadOrder, counter));
+        }
+
+        try (DataInputStream dis = new DataInputStream(Files.newInputStream(imageFile.toPath()))) {
+            ImageHeader header = GsonUtils.GSON.fromJson(Text.readString(dis), ImageHeader.class);
+            Assert.assertEquals(1000L, header.getBatchEndId());
+            Assert.assertEquals(BLOCKS.size(), header.getBlockIndex().size());
+            int numBlocks = 0;
+            try {
+                while (true) {
+                    ParallelImageLoader.loadBlock(new SRMetaBlockReader(dis), loaders);
+                    numBlocks++;
+                }
+            } catch (EOFException e) {
+                // expected
+            }
+            Assert.assertEquals(BLOCKS.size(), numBlocks);
+        }
+        for (int i = 0; i < BLOCKS.size() - 1; i++) {
+            Assert.assertEquals(i, loadOrder.get(BLOCKS.get(i)).intValue());
+        }
+    }
+
+    @Test
+    public void testLoadInParallel() throws Exception {
+        File imageFile = saveImage("image.parallel");
+        Map<SRMetaBlockID, Integer> loadOrder = new ConcurrentHashMap<>();
+        AtomicInteger counter = new AtomicInteger();
+        Map<SRMetaBlockID, SRMetaBlockLoader> loaders = new HashMap<>();
+        for (SRMetaBlockID id : BLOCKS) {
+            loaders.put(id, checkBlock(loadOrder, counter));
+        }
+
+        ImageHeader header;
+        long blocksOffset;
+        try (CountingInputStream cis = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(imageFile.toPath())));
+                DataInputStream dis = new DataInputStream(cis)) {
+            header = GsonUtils.GSON.fromJson(Text.readString(dis), ImageHeader.class);
+            blocksOffset = cis.getCount();
+        }
+        ParallelImageLoader loader = new ParallelImageLoader(imageFile, blocksOffset, header.getBlockIndex(), 4);
+        Set<SRMetaBlockID> loaded = loader.load(ImmutableMap.copyOf(loaders));
+        Assert.assertEquals(BLOCKS.size(), loaded.size());
+
+        Assert.assertEquals(0, loadOrder.get(SRMetaBlockID.NODE_MGR).intValue());
+        Assert.assertEquals(1, loadOrder.get(SRMetaBlockID.LOCAL_META_STORE).intValue());
+        Assert.assertTrue(loadOrder.get(SRMetaBlockID.ALTER_MGR) < loadOrder.get(SRMetaBlockID.CATALOG_RECYCLE_BIN));
+        Assert.assertTrue(loadOrder.get(SRMetaBlockID.GLOBAL_TRANSACTION_MGR) < loadOrder.get(SRMetaBlockID.LOAD_MGR));
+    }
+}
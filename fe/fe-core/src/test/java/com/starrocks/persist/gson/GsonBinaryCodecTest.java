@@ -0,0 +1,114 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.persist.BatchDeleteReplicaInfo;
+import com.starrocks.persist.OperationType;
+import com.starrocks.persist.ReplicaPersistInfo;
+import com.starrocks.thrift.TUniqueId;
+import com.starrocks.transaction.PartitionCommitInfo;
+import com.starrocks.transaction.TableCommitInfo;
+import com.starrocks.transaction.TransactionState;
+import com.starrocks.transaction.TransactionStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+public class GsonBinaryCodecTest {
+
+    public static TransactionState createTransactionState(long txnId, int numPartitions) {
+        TransactionState state = new TransactionState(1000L, Lists.newArrayList(2000L), txnId, "label_" + txnId,
+                new TUniqueId(txnId, txnId), TransactionState.LoadJobSourceType.BACKEND_STREAMING,
+                new TransactionState.TxnCoordinator(TransactionState.TxnSourceType.BE, "127.0.0.1"), -1L,
+                60 * 1000L);
+        TableCommitInfo tableCommitInfo = new TableCommitInfo(2000L);
+        for (int i = 0; i < numPartitions; i++) {
+            tableCommitInfo.addPartitionCommitInfo(new PartitionCommitInfo(3000L + i, 10L + i, -1L));
+        }
+        state.putIdToTableCommitInfo(2000L, tableCommitInfo);
+        state.setTransactionStatus(TransactionStatus.COMMITTED);
+        state.setCommitTime(System.currentTimeMillis());
+        return state;
+    }
+
+    private static DataInputStream toInput(DataOutputBuffer buffer) {
+        return new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength()));
+    }
+
+    @Test
+    public void testTransactionState() throws IOException {
+        TransactionState state = createTransactionState(5000L, 16);
+        String json = GsonUtils.GSON.toJson(state);
+
+        DataOutputBuffer binary = new DataOutputBuffer();
+        GsonBinaryCodec.write(binary, state);
+        DataOutputBuffer text = new DataOutputBuffer();
+        Text.writeString(text, json);
+        Assert.assertTrue(binary.getLength() < text.getLength());
+
+        // both encodings are read to the same object
+        TransactionState fromBinary = GsonBinaryCodec.read(toInput(binary), TransactionState.class);
+        TransactionState fromJson = GsonBinaryCodec.read(toInput(text), TransactionState.class);
+        Assert.assertEquals(json, GsonUtils.GSON.toJson(fromBinary));
+        Assert.assertEquals(json, GsonUtils.GSON.toJson(fromJson));
+        Assert.assertEquals(16, fromBinary.getTableCommitInfo(2000L).getIdToPartitionCommitInfo().size());
+    }
+
+    @Test
+    public void testReplicaInfo() throws IOException {
+        ReplicaPersistInfo info = ReplicaPersistInfo.createForAdd(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, -1, 8, 0);
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        GsonBinaryCodec.write(buffer, info);
+        ReplicaPersistInfo read = GsonBinaryCodec.read(toInput(buffer), ReplicaPersistInfo.class);
+        Assert.assertEquals(GsonUtils.GSON.toJson(info), GsonUtils.GSON.toJson(read));
+
+        BatchDeleteReplicaInfo batchInfo = new BatchDeleteReplicaInfo(10001L, Lists.newArrayList(1L, 2L, 3L));
+        buffer = new DataOutputBuffer();
+        GsonBinaryCodec.write(buffer, batchInfo);
+        BatchDeleteReplicaInfo readBatchInfo = GsonBinaryCodec.read(toInput(buffer), BatchDeleteReplicaInfo.class);
+        Assert.assertEquals(10001L, readBatchInfo.getBackendId());
+        Assert.assertEquals(batchInfo.getTablets(), readBatchInfo.getTablets());
+    }
+
+    @Test
+    public void testJournalEntity() throws IOException {
+        TransactionState state = createTransactionState(5001L, 4);
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE_V2);
+        entity.setData(out -> GsonBinaryCodec.write(out, state));
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        entity.write(buffer);
+
+        JournalEntity read = new JournalEntity();
+        read.readFields(toInput(buffer));
+        Assert.assertEquals(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, read.getOpCode());
+        Assert.assertEquals(GsonUtils.GSON.toJson(state), GsonUtils.GSON.toJson(read.getData()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws IOException {
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        buffer.writeInt(-100);
+        buffer.writeInt(0);
+        GsonBinaryCodec.read(toInput(buffer), TransactionState.class);
+    }
+}
@@ -16,6 +16,8 @@ package com.starrocks.persist.metablock;
 
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import com.starrocks.common.io.Text;
+import com.starrocks.persist.gson.GsonUtils;
 import org.apache.commons.io.FileUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -36,6 +38,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 public class SRMetaBlockTest {
     private static Path tmpDir;
@@ -365,4 +369,45 @@ public class SRMetaBlockTest {
         }
         dis.close();
     }
+
+    @Test
+    public void testLargeJson() throws Exception {
+        // larger than the json buffer of writer, will be serialized twice
+        List<String> largeList = new ArrayList<>();
+        for (int i = 0; largeList.size() * 16 < SRMetaBlockWriter.JSON_BUFFER_SIZE * 2; i++) {
+            largeList.add("\u82b1\u74e3-" + i);
+        }
+        List<Object> objects = Arrays.asList("small", largeList, null);
+
+        String name = "large";
+        DataOutputStream dos = openOutput(name);
+        SRMetaBlockWriter writer = new SRMetaBlockWriter(dos, SRMetaBlockID.NODE_MGR, objects.size());
+        for (Object object : objects) {
+            writer.writeJson(object);
+        }
+        writer.close();
+        dos.close();
+
+        // same layout as the json strings written by Text.writeStringWithChecksum
+        DataInputStream dis = openInput(name);
+        CheckedInputStream checkedInputStream = new CheckedInputStream(dis, new CRC32());
+        Text.readStringWithChecksum(checkedInputStream);
+        for (Object object : objects) {
+            Assert.assertEquals(GsonUtils.GSON.toJson(object), Text.readStringWithChecksum(checkedInputStream));
+        }
+        long checksum = checkedInputStream.getChecksum().getValue();
+        SRMetaBlockFooter footer =
+                GsonUtils.GSON.fromJson(Text.readStringWithChecksum(checkedInputStream), SRMetaBlockFooter.class);
+        Assert.assertEquals(checksum, footer.getChecksum());
+        dis.close();
+
+        dis = openInput(name);
+        SRMetaBlockReader reader = new SRMetaBlockReader(dis);
+        Assert.assertEquals("small", reader.readJson(String.class));
+        List<String> retList = (List<String>) reader.readJson(SimpleStruct.LIST_TYPE);
+        Assert.assertEquals(largeList, retList);
+        Assert.assertNull(reader.readJson(String.class));
+        reader.close();
+        dis.close();
+    }
 }
@@ -218,6 +218,63 @@ public class HDFSBackendSelectorTest {
         Assert.assertTrue(actual < variance);
     }
 
+    @Test
+    public void testHdfsScanNodeCacheAffinity() throws Exception {
+        SessionVariable sessionVariable = new SessionVariable();
+        sessionVariable.setHdfsBackendSelectorCacheAffinity(true);
+        new Expectations() {
+            {
+                hdfsScanNode.getId();
+                result = scanNodeId;
+
+                hdfsScanNode.getTableName();
+                result = "hive_tbl";
+
+                hiveTable.getTableLocation();
+                result = "hdfs://dfs00/dataset/";
+
+                ConnectContext.get();
+                result = context;
+
+                context.getSessionVariable();
+                result = sessionVariable;
+            }
+        };
+        DataCacheResidencyTracker.getInstance().clear();
+
+        long scanRangeNumber = 10000;
+        long scanRangeSize = 10000;
+        List<TScanRangeLocations> locations = createScanRanges(scanRangeNumber, scanRangeSize);
+        ImmutableMap<Long, ComputeNode> computeNodes = createComputeNodes(3);
+        DefaultWorkerProvider workerProvider = new DefaultWorkerProvider(
+                ImmutableMap.of(), computeNodes, ImmutableMap.of(), computeNodes, true);
+        HDFSBackendSelector selector = new HDFSBackendSelector(hdfsScanNode, locations,
+                new FragmentScanRangeAssignment(), workerProvider, false, false);
+        selector.computeScanRangeAssignment();
+        Assert.assertEquals(0, selector.cacheAffinityHitRanges);
+        Assert.assertEquals(scanRangeNumber, selector.cacheAffinityTotalRanges);
+
+        // scale out, most scan ranges still go to the nodes which scanned them before, with the skew bounded
+        int hostNumber = 4;
+        computeNodes = createComputeNodes(hostNumber);
+        workerProvider = new DefaultWorkerProvider(
+                ImmutableMap.of(), computeNodes, ImmutableMap.of(), computeNodes, true);
+        FragmentScanRangeAssignment assignment = new FragmentScanRangeAssignment();
+        selector = new HDFSBackendSelector(hdfsScanNode, locations, assignment, workerProvider, false, false);
+        selector.computeScanRangeAssignment();
+        double hitRatio = (double) selector.cacheAffinityHitBytes / selector.cacheAffinityTotalBytes;
+        Assert.assertTrue(String.valueOf(hitRatio), hitRatio > 0.7);
+
+        long avg = (scanRangeNumber * scanRangeSize) / hostNumber + 1;
+        double variance = 0.2 * avg;
+        Map<Long, Long> stats = computeWorkerIdToReadBytes(assignment, scanNodeId);
+        Assert.assertEquals(hostNumber, stats.size());
+        for (Map.Entry<Long, Long> entry : stats.entrySet()) {
+            Assert.assertTrue((entry.getValue() - avg) < variance);
+        }
+        DataCacheResidencyTracker.getInstance().clear();
+    }
+
     @Test
     public void testHashRingAlgorithm() {
         SessionVariable sessionVariable = new SessionVariable();
@@ -35,6 +35,7 @@
 package com.starrocks.qe;
 
 import com.google.gson.Gson;
+import com.starrocks.common.Config;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -89,4 +90,56 @@ public class QueryDetailQueueTest {
         queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(startQueryDetail.getEventTime() - 1);
         Assert.assertEquals(2, queryDetails.size());
     }
+
+    private static QueryDetail newQueryDetail(String user, QueryDetail.QueryMemState state, long latency) {
+        return new QueryDetail("219a2d5443c542d4-8fc938db37c892e4", true, 1, "127.0.0.1",
+                System.currentTimeMillis(), -1, latency, state, "testDb", "select 1", user, "", "default_catalog");
+    }
+
+    @Test
+    public void testQueryDetailsOrderAndFilter() {
+        QueryDetail first = newQueryDetail("u1", QueryDetail.QueryMemState.RUNNING, -1);
+        QueryDetailQueue.addQueryDetail(first);
+        long startTime = first.getEventTime() - 1;
+        // enough to grow the buffer
+        for (int i = 0; i < 3000; i++) {
+            QueryDetailQueue.addQueryDetail(newQueryDetail(i % 2 == 0 ? "u1" : "u2",
+                    QueryDetail.QueryMemState.FINISHED, i));
+        }
+
+        List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(startTime);
+        Assert.assertEquals(3001, queryDetails.size());
+        Assert.assertSame(first, queryDetails.get(0));
+        for (int i = 1; i < queryDetails.size(); i++) {
+            Assert.assertTrue(queryDetails.get(i).getEventTime() > queryDetails.get(i - 1).getEventTime());
+        }
+        long middleTime = queryDetails.get(1000).getEventTime();
+        Assert.assertEquals(2000, QueryDetailQueue.getQueryDetailsAfterTime(middleTime).size());
+
+        Assert.assertEquals(1501, QueryDetailQueue.getQueryDetailsAfterTime(startTime,
+                queryDetail -> "u1".equals(queryDetail.getUser())).size());
+        Assert.assertEquals(1000, QueryDetailQueue.getQueryDetailsAfterTime(startTime,
+                queryDetail -> queryDetail.getState() == QueryDetail.QueryMemState.FINISHED
+                        && queryDetail.getLatency() >= 2000).size());
+    }
+
+    @Test
+    public void testQueryDetailsMemoryLimit() {
+        long oldMaxBytes = Config.query_detail_cache_max_bytes;
+        try {
+            long oldBytes = QueryDetailQueue.getTotalQueriesBytes();
+            QueryDetail queryDetail = newQueryDetail("u1", QueryDetail.QueryMemState.RUNNING, -1);
+            QueryDetailQueue.addQueryDetail(queryDetail);
+            long bytes = QueryDetailQueue.getTotalQueriesBytes() - oldBytes;
+            Config.query_detail_cache_max_bytes = bytes * 10;
+            for (int i = 0; i < 100; i++) {
+                QueryDetailQueue.addQueryDetail(newQueryDetail("u1", QueryDetail.QueryMemState.RUNNING, -1));
+            }
+            Assert.assertTrue(QueryDetailQueue.getTotalQueriesCount() <= 10);
+            Assert.assertTrue(QueryDetailQueue.getTotalQueriesBytes() <= Config.query_detail_cache_max_bytes);
+            Assert.assertTrue(QueryDetailQueue.getQueryDetailsAfterTime(queryDetail.getEventTime()).size() <= 10);
+        } finally {
+            Config.query_detail_cache_max_bytes = oldMaxBytes;
+        }
+    }
 }
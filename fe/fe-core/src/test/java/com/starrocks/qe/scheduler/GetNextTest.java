@@ -14,6 +14,7 @@
 
 package com.starrocks.qe.scheduler;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.common.UserException;
 import com.starrocks.proto.PCancelPlanFragmentRequest;
@@ -102,6 +103,54 @@ public class GetNextTest extends SchedulerTestBase {
         }
     }
 
+    @Test
+    public void testGetNextWithPrefetch() throws Exception {
+        final int NUM_PACKAGES = 10;
+        int originalPrefetchRpcNum = Config.result_prefetch_rpc_num;
+        long originalPrefetchMaxBytes = Config.result_prefetch_max_bytes;
+        Config.result_prefetch_rpc_num = 4;
+        try {
+            for (long maxBytes : new long[] {1L, 1024L * 1024}) {
+                Config.result_prefetch_max_bytes = maxBytes;
+                AtomicLong nexPacketIdx = new AtomicLong(0L);
+                setBackendService(new MockPBackendService() {
+                    @Override
+                    public Future<PFetchDataResult> fetchDataAsync(PFetchDataRequest request) {
+                        return submit(() -> {
+                            long packetIdx = nexPacketIdx.getAndIncrement();
+                            if (packetIdx + 1 < NUM_PACKAGES) {
+                                request.setSerializedResult(genResultBatch(2));
+                                return genDataResult(false, packetIdx);
+                            } else {
+                                // all the rpcs waiting after the result sink is closed get the same eos packet
+                                return genDataResult(true, NUM_PACKAGES - 1);
+                            }
+                        });
+                    }
+                });
+
+                String sql = "select count(1) from lineitem";
+                DefaultCoordinator scheduler = startScheduling(sql);
+
+                RowBatch batch;
+                for (int i = 0; i < NUM_PACKAGES; i++) {
+                    batch = scheduler.getNext();
+                    if (i + 1 < NUM_PACKAGES) {
+                        Assert.assertNotNull(batch.getBatch());
+                        Assert.assertEquals(2, batch.getBatch().getRowsSize());
+                        Assert.assertFalse(batch.isEos());
+                    } else {
+                        Assert.assertNull(batch.getBatch());
+                        Assert.assertTrue(batch.isEos());
+                    }
+                }
+            }
+        } finally {
+            Config.result_prefetch_rpc_num = originalPrefetchRpcNum;
+            Config.result_prefetch_max_bytes = originalPrefetchMaxBytes;
+        }
+    }
+
     @Test
     public void testGetNextReceiveErrorPacketSeq() throws Exception {
         setBackendService(new MockPBackendService() {
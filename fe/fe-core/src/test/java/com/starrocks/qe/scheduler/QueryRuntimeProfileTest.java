@@ -14,6 +14,7 @@
 
 package com.starrocks.qe.scheduler;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.util.Counter;
 import com.starrocks.common.util.RuntimeProfile;
 import com.starrocks.common.util.UUIDUtil;
@@ -27,6 +28,7 @@ import com.starrocks.thrift.TUnit;
 import com.starrocks.utframe.UtFrameUtils;
 import mockit.Expectations;
 import mockit.Mocked;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,6 +61,76 @@ public class QueryRuntimeProfileTest {
         };
     }
 
+    @After
+    public void tearDown() {
+        Config.enable_incremental_profile_merge = false;
+    }
+
+    private RuntimeProfile mergeFinishedInstance(QueryRuntimeProfile profile, FragmentInstanceExecState execState) {
+        RuntimeProfile instanceProfile = new RuntimeProfile("Instance 0");
+        instanceProfile.addInfoString("Address", "127.0.0.1");
+        instanceProfile.addInfoString("InstanceId", "0");
+        RuntimeProfile pipelineProfile = new RuntimeProfile("Pipeline (id=0)");
+        pipelineProfile.addCounter("ScheduleTime", TUnit.TIME_NS, null).setValue(10);
+        instanceProfile.addChild(pipelineProfile);
+        profile.getQueryProfile().getChild("Fragment 0").addChild(instanceProfile);
+
+        new Expectations() {
+            {
+                execState.getProfile();
+                result = instanceProfile;
+                minTimes = 0;
+
+                execState.getFragmentIndex();
+                result = 0;
+                minTimes = 0;
+            }
+        };
+        profile.mergeFinishedInstance(execState);
+        return instanceProfile;
+    }
+
+    @Test
+    public void testIncrementalMergeOfMergedProfile(@Mocked FragmentInstanceExecState execState) {
+        Config.enable_incremental_profile_merge = true;
+        connectContext.getSessionVariable().setEnableProfile(true);
+
+        QueryRuntimeProfile profile = new QueryRuntimeProfile(connectContext, jobSpec, 1);
+        Assert.assertTrue(profile.isProfileMerged());
+        RuntimeProfile instanceProfile = mergeFinishedInstance(profile, execState);
+        // the instance profile is released once it's merged
+        Assert.assertTrue(instanceProfile.getChildList().isEmpty());
+
+        RuntimeProfile fragmentProfile = profile.buildQueryProfile(true).getChild("Fragment 0");
+        Assert.assertEquals(1, fragmentProfile.getCounter("InstanceNum").getValue());
+        Assert.assertNotNull(fragmentProfile.getChild("Pipeline (id=0)"));
+        Assert.assertNull(fragmentProfile.getInfoString("MissingInstanceIds"));
+    }
+
+    @Test
+    public void testIncrementalMergeOfRawProfile(@Mocked FragmentInstanceExecState execState) {
+        Config.enable_incremental_profile_merge = true;
+        connectContext.getSessionVariable().setEnableProfile(true);
+        // export reads the query profile without merging it
+        new Expectations() {
+            {
+                jobSpec.isSetLoadJobId();
+                result = true;
+                minTimes = 0;
+
+                jobSpec.isLoadType();
+                result = false;
+                minTimes = 0;
+            }
+        };
+
+        QueryRuntimeProfile profile = new QueryRuntimeProfile(connectContext, jobSpec, 1);
+        Assert.assertFalse(profile.isProfileMerged());
+        RuntimeProfile instanceProfile = mergeFinishedInstance(profile, execState);
+        Assert.assertNotNull(instanceProfile.getChild("Pipeline (id=0)"));
+        Assert.assertSame(instanceProfile, profile.getQueryProfile().getChild("Fragment 0").getChild("Instance 0"));
+    }
+
     @Test
     public void testLoadChannelProfile() {
         new Expectations() {
@@ -29,6 +29,8 @@ import org.junit.Test;
 public class CreateFunctionStmtAnalyzerTest {
     private static StarRocksAssert starRocksAssert;
     private static ConnectContext connectContext;
+    // the class loaded by the mocked UDFInternalClassLoader
+    private Class<?> udfClass;
 
     @BeforeClass
     public static void beforeClass() throws Exception {
@@ -39,13 +41,17 @@ public class CreateFunctionStmtAnalyzerTest {
     }
 
     private CreateFunctionStmt createStmt(String symbol, String type) {
-        String createFunctionSql = String.format("CREATE %s FUNCTION ABC.MY_UDF_JSON_GET(string, string) \n"
-                + "RETURNS string \n"
+        return createStmt(symbol, type, "string, string", "string");
+    }
+
+    private CreateFunctionStmt createStmt(String symbol, String type, String argTypes, String returnType) {
+        String createFunctionSql = String.format("CREATE %s FUNCTION ABC.MY_UDF_JSON_GET(%s) \n"
+                + "RETURNS %s \n"
                 + "properties (\n"
                 + "    \"symbol\" = \"%s\",\n"
                 + "    \"type\" = \"StarrocksJar\",\n"
                 + "    \"file\" = \"http://localhost:8080/\"\n"
-                + ");", type, symbol);
+                + ");", type, argTypes, returnType, symbol);
         return (CreateFunctionStmt) com.starrocks.sql.parser.SqlParser.parse(
                 createFunctionSql, 32).get(0);
     }
@@ -92,6 +98,73 @@ public class CreateFunctionStmtAnalyzerTest {
         }
     }
 
+    private static class PrimitiveEval {
+        public long evaluate(int a, long b) {
+            return a + b;
+        }
+    }
+
+    private static class BoxedEval {
+        public Long evaluate(Integer a, Long b) {
+            return a == null || b == null ? null : a + b;
+        }
+    }
+
+    // the boxed parameters may be null, which can not be passed to a primitive evaluate
+    private static class PrimitiveReturnBoxedParamEval {
+        public long evaluate(Integer a, Long b) {
+            return a + b;
+        }
+    }
+
+    private static class BoxedReturnPrimitiveParamEval {
+        public Long evaluate(int a, long b) {
+            return a + b;
+        }
+    }
+
+    private CreateFunctionStmt analyzeScalarUDF(Class<?> clazz) {
+        udfClass = clazz;
+        CreateFunctionStmt stmt = createStmt("symbol", "", "int, bigint", "bigint");
+        new CreateFunctionAnalyzer().analyze(stmt, connectContext);
+        return stmt;
+    }
+
+    @Test
+    public void testJScalarUDFPrimitiveSignature() {
+        try {
+            Config.enable_udf = true;
+            new MockUp<CreateFunctionAnalyzer>() {
+                @Mock
+                public String computeMd5(CreateFunctionStmt stmt) {
+                    return "0xff";
+                }
+            };
+            new MockUp<CreateFunctionAnalyzer.UDFInternalClassLoader>() {
+                @Mock
+                public final Class<?> loadClass(String name, boolean resolve)
+                        throws ClassNotFoundException {
+                    return udfClass;
+                }
+            };
+            CreateFunctionStmt stmt = analyzeScalarUDF(PrimitiveEval.class);
+            Assert.assertEquals("0xff", stmt.getFunction().getChecksum());
+
+            stmt = analyzeScalarUDF(BoxedEval.class);
+            Assert.assertEquals("0xff", stmt.getFunction().getChecksum());
+
+            SemanticException e = Assert.assertThrows(SemanticException.class,
+                    () -> analyzeScalarUDF(PrimitiveReturnBoxedParamEval.class));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("type does not match int"));
+
+            e = Assert.assertThrows(SemanticException.class,
+                    () -> analyzeScalarUDF(BoxedReturnPrimitiveParamEval.class));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("type does not match java.lang.Integer"));
+        } finally {
+            Config.enable_udf = false;
+        }
+    }
+
     public static class EmptyAggEval {
         public static class State {
             public int serializeLength() {
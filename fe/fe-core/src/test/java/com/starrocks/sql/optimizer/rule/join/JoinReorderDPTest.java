@@ -0,0 +1,185 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class JoinReorderDPTest {
+
+    private static long edge(int... atoms) {
+        long vertexes = 0;
+        for (int atom : atoms) {
+            vertexes |= 1L << atom;
+        }
+        return vertexes;
+    }
+
+    private static List<Long> chain(int n) {
+        List<Long> edges = Lists.newArrayList();
+        for (int i = 0; i + 1 < n; i++) {
+            edges.add(edge(i, i + 1));
+        }
+        return edges;
+    }
+
+    private static List<Long> star(int n) {
+        List<Long> edges = Lists.newArrayList();
+        for (int i = 1; i < n; i++) {
+            edges.add(edge(0, i));
+        }
+        return edges;
+    }
+
+    private static List<Long> clique(int n) {
+        List<Long> edges = Lists.newArrayList();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                edges.add(edge(i, j));
+            }
+        }
+        return edges;
+    }
+
+    private static JoinReorderDP.PairEnumerator enumerate(int atomSize, List<Long> edges) {
+        JoinReorderDP.PairEnumerator enumerator = new JoinReorderDP.PairEnumerator(atomSize, edges, Long.MAX_VALUE);
+        Assert.assertTrue(enumerator.enumerate());
+        assertSameAsBruteForce(atomSize, enumerator);
+        return enumerator;
+    }
+
+    private static boolean isConnected(JoinReorderDP.PairEnumerator enumerator, long atoms) {
+        long reached = Long.lowestOneBit(atoms);
+        long frontier = reached;
+        while (frontier != 0) {
+            frontier = enumerator.getNeighbors(reached) & atoms & ~reached;
+            reached |= frontier;
+        }
+        return reached == atoms;
+    }
+
+    // every pair is a connected sub-graph and its connected complement, and every such pair is enumerated once
+    private static void assertSameAsBruteForce(int atomSize, JoinReorderDP.PairEnumerator enumerator) {
+        Set<List<Long>> pairs = Sets.newHashSet();
+        for (int i = 0; i < enumerator.pairNum; i++) {
+            long left = enumerator.leftAtoms[i];
+            long right = enumerator.rightAtoms[i];
+            Assert.assertEquals(0, left & right);
+            Assert.assertTrue(isConnected(enumerator, left));
+            Assert.assertTrue(isConnected(enumerator, right));
+            Assert.assertNotEquals(0, enumerator.getNeighbors(left) & right);
+            Assert.assertTrue(pairs.add(Lists.newArrayList(Math.min(left, right), Math.max(left, right))));
+        }
+
+        int expected = 0;
+        long all = (1L << atomSize) - 1;
+        for (long left = 1; left <= all; left++) {
+            if (!isConnected(enumerator, left)) {
+                continue;
+            }
+            long rest = all & ~left;
+            for (long right = rest; right != 0; right = (right - 1) & rest) {
+                if (left < right && isConnected(enumerator, right) && (enumerator.getNeighbors(left) & right) != 0) {
+                    expected++;
+                }
+            }
+        }
+        Assert.assertEquals(expected, enumerator.pairNum);
+    }
+
+    @Test
+    public void testChain() {
+        // (n^3 - n) / 6
+        Assert.assertEquals(10, enumerate(4, chain(4)).pairNum);
+        Assert.assertEquals(165, enumerate(10, chain(10)).pairNum);
+        JoinReorderDP.PairEnumerator enumerator = new JoinReorderDP.PairEnumerator(20, chain(20), Long.MAX_VALUE);
+        Assert.assertTrue(enumerator.enumerate());
+        Assert.assertEquals(1330, enumerator.pairNum);
+    }
+
+    @Test
+    public void testStar() {
+        // (n - 1) * 2^(n - 2)
+        Assert.assertEquals(12, enumerate(4, star(4)).pairNum);
+        Assert.assertEquals(2304, enumerate(10, star(10)).pairNum);
+    }
+
+    @Test
+    public void testClique() {
+        // (3^n - 2^(n + 1) + 1) / 2
+        Assert.assertEquals(25, enumerate(4, clique(4)).pairNum);
+        Assert.assertEquals(28501, enumerate(10, clique(10)).pairNum);
+    }
+
+    @Test
+    public void testDisconnected() {
+        // 0 - 1 and 2 - 3 are connected by cross joins, which is the same as a clique of 4 atoms
+        JoinReorderDP.PairEnumerator enumerator = enumerate(4, Lists.newArrayList(edge(0, 1), edge(2, 3)));
+        Assert.assertEquals(25, enumerator.pairNum);
+
+        // no join predicate at all
+        enumerator = enumerate(3, Lists.newArrayList());
+        Assert.assertEquals(6, enumerator.pairNum);
+
+        // the isolated atom is connected with every atom of the chain
+        enumerator = enumerate(4, Lists.newArrayList(edge(0, 1), edge(1, 2)));
+        Assert.assertEquals(edge(0, 1, 2), enumerator.getNeighbors(edge(3)));
+        Assert.assertEquals(edge(1, 3), enumerator.getNeighbors(edge(0)));
+    }
+
+    @Test
+    public void testHyperEdge() {
+        // a predicate on 0, 1 and 2 connects all of them
+        JoinReorderDP.PairEnumerator enumerator =
+                enumerate(4, Lists.newArrayList(edge(0, 1, 2), edge(2, 3)));
+        Assert.assertEquals(edge(1, 2), enumerator.getNeighbors(edge(0)));
+        Assert.assertEquals(edge(0, 1, 3), enumerator.getNeighbors(edge(2)));
+        // a predicate on a single atom doesn't connect anything
+        enumerator = enumerate(3, Lists.newArrayList(edge(0), edge(0, 1), edge(1, 2)));
+        Assert.assertEquals(enumerate(3, chain(3)).pairNum, enumerator.pairNum);
+    }
+
+    @Test
+    public void testGiveUpTooManyPairs() {
+        // a star of 14 atoms has 13 * 2^12 = 53248 pairs
+        JoinReorderDP.PairEnumerator enumerator = new JoinReorderDP.PairEnumerator(14, star(14), 53248);
+        Assert.assertTrue(enumerator.enumerate());
+        Assert.assertEquals(53248, enumerator.pairNum);
+
+        enumerator = new JoinReorderDP.PairEnumerator(14, star(14), 53247);
+        Assert.assertFalse(enumerator.enumerate());
+
+        enumerator = new JoinReorderDP.PairEnumerator(20, chain(20), 100000);
+        Assert.assertTrue(enumerator.enumerate());
+    }
+
+    @Test
+    public void testSortPairsBySize() {
+        JoinReorderDP.PairEnumerator enumerator = enumerate(6, clique(6));
+        int[] order = enumerator.sortPairsBySize();
+        Assert.assertEquals(enumerator.pairNum, order.length);
+        int lastSize = 0;
+        for (int i : order) {
+            int size = Long.bitCount(enumerator.leftAtoms[i] | enumerator.rightAtoms[i]);
+            Assert.assertTrue(size >= lastSize);
+            lastSize = size;
+        }
+    }
+}
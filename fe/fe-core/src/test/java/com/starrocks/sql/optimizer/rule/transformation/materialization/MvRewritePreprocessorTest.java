@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.MvId;
 import com.starrocks.catalog.MvPlanContext;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Pair;
@@ -28,6 +29,7 @@ import com.starrocks.sql.optimizer.MaterializationContext;
 import com.starrocks.sql.optimizer.MaterializedViewOptimizer;
 import com.starrocks.sql.optimizer.Memo;
 import com.starrocks.sql.optimizer.MvRewritePreprocessor;
+import com.starrocks.sql.optimizer.MvSignatureIndex;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.Optimizer;
 import com.starrocks.sql.optimizer.OptimizerConfig;
@@ -642,6 +644,153 @@ public class MvRewritePreprocessorTest extends MvRewriteTestBase {
         connectContext.getSessionVariable().setCboMaterializedViewRewriteRelatedMVsLimit(oldVal);
     }
 
+    @Test
+    public void testChooseRelatedMVsBySignature() {
+        List<String> mvs = ImmutableList.of(
+                "create materialized view mv_spj distributed by random as select k1, v1, v2 from t1;",
+                "create materialized view mv_agg distributed by random as select k1, sum(v1) as s from t1 " +
+                        "group by k1;"
+        );
+        List<MaterializedView> droppedMVs = Lists.newArrayList();
+        starRocksAssert.withMaterializedViews(mvs, (obj) -> {
+            MaterializedView mvSpj = getMv(DB_NAME, "mv_spj");
+            MaterializedView mvAgg = getMv(DB_NAME, "mv_agg");
+            droppedMVs.add(mvSpj);
+            droppedMVs.add(mvAgg);
+            MvSignatureIndex signatureIndex = MvSignatureIndex.getInstance();
+            Assert.assertNotNull(signatureIndex.getSignature(mvSpj));
+            Assert.assertNotNull(signatureIndex.getSignature(mvAgg));
+
+            // the plan shape is filled when the mv plan is built
+            CachingMvPlanContextBuilder.getInstance().getPlanContext(mvSpj, false);
+            CachingMvPlanContextBuilder.getInstance().getPlanContext(mvAgg, false);
+            MvSignatureIndex.MvSignature aggSignature = signatureIndex.getSignature(mvAgg);
+            Assert.assertTrue(aggSignature.hasPlanShape());
+            Assert.assertTrue(aggSignature.hasAggregate());
+            Assert.assertTrue(aggSignature.getAggFunctions().contains("sum"));
+            Assert.assertEquals(1, aggSignature.getGroupByColumns().size());
+            Assert.assertFalse(signatureIndex.getSignature(mvSpj).hasAggregate());
+
+            // query without aggregation can not be rewritten by the aggregate mv
+            {
+                String query = "select k1, v1 from t1";
+                Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+                MvRewritePreprocessor preprocessor = result.first;
+                OptExpression logicalTree = result.second;
+
+                Set<Table> queryTables = MvUtils.getAllTables(logicalTree).stream().collect(Collectors.toSet());
+                Assert.assertTrue(signatureIndex.containsAllBaseTables(mvAgg, queryTables));
+                Set<MaterializedView> relatedMVs = preprocessor.getRelatedMVs(queryTables, false);
+                Assert.assertTrue(containsMV(relatedMVs, "mv_spj", "mv_agg"));
+                Set<MaterializedView> validMVs = preprocessor.chooseBestRelatedMVs(queryTables, relatedMVs, logicalTree);
+                Assert.assertTrue(containsMV(validMVs, "mv_spj"));
+            }
+
+            // aggregate query prefers the mv with the same group by columns and aggregate functions
+            {
+                String query = "select k1, sum(v1) from t1 group by k1";
+                Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+                MvRewritePreprocessor preprocessor = result.first;
+                OptExpression logicalTree = result.second;
+
+                Set<Table> queryTables = MvUtils.getAllTables(logicalTree).stream().collect(Collectors.toSet());
+                Set<MaterializedView> relatedMVs = preprocessor.getRelatedMVs(queryTables, false);
+                Set<MaterializedView> validMVs = preprocessor.chooseBestRelatedMVs(queryTables, relatedMVs, logicalTree);
+                Assert.assertTrue(containsMV(validMVs, "mv_spj", "mv_agg"));
+
+                int oldVal = connectContext.getSessionVariable().getCboMaterializedViewRewriteRelatedMVsLimit();
+                connectContext.getSessionVariable().setCboMaterializedViewRewriteRelatedMVsLimit(1);
+                validMVs = preprocessor.chooseBestRelatedMVs(queryTables, relatedMVs, logicalTree);
+                connectContext.getSessionVariable().setCboMaterializedViewRewriteRelatedMVsLimit(oldVal);
+                Assert.assertTrue(containsMV(validMVs, "mv_agg"));
+            }
+        });
+
+        // the signatures are removed with the dropped mvs
+        for (MaterializedView mv : droppedMVs) {
+            Assert.assertNull(MvSignatureIndex.getInstance().getSignature(mv));
+        }
+    }
+
+    @Test
+    public void testLookupRelatedMVsBySignature() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view mv_lookup_t1 distributed by random " +
+                "as select k1, v1 from t1;");
+        starRocksAssert.withMaterializedView("create materialized view mv_lookup_nested distributed by random " +
+                "as select k1, sum(v1) as s from mv_lookup_t1 group by k1;");
+        MaterializedView mvT1 = getMv(DB_NAME, "mv_lookup_t1");
+        MaterializedView mvNested = getMv(DB_NAME, "mv_lookup_nested");
+        MvSignatureIndex signatureIndex = MvSignatureIndex.getInstance();
+
+        // the nested mv is found by the bit of the mv found at the previous level
+        Set<Table> queryTables = Sets.newLinkedHashSet(getTable(DB_NAME, "t1"));
+        Set<MvId> mvIds = signatureIndex.getCandidateMvIds(queryTables, 3);
+        Assert.assertTrue(mvIds.contains(mvT1.getMvId()));
+        Assert.assertTrue(mvIds.contains(mvNested.getMvId()));
+        mvIds = signatureIndex.getCandidateMvIds(queryTables, 1);
+        Assert.assertTrue(mvIds.contains(mvT1.getMvId()));
+        Assert.assertFalse(mvIds.contains(mvNested.getMvId()));
+
+        // the mvs on other tables are not looked up
+        mvIds = signatureIndex.getCandidateMvIds(Sets.newLinkedHashSet(getTable(DB_NAME, "t0")), 3);
+        Assert.assertFalse(mvIds.contains(mvT1.getMvId()));
+        Assert.assertFalse(mvIds.contains(mvNested.getMvId()));
+
+        // the mv without a plan shape is not compatible, the shape is filled before checking it
+        CachingMvPlanContextBuilder.getInstance().invalidateFromCache(mvT1, true);
+        Assert.assertFalse(signatureIndex.hasPlanShape(mvT1));
+        String query = "select k1, v1 from t1";
+        Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+        MvRewritePreprocessor preprocessor = result.first;
+        OptExpression logicalTree = result.second;
+        MvSignatureIndex.MvSignature querySignature = signatureIndex.buildQuerySignature(logicalTree, queryTables,
+                new ColumnRefFactory());
+        Assert.assertFalse(signatureIndex.isCompatible(mvT1, querySignature));
+        Set<MaterializedView> relatedMVs = preprocessor.getRelatedMVs(queryTables, false);
+        Assert.assertTrue(relatedMVs.contains(mvT1));
+        Set<MaterializedView> validMVs = preprocessor.chooseBestRelatedMVs(queryTables, relatedMVs, logicalTree);
+        Assert.assertTrue(validMVs.contains(mvT1));
+        Assert.assertFalse(validMVs.contains(mvNested));
+        Assert.assertTrue(signatureIndex.hasPlanShape(mvT1));
+
+        starRocksAssert.dropMaterializedView("mv_lookup_nested");
+        starRocksAssert.dropMaterializedView("mv_lookup_t1");
+    }
+
+    @Test
+    public void testSignatureTableBitReleasedOnDrop() throws Exception {
+        starRocksAssert.withTable("CREATE TABLE test.tbl_signature_drop (k1 int, v1 int)\n" +
+                "DISTRIBUTED BY HASH(k1) BUCKETS 3\n" +
+                "PROPERTIES('replication_num' = '1');");
+        starRocksAssert.withMaterializedView("create materialized view mv_signature_drop distributed by random " +
+                "as select k1, v1 from tbl_signature_drop;");
+        Table table = getTable(DB_NAME, "tbl_signature_drop");
+        MaterializedView mv = getMv(DB_NAME, "mv_signature_drop");
+        MvSignatureIndex signatureIndex = MvSignatureIndex.getInstance();
+        Integer tableBit = signatureIndex.getTableBit(table.getId());
+        Assert.assertNotNull(tableBit);
+        Assert.assertTrue(signatureIndex.containsAllBaseTables(mv, Sets.newLinkedHashSet(table)));
+
+        // the mv is inactive after its base table is dropped, and the bit of the table is released
+        starRocksAssert.dropTable("tbl_signature_drop");
+        Assert.assertNull(signatureIndex.getTableBit(table.getId()));
+        Assert.assertNull(signatureIndex.getSignature(mv));
+
+        // the released bit is reused by the next indexed table
+        starRocksAssert.withTable("CREATE TABLE test.tbl_signature_drop (k1 int, v1 int)\n" +
+                "DISTRIBUTED BY HASH(k1) BUCKETS 3\n" +
+                "PROPERTIES('replication_num' = '1');");
+        starRocksAssert.withMaterializedView("create materialized view mv_signature_new distributed by random " +
+                "as select k1, v1 from tbl_signature_drop;");
+        Table newTable = getTable(DB_NAME, "tbl_signature_drop");
+        Assert.assertEquals(tableBit, signatureIndex.getTableBit(newTable.getId()));
+        Assert.assertFalse(signatureIndex.containsAllBaseTables(mv, Sets.newLinkedHashSet(newTable)));
+
+        starRocksAssert.dropMaterializedView("mv_signature_new");
+        starRocksAssert.dropMaterializedView("mv_signature_drop");
+        starRocksAssert.dropTable("tbl_signature_drop");
+    }
+
     private boolean containsMV(Set<MaterializedView> mvs, String... expects) {
         Set<String> mvNames = mvs.stream().map(mv -> mv.getName()).collect(Collectors.toSet());
         if (mvNames.size() != Arrays.stream(expects).count()) {
@@ -15,6 +15,7 @@
 
 package com.starrocks.sql.plan;
 
+import com.google.common.collect.Lists;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.MaterializedIndex;
@@ -23,12 +24,18 @@ import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Tablet;
 import com.starrocks.common.FeConstants;
+import com.starrocks.planner.JDBCScanNode;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.utframe.StarRocksAssert;
+import mockit.Mock;
+import mockit.MockUp;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.List;
+
 public class ExternalTableTest extends PlanTestBase {
 
     @BeforeClass
@@ -215,6 +222,100 @@ public class ExternalTableTest extends PlanTestBase {
                         "     QUERY: SELECT a, b FROM test_table"));
     }
 
+    @Test
+    public void testJDBCTableRangePartition() throws Exception {
+        new MockUp<JDBCScanNode>() {
+            @Mock
+            public long[] queryPartitionColumnBounds() {
+                return new long[] {0, 99};
+            }
+        };
+        connectContext.getSessionVariable().setJdbcScanPartitionColumn("a");
+        connectContext.getSessionVariable().setJdbcScanPartitionNum(4);
+        try {
+            String plan = getFragmentPlan("select b, sum(a) from test.jdbc_test group by b");
+            assertContains(plan, "  0:SCAN JDBC\n" +
+                    "     TABLE: test_table\n" +
+                    "     QUERY: SELECT a, b FROM test_table\n" +
+                    "     PARTITIONS: 4 ON a");
+            // the range predicates are filters of the scan, the partition column doesn't need to be projected
+            plan = getFragmentPlan("select b, count(*) from test.jdbc_test group by b");
+            assertContains(plan, "  0:SCAN JDBC\n" +
+                    "     TABLE: test_table\n" +
+                    "     QUERY: SELECT b FROM test_table\n" +
+                    "     PARTITIONS: 4 ON a");
+            // every partition would apply the limit by itself
+            plan = getFragmentPlan("select * from test.jdbc_test limit 10");
+            assertNotContains(plan, "PARTITIONS");
+
+            // only split on integer column
+            connectContext.getSessionVariable().setJdbcScanPartitionColumn("b");
+            plan = getFragmentPlan("select b, sum(a) from test.jdbc_test group by b");
+            assertNotContains(plan, "PARTITIONS");
+        } finally {
+            connectContext.getSessionVariable().setJdbcScanPartitionColumn("");
+            connectContext.getSessionVariable().setJdbcScanPartitionNum(1);
+        }
+    }
+
+    @Test
+    public void testJDBCTableRangePartitionWithoutBounds() throws Exception {
+        // empty table or the bounds can't be queried
+        new MockUp<JDBCScanNode>() {
+            @Mock
+            public long[] queryPartitionColumnBounds() {
+                return null;
+            }
+        };
+        connectContext.getSessionVariable().setJdbcScanPartitionColumn("a");
+        connectContext.getSessionVariable().setJdbcScanPartitionNum(4);
+        try {
+            String plan = getFragmentPlan("select b, sum(a) from test.jdbc_test group by b");
+            assertContains(plan, "QUERY: SELECT a, b FROM test_table");
+            assertNotContains(plan, "PARTITIONS");
+        } finally {
+            connectContext.getSessionVariable().setJdbcScanPartitionColumn("");
+            connectContext.getSessionVariable().setJdbcScanPartitionNum(1);
+        }
+    }
+
+    @Test
+    public void testJDBCTableRangePartitionOfExplain() throws Exception {
+        // EXPLAIN doesn't query the bounds from the remote database
+        new MockUp<JDBCScanNode>() {
+            @Mock
+            public long[] queryPartitionColumnBounds() {
+                Assert.fail("the bounds of the partition column are queried by explain");
+                return null;
+            }
+        };
+        connectContext.getSessionVariable().setJdbcScanPartitionColumn("a");
+        connectContext.getSessionVariable().setJdbcScanPartitionNum(4);
+        connectContext.setExplainLevel(StatementBase.ExplainLevel.NORMAL);
+        try {
+            String plan = getFragmentPlan("select b, sum(a) from test.jdbc_test group by b");
+            assertContains(plan, "PARTITIONS: 4 ON a");
+        } finally {
+            connectContext.getSessionVariable().setJdbcScanPartitionColumn("");
+            connectContext.getSessionVariable().setJdbcScanPartitionNum(1);
+            connectContext.setExplainLevel(null);
+        }
+    }
+
+    @Test
+    public void testJDBCRangePartitionPredicates() {
+        List<String> predicates = JDBCScanNode.buildRangePartitionPredicates("a", 0, 99, 4);
+        Assert.assertEquals(Lists.newArrayList("a < 25 OR a IS NULL", "a >= 25 AND a < 50", "a >= 50 AND a < 75",
+                "a >= 75"), predicates);
+
+        predicates = JDBCScanNode.buildRangePartitionPredicates("a", Long.MIN_VALUE, Long.MAX_VALUE, 2);
+        Assert.assertEquals(Lists.newArrayList("a < 0 OR a IS NULL", "a >= 0"), predicates);
+
+        // more partitions than values
+        predicates = JDBCScanNode.buildRangePartitionPredicates("a", 5, 5, 3);
+        Assert.assertEquals(Lists.newArrayList("a < 5 OR a IS NULL", "a >= 5 AND a < 5", "a >= 5"), predicates);
+    }
+
     @Test
     public void testMysqlTableWithPredicate() throws Exception {
         String sql = "select max(order_dt) over (partition by order_no) from ods_order where order_no > 1";
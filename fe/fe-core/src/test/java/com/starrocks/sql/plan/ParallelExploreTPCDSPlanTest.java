@@ -0,0 +1,73 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The plans of the TPC-DS queries explored by ParallelTaskScheduler should be the same as the serial ones.
+ */
+public class ParallelExploreTPCDSPlanTest extends TPCDSPlanTestBase {
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        TPCDSPlanTestBase.beforeClass();
+    }
+
+    @After
+    public void tearDown() {
+        connectContext.getSessionVariable().setCboEnableParallelExplore(false);
+    }
+
+    // the column ref ids depend on the order in which the groups are explored, e.g. "12: c_customer_sk" and
+    // "<slot 12>". The plan node ids, cardinalities and constants are kept.
+    private static String normalize(String plan) {
+        return plan.replaceAll("\\b\\d+: ", "#: ").replaceAll("<slot \\d+>", "<slot #>");
+    }
+
+    private String getPlan(String sql, boolean parallel) throws Exception {
+        connectContext.getSessionVariable().setCboEnableParallelExplore(parallel);
+        return normalize(getFragmentPlan(sql));
+    }
+
+    @Test
+    public void testSameAsSerialExplore() throws Exception {
+        List<String> mismatched = Lists.newArrayList();
+        for (Map.Entry<String, String> entry : getSqlMap().entrySet()) {
+            String serialPlan = getPlan(entry.getValue(), false);
+            String parallelPlan = getPlan(entry.getValue(), true);
+            if (!serialPlan.equals(parallelPlan)) {
+                mismatched.add(entry.getKey());
+            }
+        }
+        Assert.assertTrue("plans of " + mismatched + " are different", mismatched.isEmpty());
+    }
+
+    @Test
+    public void testRepeatedParallelExplore() throws Exception {
+        // the same query is planned several times, the groups are claimed by different workers each time
+        String expected = getPlan(Q64, false);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(expected, getPlan(Q64, true));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.Config;
+import com.starrocks.sql.PlanCache;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.thrift.TExplainLevel;
+import com.starrocks.thrift.TPlanCacheItem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PlanCacheTest extends PlanTestBase {
+
+    @Before
+    public void before() {
+        Config.enable_plan_cache = true;
+        PlanCache.getInstance().clear();
+    }
+
+    @After
+    public void after() {
+        Config.enable_plan_cache = false;
+        PlanCache.getInstance().clear();
+    }
+
+    private String getPlanWithoutCache(String sql) throws Exception {
+        Config.enable_plan_cache = false;
+        try {
+            return getFragmentPlan(sql);
+        } finally {
+            Config.enable_plan_cache = true;
+        }
+    }
+
+    private long getHitCount() {
+        List<TPlanCacheItem> items = PlanCache.getInstance().listItems();
+        Assert.assertEquals(1, items.size());
+        return items.get(0).getHit_count();
+    }
+
+    @Test
+    public void testPointQuery() throws Exception {
+        String plan = getFragmentPlan("select pk, v1 from tprimary where pk = 1");
+        assertContains(plan, "1: pk = 1");
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+        Assert.assertEquals(0, getHitCount());
+
+        for (int pk = 2; pk < 10; pk++) {
+            String sql = "select pk, v1 from tprimary where pk = " + pk;
+            plan = getFragmentPlan(sql);
+            assertContains(plan, "1: pk = " + pk);
+            Assert.assertEquals(getPlanWithoutCache(sql), plan);
+        }
+        Assert.assertEquals(8, getHitCount());
+    }
+
+    @Test
+    public void testBoundPlanNotChangedByLaterBind() throws Exception {
+        getFragmentPlan("select pk, v1 from tprimary where pk = 1");
+        ExecPlan first = getExecPlan("select pk, v1 from tprimary where pk = 2");
+        PhysicalOlapScanOperator firstScan = (PhysicalOlapScanOperator) first.getPhysicalPlan().getOp();
+        String firstPredicate = firstScan.getPredicate().toString();
+        List<Long> firstTablets = Lists.newArrayList(firstScan.getSelectedTabletId());
+
+        ExecPlan second = getExecPlan("select pk, v1 from tprimary where pk = 3");
+        Assert.assertEquals(2, getHitCount());
+        Assert.assertNotSame(firstScan, second.getPhysicalPlan().getOp());
+        Assert.assertEquals(firstPredicate, firstScan.getPredicate().toString());
+        Assert.assertEquals(firstTablets, firstScan.getSelectedTabletId());
+        Assert.assertNotSame(first.getLogicalPlan(), second.getLogicalPlan());
+        assertContains(second.getExplainString(TExplainLevel.NORMAL), "1: pk = 3");
+    }
+
+    @Test
+    public void testMultiKeyColumns() throws Exception {
+        getFragmentPlan("select v3 from tprimary_bool where pk1 = 33 and pk2 = true");
+        String sql = "select v3 from tprimary_bool where pk1 = 20 and pk2 = false";
+        String plan = getFragmentPlan(sql);
+        assertContains(plan, "1: pk1 = 20");
+        Assert.assertEquals(getPlanWithoutCache(sql), plan);
+        Assert.assertEquals(1, getHitCount());
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        getFragmentPlan("select pk, v1 from tprimary where pk = 1 limit 1");
+        getFragmentPlan("select pk + 1 from tprimary where pk = 1");
+        getFragmentPlan("select pk, v1 from tprimary where pk > 1");
+        getFragmentPlan("select pk, v1 from tprimary where v2 = 1");
+        getFragmentPlan("select v1, v2 from t0 where v1 = 1 and v2 = 2");
+        getFragmentPlan("explain select pk, v1 from tprimary where pk = 1");
+        Assert.assertEquals(0, PlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testInvalidateBySchemaChange() throws Exception {
+        getFragmentPlan("select pk, v1 from tprimary where pk = 1");
+        getFragmentPlan("select pk, v1 from tprimary where pk = 2");
+        Assert.assertEquals(1, getHitCount());
+
+        OlapTable table = getOlapTable("tprimary");
+        table.lastSchemaUpdateTime.set(System.nanoTime());
+        getFragmentPlan("select pk, v1 from tprimary where pk = 3");
+        Assert.assertEquals(0, getHitCount());
+
+        table.lastVersionUpdateStartTime.set(System.nanoTime());
+        table.lastVersionUpdateEndTime.set(System.nanoTime());
+        getFragmentPlan("select pk, v1 from tprimary where pk = 4");
+        Assert.assertEquals(0, getHitCount());
+        getFragmentPlan("select pk, v1 from tprimary where pk = 5");
+        Assert.assertEquals(1, getHitCount());
+    }
+}
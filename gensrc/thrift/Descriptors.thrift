@@ -169,6 +169,7 @@ enum TSchemaTableType {
     SCH_PARTITIONS_META,
     SYS_FE_MEMORY_USAGE,
     SCH_TEMP_TABLES,
+    SCH_FE_PLAN_CACHE,
 }
 
 enum THdfsCompression {
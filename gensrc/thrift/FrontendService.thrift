@@ -1674,6 +1674,23 @@ struct TFeMemoryRes {
     1: optional list<TFeMemoryItem> items
 }
 
+struct TPlanCacheItem {
+    1: optional i64 table_id
+    2: optional string sql_digest
+    3: optional string param_types
+    4: optional i64 hit_count
+    5: optional string create_time
+    6: optional string last_hit_time
+}
+
+struct TPlanCacheReq {
+    1: optional TAuthInfo auth_info
+}
+
+struct TPlanCacheRes {
+    1: optional list<TPlanCacheItem> items
+}
+
 enum TGrantsToType {
     ROLE,
     USER,
@@ -1872,6 +1889,9 @@ service FrontendService {
     // sys.fe_memory_usage
     TFeMemoryRes listFeMemoryUsage(1: TFeMemoryReq request)
 
+    // information_schema.fe_plan_cache
+    TPlanCacheRes listPlanCache(1: TPlanCacheReq request)
+
     TRequireSlotResponse requireSlotAsync(1: TRequireSlotRequest request)
     TFinishSlotRequirementResponse finishSlotRequirement(1: TFinishSlotRequirementRequest request)
     TReleaseSlotResponse releaseSlot(1: TReleaseSlotRequest request)
@@ -391,6 +391,11 @@ struct TBinlogScanRange {
   11: optional Types.TBinlogOffset offset
 }
 
+struct TJDBCScanRange {
+  // the predicate on the partition column selecting the rows of this range, ANDed with the filters of the scan node
+  1: optional string partition_predicate
+}
+
 // Specification of an individual data range which is held in its entirety
 // by a storage server
 struct TScanRange {
@@ -404,6 +409,9 @@ struct TScanRange {
   20: optional THdfsScanRange hdfs_scan_range
   
   30: optional TBinlogScanRange binlog_scan_range
+
+  // scan range for range partitioned jdbc scan
+  31: optional TJDBCScanRange jdbc_scan_range
 }
 
 struct TMySQLScanNode {
@@ -212,6 +212,7 @@ public class HudiSliceScanner extends ConnectorScanner {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
             parseRequiredTypes();
             initOffHeapTableWriter(requiredTypes, requiredFields, fetchSize);
+            enableOffHeapTableReuse();
             Properties properties = makeProperties();
             JobConf jobConf = makeJobConf(properties);
             initReader(jobConf, properties);
@@ -35,4 +35,9 @@ public class JDBCBridge {
     public JDBCScanner getScanner(JDBCScanContext scanContext) throws Exception {
         return new JDBCScanner(this.driverLocation, scanContext);
     }
+
+    // requiredTypes: the type of each result column joined by '#', see JDBCColumnarScanner
+    public JDBCColumnarScanner getColumnarScanner(JDBCScanContext scanContext, String requiredTypes) {
+        return new JDBCColumnarScanner(this.driverLocation, scanContext, requiredTypes);
+    }
 }
@@ -0,0 +1,337 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.jdbcbridge;
+
+import com.starrocks.jni.connector.ColumnBatchBuffer;
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.ColumnValue;
+import com.starrocks.jni.connector.ConnectorScanner;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the result set of a jdbc query into the off-heap table by the typed getters of {@link ResultSet},
+ * so the values are neither boxed nor converted to strings on the way to BE.
+ * <p>
+ * The types of the result columns are decided by BE, see `JDBCBridge.getColumnarScanner`.
+ * Primitive, string and date columns are collected by {@link ColumnBatchBuffer}, datetime and decimal columns
+ * are appended one value at a time.
+ */
+public class JDBCColumnarScanner extends ConnectorScanner {
+    private final String driverLocation;
+    private final JDBCScanContext scanContext;
+    private final ColumnType[] requiredTypes;
+    private final int fetchSize;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private ColumnBatchBuffer[] batches;
+    private final ResultSetValue resultSetValue = new ResultSetValue();
+
+    /**
+     * @param requiredTypes type of each result column, joined by '#', e.g. "bigint#string#decimal64(10,2)"
+     */
+    public JDBCColumnarScanner(String driverLocation, JDBCScanContext scanContext, String requiredTypes) {
+        this.driverLocation = driverLocation;
+        this.scanContext = scanContext;
+        this.fetchSize = scanContext.getStatementFetchSize();
+        String[] types = requiredTypes.split("#");
+        this.requiredTypes = new ColumnType[types.length];
+        for (int i = 0; i < types.length; i++) {
+            this.requiredTypes[i] = new ColumnType("c" + i, types[i]);
+        }
+    }
+
+    @Override
+    public void open() throws IOException {
+        try {
+            DataSourceCache.DataSourceCacheItem cacheItem = JDBCScanner.getDataSource(driverLocation, scanContext);
+            HikariDataSource dataSource = cacheItem.getHikariDataSource();
+            connection = dataSource.getConnection();
+            statement = JDBCScanner.prepareStatement(connection, scanContext);
+            resultSet = statement.executeQuery();
+            if (resultSet.getMetaData().getColumnCount() != requiredTypes.length) {
+                throw new IOException(String.format("JDBC result has %d columns, but %d columns are required",
+                        resultSet.getMetaData().getColumnCount(), requiredTypes.length));
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to open JDBC columnar scanner: " + e.getMessage(), e);
+        }
+
+        String[] requiredFields = new String[requiredTypes.length];
+        batches = new ColumnBatchBuffer[requiredTypes.length];
+        for (int i = 0; i < requiredTypes.length; i++) {
+            requiredFields[i] = "c" + i;
+            if (ColumnBatchBuffer.isSupported(requiredTypes[i])) {
+                batches[i] = new ColumnBatchBuffer(requiredTypes[i], fetchSize);
+            }
+        }
+        initOffHeapTableWriter(requiredTypes, requiredFields, fetchSize);
+        enableOffHeapTableReuse();
+    }
+
+    @Override
+    public int getNext() throws IOException {
+        int numRows = 0;
+        try {
+            while (numRows < fetchSize && resultSet.next()) {
+                for (int i = 0; i < requiredTypes.length; i++) {
+                    if (batches[i] != null) {
+                        appendValue(i + 1, requiredTypes[i].getTypeValue(), batches[i]);
+                    } else {
+                        resultSetValue.columnIndex = i + 1;
+                        appendData(i, resultSetValue.isNull(requiredTypes[i]) ? null : resultSetValue);
+                    }
+                }
+                numRows++;
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to read JDBC result: " + e.getMessage(), e);
+        }
+        for (int i = 0; i < batches.length; i++) {
+            if (batches[i] != null) {
+                appendColumnBatch(i, batches[i]);
+            }
+        }
+        return numRows;
+    }
+
+    private void appendValue(int columnIndex, ColumnType.TypeValue type, ColumnBatchBuffer batch) throws Exception {
+        switch (type) {
+            case BOOLEAN: {
+                boolean value = resultSet.getBoolean(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendBoolean(value);
+                }
+                break;
+            }
+            case BYTE:
+            case TINYINT: {
+                byte value = resultSet.getByte(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendByte(value);
+                }
+                break;
+            }
+            case SHORT: {
+                short value = resultSet.getShort(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendShort(value);
+                }
+                break;
+            }
+            case INT: {
+                int value = resultSet.getInt(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendInt(value);
+                }
+                break;
+            }
+            case LONG: {
+                long value = resultSet.getLong(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendLong(value);
+                }
+                break;
+            }
+            case FLOAT: {
+                float value = resultSet.getFloat(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendFloat(value);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double value = resultSet.getDouble(columnIndex);
+                if (resultSet.wasNull()) {
+                    batch.appendNull();
+                } else {
+                    batch.appendDouble(value);
+                }
+                break;
+            }
+            case DATE: {
+                Date value = resultSet.getDate(columnIndex);
+                if (value == null) {
+                    batch.appendNull();
+                } else {
+                    batch.appendDate((int) value.toLocalDate().toEpochDay());
+                }
+                break;
+            }
+            case STRING: {
+                String value = resultSet.getString(columnIndex);
+                if (value == null) {
+                    batch.appendNull();
+                } else {
+                    batch.appendBytes(value.getBytes(StandardCharsets.UTF_8));
+                }
+                break;
+            }
+            case BINARY: {
+                byte[] value = resultSet.getBytes(columnIndex);
+                if (value == null) {
+                    batch.appendNull();
+                } else {
+                    batch.appendBytes(value);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported column batch type: " + type);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to close JDBC columnar scanner: " + e.getMessage(), e);
+        }
+    }
+
+    // Reads the datetime and decimal columns of the current row, the getters are only called once per value.
+    private class ResultSetValue implements ColumnValue {
+        private int columnIndex;
+        private Timestamp timestamp;
+        private BigDecimal decimal;
+
+        boolean isNull(ColumnType type) throws Exception {
+            timestamp = null;
+            decimal = null;
+            if (type.isDecimal()) {
+                decimal = resultSet.getBigDecimal(columnIndex);
+                if (decimal != null) {
+                    decimal = decimal.setScale(type.getScale(), RoundingMode.HALF_UP);
+                }
+                return decimal == null;
+            } else {
+                timestamp = resultSet.getTimestamp(columnIndex);
+                return timestamp == null;
+            }
+        }
+
+        @Override
+        public BigDecimal getDecimal() {
+            return decimal;
+        }
+
+        @Override
+        public LocalDateTime getDateTime(ColumnType.TypeValue type) {
+            return timestamp.toLocalDateTime();
+        }
+
+        @Override
+        public boolean getBoolean() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public short getShort() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getInt() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public float getFloat() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getLong() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getDouble() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getString(ColumnType.TypeValue type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void unpackArray(List<ColumnValue> values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void unpackMap(List<ColumnValue> keys, List<ColumnValue> values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void unpackStruct(List<Integer> structFieldIndex, List<ColumnValue> values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte getByte() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LocalDate getDate() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
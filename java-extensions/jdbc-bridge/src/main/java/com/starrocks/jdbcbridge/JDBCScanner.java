@@ -59,9 +59,36 @@ public class JDBCScanner {
     }
 
     public void open() throws Exception {
+        DataSourceCache.DataSourceCacheItem cacheItem = getDataSource(driverLocation, scanContext);
+        dataSource = cacheItem.getHikariDataSource();
+        classLoader = cacheItem.getClassLoader();
+
+        connection = dataSource.getConnection();
+        statement = prepareStatement(connection, scanContext);
+        statement.executeQuery();
+        resultSet = statement.getResultSet();
+        resultSetMetaData = resultSet.getMetaData();
+        resultColumnClassNames = new ArrayList<>(resultSetMetaData.getColumnCount());
+        resultChunk = new ArrayList<>(resultSetMetaData.getColumnCount());
+        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+            resultColumnClassNames.add(resultSetMetaData.getColumnClassName(i));
+            Class<?> clazz = classLoader.loadClass(resultSetMetaData.getColumnClassName(i));
+            if (isGeneralJDBCClassType(clazz)) {
+                resultChunk.add((Object[]) Array.newInstance(clazz, scanContext.getStatementFetchSize()));
+            } else if (null != mapEngineSpecificClassType(clazz)) {
+                Class targetClass = mapEngineSpecificClassType(clazz);
+                resultChunk.add((Object[]) Array.newInstance(targetClass, scanContext.getStatementFetchSize()));
+            } else {
+                resultChunk.add((Object[]) Array.newInstance(String.class, scanContext.getStatementFetchSize()));
+            }
+        }
+    }
+
+    static DataSourceCache.DataSourceCacheItem getDataSource(String driverLocation, JDBCScanContext scanContext)
+            throws Exception {
         String key = scanContext.getUser() + "/" + scanContext.getJdbcURL();
         URL driverURL = new File(driverLocation).toURI().toURL();
-        DataSourceCache.DataSourceCacheItem cacheItem = DataSourceCache.getInstance().getSource(key, () -> {
+        return DataSourceCache.getInstance().getSource(key, () -> {
             ClassLoader classLoader = URLClassLoader.newInstance(new URL[] {driverURL});
             Thread.currentThread().setContextClassLoader(classLoader);
             HikariConfig config = new HikariConfig();
@@ -78,35 +105,18 @@ public class JDBCScanner {
             // ArrayStoreException in getNextChunk
             return new DataSourceCache.DataSourceCacheItem(hikariDataSource, classLoader);
         });
-        dataSource = cacheItem.getHikariDataSource();
-        classLoader = cacheItem.getClassLoader();
+    }
 
-        connection = dataSource.getConnection();
+    static PreparedStatement prepareStatement(Connection connection, JDBCScanContext scanContext) throws Exception {
         connection.setAutoCommit(false);
-        statement = connection.prepareStatement(scanContext.getSql(), ResultSet.TYPE_FORWARD_ONLY,
+        PreparedStatement statement = connection.prepareStatement(scanContext.getSql(), ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY);
         if (scanContext.getDriverClassName().toLowerCase(Locale.ROOT).contains("mysql")) {
             statement.setFetchSize(Integer.MIN_VALUE);
         } else {
             statement.setFetchSize(scanContext.getStatementFetchSize());
         }
-        statement.executeQuery();
-        resultSet = statement.getResultSet();
-        resultSetMetaData = resultSet.getMetaData();
-        resultColumnClassNames = new ArrayList<>(resultSetMetaData.getColumnCount());
-        resultChunk = new ArrayList<>(resultSetMetaData.getColumnCount());
-        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
-            resultColumnClassNames.add(resultSetMetaData.getColumnClassName(i));
-            Class<?> clazz = classLoader.loadClass(resultSetMetaData.getColumnClassName(i));
-            if (isGeneralJDBCClassType(clazz)) {
-                resultChunk.add((Object[]) Array.newInstance(clazz, scanContext.getStatementFetchSize()));
-            } else if (null != mapEngineSpecificClassType(clazz)) {
-                Class targetClass = mapEngineSpecificClassType(clazz);
-                resultChunk.add((Object[]) Array.newInstance(targetClass, scanContext.getStatementFetchSize()));
-            } else {
-                resultChunk.add((Object[]) Array.newInstance(String.class, scanContext.getStatementFetchSize()));
-            }
-        }
+        return statement;
     }
 
     private static final Set<Class<?>> GENERAL_JDBC_CLASS_SET = new HashSet<>(
@@ -0,0 +1,214 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.jni.connector;
+
+import java.util.Arrays;
+
+/**
+ * Collects the values of one column in primitive java arrays, and appends them to an
+ * {@link OffHeapColumnVector} in bulk by {@link ConnectorScanner#appendColumnBatch(int, ColumnBatchBuffer)}.
+ * Scanners use it for primitive and string columns to avoid creating a {@link ColumnValue} for every value.
+ * <p>
+ * The buffer doesn't check the type of the appended values, callers must use the append method which matches
+ * the column type, see {@link ColumnBatchBuffer#isSupported(ColumnType)}.
+ * At most `capacity` values can be appended before the buffer is flushed.
+ */
+public class ColumnBatchBuffer {
+    // julian day of 1970-01-01, BE saves dates as julian days.
+    private static final int JULIAN_DAY_OF_EPOCH = 2440588;
+    private static final int DEFAULT_STRING_LENGTH = 16;
+
+    private final ColumnType.TypeValue typeValue;
+    private final boolean[] nulls;
+    private int numValues = 0;
+    private boolean hasNull = false;
+
+    // only the array matches the column type is allocated.
+    private boolean[] booleans;
+    private byte[] bytes;
+    private short[] shorts;
+    private int[] ints;
+    private long[] longs;
+    private float[] floats;
+    private double[] doubles;
+    // for string and binary column.
+    private int[] offsets;
+    private byte[] data;
+
+    public ColumnBatchBuffer(ColumnType type, int capacity) {
+        this.typeValue = type.getTypeValue();
+        this.nulls = new boolean[capacity];
+        switch (typeValue) {
+            case BOOLEAN:
+                booleans = new boolean[capacity];
+                break;
+            case BYTE:
+            case TINYINT:
+                bytes = new byte[capacity];
+                break;
+            case SHORT:
+                shorts = new short[capacity];
+                break;
+            case INT:
+            case DATE:
+                ints = new int[capacity];
+                break;
+            case LONG:
+                longs = new long[capacity];
+                break;
+            case FLOAT:
+                floats = new float[capacity];
+                break;
+            case DOUBLE:
+                doubles = new double[capacity];
+                break;
+            case STRING:
+            case BINARY:
+                offsets = new int[capacity + 1];
+                data = new byte[capacity * DEFAULT_STRING_LENGTH];
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported column batch type: " + type);
+        }
+    }
+
+    public static boolean isSupported(ColumnType type) {
+        switch (type.getTypeValue()) {
+            case BOOLEAN:
+            case BYTE:
+            case TINYINT:
+            case SHORT:
+            case INT:
+            case DATE:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+            case BINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public int getNumValues() {
+        return numValues;
+    }
+
+    public void appendNull() {
+        nulls[numValues] = true;
+        hasNull = true;
+        if (offsets != null) {
+            offsets[numValues + 1] = offsets[numValues];
+        }
+        numValues++;
+    }
+
+    public void appendBoolean(boolean value) {
+        booleans[numValues++] = value;
+    }
+
+    public void appendByte(byte value) {
+        bytes[numValues++] = value;
+    }
+
+    public void appendShort(short value) {
+        shorts[numValues++] = value;
+    }
+
+    public void appendInt(int value) {
+        ints[numValues++] = value;
+    }
+
+    /**
+     * @param epochDay days since 1970-01-01, same as {@link java.time.LocalDate#toEpochDay()}
+     */
+    public void appendDate(int epochDay) {
+        ints[numValues++] = epochDay + JULIAN_DAY_OF_EPOCH;
+    }
+
+    public void appendLong(long value) {
+        longs[numValues++] = value;
+    }
+
+    public void appendFloat(float value) {
+        floats[numValues++] = value;
+    }
+
+    public void appendDouble(double value) {
+        doubles[numValues++] = value;
+    }
+
+    public void appendBytes(byte[] value) {
+        appendBytes(value, 0, value.length);
+    }
+
+    public void appendBytes(byte[] value, int offset, int length) {
+        int start = offsets[numValues];
+        int end = start + length;
+        if (end > data.length) {
+            data = Arrays.copyOf(data, Math.max(end, data.length * 2));
+        }
+        System.arraycopy(value, offset, data, start, length);
+        offsets[++numValues] = end;
+    }
+
+    /**
+     * Append all the buffered values to the column vector, and clear the buffer.
+     */
+    public void flush(OffHeapColumnVector vector) {
+        boolean[] nullValues = hasNull ? nulls : null;
+        switch (typeValue) {
+            case BOOLEAN:
+                vector.appendBooleanBatch(booleans, nullValues, numValues);
+                break;
+            case BYTE:
+            case TINYINT:
+                vector.appendByteBatch(bytes, nullValues, numValues);
+                break;
+            case SHORT:
+                vector.appendShortBatch(shorts, nullValues, numValues);
+                break;
+            case INT:
+            case DATE:
+                vector.appendIntBatch(ints, nullValues, numValues);
+                break;
+            case LONG:
+                vector.appendLongBatch(longs, nullValues, numValues);
+                break;
+            case FLOAT:
+                vector.appendFloatBatch(floats, nullValues, numValues);
+                break;
+            case DOUBLE:
+                vector.appendDoubleBatch(doubles, nullValues, numValues);
+                break;
+            case STRING:
+            case BINARY:
+                vector.appendByteArrayBatch(data, offsets, nullValues, numValues);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported column batch type: " + typeValue);
+        }
+        reset();
+    }
+
+    public void reset() {
+        if (hasNull) {
+            Arrays.fill(nulls, 0, numValues, false);
+            hasNull = false;
+        }
+        numValues = 0;
+    }
+}
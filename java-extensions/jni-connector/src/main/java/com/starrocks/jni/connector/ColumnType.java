@@ -439,7 +439,8 @@ public class ColumnType {
         return rawTypeValue;
     }
 
-    // convert decimal(x,y) to decimal
+    // convert decimal(x,y) to decimal64 or decimal128 by the precision, decimal32(x,y), decimal64(x,y) and
+    // decimal128(x,y) keep the width of the type tag, which is the width of the slot in BE
     private TypeValue parseDecimal(String rawType) {
         String type = rawType;
         int precision = -1;
@@ -450,8 +451,11 @@ public class ColumnType {
             String[] ps = type.substring(s + 1, e).split(",");
             precision = Integer.parseInt(ps[0].trim());
             scale = Integer.parseInt(ps[1].trim());
-            // this logic is the same as FE's ScalarType.createUnifiedDecimalType
-            if (precision <= MAX_DECIMAL64_PRECISION) {
+            String typeTag = type.substring(0, s).trim();
+            if (!typeTag.equals("decimal")) {
+                type = typeTag;
+            } else if (precision <= MAX_DECIMAL64_PRECISION) {
+                // this logic is the same as FE's ScalarType.createUnifiedDecimalType
                 type = "decimal64";
             } else {
                 type = "decimal128";
@@ -40,13 +40,29 @@ import java.io.IOException;
  * }
  * } while (true);
  * close();
+ * <p>
+ * By default, a new {@link OffHeapTable} is allocated for every chunk and freed once BE has consumed it.
+ * Scanners can call {@link ConnectorScanner#enableOffHeapTableReuse(long)} to keep the off-heap table
+ * (and the buffers of all its column vectors) across chunks. The buffers are then rewound and grown in place,
+ * and only freed when they exceed the high-water mark or when {@link ConnectorScanner#closeOffHeapTable()}
+ * is called by BE at the end of the scan.
  */
 public abstract class ConnectorScanner {
+    public static final long DEFAULT_OFF_HEAP_TABLE_HIGH_WATER_MARK = 64L * 1024 * 1024;
+
     private OffHeapTable offHeapTable;
     private String[] fields;
     private ColumnType[] types;
     private int tableSize;
 
+    private boolean offHeapTableReuse = false;
+    private long offHeapTableHighWaterMark = DEFAULT_OFF_HEAP_TABLE_HIGH_WATER_MARK;
+    // off-heap bytes of the tables which were reused for a chunk instead of being allocated again.
+    private long offHeapBytesReused = 0;
+    // off-heap bytes newly allocated, including the growth of a reused table.
+    private long offHeapBytesAllocated = 0;
+    private long offHeapBytesBeforeChunk = 0;
+
     /**
      * Initialize the reader with parameters passed by the class constructor and allocate necessary resources.
      * Developers can call {@link ConnectorScanner#initOffHeapTableWriter(ColumnType[], String[], int)} method here
@@ -63,8 +79,8 @@ public abstract class ConnectorScanner {
      * Scan original data and save it to off-heap table.
      *
      * @return The number of rows scanned.
-     * The specific implementation needs to call the {@link ConnectorScanner#appendData(int, Object)} method
-     * to save data to off-heap table.
+     * The specific implementation needs to call the {@link ConnectorScanner#appendData(int, ColumnValue)} or
+     * {@link ConnectorScanner#appendColumnBatch(int, ColumnBatchBuffer)} method to save data to off-heap table.
      * The number of rows scanned must less than or equal to {@link ConnectorScanner#tableSize}
      */
     public abstract int getNext() throws IOException;
@@ -82,10 +98,46 @@ public abstract class ConnectorScanner {
         this.fields = requiredFields;
     }
 
+    /**
+     * Keep the off-heap table across chunks instead of allocating and freeing it for every chunk.
+     *
+     * @param highWaterMark max off-heap bytes a table can hold to be reused, a bigger table is freed after use
+     */
+    protected void enableOffHeapTableReuse(long highWaterMark) {
+        this.offHeapTableReuse = true;
+        this.offHeapTableHighWaterMark = highWaterMark;
+    }
+
+    protected void enableOffHeapTableReuse() {
+        enableOffHeapTableReuse(DEFAULT_OFF_HEAP_TABLE_HIGH_WATER_MARK);
+    }
+
+    public boolean isOffHeapTableReuse() {
+        return offHeapTableReuse;
+    }
+
+    public long getOffHeapBytesReused() {
+        return offHeapBytesReused;
+    }
+
+    public long getOffHeapBytesAllocated() {
+        return offHeapBytesAllocated;
+    }
+
     protected void appendData(int index, ColumnValue value) {
         offHeapTable.appendData(index, value);
     }
 
+    /**
+     * Append all the values buffered in `batch` to the column at `index`, it's much cheaper than calling
+     * {@link ConnectorScanner#appendData(int, ColumnValue)} for every value of primitive or string columns.
+     * A column should be filled either by this method or by {@link ConnectorScanner#appendData(int, ColumnValue)}
+     * within a chunk.
+     */
+    protected void appendColumnBatch(int index, ColumnBatchBuffer batch) {
+        offHeapTable.appendColumnBatch(index, batch);
+    }
+
     protected int getTableSize() {
         return tableSize;
     }
@@ -107,21 +159,82 @@ public abstract class ConnectorScanner {
     }
 
     private void initOffHeapTable() {
-        offHeapTable = new OffHeapTable(types, fields, tableSize);
+        if (offHeapTableReuse && offHeapTable != null) {
+            offHeapTable.reset();
+            offHeapBytesBeforeChunk = offHeapTable.getAllocatedBytes();
+            offHeapBytesReused += offHeapBytesBeforeChunk;
+        } else {
+            offHeapTable = new OffHeapTable(types, fields, tableSize);
+            offHeapBytesBeforeChunk = 0;
+        }
     }
 
     private long finishOffHeapTable(int numRows) {
         offHeapTable.setNumRows(numRows);
-        return offHeapTable.getMetaNativeAddress();
+        long address = offHeapTable.getMetaNativeAddress();
+        offHeapBytesAllocated += Math.max(0, offHeapTable.getAllocatedBytes() - offHeapBytesBeforeChunk);
+        return address;
+    }
+
+    /**
+     * Scanners which read Apache Arrow record batches natively can return true here and implement
+     * {@link ConnectorScanner#exportNextArrowBatch(long, long)}. BE then imports the record batches through the
+     * Arrow C data interface instead of calling {@link ConnectorScanner#getNextOffHeapChunk()}, so values are not
+     * copied into the off-heap table. BE still converts the arrays into its own columns.
+     */
+    public boolean isArrowExportSupported() {
+        return false;
+    }
+
+    /**
+     * Export the next record batch into the `ArrowArray` and `ArrowSchema` structs allocated by BE.
+     * The buffers of the batch must be kept alive until BE calls the release callback of the structs.
+     *
+     * @param arrowArrayAddress  address of the `ArrowArray` struct
+     * @param arrowSchemaAddress address of the `ArrowSchema` struct
+     * @return The number of rows exported, 0 means the end of data and the structs are left untouched.
+     */
+    public int exportNextArrowBatch(long arrowArrayAddress, long arrowSchemaAddress) throws IOException {
+        throw new UnsupportedOperationException("Arrow export is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Called by BE if the exported record batches can't be converted into its columns directly, e.g. a column
+     * needs a cast. The scanner must then return the last exported batch and the rest of data by
+     * {@link ConnectorScanner#getNextOffHeapChunk()}.
+     */
+    public void fallbackToOffHeapTable() {
+        throw new UnsupportedOperationException("Arrow export is not supported by " + getClass().getName());
     }
 
     protected void releaseOffHeapColumnVector(int fieldId) {
+        if (offHeapTableReuse) {
+            // buffers are kept for the next chunk, they are freed in releaseOffHeapTable if needed.
+            return;
+        }
         offHeapTable.releaseOffHeapColumnVector(fieldId);
     }
 
     protected void releaseOffHeapTable() {
+        if (offHeapTable == null) {
+            return;
+        }
+        if (!offHeapTableReuse) {
+            offHeapTable.close();
+        } else if (offHeapTable.getAllocatedBytes() > offHeapTableHighWaterMark) {
+            offHeapTable.close();
+            offHeapTable = null;
+        }
+    }
+
+    /**
+     * Free the off-heap table no matter whether it's reused or not.
+     * Called by BE when the scanner is closed.
+     */
+    protected void closeOffHeapTable() {
         if (offHeapTable != null) {
             offHeapTable.close();
+            offHeapTable = null;
         }
     }
 }
@@ -142,18 +142,23 @@ public class OffHeapColumnVector {
             this.data = Platform.reallocateMemory(data, oldCapacity * typeSize, newCapacity * typeSize);
         } else if (type.isByteStorageType()) {
             this.offsetData = Platform.reallocateMemory(offsetData, oldOffsetSize, newOffsetSize);
-            int childCapacity = newCapacity * DEFAULT_STRING_LENGTH;
-            this.childColumns = new OffHeapColumnVector[1];
-            this.childColumns[0] = new OffHeapColumnVector(childCapacity, new ColumnType(type.name + "#data",
-                    ColumnType.TypeValue.BYTE));
+            // child columns grow by themselves, keep the appended data when the offsets are enlarged.
+            if (childColumns == null) {
+                int childCapacity = newCapacity * DEFAULT_STRING_LENGTH;
+                this.childColumns = new OffHeapColumnVector[1];
+                this.childColumns[0] = new OffHeapColumnVector(childCapacity, new ColumnType(type.name + "#data",
+                        ColumnType.TypeValue.BYTE));
+            }
         } else if (type.isArray() || type.isMap() || type.isStruct()) {
             if (type.isArray() || type.isMap()) {
                 this.offsetData = Platform.reallocateMemory(offsetData, oldOffsetSize, newOffsetSize);
             }
-            int size = type.childTypes.size();
-            this.childColumns = new OffHeapColumnVector[size];
-            for (int i = 0; i < size; i++) {
-                this.childColumns[i] = new OffHeapColumnVector(newCapacity, type.childTypes.get(i));
+            if (childColumns == null) {
+                int size = type.childTypes.size();
+                this.childColumns = new OffHeapColumnVector[size];
+                for (int i = 0; i < size; i++) {
+                    this.childColumns[i] = new OffHeapColumnVector(newCapacity, type.childTypes.get(i));
+                }
             }
         } else {
             throw new RuntimeException("Unhandled type: " + type);
@@ -169,7 +174,12 @@ public class OffHeapColumnVector {
         }
     }
 
-    private void reset() {
+    /**
+     * Rewind the write cursor so that the allocated buffers can be filled again.
+     * The buffers keep their current capacity, so a reused vector doesn't need to grow again
+     * unless a chunk is bigger than all the previous ones.
+     */
+    void reset() {
         if (childColumns != null) {
             for (OffHeapColumnVector c : childColumns) {
                 c.reset();
@@ -182,6 +192,28 @@ public class OffHeapColumnVector {
         }
     }
 
+    /**
+     * @return the number of off-heap bytes held by this vector and all its child vectors.
+     */
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        if (nulls != 0) {
+            bytes += capacity;
+        }
+        if (data != 0) {
+            bytes += (long) capacity * type.getPrimitiveTypeValueSize();
+        }
+        if (offsetData != 0) {
+            bytes += (capacity + 1) * 4L;
+        }
+        if (childColumns != null) {
+            for (OffHeapColumnVector c : childColumns) {
+                bytes += c.getAllocatedBytes();
+            }
+        }
+        return bytes;
+    }
+
     private OffHeapColumnVector arrayData() {
         return childColumns[0];
     }
@@ -461,6 +493,75 @@ public class OffHeapColumnVector {
         return appendLong(datetime);
     }
 
+    // Bulk append methods for the scanners which can read a whole column batch at once,
+    // nulls[i] tells whether the i-th value is null, nulls can be null if there is no null value.
+
+    public void appendBooleanBatch(boolean[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.BOOLEAN_ARRAY_OFFSET, 1, nulls, count);
+    }
+
+    public void appendByteBatch(byte[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.BYTE_ARRAY_OFFSET, 1, nulls, count);
+    }
+
+    public void appendShortBatch(short[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.SHORT_ARRAY_OFFSET, 2, nulls, count);
+    }
+
+    public void appendIntBatch(int[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.INT_ARRAY_OFFSET, 4, nulls, count);
+    }
+
+    public void appendLongBatch(long[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.LONG_ARRAY_OFFSET, 8, nulls, count);
+    }
+
+    public void appendFloatBatch(float[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.FLOAT_ARRAY_OFFSET, 4, nulls, count);
+    }
+
+    public void appendDoubleBatch(double[] values, boolean[] nulls, int count) {
+        appendFixedLengthBatch(values, Platform.DOUBLE_ARRAY_OFFSET, 8, nulls, count);
+    }
+
+    /**
+     * Bulk append `count` values of a string or binary column.
+     * The i-th value is bytes[offsets[i], offsets[i + 1]), so offsets must have at least `count + 1` elements.
+     */
+    public void appendByteArrayBatch(byte[] bytes, int[] offsets, boolean[] nulls, int count) {
+        int length = offsets[count] - offsets[0];
+        int base = arrayData().appendBytes(length, bytes, offsets[0]) - offsets[0];
+        reserve(elementsAppended + count);
+        long offsetAddress = offsetData + 4L * elementsAppended;
+        Platform.putInt(null, offsetAddress, base + offsets[0]);
+        for (int i = 1; i <= count; i++) {
+            Platform.putInt(null, offsetAddress + 4L * i, base + offsets[i]);
+        }
+        appendNullBatch(nulls, count);
+        elementsAppended += count;
+    }
+
+    private void appendFixedLengthBatch(Object values, long valuesOffset, int typeSize, boolean[] nulls, int count) {
+        reserve(elementsAppended + count);
+        Platform.copyMemory(values, valuesOffset, null, data + (long) typeSize * elementsAppended,
+                (long) typeSize * count);
+        appendNullBatch(nulls, count);
+        elementsAppended += count;
+    }
+
+    private void appendNullBatch(boolean[] values, int count) {
+        if (values == null) {
+            // null indicators after the write cursor are always zero.
+            return;
+        }
+        Platform.copyMemory(values, Platform.BOOLEAN_ARRAY_OFFSET, null, nulls + elementsAppended, count);
+        for (int i = 0; i < count; i++) {
+            if (values[i]) {
+                ++numNulls;
+            }
+        }
+    }
+
     public void updateMeta(OffHeapColumnVector meta) {
         if (type.isUnknown()) {
             meta.appendLong(0);
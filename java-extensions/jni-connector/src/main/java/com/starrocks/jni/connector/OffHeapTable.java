@@ -76,8 +76,12 @@ public class OffHeapTable {
     public OffHeapColumnVector meta;
     public int numRows;
     public boolean[] released;
+    private final ColumnType[] types;
+    private final int capacity;
 
     public OffHeapTable(ColumnType[] types, String[] fields, int capacity) {
+        this.types = types;
+        this.capacity = capacity;
         this.fields = fields;
         this.vectors = new OffHeapColumnVector[types.length];
         this.released = new boolean[types.length];
@@ -95,6 +99,10 @@ public class OffHeapTable {
         vectors[fieldId].appendValue(o);
     }
 
+    public void appendColumnBatch(int fieldId, ColumnBatchBuffer batch) {
+        batch.flush(vectors[fieldId]);
+    }
+
     public void releaseOffHeapColumnVector(int fieldId) {
         if (!released[fieldId]) {
             vectors[fieldId].close();
@@ -110,6 +118,36 @@ public class OffHeapTable {
         return this.numRows;
     }
 
+    /**
+     * Prepare this table to be filled with the next chunk. The off-heap buffers are kept and rewound,
+     * only the column vectors which have been released are allocated again.
+     */
+    public void reset() {
+        for (int i = 0; i < vectors.length; i++) {
+            if (released[i]) {
+                vectors[i] = new OffHeapColumnVector(capacity, types[i]);
+                released[i] = false;
+            } else {
+                vectors[i].reset();
+            }
+        }
+        meta.reset();
+        this.numRows = 0;
+    }
+
+    /**
+     * @return the number of off-heap bytes held by the column vectors and the meta column of this table.
+     */
+    public long getAllocatedBytes() {
+        long bytes = meta.getAllocatedBytes();
+        for (int i = 0; i < vectors.length; i++) {
+            if (!released[i]) {
+                bytes += vectors[i].getAllocatedBytes();
+            }
+        }
+        return bytes;
+    }
+
     public long getMetaNativeAddress() {
         meta.appendLong(numRows);
         for (OffHeapColumnVector v : vectors) {
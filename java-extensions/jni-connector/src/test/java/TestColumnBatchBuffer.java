@@ -0,0 +1,119 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+import com.starrocks.jni.connector.ColumnBatchBuffer;
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.OffHeapTable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+public class TestColumnBatchBuffer {
+
+    @Before
+    public void setUp() {
+        System.setProperty("starrocks.fe.test", "1");
+    }
+
+    @After
+    public void tearDown() {
+        System.setProperty("starrocks.fe.test", "0");
+    }
+
+    @Test
+    public void testAppendColumnBatch() {
+        ColumnType[] types = new ColumnType[] {new ColumnType("id", ColumnType.TypeValue.LONG),
+                new ColumnType("name", ColumnType.TypeValue.STRING),
+                new ColumnType("flag", ColumnType.TypeValue.BOOLEAN)};
+        OffHeapTable table = new OffHeapTable(types, new String[] {"id", "name", "flag"}, 4);
+        ColumnBatchBuffer ids = new ColumnBatchBuffer(types[0], 4);
+        ColumnBatchBuffer names = new ColumnBatchBuffer(types[1], 4);
+        ColumnBatchBuffer flags = new ColumnBatchBuffer(types[2], 4);
+
+        // two batches to check the offsets of the string column.
+        for (int batch = 0; batch < 2; batch++) {
+            for (int i = 0; i < 4; i++) {
+                int row = batch * 4 + i;
+                if (row % 3 == 1) {
+                    ids.appendNull();
+                    names.appendNull();
+                } else {
+                    ids.appendLong(row * 100L);
+                    names.appendBytes(("name-" + row).getBytes(StandardCharsets.UTF_8));
+                }
+                flags.appendBoolean(row % 2 == 0);
+            }
+            table.appendColumnBatch(0, ids);
+            table.appendColumnBatch(1, names);
+            table.appendColumnBatch(2, flags);
+            Assert.assertEquals(0, ids.getNumValues());
+        }
+        table.setNumRows(8);
+        table.getMetaNativeAddress();
+        table.checkTableMeta(false);
+        Assert.assertEquals("row0: [id:0,name:name-0,flag:true]\n" +
+                "row1: [id:NULL,name:NULL,flag:false]\n" +
+                "row2: [id:200,name:name-2,flag:true]\n" +
+                "row3: [id:300,name:name-3,flag:false]\n" +
+                "row4: [id:NULL,name:NULL,flag:true]\n" +
+                "row5: [id:500,name:name-5,flag:false]\n" +
+                "row6: [id:600,name:name-6,flag:true]\n" +
+                "row7: [id:NULL,name:NULL,flag:false]\n", table.dump(8));
+        table.close();
+    }
+
+    @Test
+    public void testAppendDate() {
+        ColumnType type = new ColumnType("dt", ColumnType.TypeValue.DATE);
+        OffHeapTable expected = new OffHeapTable(new ColumnType[] {type}, new String[] {"dt"}, 2);
+        OffHeapTable actual = new OffHeapTable(new ColumnType[] {type}, new String[] {"dt"}, 2);
+        ColumnBatchBuffer batch = new ColumnBatchBuffer(type, 2);
+        LocalDate[] dates = new LocalDate[] {LocalDate.of(1970, 1, 1), LocalDate.of(2023, 12, 31)};
+        for (LocalDate date : dates) {
+            expected.vectors[0].appendDate(date);
+            batch.appendDate((int) date.toEpochDay());
+        }
+        actual.appendColumnBatch(0, batch);
+        for (int i = 0; i < dates.length; i++) {
+            Assert.assertEquals(expected.vectors[0].getInt(i), actual.vectors[0].getInt(i));
+        }
+        expected.close();
+        actual.close();
+    }
+
+    @Test
+    public void testDecimal32RoundTrip() {
+        // BE reads a decimal32 slot with a 4 bytes stride
+        ColumnType type = new ColumnType("price", "decimal32(9,2)");
+        OffHeapColumnVector vector = new OffHeapColumnVector(4, type);
+        vector.appendDecimal(new BigDecimal("1.25"));
+        vector.appendNull();
+        vector.appendDecimal(new BigDecimal("-3.5"));
+        vector.appendDecimal(new BigDecimal("9999999.99"));
+
+        Assert.assertEquals(125, vector.getInt(0));
+        Assert.assertTrue(vector.isNullAt(1));
+        Assert.assertEquals(-350, vector.getInt(2));
+        Assert.assertEquals(999999999, vector.getInt(3));
+        Assert.assertEquals(new BigDecimal("-3.50"), vector.getDecimal(2));
+        Assert.assertEquals(new BigDecimal("9999999.99"), vector.getDecimal(3));
+        vector.close();
+    }
+}
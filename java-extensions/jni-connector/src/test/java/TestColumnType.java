@@ -26,6 +26,27 @@ public class TestColumnType {
         Assert.assertEquals(t.getTypeValue(), ColumnType.TypeValue.INT);
     }
 
+    @Test
+    public void parseDecimalType() {
+        // decimal(p,s) is unified by the precision
+        ColumnType t = new ColumnType("decimal(9,2)");
+        Assert.assertEquals(ColumnType.TypeValue.DECIMAL64, t.getTypeValue());
+        Assert.assertEquals(2, t.getScale());
+        t = new ColumnType("decimal(27,9)");
+        Assert.assertEquals(ColumnType.TypeValue.DECIMAL128, t.getTypeValue());
+
+        // the explicit width of the slot is kept
+        t = new ColumnType("decimal32(9,2)");
+        Assert.assertEquals(ColumnType.TypeValue.DECIMAL32, t.getTypeValue());
+        Assert.assertEquals(4, t.getPrimitiveTypeValueSize());
+        Assert.assertEquals(2, t.getScale());
+        t = new ColumnType("decimal64(9,2)");
+        Assert.assertEquals(ColumnType.TypeValue.DECIMAL64, t.getTypeValue());
+        t = new ColumnType("decimal128(10,3)");
+        Assert.assertEquals(ColumnType.TypeValue.DECIMAL128, t.getTypeValue());
+        Assert.assertEquals(3, t.getScale());
+    }
+
     @Test
     public void parseArrayType() {
         String s = "array<string>";
@@ -0,0 +1,222 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.ColumnValue;
+import com.starrocks.jni.connector.ConnectorScanner;
+import com.starrocks.jni.connector.OffHeapTable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TestOffHeapTableReuse {
+
+    @Before
+    public void setUp() {
+        System.setProperty("starrocks.fe.test", "1");
+    }
+
+    @After
+    public void tearDown() {
+        System.setProperty("starrocks.fe.test", "0");
+    }
+
+    static class IntValue implements ColumnValue {
+        private final int value;
+
+        IntValue(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean getBoolean() {
+            return value != 0;
+        }
+
+        @Override
+        public short getShort() {
+            return (short) value;
+        }
+
+        @Override
+        public int getInt() {
+            return value;
+        }
+
+        @Override
+        public float getFloat() {
+            return value;
+        }
+
+        @Override
+        public long getLong() {
+            return value;
+        }
+
+        @Override
+        public double getDouble() {
+            return value;
+        }
+
+        @Override
+        public String getString(ColumnType.TypeValue type) {
+            return "value-" + value;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return getString(ColumnType.TypeValue.STRING).getBytes();
+        }
+
+        @Override
+        public void unpackArray(List<ColumnValue> values) {
+        }
+
+        @Override
+        public void unpackMap(List<ColumnValue> keys, List<ColumnValue> values) {
+        }
+
+        @Override
+        public void unpackStruct(List<Integer> structFieldIndex, List<ColumnValue> values) {
+        }
+
+        @Override
+        public byte getByte() {
+            return (byte) value;
+        }
+
+        @Override
+        public BigDecimal getDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public LocalDate getDate() {
+            return null;
+        }
+
+        @Override
+        public LocalDateTime getDateTime(ColumnType.TypeValue type) {
+            return null;
+        }
+    }
+
+    static class MockScanner extends ConnectorScanner {
+        private final int fetchSize;
+        private final int totalRows;
+        private final long highWaterMark;
+        private int nextRow = 0;
+
+        MockScanner(int fetchSize, int totalRows, long highWaterMark) {
+            this.fetchSize = fetchSize;
+            this.totalRows = totalRows;
+            this.highWaterMark = highWaterMark;
+        }
+
+        @Override
+        public void open() {
+            ColumnType[] types = new ColumnType[] {new ColumnType("id", ColumnType.TypeValue.INT),
+                    new ColumnType("name", ColumnType.TypeValue.STRING)};
+            initOffHeapTableWriter(types, new String[] {"id", "name"}, fetchSize);
+            enableOffHeapTableReuse(highWaterMark);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public int getNext() {
+            int numRows = 0;
+            while (nextRow < totalRows && numRows < fetchSize) {
+                if (nextRow % 3 == 0) {
+                    appendData(0, null);
+                } else {
+                    appendData(0, new IntValue(nextRow));
+                }
+                appendData(1, new IntValue(nextRow));
+                nextRow++;
+                numRows++;
+            }
+            return numRows;
+        }
+
+        void release() {
+            for (int i = 0; i < 2; i++) {
+                releaseOffHeapColumnVector(i);
+            }
+            releaseOffHeapTable();
+        }
+
+        void closeTable() {
+            closeOffHeapTable();
+        }
+    }
+
+    @Test
+    public void testReuseOffHeapTable() throws Exception {
+        MockScanner scanner = new MockScanner(4, 10, Long.MAX_VALUE);
+        scanner.open();
+
+        scanner.getNextOffHeapChunk();
+        OffHeapTable table = scanner.getOffHeapTable();
+        Assert.assertEquals(4, table.getNumRows());
+        table.checkTableMeta(false);
+        Assert.assertEquals("row0: [id:NULL,name:value-0]\n", table.dump(1));
+        scanner.release();
+        Assert.assertEquals(0, scanner.getOffHeapBytesReused());
+        long allocated = scanner.getOffHeapBytesAllocated();
+        Assert.assertTrue(allocated > 0);
+
+        scanner.getNextOffHeapChunk();
+        Assert.assertSame(table, scanner.getOffHeapTable());
+        Assert.assertEquals(4, table.getNumRows());
+        table.checkTableMeta(false);
+        Assert.assertEquals("row0: [id:4,name:value-4]\nrow1: [id:5,name:value-5]\n", table.dump(2));
+        scanner.release();
+        Assert.assertEquals(allocated, scanner.getOffHeapBytesReused());
+        Assert.assertEquals(allocated, scanner.getOffHeapBytesAllocated());
+
+        scanner.getNextOffHeapChunk();
+        Assert.assertEquals(2, table.getNumRows());
+        Assert.assertEquals("row0: [id:8,name:value-8]\nrow1: [id:NULL,name:value-9]\n", table.dump(2));
+        scanner.release();
+
+        scanner.closeTable();
+        Assert.assertNull(scanner.getOffHeapTable());
+    }
+
+    @Test
+    public void testHighWaterMark() throws Exception {
+        MockScanner scanner = new MockScanner(4, 10, 0);
+        scanner.open();
+
+        scanner.getNextOffHeapChunk();
+        OffHeapTable table = scanner.getOffHeapTable();
+        scanner.release();
+        Assert.assertNull(scanner.getOffHeapTable());
+
+        scanner.getNextOffHeapChunk();
+        Assert.assertNotSame(table, scanner.getOffHeapTable());
+        Assert.assertEquals("row0: [id:4,name:value-4]\n", scanner.getOffHeapTable().dump(1));
+        scanner.release();
+        Assert.assertEquals(0, scanner.getOffHeapBytesReused());
+    }
+}
@@ -14,6 +14,7 @@
 
 package com.starrocks.kudu.reader;
 
+import com.starrocks.jni.connector.ColumnBatchBuffer;
 import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ConnectorScanner;
 import com.starrocks.jni.connector.ScannerHelper;
@@ -30,6 +31,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,6 +45,9 @@ public class KuduSplitScanner extends ConnectorScanner {
     private KuduScanner scanner;
     private final String[] requiredFields;
     private ColumnType[] requiredTypes;
+    private Type[] logicalTypes;
+    // column batches for primitive and string columns, null for the other columns.
+    private ColumnBatchBuffer[] columnBatches;
     private KuduScannerIterator iterator;
     private final int fetchSize;
     private final ClassLoader classLoader;
@@ -58,7 +63,8 @@ public class KuduSplitScanner extends ConnectorScanner {
     private void parseRequiredTypes() {
         Schema schema = scanner.getProjectionSchema();
         requiredTypes = new ColumnType[requiredFields.length];
-        Type[] logicalTypes = new Type[requiredFields.length];
+        logicalTypes = new Type[requiredFields.length];
+        columnBatches = new ColumnBatchBuffer[requiredFields.length];
         for (int i = 0; i < requiredFields.length; i++) {
             int index = schema.getColumnIndex(requiredFields[i]);
             if (index == -1) {
@@ -70,6 +76,9 @@ public class KuduSplitScanner extends ConnectorScanner {
             String columnType = KuduTypeUtils.fromKuduType(columnSchema);
             requiredTypes[i] = new ColumnType(columnType);
             logicalTypes[i] = type;
+            if (isColumnBatchSupported(type)) {
+                columnBatches[i] = new ColumnBatchBuffer(requiredTypes[i], fetchSize);
+            }
         }
     }
 
@@ -117,7 +126,9 @@ public class KuduSplitScanner extends ConnectorScanner {
                     break;
                 }
                 for (int i = 0; i < requiredFields.length; i++) {
-                    if (row.isNull(i)) {
+                    if (columnBatches[i] != null) {
+                        appendToColumnBatch(row, i, columnBatches[i]);
+                    } else if (row.isNull(i)) {
                         appendData(i, null);
                     } else {
                         KuduColumnValue fieldValue = new KuduColumnValue(row, i);
@@ -126,6 +137,11 @@ public class KuduSplitScanner extends ConnectorScanner {
                 }
                 numRows++;
             }
+            for (int i = 0; i < requiredFields.length; i++) {
+                if (columnBatches[i] != null) {
+                    appendColumnBatch(i, columnBatches[i]);
+                }
+            }
             return numRows;
         } catch (Exception e) {
             close();
@@ -135,6 +151,67 @@ public class KuduSplitScanner extends ConnectorScanner {
         }
     }
 
+    private static boolean isColumnBatchSupported(Type type) {
+        switch (type) {
+            case BOOL:
+            case INT8:
+            case INT16:
+            case INT32:
+            case INT64:
+            case FLOAT:
+            case DOUBLE:
+            case DATE:
+            case STRING:
+            case VARCHAR:
+            case BINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void appendToColumnBatch(RowResult row, int index, ColumnBatchBuffer batch) {
+        if (row.isNull(index)) {
+            batch.appendNull();
+            return;
+        }
+        switch (logicalTypes[index]) {
+            case BOOL:
+                batch.appendBoolean(row.getBoolean(index));
+                break;
+            case INT8:
+                batch.appendByte(row.getByte(index));
+                break;
+            case INT16:
+                batch.appendShort(row.getShort(index));
+                break;
+            case INT32:
+                batch.appendInt(row.getInt(index));
+                break;
+            case INT64:
+                batch.appendLong(row.getLong(index));
+                break;
+            case FLOAT:
+                batch.appendFloat(row.getFloat(index));
+                break;
+            case DOUBLE:
+                batch.appendDouble(row.getDouble(index));
+                break;
+            case DATE:
+                batch.appendDate((int) row.getDate(index).toLocalDate().toEpochDay());
+                break;
+            case STRING:
+            case VARCHAR:
+                batch.appendBytes(row.getString(index).getBytes(StandardCharsets.UTF_8));
+                break;
+            case BINARY:
+                batch.appendBytes(row.getBinaryCopy(index));
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported column batch type: " + logicalTypes[index]);
+        }
+    }
+
     public String toString() {
         return "scanner: "
                 + scanner
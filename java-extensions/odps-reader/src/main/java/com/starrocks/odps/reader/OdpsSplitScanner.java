@@ -34,6 +34,11 @@ import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ConnectorScanner;
 import com.starrocks.jni.connector.ScannerHelper;
 import com.starrocks.utils.loader.ThreadContextClassLoader;
+import org.apache.arrow.c.ArrowArray;
+import org.apache.arrow.c.ArrowSchema;
+import org.apache.arrow.c.Data;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.types.pojo.Field;
@@ -67,6 +72,11 @@ public class OdpsSplitScanner extends ConnectorScanner {
     private final TableBatchReadSession scan;
     private SplitReader<VectorSchemaRoot> reader;
     private Map<String, Integer> nameIndexMap;
+    // only used to allocate the private data of the exported arrow structs.
+    private BufferAllocator exportAllocator;
+    // the last exported batch, it's returned again by getNext if BE falls back to the off-heap table.
+    private VectorSchemaRoot lastExportedRoot;
+    private VectorSchemaRoot pendingRoot;
 
     private final String timezone;
 
@@ -145,6 +155,10 @@ public class OdpsSplitScanner extends ConnectorScanner {
             if (reader != null) {
                 reader.close();
             }
+            if (exportAllocator != null) {
+                exportAllocator.close();
+                exportAllocator = null;
+            }
         } catch (Exception e) {
             String msg = "Failed to close the odps reader.";
             LOG.error(msg, e);
@@ -160,43 +174,89 @@ public class OdpsSplitScanner extends ConnectorScanner {
     @Override
     public int getNext() throws IOException {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            if (pendingRoot != null) {
+                VectorSchemaRoot vectorSchemaRoot = pendingRoot;
+                pendingRoot = null;
+                return appendVectorSchemaRoot(vectorSchemaRoot);
+            }
             if (reader.hasNext()) {
+                return appendVectorSchemaRoot(reader.get());
+            }
+            return 0;
+        } catch (Exception e) {
+            close();
+            String msg = "Failed to get the next off-heap table chunk of odps.";
+            LOG.error(msg, e);
+            throw new IOException(msg, e);
+        }
+    }
+
+    private int appendVectorSchemaRoot(VectorSchemaRoot vectorSchemaRoot) {
+        List<FieldVector> fieldVectors = vectorSchemaRoot.getFieldVectors();
+        ArrowVectorAccessor[] columnAccessors = new ArrowVectorAccessor[requireColumns.length];
+        List<Field> fields = vectorSchemaRoot.getSchema().getFields();
+        for (int i = 0; i < fieldVectors.size(); i++) {
+            String filedName = fields.get(i).getName();
+            int fieldIndex = nameIndexMap.get(filedName);
+            columnAccessors[i] =
+                    OdpsTypeUtils.createColumnVectorAccessor(fieldVectors.get(i),
+                            requireColumns[fieldIndex].getTypeInfo());
+        }
+        for (int rowId = 0; rowId < fieldVectors.size(); rowId++) {
+            String filedName = fields.get(rowId).getName();
+            int fieldIndex = nameIndexMap.get(filedName);
+            for (int index = 0; index < vectorSchemaRoot.getRowCount(); index++) {
+                Object data =
+                        OdpsTypeUtils.getData(columnAccessors[rowId], requireColumns[fieldIndex].getTypeInfo(),
+                                index);
+                if (data == null) {
+                    appendData(fieldIndex, null);
+                } else {
+                    appendData(fieldIndex, new OdpsColumnValue(data, requireColumns[fieldIndex].getTypeInfo(), timezone));
+                }
+            }
+        }
+        return vectorSchemaRoot.getRowCount();
+    }
+
+    @Override
+    public boolean isArrowExportSupported() {
+        return true;
+    }
+
+    // BE looks up the columns by name, so the order of fields in the exported batch doesn't matter.
+    @Override
+    public int exportNextArrowBatch(long arrowArrayAddress, long arrowSchemaAddress) throws IOException {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            while (reader.hasNext()) {
                 VectorSchemaRoot vectorSchemaRoot = reader.get();
-                List<FieldVector> fieldVectors = vectorSchemaRoot.getFieldVectors();
-                ArrowVectorAccessor[] columnAccessors = new ArrowVectorAccessor[requireColumns.length];
-                List<Field> fields = vectorSchemaRoot.getSchema().getFields();
-                for (int i = 0; i < fieldVectors.size(); i++) {
-                    String filedName = fields.get(i).getName();
-                    int fieldIndex = nameIndexMap.get(filedName);
-                    columnAccessors[i] =
-                            OdpsTypeUtils.createColumnVectorAccessor(fieldVectors.get(i),
-                                    requireColumns[fieldIndex].getTypeInfo());
+                if (vectorSchemaRoot.getRowCount() == 0) {
+                    continue;
                 }
-                for (int rowId = 0; rowId < fieldVectors.size(); rowId++) {
-                    String filedName = fields.get(rowId).getName();
-                    int fieldIndex = nameIndexMap.get(filedName);
-                    for (int index = 0; index < vectorSchemaRoot.getRowCount(); index++) {
-                        Object data =
-                                OdpsTypeUtils.getData(columnAccessors[rowId], requireColumns[fieldIndex].getTypeInfo(),
-                                        index);
-                        if (data == null) {
-                            appendData(fieldIndex, null);
-                        } else {
-                            appendData(fieldIndex, new OdpsColumnValue(data, requireColumns[fieldIndex].getTypeInfo(), timezone));
-                        }
-                    }
+                if (exportAllocator == null) {
+                    exportAllocator = new RootAllocator();
                 }
+                Data.exportVectorSchemaRoot(exportAllocator, vectorSchemaRoot, null,
+                        ArrowArray.wrap(arrowArrayAddress), ArrowSchema.wrap(arrowSchemaAddress));
+                lastExportedRoot = vectorSchemaRoot;
                 return vectorSchemaRoot.getRowCount();
             }
             return 0;
         } catch (Exception e) {
             close();
-            String msg = "Failed to get the next off-heap table chunk of odps.";
+            String msg = "Failed to export the next arrow batch of odps.";
             LOG.error(msg, e);
             throw new IOException(msg, e);
         }
     }
 
+    // the reader is not advanced after the batch is exported, so the last exported batch is still readable.
+    @Override
+    public void fallbackToOffHeapTable() {
+        pendingRoot = lastExportedRoot;
+        lastExportedRoot = null;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
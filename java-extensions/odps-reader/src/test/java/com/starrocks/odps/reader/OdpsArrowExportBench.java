@@ -0,0 +1,151 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.odps.reader;
+
+import com.aliyun.odps.table.arrow.accessor.ArrowVectorAccessor;
+import com.aliyun.odps.type.TypeInfo;
+import com.aliyun.odps.type.TypeInfoFactory;
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapTable;
+import org.apache.arrow.c.ArrowArray;
+import org.apache.arrow.c.ArrowSchema;
+import org.apache.arrow.c.Data;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the java side cost of handing one odps record batch to BE:
+ * copying every value into the off-heap table (current path) vs. exporting it through Arrow C data interface.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Dstarrocks.fe.test=1")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OdpsArrowExportBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(OdpsArrowExportBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"4096"})
+    public int rows;
+
+    private BufferAllocator allocator;
+    private VectorSchemaRoot root;
+    private TypeInfo[] typeInfos;
+    private ColumnType[] columnTypes;
+    private String[] fieldNames;
+
+    @Setup
+    public void setup() {
+        allocator = new RootAllocator();
+        BigIntVector ids = new BigIntVector("id", allocator);
+        Float8Vector prices = new Float8Vector("price", allocator);
+        VarCharVector names = new VarCharVector("name", allocator);
+        ids.allocateNew(rows);
+        prices.allocateNew(rows);
+        names.allocateNew(rows);
+        for (int i = 0; i < rows; i++) {
+            ids.set(i, i);
+            prices.set(i, i * 0.5);
+            if (i % 10 == 0) {
+                names.setNull(i);
+            } else {
+                names.setSafe(i, ("name-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        List<FieldVector> vectors = Arrays.asList(ids, prices, names);
+        root = new VectorSchemaRoot(vectors);
+        root.setRowCount(rows);
+
+        typeInfos = new TypeInfo[] {TypeInfoFactory.BIGINT, TypeInfoFactory.DOUBLE, TypeInfoFactory.STRING};
+        columnTypes = new ColumnType[] {new ColumnType("id", ColumnType.TypeValue.LONG),
+                new ColumnType("price", ColumnType.TypeValue.DOUBLE),
+                new ColumnType("name", ColumnType.TypeValue.STRING)};
+        fieldNames = new String[] {"id", "price", "name"};
+    }
+
+    @TearDown
+    public void tearDown() {
+        root.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    public long copyToOffHeapTable() {
+        OffHeapTable table = new OffHeapTable(columnTypes, fieldNames, rows);
+        List<FieldVector> fieldVectors = root.getFieldVectors();
+        for (int col = 0; col < fieldVectors.size(); col++) {
+            ArrowVectorAccessor accessor =
+                    OdpsTypeUtils.createColumnVectorAccessor(fieldVectors.get(col), typeInfos[col]);
+            for (int row = 0; row < root.getRowCount(); row++) {
+                Object data = OdpsTypeUtils.getData(accessor, typeInfos[col], row);
+                if (data == null) {
+                    table.appendData(col, null);
+                } else {
+                    table.appendData(col, new OdpsColumnValue(data, typeInfos[col], "UTC"));
+                }
+            }
+        }
+        table.setNumRows(root.getRowCount());
+        long address = table.getMetaNativeAddress();
+        table.close();
+        return address;
+    }
+
+    @Benchmark
+    public long exportArrowBatch() {
+        try (ArrowArray array = ArrowArray.allocateNew(allocator);
+                ArrowSchema schema = ArrowSchema.allocateNew(allocator)) {
+            Data.exportVectorSchemaRoot(allocator, root, null, array, schema);
+            long address = array.memoryAddress();
+            // BE calls the release callbacks once the batch is converted.
+            array.release();
+            schema.release();
+            return address;
+        }
+    }
+}
@@ -14,6 +14,7 @@
 
 package com.starrocks.paimon.reader;
 
+import com.starrocks.jni.connector.ColumnBatchBuffer;
 import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ColumnValue;
 import com.starrocks.jni.connector.ConnectorScanner;
@@ -47,6 +48,8 @@ public class PaimonSplitScanner extends ConnectorScanner {
     private final String encodedTable;
     private ColumnType[] requiredTypes;
     private DataType[] logicalTypes;
+    // column batches for primitive and string columns, null for the other columns.
+    private ColumnBatchBuffer[] columnBatches;
     private Table table;
     private RecordReaderIterator<InternalRow> iterator;
     private final int fetchSize;
@@ -70,6 +73,7 @@ public class PaimonSplitScanner extends ConnectorScanner {
         List<String> fieldNames = PaimonScannerUtils.fieldNames(table.rowType());
         requiredTypes = new ColumnType[requiredFields.length];
         logicalTypes = new DataType[requiredFields.length];
+        columnBatches = new ColumnBatchBuffer[requiredFields.length];
         for (int i = 0; i < requiredFields.length; i++) {
             int index = fieldNames.indexOf(requiredFields[i]);
             if (index == -1) {
@@ -80,6 +84,9 @@ public class PaimonSplitScanner extends ConnectorScanner {
             String type = PaimonTypeUtils.fromPaimonType(dataType);
             requiredTypes[i] = new ColumnType(type);
             logicalTypes[i] = dataType;
+            if (isColumnBatchSupported(dataType)) {
+                columnBatches[i] = new ColumnBatchBuffer(requiredTypes[i], fetchSize);
+            }
         }
 
         // prune fields
@@ -113,6 +120,7 @@ public class PaimonSplitScanner extends ConnectorScanner {
             table = PaimonScannerUtils.decodeStringToObject(encodedTable);
             parseRequiredTypes();
             initOffHeapTableWriter(requiredTypes, requiredFields, fetchSize);
+            enableOffHeapTableReuse();
             initReader();
         } catch (Exception e) {
             close();
@@ -145,6 +153,10 @@ public class PaimonSplitScanner extends ConnectorScanner {
                     break;
                 }
                 for (int i = 0; i < requiredFields.length; i++) {
+                    if (columnBatches[i] != null) {
+                        appendToColumnBatch(row, i, columnBatches[i]);
+                        continue;
+                    }
                     Object fieldData = InternalRowUtils.get(row, i, logicalTypes[i]);
                     if (fieldData == null) {
                         appendData(i, null);
@@ -155,6 +167,11 @@ public class PaimonSplitScanner extends ConnectorScanner {
                 }
                 numRows++;
             }
+            for (int i = 0; i < requiredFields.length; i++) {
+                if (columnBatches[i] != null) {
+                    appendColumnBatch(i, columnBatches[i]);
+                }
+            }
             return numRows;
         } catch (Exception e) {
             close();
@@ -165,6 +182,69 @@ public class PaimonSplitScanner extends ConnectorScanner {
 
     }
 
+    private static boolean isColumnBatchSupported(DataType dataType) {
+        switch (dataType.getTypeRoot()) {
+            case BOOLEAN:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+            case DATE:
+            case CHAR:
+            case VARCHAR:
+            case BINARY:
+            case VARBINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void appendToColumnBatch(InternalRow row, int pos, ColumnBatchBuffer batch) {
+        if (row.isNullAt(pos)) {
+            batch.appendNull();
+            return;
+        }
+        switch (logicalTypes[pos].getTypeRoot()) {
+            case BOOLEAN:
+                batch.appendBoolean(row.getBoolean(pos));
+                break;
+            case TINYINT:
+                batch.appendByte(row.getByte(pos));
+                break;
+            case SMALLINT:
+                batch.appendShort(row.getShort(pos));
+                break;
+            case INTEGER:
+                batch.appendInt(row.getInt(pos));
+                break;
+            case BIGINT:
+                batch.appendLong(row.getLong(pos));
+                break;
+            case FLOAT:
+                batch.appendFloat(row.getFloat(pos));
+                break;
+            case DOUBLE:
+                batch.appendDouble(row.getDouble(pos));
+                break;
+            case DATE:
+                batch.appendDate(row.getInt(pos));
+                break;
+            case CHAR:
+            case VARCHAR:
+                batch.appendBytes(row.getString(pos).toBytes());
+                break;
+            case BINARY:
+            case VARBINARY:
+                batch.appendBytes(row.getBinary(pos));
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported column batch type: " + logicalTypes[pos]);
+        }
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("splitInfo: ");
@@ -26,19 +26,31 @@ import static org.objectweb.asm.Opcodes.AALOAD;
 import static org.objectweb.asm.Opcodes.AASTORE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ANEWARRAY;
 import static org.objectweb.asm.Opcodes.ARETURN;
 import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.F_APPEND;
 import static org.objectweb.asm.Opcodes.F_CHOP;
+import static org.objectweb.asm.Opcodes.F_SAME;
 import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.I2L;
+import static org.objectweb.asm.Opcodes.IALOAD;
 import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.ICONST_M1;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
 import static org.objectweb.asm.Opcodes.IF_ICMPGE;
 import static org.objectweb.asm.Opcodes.ILOAD;
 import static org.objectweb.asm.Opcodes.INTEGER;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.LADD;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LSHL;
 import static org.objectweb.asm.Opcodes.RETURN;
 import static org.objectweb.asm.Opcodes.V1_8;
 
@@ -165,6 +177,149 @@ public class CallStubGenerator {
         return generator.getByteCode();
     }
 
+    // generate batch update/merge for the states in FunctionStates, the states are addressed by their ids,
+    // and -1 means the row should be skipped.
+    // public class UpdateStatesCallStub {
+    //     public static void batchCallV(int rows, UDAFSum obj, FunctionStates states, int[] ids,
+    //                                   Object[] var1, ...) throws Exception {
+    //         for (int i = 0; i < rows; ++i) {
+    //             if (ids[i] != -1) {
+    //                 obj.update((State) states.get(ids[i]), (Integer) var1[i], ...);
+    //             }
+    //         }
+    //     }
+    // }
+    private static class AggBatchStatesCallGenerator {
+        AggBatchStatesCallGenerator(String clazzName, Class<?> clazz, Method method) {
+            this.stubClazzName = clazzName;
+            this.udafClazz = clazz;
+            this.udafMethod = method;
+        }
+
+        private static final String STATES_CLAZZ_NAME = Type.getInternalName(FunctionStates.class);
+
+        private final String stubClazzName;
+        private final Class<?> udafClazz;
+        private final Method udafMethod;
+
+        private final ClassWriter writer = new ClassWriter(0);
+
+        private void declareCallStubClazz() {
+            writer.visit(V1_8, ACC_PUBLIC, stubClazzName, null, "java/lang/Object", null);
+        }
+
+        private void genBatchCallStates() {
+            final Class<?>[] parameterTypes = udafMethod.getParameterTypes();
+            if (parameterTypes.length == 0) {
+                throw new UnsupportedOperationException("Method without state:" + udafMethod.getName());
+            }
+            for (Class<?> type : parameterTypes) {
+                if (type.isPrimitive()) {
+                    throw new UnsupportedOperationException("Unsupported Primitive Type:" + type.getTypeName());
+                }
+            }
+            if (udafMethod.getReturnType() != void.class) {
+                throw new UnsupportedOperationException(
+                        "Unsupported return Type:" + udafMethod.getReturnType().getTypeName());
+            }
+
+            // the input arrays may be created by BE as Object[] (e.g. for const columns), so every element is
+            // casted to the parameter type.
+            StringBuilder desc = new StringBuilder("(");
+            desc.append("I");
+            desc.append(Type.getDescriptor(udafClazz));
+            desc.append("L").append(STATES_CLAZZ_NAME).append(";");
+            desc.append("[I");
+            for (int i = 1; i < parameterTypes.length; i++) {
+                desc.append("[Ljava/lang/Object;");
+            }
+            desc.append(")V");
+
+            final MethodVisitor batchCall =
+                    writer.visitMethod(ACC_PUBLIC + ACC_STATIC, "batchCallV", desc.toString(), null,
+                            new String[] {"java/lang/Exception"});
+            batchCall.visitCode();
+
+            // local var0: rows
+            // local var1: UDAF handle
+            // local var2: FunctionStates
+            // local var3: state ids
+            // local var4...: input columns
+            final int statesIndex = 2;
+            final int idsIndex = 3;
+            final int inputIndex = 4;
+            // int i;
+            final int iIndex = inputIndex + parameterTypes.length - 1;
+
+            batchCall.visitInsn(ICONST_0);
+            batchCall.visitVarInsn(ISTORE, iIndex);
+
+            final Label loop = new Label();
+            batchCall.visitLabel(loop);
+            batchCall.visitFrame(F_APPEND, 1, new Object[] {INTEGER}, 0, null);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitVarInsn(ILOAD, 0);
+            final Label end = new Label();
+            batchCall.visitJumpInsn(IF_ICMPGE, end);
+
+            // if (ids[i] == -1) continue;
+            final Label next = new Label();
+            batchCall.visitVarInsn(ALOAD, idsIndex);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitInsn(IALOAD);
+            batchCall.visitInsn(ICONST_M1);
+            batchCall.visitJumpInsn(IF_ICMPEQ, next);
+
+            // obj.method((State) states.get(ids[i]), (T1) var1[i], ...)
+            batchCall.visitVarInsn(ALOAD, 1);
+            batchCall.visitVarInsn(ALOAD, statesIndex);
+            batchCall.visitVarInsn(ALOAD, idsIndex);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitInsn(IALOAD);
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, STATES_CLAZZ_NAME, "get", "(I)Ljava/lang/Object;", false);
+            batchCall.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterTypes[0]));
+            for (int i = 1; i < parameterTypes.length; i++) {
+                batchCall.visitVarInsn(ALOAD, inputIndex + i - 1);
+                batchCall.visitVarInsn(ILOAD, iIndex);
+                batchCall.visitInsn(AALOAD);
+                batchCall.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterTypes[i]));
+            }
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(udafClazz), udafMethod.getName(),
+                    Type.getMethodDescriptor(udafMethod), false);
+
+            batchCall.visitLabel(next);
+            batchCall.visitFrame(F_SAME, 0, null, 0, null);
+            batchCall.visitIincInsn(iIndex, 1);
+            batchCall.visitJumpInsn(GOTO, loop);
+
+            batchCall.visitLabel(end);
+            batchCall.visitFrame(F_CHOP, 1, null, 0, null);
+            batchCall.visitInsn(RETURN);
+
+            // obj + state + loaded inputs + the element being loaded (array + index)
+            batchCall.visitMaxs(parameterTypes.length + 3, iIndex + 1);
+            batchCall.visitEnd();
+        }
+
+        private void finish() {
+            writer.visitEnd();
+        }
+
+        private byte[] getByteCode() {
+            return writer.toByteArray();
+        }
+    }
+
+    // clazzName is the internal name of the stub, a UDAF has several state stubs (update, merge) in the same
+    // class loader, so they can't share CLAZZ_NAME.
+    public static byte[] generateStatesCallStub(String clazzName, Class<?> clazz, Method method) {
+        final AggBatchStatesCallGenerator generator = new AggBatchStatesCallGenerator(clazzName, clazz, method);
+        generator.declareCallStubClazz();
+        generator.genBatchCallStates();
+        generator.finish();
+        return generator.getByteCode();
+    }
+
     //    public class CallStub {
     //        public static void batchCallV(int rows, UDF obj, TYPE[] var1, Integer[] var2) throws Exception {
     //            for(int var = 0; var < rows; ++var) {
@@ -298,4 +453,153 @@ public class CallStubGenerator {
         return generator.getByteCode();
     }
 
+    //    public class CallStub {
+    //        public static void batchCallV(int rows, UDF obj, long resultNulls, long resultData,
+    //                                      long data0, long data1) throws Exception {
+    //            for (int i = 0; i < rows; ++i) {
+    //                if (Platform.getByte(null, resultNulls + i) == 0) {
+    //                    Platform.putInt(null, resultData + ((long) i << 2),
+    //                            obj.evaluate(Platform.getInt(null, data0 + ((long) i << 2)),
+    //                                    Platform.getLong(null, data1 + ((long) i << 3))));
+    //                }
+    //            }
+    //        }
+    //    }
+    // For UDFs whose parameters and return value are all primitive types, see
+    // UDFClassAnalyzer#isPrimitiveMethod. The inputs are the addresses of the data of the input columns, and the
+    // results are written to the data of the result column directly, so no boxed array is created.
+    // The caller should fill the result null column before calling the stub, a row is skipped if it is null.
+    private static class PrimitiveBatchCallEvaluateGenerator {
+        PrimitiveBatchCallEvaluateGenerator(Class<?> clazz, Method evaluate) {
+            this.udfClazz = clazz;
+            this.udfEvaluate = evaluate;
+        }
+
+        private static final String PLATFORM_CLAZZ_NAME = "com/starrocks/utils/Platform";
+
+        private final ClassWriter writer = new ClassWriter(0);
+
+        private final Class<?> udfClazz;
+        private final Method udfEvaluate;
+
+        private void declareCallStubClazz() {
+            writer.visit(V1_8, ACC_PUBLIC, CLAZZ_NAME, null, "java/lang/Object", null);
+        }
+
+        // load the address of row i: base + ((long) i << shift)
+        private void loadRowAddress(MethodVisitor mv, int baseIndex, int iIndex, Class<?> type) {
+            mv.visitVarInsn(LLOAD, baseIndex);
+            mv.visitVarInsn(ILOAD, iIndex);
+            mv.visitInsn(I2L);
+            int shift = UDFClassAnalyzer.getPrimitiveSizeShift(type);
+            if (shift > 0) {
+                mv.visitInsn(ICONST_0 + shift);
+                mv.visitInsn(LSHL);
+            }
+            mv.visitInsn(LADD);
+        }
+
+        private static String platformAccessor(String prefix, Class<?> type) {
+            String name = type.getName();
+            return prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        private void genBatchEvaluate() {
+            if (!UDFClassAnalyzer.isPrimitiveMethod(udfEvaluate)) {
+                throw new UnsupportedOperationException(
+                        "Unsupported non-primitive method:" + udfEvaluate.toGenericString());
+            }
+            final Class<?>[] parameterTypes = udfEvaluate.getParameterTypes();
+            final Class<?> returnType = udfEvaluate.getReturnType();
+
+            StringBuilder desc = new StringBuilder("(");
+            desc.append("I");
+            desc.append(Type.getDescriptor(udfClazz));
+            // result nulls and result data
+            desc.append("JJ");
+            for (int i = 0; i < parameterTypes.length; i++) {
+                desc.append("J");
+            }
+            desc.append(")V");
+
+            final MethodVisitor batchCall =
+                    writer.visitMethod(ACC_PUBLIC + ACC_STATIC, "batchCallV", desc.toString(), null,
+                            new String[] {"java/lang/Exception"});
+            batchCall.visitCode();
+
+            // local var0: rows
+            // local var1: UDF handle
+            // local var2/var4: result nulls/result data address, long takes two slots
+            // local var6...: input data addresses
+            final int resultNullsIndex = 2;
+            final int resultDataIndex = 4;
+            final int inputIndex = 6;
+            // int i;
+            final int iIndex = inputIndex + 2 * parameterTypes.length;
+
+            batchCall.visitInsn(ICONST_0);
+            batchCall.visitVarInsn(ISTORE, iIndex);
+
+            final Label loop = new Label();
+            batchCall.visitLabel(loop);
+            batchCall.visitFrame(F_APPEND, 1, new Object[] {INTEGER}, 0, null);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitVarInsn(ILOAD, 0);
+            final Label end = new Label();
+            batchCall.visitJumpInsn(IF_ICMPGE, end);
+
+            // if (Platform.getByte(null, resultNulls + i) != 0) continue;
+            final Label next = new Label();
+            batchCall.visitInsn(ACONST_NULL);
+            loadRowAddress(batchCall, resultNullsIndex, iIndex, byte.class);
+            batchCall.visitMethodInsn(INVOKESTATIC, PLATFORM_CLAZZ_NAME, "getByte", "(Ljava/lang/Object;J)B", false);
+            batchCall.visitJumpInsn(IFNE, next);
+
+            // Platform.putX(null, resultData + (i << shift), obj.evaluate(Platform.getX(null, data + (i << shift))...))
+            batchCall.visitInsn(ACONST_NULL);
+            loadRowAddress(batchCall, resultDataIndex, iIndex, returnType);
+            batchCall.visitVarInsn(ALOAD, 1);
+            for (int i = 0; i < parameterTypes.length; i++) {
+                final Class<?> type = parameterTypes[i];
+                batchCall.visitInsn(ACONST_NULL);
+                loadRowAddress(batchCall, inputIndex + 2 * i, iIndex, type);
+                batchCall.visitMethodInsn(INVOKESTATIC, PLATFORM_CLAZZ_NAME, platformAccessor("get", type),
+                        "(Ljava/lang/Object;J)" + Type.getDescriptor(type), false);
+            }
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(udfClazz), udfEvaluate.getName(),
+                    Type.getMethodDescriptor(udfEvaluate), false);
+            batchCall.visitMethodInsn(INVOKESTATIC, PLATFORM_CLAZZ_NAME, platformAccessor("put", returnType),
+                    "(Ljava/lang/Object;J" + Type.getDescriptor(returnType) + ")V", false);
+
+            batchCall.visitLabel(next);
+            batchCall.visitFrame(F_SAME, 0, null, 0, null);
+            batchCall.visitIincInsn(iIndex, 1);
+            batchCall.visitJumpInsn(GOTO, loop);
+
+            batchCall.visitLabel(end);
+            batchCall.visitFrame(F_CHOP, 1, null, 0, null);
+            batchCall.visitInsn(RETURN);
+
+            // null + result address + obj + loaded parameters + the address being computed (null + long + long + int)
+            int maxStack = 4 + 2 * parameterTypes.length + 6;
+            batchCall.visitMaxs(maxStack, iIndex + 1);
+            batchCall.visitEnd();
+        }
+
+        private void finish() {
+            writer.visitEnd();
+        }
+
+        private byte[] getByteCode() {
+            return writer.toByteArray();
+        }
+    }
+
+    public static byte[] generateScalarPrimitiveCallStub(Class<?> clazz, Method method) {
+        final PrimitiveBatchCallEvaluateGenerator generator = new PrimitiveBatchCallEvaluateGenerator(clazz, method);
+        generator.declareCallStubClazz();
+        generator.genBatchEvaluate();
+        generator.finish();
+        return generator.getByteCode();
+    }
 }
@@ -79,6 +79,36 @@ public class UDFClassAnalyzer {
         throw new NoSuchMethodException("Not Found Method:" + methodName);
     }
     
+    /**
+     * Whether the parameters and the return value of a scalar UDF method are all primitive types that
+     * could be read from and written to the column data directly, e.g. `long evaluate(int a, double b)`.
+     */
+    public static boolean isPrimitiveMethod(Method method) {
+        if (method.getReturnType() == void.class || getPrimitiveSizeShift(method.getReturnType()) < 0) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (getPrimitiveSizeShift(type) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // log2 of the width of the primitive type in the column data, -1 if the type isn't supported
+    static int getPrimitiveSizeShift(Class<?> type) {
+        if (type == boolean.class || type == byte.class) {
+            return 0;
+        } else if (type == short.class) {
+            return 1;
+        } else if (type == int.class || type == float.class) {
+            return 2;
+        } else if (type == long.class || type == double.class) {
+            return 3;
+        }
+        return -1;
+    }
+
     public static Method getMethodObject(String methodName, Class clazz) {
         for (Method declaredMethod : clazz.getDeclaredMethods()) {
             if (declaredMethod.getName().equals(methodName)) {
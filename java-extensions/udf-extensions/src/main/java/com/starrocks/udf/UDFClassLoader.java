@@ -31,6 +31,8 @@ public class UDFClassLoader extends URLClassLoader {
     private Map<String, Class<?>> genClazzMap = new HashMap<>();
     private static final int SINGLE_BATCH_UPDATE = 1;
     private static final int BATCH_EVALUATE = 2;
+    private static final int BATCH_EVALUATE_PRIMITIVE = 3;
+    private static final int BATCH_UPDATE_STATES = 4;
 
     public UDFClassLoader(String udfPath) throws IOException {
         super(new URL[] {new URL("file://" + udfPath)});
@@ -63,6 +65,10 @@ public class UDFClassLoader extends URLClassLoader {
             bytes = CallStubGenerator.generateCallStubV(clazz, method);
         } else if (genType == BATCH_EVALUATE) {
             bytes = CallStubGenerator.generateScalarCallStub(clazz, method);
+        } else if (genType == BATCH_EVALUATE_PRIMITIVE) {
+            bytes = CallStubGenerator.generateScalarPrimitiveCallStub(clazz, method);
+        } else if (genType == BATCH_UPDATE_STATES) {
+            bytes = CallStubGenerator.generateStatesCallStub(clazzName.replace(".", "/"), clazz, method);
         } else {
             throw new UnsupportedOperationException("Unsupported generate stub type:" + genType);
         }
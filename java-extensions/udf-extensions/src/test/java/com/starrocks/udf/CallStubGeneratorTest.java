@@ -14,6 +14,7 @@
 
 package com.starrocks.udf;
 
+import com.starrocks.utils.Platform;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -121,6 +122,44 @@ public class CallStubGeneratorTest {
         Assert.assertEquals(expect, state.val);
     }
 
+    @Test
+    public void testAggStatesCallStub() throws Exception {
+        Class<?> clazz = IntSumfunc.class;
+        final String genClassName = "com.starrocks.udf.gen.UpdateStatesCallStub";
+        Method m = clazz.getMethod("update", IntSumfunc.State.class, Integer.class);
+
+        final byte[] updates =
+                CallStubGenerator.generateStatesCallStub(genClassName.replace(".", "/"), clazz, m);
+
+        ClassLoader classLoader = new TestClassLoader(genClassName, updates);
+        final Class<?> stubClazz = classLoader.loadClass(genClassName);
+        Method batchCall = getFirstMethod(stubClazz, "batchCallV");
+
+        FunctionStates<IntSumfunc.State> states = new FunctionStates<>();
+        int numStates = 3;
+        for (int i = 0; i < numStates; i++) {
+            states.add(new IntSumfunc.State());
+        }
+
+        int testSize = 1000;
+        int[] ids = new int[testSize];
+        // BE passes Object[] for const columns
+        Object[] inputs = new Object[testSize];
+        long[] expects = new long[numStates];
+        for (int i = 0; i < testSize; i++) {
+            inputs[i] = i;
+            ids[i] = i % 4 == 3 ? -1 : i % 4;
+            if (ids[i] != -1) {
+                expects[ids[i]] += i;
+            }
+        }
+
+        batchCall.invoke(null, testSize, new IntSumfunc(), states, ids, inputs);
+        for (int i = 0; i < numStates; i++) {
+            Assert.assertEquals(expects[i], states.get(i).val);
+        }
+    }
+
     public static class ScalarAdd {
         public String evaluate(String v1, Integer v2) {
             return v1 + v2;
@@ -156,4 +195,68 @@ public class CallStubGeneratorTest {
             Assert.assertEquals(expects[i], res[i]);
         }
     }
+
+    public static class PrimitiveScalarAdd {
+        public double evaluate(int v1, long v2, boolean v3) {
+            return v3 ? v1 + v2 : v1 - v2;
+        }
+    }
+
+    @Test
+    public void testScalarPrimitiveCallStub()
+            throws NoSuchMethodException, ClassNotFoundException, InvocationTargetException, IllegalAccessException {
+        Class<?> clazz = PrimitiveScalarAdd.class;
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        Method m = clazz.getMethod("evaluate", int.class, long.class, boolean.class);
+        Assert.assertTrue(UDFClassAnalyzer.isPrimitiveMethod(m));
+        Assert.assertFalse(UDFClassAnalyzer.isPrimitiveMethod(ScalarAdd.class.getMethod("evaluate",
+                String.class, Integer.class)));
+        final byte[] updates =
+                CallStubGenerator.generateScalarPrimitiveCallStub(clazz, m);
+
+        ClassLoader classLoader = new TestClassLoader(genClassName, updates);
+        final Class<?> stubClazz = classLoader.loadClass(genClassName);
+        Method batchCall = getFirstMethod(stubClazz, "batchCallV");
+
+        int testSize = 1000;
+        int[] inputs1 = new int[testSize];
+        long[] inputs2 = new long[testSize];
+        boolean[] inputs3 = new boolean[testSize];
+        byte[] resultNulls = new byte[testSize];
+        double[] results = new double[testSize];
+        for (int i = 0; i < testSize; i++) {
+            inputs1[i] = i;
+            inputs2[i] = i * 10L;
+            inputs3[i] = i % 2 == 0;
+            resultNulls[i] = (byte) (i % 3 == 0 ? 1 : 0);
+        }
+
+        // result nulls, result data and three input columns
+        System.setProperty("starrocks.fe.test", "1");
+        long[] addrs = new long[5];
+        for (int i = 0; i < addrs.length; i++) {
+            addrs[i] = Platform.allocateMemory((long) testSize * 8);
+        }
+        try {
+            Platform.copyMemory(resultNulls, Platform.BYTE_ARRAY_OFFSET, null, addrs[0], testSize);
+            Platform.copyMemory(inputs1, Platform.INT_ARRAY_OFFSET, null, addrs[2], testSize * 4L);
+            Platform.copyMemory(inputs2, Platform.LONG_ARRAY_OFFSET, null, addrs[3], testSize * 8L);
+            Platform.copyMemory(inputs3, Platform.BOOLEAN_ARRAY_OFFSET, null, addrs[4], testSize);
+
+            batchCall.invoke(null, testSize, new PrimitiveScalarAdd(), addrs[0], addrs[1], addrs[2], addrs[3],
+                    addrs[4]);
+
+            Platform.copyMemory(null, addrs[1], results, Platform.DOUBLE_ARRAY_OFFSET, testSize * 8L);
+            for (int i = 0; i < testSize; i++) {
+                if (resultNulls[i] == 0) {
+                    Assert.assertEquals(inputs3[i] ? i + i * 10L : i - i * 10L, results[i], 0);
+                }
+            }
+        } finally {
+            for (long addr : addrs) {
+                Platform.freeMemory(addr);
+            }
+            System.setProperty("starrocks.fe.test", "0");
+        }
+    }
 }